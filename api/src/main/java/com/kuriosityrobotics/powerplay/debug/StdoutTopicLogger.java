@@ -5,6 +5,10 @@ import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
 
+/**
+ * Prints the logs of other robots.  The orchestrator already prints this robot's own log entries as
+ * it writes them, so they're skipped here rather than printed twice.
+ */
 public class StdoutTopicLogger extends Node {
 	private static final boolean DEBUG = true, INFO = true, WARN = true, ERROR = true;
 
@@ -24,6 +28,8 @@ public class StdoutTopicLogger extends Node {
 
 	@SubscribedTo(topic = "log/.*", isPattern = true)
 	public void handle(String message, String topicName, RobotDetails originatingRobot) {
+		if (originatingRobot.equals(orchestrator.robotDetails())) return;
+
 		if ("log/debug".equals(topicName)) {
 			if (DEBUG) System.out.printf("%10s:  %s%n", "DEBUG", message);
 		} else if ("log/info".equals(topicName)) {
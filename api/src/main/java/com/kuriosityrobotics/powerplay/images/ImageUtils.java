@@ -34,6 +34,7 @@ public class ImageUtils {
 	 * @return the {@link BufferedImage} representation of the {@link Mat}
 	 */
 	public static BufferedImage matToBufferedImage(Mat m) throws IOException {
+		OpenCVLoader.ensureLoaded();
 		var mob = new MatOfByte();
 		Imgcodecs.imencode(".jpg", m, mob, new MatOfInt(Imgcodecs.IMWRITE_JPEG_QUALITY, 40));
 		var bytes = mob.toArray();
@@ -0,0 +1,36 @@
+package com.kuriosityrobotics.powerplay.images;
+
+import nu.pattern.OpenCV;
+
+/**
+ * Loads the OpenCV native library the first time something needs it, rather than whenever an
+ * orchestrator is created, since most opmodes never touch an image.
+ */
+public final class OpenCVLoader {
+	private OpenCVLoader() {}
+
+	private static final class Holder {
+		static final boolean LOADED = load();
+
+		private static boolean load() {
+			try {
+				OpenCV.loadShared();
+				return true;
+			} catch (Throwable e) {
+				// on the robot, the SDK loads OpenCV itself
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Loads OpenCV if it hasn't been loaded already.  Must be called before any
+	 * <code>org.opencv</code> class is used.
+	 *
+	 * @return whether the bundled library was loaded; if it wasn't, OpenCV only works if something
+	 * else loaded it
+	 */
+	public static boolean ensureLoaded() {
+		return Holder.LOADED;
+	}
+}
@@ -6,22 +6,44 @@ import com.google.common.base.Throwables;
 import com.kuriosityrobotics.powerplay.hardware.HardwareException;
 
 import org.jetbrains.annotations.NotNull;
-import org.ojalgo.machine.Hardware;
 
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
-public class ActionExecutor extends ThreadPoolExecutor {
-	public ActionExecutor(ThreadFactory threadFactory) {
-		super(
-			0,
-			Integer.MAX_VALUE,
-			60L,
-			TimeUnit.SECONDS,
-			new SynchronousQueue<>(),
-			threadFactory
-		);
+/**
+ * Runs actions, and interrupts every action in a hierarchy (the action that started it, the ones it
+ * started, and so on) when one of them fails.
+ *
+ * <p>Actions run on one of two {@link Backend}s.  The {@link Backend#POOL} is a work-stealing pool
+ * with a fixed number of threads, which starts a temporary extra thread only while one of its
+ * actions is blocked in {@link java.util.concurrent.CompletableFuture#get()}, {@link #sleep(long)}
+ * or {@link #awaitCondition(BooleanSupplier, long, long)}; an action that blocks any other way holds its
+ * thread.  Where the JDK has virtual threads, {@link Backend#VIRTUAL_THREADS} runs each action on
+ * its own virtual thread instead, so blocking costs next to nothing.
+ */
+public class ActionExecutor implements Executor {
+	public static final int DEFAULT_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+	public enum Backend {
+		POOL,
+		VIRTUAL_THREADS;
+
+		/**
+		 * @return {@link #VIRTUAL_THREADS} if this JDK has them, {@link #POOL} otherwise
+		 */
+		public static Backend preferred() {
+			return VirtualThreads.AVAILABLE ? VIRTUAL_THREADS : POOL;
+		}
 	}
 
 	static class ActionRunner {
@@ -30,6 +52,10 @@ public class ActionExecutor extends ThreadPoolExecutor {
 		private final Set<ActionRunner> children;
 
 		private final ReentrantLock lock = new ReentrantLock();
+		/**
+		 * Set once the action has returned, after which its thread may be running something else
+		 */
+		private boolean finished;
 
 		ActionRunner(ActionRunner parent, Thread thread) {
 			this.parent = parent;
@@ -56,10 +82,8 @@ public class ActionExecutor extends ThreadPoolExecutor {
 		void interrupt() {
 			if (lock.tryLock()) {
 				try {
-					thread.interrupt();
+					if (!finished) thread.interrupt();
 					for (ActionRunner child : children) {
-						System.out.println("interrupting child");
-						new RuntimeException("interrupting").printStackTrace();
 						child.interrupt();
 					}
 					children.clear();
@@ -69,11 +93,24 @@ public class ActionExecutor extends ThreadPoolExecutor {
 			}
 		}
 
+		/**
+		 * Called on the action's thread once it has returned
+		 */
 		void complete() {
+			lock.lock();
+			try {
+				finished = true;
+				detach();
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		private void detach() {
 			if (lock.tryLock()) {
 				try {
 					for (ActionRunner child : children) {
-						child.complete();
+						child.detach();
 					}
 					children.clear();
 					if (parent != null) {
@@ -88,6 +125,36 @@ public class ActionExecutor extends ThreadPoolExecutor {
 	}
 
 	private final ThreadLocal<ActionRunner> runner = new ThreadLocal<>();
+	private final Backend backend;
+	private final ExecutorService runtime;
+
+	/**
+	 * @param parallelism how many threads the {@link Backend#POOL} keeps running actions, not counting
+	 *                    the ones it adds while actions are blocked
+	 * @param handler     handles the exceptions that actions throw, other than interruptions and
+	 *                    {@link HardwareException}s
+	 * @throws UnsupportedOperationException if virtual threads were asked for, but this JDK doesn't
+	 *                                       have them
+	 */
+	public ActionExecutor(Backend backend, int parallelism, Thread.UncaughtExceptionHandler handler) {
+		this.backend = backend;
+		if (backend == Backend.VIRTUAL_THREADS) {
+			if (!VirtualThreads.AVAILABLE)
+				throw new UnsupportedOperationException("This JDK doesn't have virtual threads");
+			this.runtime = VirtualThreads.executor(handler);
+		} else {
+			var threadNumber = new AtomicInteger();
+			this.runtime = new ForkJoinPool(parallelism, pool -> {
+				var thread = new ForkJoinWorkerThread(pool) {};
+				thread.setName("action-" + threadNumber.incrementAndGet());
+				return thread;
+			}, handler, true);
+		}
+	}
+
+	public Backend backend() {
+		return backend;
+	}
 
 	@Override
 	public void execute(@NotNull Runnable command) {
@@ -118,9 +185,128 @@ public class ActionExecutor extends ThreadPoolExecutor {
 			} finally {
 				runner.get().complete();
 				runner.remove();
+				// the thread goes back to the pool, so an interruption meant for this action mustn't
+				// reach the next one
+				Thread.interrupted();
 			}
 		};
 
-		super.execute(wrappedCommand);
+		runtime.execute(wrappedCommand);
+	}
+
+	/**
+	 * Stops taking new actions, and interrupts the ones that are running
+	 */
+	void shutdownNow() {
+		runtime.shutdownNow();
+	}
+
+	/**
+	 * Like {@link Thread#sleep(long)}, but if it's called from an action on the {@link Backend#POOL},
+	 * the pool can run another action while this one sleeps.
+	 */
+	public static void sleep(long millis) throws InterruptedException {
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+			private boolean slept;
+
+			@Override
+			public boolean block() throws InterruptedException {
+				Thread.sleep(millis);
+				slept = true;
+				return true;
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return slept || millis <= 0;
+			}
+		});
+	}
+
+	/**
+	 * Parks the calling thread until the given condition holds.  Whatever makes the condition true can
+	 * {@link LockSupport#unpark(Thread)} the thread to wake it straight away; otherwise, the
+	 * condition is checked after <code>minPollNanos</code>, then half as often each time it still
+	 * doesn't hold, down to once every <code>maxPollNanos</code>, so that a long wait costs next to
+	 * nothing.  On the {@link Backend#POOL}, the pool can run another action in the meantime.
+	 */
+	public static void awaitCondition(BooleanSupplier condition, long minPollNanos, long maxPollNanos) throws InterruptedException {
+		if (minPollNanos <= 0 || maxPollNanos < minPollNanos)
+			throw new IllegalArgumentException("Poll intervals must be positive and in order, not " + minPollNanos + " and " + maxPollNanos);
+		await(condition, minPollNanos, maxPollNanos);
+	}
+
+	/**
+	 * Parks the calling thread until the given condition holds, only checking it when the thread is
+	 * unparked.  Whatever makes the condition true has to {@link LockSupport#unpark(Thread)} the
+	 * thread afterwards, and must be able to find it before the condition is first checked.
+	 */
+	public static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+		await(condition, 0, 0);
+	}
+
+	/**
+	 * @param minPollNanos the first interval to check the condition after, or 0 to only check it when
+	 *                     unparked
+	 */
+	private static void await(BooleanSupplier condition, long minPollNanos, long maxPollNanos) throws InterruptedException {
+		ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+			private long pollNanos = minPollNanos;
+
+			@Override
+			public boolean block() throws InterruptedException {
+				if (!condition.getAsBoolean()) {
+					if (pollNanos == 0) {
+						LockSupport.park(this);
+					} else {
+						LockSupport.parkNanos(this, pollNanos);
+						pollNanos = Math.min(pollNanos * 2, maxPollNanos);
+					}
+				}
+				if (Thread.interrupted()) throw new InterruptedException();
+				return condition.getAsBoolean();
+			}
+
+			@Override
+			public boolean isReleasable() {
+				return condition.getAsBoolean();
+			}
+		});
+	}
+
+	/**
+	 * Virtual threads are only in JDK 21 and later, so they're reached through reflection
+	 */
+	private static final class VirtualThreads {
+		static final boolean AVAILABLE = isAvailable();
+
+		private static boolean isAvailable() {
+			try {
+				factory(Thread.getDefaultUncaughtExceptionHandler()).newThread(() -> {});
+				return true;
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+				// too old, or a preview that hasn't been enabled
+				return false;
+			}
+		}
+
+		private static ThreadFactory factory(Thread.UncaughtExceptionHandler handler) throws ReflectiveOperationException {
+			var builderClass = Class.forName("java.lang.Thread$Builder");
+			var builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, "action-", 1L);
+			if (handler != null)
+				builder = builderClass.getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class).invoke(builder, handler);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		}
+
+		static ExecutorService executor(Thread.UncaughtExceptionHandler handler) {
+			try {
+				return (ExecutorService) Executors.class
+					.getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+					.invoke(null, factory(handler));
+			} catch (ReflectiveOperationException e) {
+				throw new UnsupportedOperationException(e);
+			}
+		}
 	}
 }
@@ -1,7 +1,5 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
-import java.util.Map;
-
 class AnyRobotLastValue<T> extends LastValue<T> {
 	private final Topic<T> topic;
 
@@ -11,14 +9,8 @@ class AnyRobotLastValue<T> extends LastValue<T> {
 
 	@Override
 	public T getValue() {
-		return mostRecentlyPublished();
-	}
-
-	private T mostRecentlyPublished() {
-		return topic.lastValueTimes().entrySet().stream()
-				.max(Map.Entry.comparingByValue())
-				.map(Map.Entry::getKey)
-				.map(topic.lastValues()::get)
-				.orElse(defaultValue);
+		var result = topic.newestValue();
+		if (result == null) return defaultValue;
+		return result;
 	}
 }
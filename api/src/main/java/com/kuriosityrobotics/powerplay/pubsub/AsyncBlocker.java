@@ -1,9 +1,29 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
+import java.util.concurrent.TimeUnit;
+
 public interface AsyncBlocker extends Runnable {
+	/**
+	 * How soon {@link #isDone()} is first checked again
+	 */
+	long MIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+	/**
+	 * How often {@link #isDone()} is checked once the blocker has been waiting a while
+	 */
+	long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+	/**
+	 * Parks until {@link #isDone()}, or until the thread is interrupted.  The check backs off from
+	 * {@link #MIN_POLL_NANOS} to {@link #MAX_POLL_NANOS}; whatever makes the blocker done can unpark
+	 * the waiting thread to wake it straight away.
+	 */
 	@Override
 	default void run() {
-		while (!isDone()) Thread.yield();
+		try {
+			ActionExecutor.awaitCondition(this::isDone, MIN_POLL_NANOS, MAX_POLL_NANOS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 
 	boolean isDone();
@@ -0,0 +1,188 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.metrics.LoggerStats;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Takes log entries off the threads that log them.  Logging claims a slot in a fixed-size ring with
+ * a compare-and-set and stores the entry in it; a writer thread drains the ring every {@link
+ * #DRAIN_INTERVAL_NANOS} (or straight away for warnings and errors), formats each entry and hands
+ * it to the sink, then publishes it to its level's topic.  When the ring is full, new entries are
+ * dropped and counted rather than waited for.
+ *
+ * <p>At most {@link #PUBLISH_RATE} entries a second are published to each level's topic, so a node
+ * that logs in a loop can't flood the network; the rest still reach the sink, and how many were
+ * suppressed is reported with the next one that is published.
+ */
+final class AsyncLogger {
+	static final int DEFAULT_CAPACITY = 4096;
+	static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	static final int PUBLISH_RATE = 20;
+
+	private final AtomicReferenceArray<LogEntry> slots;
+	private final int mask;
+	/**
+	 * The sequence number of the next slot to be claimed by a logging thread
+	 */
+	private final AtomicLong tail = new AtomicLong();
+	/**
+	 * The sequence number of the next slot to be drained by the writer
+	 */
+	private final AtomicLong head = new AtomicLong();
+
+	private final Consumer<LogEntry> sink;
+	private final BiConsumer<LogLevel, String> publisher;
+	private final Thread writer;
+	private volatile boolean closed;
+
+	// only touched by the writer
+	private final long[] publishWindowStart = new long[LogLevel.values().length];
+	private final int[] publishedInWindow = new int[LogLevel.values().length];
+	private final int[] suppressedSincePublish = new int[LogLevel.values().length];
+
+	private final LongAdder logged = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder published = new LongAdder();
+	private final LongAdder suppressed = new LongAdder();
+
+	/**
+	 * @param capacity  how many entries can wait for the writer, rounded up to a power of two
+	 * @param sink      where every entry is written, on the writer thread
+	 * @param publisher publishes the text of an entry to the topic of its level
+	 */
+	AsyncLogger(int capacity, ThreadFactory threadFactory, Consumer<LogEntry> sink, BiConsumer<LogLevel, String> publisher) {
+		if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive, not " + capacity);
+
+		var size = Integer.highestOneBit(capacity);
+		if (size < capacity) size <<= 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.sink = sink;
+		this.publisher = publisher;
+
+		this.writer = threadFactory.newThread(this::writeLoop);
+		writer.setName("log-writer");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	void log(LogEntry entry) {
+		if (closed) {
+			// nothing is draining the ring any more
+			write(entry, false);
+			return;
+		}
+
+		while (true) {
+			var sequence = tail.get();
+			if (sequence - head.get() >= slots.length()) {
+				dropped.increment();
+				return;
+			}
+			if (tail.compareAndSet(sequence, sequence + 1)) {
+				slots.set((int) sequence & mask, entry);
+				break;
+			}
+		}
+
+		logged.increment();
+		if (entry.level().isAtLeast(LogLevel.WARN)) LockSupport.unpark(writer);
+	}
+
+	private void writeLoop() {
+		while (true) {
+			var closing = closed;
+			drain(!closing);
+			if (closing) return;
+
+			LockSupport.parkNanos(this, DRAIN_INTERVAL_NANOS);
+		}
+	}
+
+	private void drain(boolean publish) {
+		var sequence = head.get();
+		while (sequence < tail.get()) {
+			var index = (int) sequence & mask;
+			var entry = slots.get(index);
+			if (entry == null) {
+				// claimed, but the logging thread hasn't stored it yet
+				Thread.yield();
+				continue;
+			}
+
+			slots.set(index, null);
+			head.set(++sequence);
+			write(entry, publish);
+		}
+	}
+
+	private void write(LogEntry entry, boolean publish) {
+		try {
+			sink.accept(entry);
+			if (publish) publish(entry);
+		} catch (RuntimeException e) {
+			// the writer has to outlive a broken sink
+			e.printStackTrace();
+		}
+	}
+
+	private void publish(LogEntry entry) {
+		var level = entry.level().ordinal();
+		var now = System.nanoTime();
+		if (now - publishWindowStart[level] >= TimeUnit.SECONDS.toNanos(1)) {
+			publishWindowStart[level] = now;
+			publishedInWindow[level] = 0;
+		}
+
+		if (publishedInWindow[level] == PUBLISH_RATE) {
+			suppressedSincePublish[level]++;
+			suppressed.increment();
+			return;
+		}
+		publishedInWindow[level]++;
+
+		var text = entry.source() == null ? entry.text() : "[" + entry.source() + "] " + entry.text();
+		if (suppressedSincePublish[level] > 0) {
+			text = "(" + suppressedSincePublish[level] + " messages suppressed) " + text;
+			suppressedSincePublish[level] = 0;
+		}
+		publisher.accept(entry.level(), text);
+		published.increment();
+	}
+
+	/**
+	 * @return what has been logged since the previous sample
+	 */
+	LoggerStats sampleStats() {
+		return new LoggerStats(
+			logged.sumThenReset(),
+			dropped.sumThenReset(),
+			published.sumThenReset(),
+			suppressed.sumThenReset());
+	}
+
+	/**
+	 * Writes out whatever is left in the ring, and stops the writer.  Anything logged afterwards is
+	 * written straight to the sink, on the thread that logged it.
+	 */
+	void close() {
+		closed = true;
+		LockSupport.unpark(writer);
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		// whatever the writer didn't get to
+		if (!writer.isAlive()) drain(false);
+	}
+}
@@ -0,0 +1,55 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Every message in a {@link DispatchBatch}, by topic name, published as one message to the batch's
+ * topic so that a subscriber that needs several of them gets them in a single callback.
+ */
+public final class Batch implements Serializable {
+	private final Map<String, Object> messages;
+
+	Batch(Map<String, Object> messages) {
+		this.messages = Collections.unmodifiableMap(messages);
+	}
+
+	/**
+	 * @return the messages in the batch, by topic name, in the order they were added
+	 */
+	public Map<String, Object> messages() {
+		return messages;
+	}
+
+	public Set<String> topics() {
+		return messages.keySet();
+	}
+
+	public boolean contains(String topicName) {
+		return messages.containsKey(topicName);
+	}
+
+	/**
+	 * @return the message for the given topic, or <code>null</code> if the batch doesn't have one
+	 */
+	public <T> T get(String topicName, Class<T> messageType) {
+		return messageType.cast(messages.get(topicName));
+	}
+
+	public double getDouble(String topicName, double defaultValue) {
+		var message = messages.get(topicName);
+		return message == null ? defaultValue : ((Number) message).doubleValue();
+	}
+
+	public boolean getBoolean(String topicName, boolean defaultValue) {
+		var message = messages.get(topicName);
+		return message == null ? defaultValue : (Boolean) message;
+	}
+
+	@Override
+	public String toString() {
+		return "Batch" + messages;
+	}
+}
@@ -0,0 +1,58 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.util.BooleanConsumer;
+
+
+/**
+ * A {@link PrimitiveTopic} of <code>boolean</code>s, such as digital inputs.
+ */
+public final class BooleanTopic extends PrimitiveTopic<Boolean> {
+	BooleanTopic(OrchestratorImpl orchestrator, Topic<Boolean> topic) {
+		super(orchestrator, topic);
+	}
+
+	/**
+	 * Publishes a value to the topic without boxing it.
+	 */
+	public void dispatchBoolean(boolean value) {
+		dispatchBits(value ? 1 : 0);
+	}
+
+	/**
+	 * Subscribes to the topic without boxing.  The subscriber only sees the newest value if it falls
+	 * behind; see {@link PrimitiveSubscription}.
+	 */
+	public Subscription<Boolean> subscribe(BooleanConsumer callback) {
+		var subscription = new PrimitiveSubscription<Boolean>(orchestrator, (value, topicName, robot) -> callback.accept(value)) {
+			@Override
+			void acceptBits(long bits) {
+				callback.accept(bits != 0);
+			}
+		};
+		topic.addSubscription(subscription);
+		return subscription;
+	}
+
+	/**
+	 * @return the last value published to the topic by this robot, or <code>defaultValue</code> if
+	 * there hasn't been one
+	 */
+	public boolean lastBoolean(boolean defaultValue) {
+		return hasLastValue() ? lastBits() != 0 : defaultValue;
+	}
+
+	@Override
+	Boolean box(long bits) {
+		return bits != 0;
+	}
+
+	@Override
+	long unbox(Object value) {
+		return (Boolean) value ? 1 : 0;
+	}
+
+	@Override
+	void setField(LastValueBinding binding, long bits) throws IllegalAccessException {
+		binding.setBoolean(bits != 0);
+	}
+}
@@ -0,0 +1,367 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.CallbackQueueStats;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The callback executor for one {@link TopicPriority}.  Each lane has its own bounded queue and its
+ * own workers, and keeps track of how long tasks wait in the queue before they start.
+ *
+ * <p>When the queue is full, what happens to a new task depends on the {@link OverflowPolicy} it was
+ * submitted with, through {@link #executor(OverflowPolicy)}; tasks submitted through {@link
+ * #execute(Runnable)} block.  Under contention, the queue can go over its capacity by up to the
+ * number of threads publishing at once.
+ *
+ * <p>A task that is dropped is never run.  If something is waiting for it to run, such as a future
+ * or a conflating subscription with a delivery queued, the task can implement {@link Droppable} to
+ * be told.
+ *
+ * <p>Tasks are queued as they are, so that dispatching doesn't allocate a wrapper per callback,
+ * unless they have to carry their overflow policy while they wait ({@link
+ * OverflowPolicy#DROP_OLDEST}) or how long they wait is being measured (see {@link
+ * #setWaitsTimed}).
+ */
+final class CallbackLane extends ThreadPoolExecutor {
+	static final int DEFAULT_CAPACITY = 1024;
+	/**
+	 * How long a blocked publisher waits before checking whether the lane has been shut down
+	 */
+	private static final long BLOCK_CHECK_MILLIS = 50;
+	/**
+	 * The lane the current thread is a worker of, if it is one
+	 */
+	private static final ThreadLocal<CallbackLane> WORKER_LANE = new ThreadLocal<>();
+	/**
+	 * The overflow policy of the task the current thread is submitting, for when it isn't wrapped in
+	 * a {@link QueuedTask}; only read while the task is being submitted
+	 */
+	private static final ThreadLocal<OverflowPolicy> SUBMITTING_POLICY = new ThreadLocal<>();
+
+	private final TopicPriority priority;
+	private final TaskQueue queue;
+	/**
+	 * One executor per {@link OverflowPolicy}, indexed by ordinal, so that dispatching doesn't need
+	 * to allocate one
+	 */
+	private final Executor[] policyExecutors;
+
+	/**
+	 * Notified when a worker takes a task off the queue while a publisher is blocked
+	 */
+	private final Object space = new Object();
+	private final AtomicInteger waitingForSpace = new AtomicInteger();
+
+	/**
+	 * Whether tasks are stamped with the time they were queued
+	 */
+	private volatile boolean waitsTimed;
+
+	private final LongAdder tasks = new LongAdder();
+	private final LongAdder timedTasks = new LongAdder();
+	private final LongAdder totalWaitNanos = new LongAdder();
+	private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0);
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder blocked = new LongAdder();
+	private final LongAdder blockedNanos = new LongAdder();
+	private final LongAdder callerRan = new LongAdder();
+
+	CallbackLane(TopicPriority priority, int threads, int capacity, ThreadFactory threadFactory) {
+		this(priority, threads, new TaskQueue(capacity), threadFactory);
+	}
+
+	private CallbackLane(TopicPriority priority, int threads, TaskQueue queue, ThreadFactory threadFactory) {
+		super(
+			threads,
+			threads,
+			60L,
+			TimeUnit.SECONDS,
+			queue,
+			threadFactory);
+		this.priority = priority;
+		this.queue = queue;
+		setRejectedExecutionHandler((runnable, executor) -> overflow(runnable));
+
+		var policies = OverflowPolicy.values();
+		this.policyExecutors = new Executor[policies.length];
+		for (var policy : policies)
+			policyExecutors[policy.ordinal()] = command -> execute(command, policy);
+	}
+
+	TopicPriority priority() {
+		return priority;
+	}
+
+	int capacity() {
+		return queue.capacity;
+	}
+
+	/**
+	 * Changes the number of tasks the queue can hold.  Tasks already queued past a smaller capacity
+	 * are still run.
+	 */
+	void setCapacity(int capacity) {
+		if (capacity < 1) throw new IllegalArgumentException("Capacity must be positive, not " + capacity);
+		queue.capacity = capacity;
+		// publishers blocked on the old capacity may now have room
+		wakeBlockedPublishers();
+	}
+
+	/**
+	 * Starts or stops measuring how long tasks wait in the queue, which costs a wrapper per task.
+	 * Tasks are counted either way.
+	 */
+	void setWaitsTimed(boolean waitsTimed) {
+		this.waitsTimed = waitsTimed;
+	}
+
+	/**
+	 * @return an executor that submits tasks to this lane with the given overflow policy
+	 */
+	Executor executor(OverflowPolicy policy) {
+		return policyExecutors[policy.ordinal()];
+	}
+
+	@Override
+	public void execute(@NotNull Runnable command) {
+		execute(command, OverflowPolicy.BLOCK);
+	}
+
+	void execute(Runnable command, OverflowPolicy policy) {
+		if (waitsTimed) {
+			super.execute(new QueuedTask(command, policy, System.nanoTime()));
+		} else if (policy == OverflowPolicy.DROP_OLDEST) {
+			super.execute(new QueuedTask(command, policy, QueuedTask.UNTIMED));
+		} else {
+			// if the queue is full, overflow is called on this thread before this returns
+			SUBMITTING_POLICY.set(policy);
+			super.execute(command);
+		}
+	}
+
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		WORKER_LANE.set(this);
+		wakeBlockedPublishers();
+
+		tasks.increment();
+		if (r instanceof QueuedTask && ((QueuedTask) r).enqueuedAt != QueuedTask.UNTIMED) {
+			var waited = System.nanoTime() - ((QueuedTask) r).enqueuedAt;
+			timedTasks.increment();
+			totalWaitNanos.add(waited);
+			maxWaitNanos.accumulate(waited);
+		}
+	}
+
+	private void wakeBlockedPublishers() {
+		if (waitingForSpace.get() == 0) return;
+
+		synchronized (space) {
+			space.notifyAll();
+		}
+	}
+
+	/**
+	 * Called when the queue is full, or the lane has been shut down
+	 */
+	private void overflow(Runnable runnable) {
+		if (isShutdown()) {
+			// nothing is left to run it
+			runnable.run();
+			return;
+		}
+
+		var queued = runnable instanceof QueuedTask ? (QueuedTask) runnable : null;
+		var task = queued == null ? runnable : queued.task;
+		var policy = queued == null ? SUBMITTING_POLICY.get() : queued.policy;
+		switch (policy) {
+			case BLOCK:
+				block(runnable, task);
+				break;
+			case DROP_OLDEST:
+				if (dropOldest()) queue.force(runnable);
+				else drop(task);
+				break;
+			case DROP_NEWEST:
+				drop(task);
+				break;
+			case CALLER_RUNS:
+				callerRan.increment();
+				task.run();
+				break;
+		}
+	}
+
+	/**
+	 * Waits for room in the queue
+	 *
+	 * @param queued what to put in the queue
+	 * @param task   the task itself, which is run on this thread if it can't wait
+	 */
+	private void block(Runnable queued, Runnable task) {
+		if (WORKER_LANE.get() == this) {
+			// a callback publishing into its own lane; if every worker did this, nothing would ever
+			// make room
+			callerRan.increment();
+			task.run();
+			return;
+		}
+
+		blocked.increment();
+		var start = System.nanoTime();
+		waitingForSpace.incrementAndGet();
+		try {
+			synchronized (space) {
+				// a worker only notifies while holding the monitor, so it can't slip in between the
+				// offer and the wait
+				while (!queue.offer(queued)) {
+					if (isShutdown()) {
+						task.run();
+						return;
+					}
+					space.wait(BLOCK_CHECK_MILLIS);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			callerRan.increment();
+			task.run();
+		} finally {
+			waitingForSpace.decrementAndGet();
+			blockedNanos.add(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Drops the oldest queued task that was submitted with {@link OverflowPolicy#DROP_OLDEST}
+	 *
+	 * @return whether there was one
+	 */
+	private boolean dropOldest() {
+		for (var queued : queue) {
+			if (queued instanceof QueuedTask
+				&& ((QueuedTask) queued).policy == OverflowPolicy.DROP_OLDEST
+				// a worker may have taken it in the meantime
+				&& queue.remove(queued)) {
+				drop(((QueuedTask) queued).task);
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private void drop(Runnable task) {
+		dropped.increment();
+		// whoever is waiting for it to finish shouldn't wait forever
+		if (task instanceof Future) ((Future<?>) task).cancel(false);
+		if (task instanceof Droppable) ((Droppable) task).dropped();
+	}
+
+	/**
+	 * Submits a task and returns a future that completes once it has run.  If the lane drops the
+	 * task, the future is cancelled, and a {@link Droppable} task is told.
+	 */
+	static ListenableFuture<?> submit(Runnable task, Executor executor) {
+		var future = Futures.submit(task, executor);
+		if (task instanceof Droppable)
+			future.addListener(() -> {
+				if (future.isCancelled()) ((Droppable) task).dropped();
+			}, MoreExecutors.directExecutor());
+		return future;
+	}
+
+	/**
+	 * @return the queue statistics since the last call to this method
+	 */
+	CallbackQueueStats sampleStats() {
+		var count = tasks.sumThenReset();
+		var timed = timedTasks.sumThenReset();
+		var total = totalWaitNanos.sumThenReset();
+		var max = maxWaitNanos.getThenReset();
+
+		return new CallbackQueueStats(
+			priority.name().toLowerCase(),
+			count,
+			timed == 0 ? 0 : total / timed,
+			max,
+			queue.size(),
+			queue.capacity,
+			dropped.sumThenReset(),
+			blocked.sumThenReset(),
+			blockedNanos.sumThenReset(),
+			callerRan.sumThenReset());
+	}
+
+	/**
+	 * A queue that refuses new tasks once it holds {@link #capacity} of them, so that the lane hands
+	 * them to {@link #overflow}.  It's unbounded underneath so that the capacity can be changed.
+	 */
+	private static final class TaskQueue extends LinkedBlockingQueue<Runnable> {
+		private volatile int capacity;
+
+		TaskQueue(int capacity) {
+			this.capacity = capacity;
+		}
+
+		@Override
+		public boolean offer(@NotNull Runnable runnable) {
+			return size() < capacity && super.offer(runnable);
+		}
+
+		/**
+		 * Adds a task regardless of the capacity
+		 */
+		void force(Runnable runnable) {
+			super.offer(runnable);
+		}
+	}
+
+	/**
+	 * A task that needs to know if a lane drops it rather than running it
+	 */
+	interface Droppable extends Runnable {
+		/**
+		 * Called instead of {@link #run()} when the task is dropped
+		 */
+		void dropped();
+	}
+
+	/**
+	 * A task with what the lane needs to know about it while it's queued
+	 */
+	private static final class QueuedTask implements Runnable {
+		/**
+		 * The {@link #enqueuedAt} of a task whose wait isn't being measured
+		 */
+		static final long UNTIMED = Long.MIN_VALUE;
+
+		private final Runnable task;
+		private final OverflowPolicy policy;
+		private final long enqueuedAt;
+
+		QueuedTask(Runnable task, OverflowPolicy policy, long enqueuedAt) {
+			this.task = task;
+			this.policy = policy;
+			this.enqueuedAt = enqueuedAt;
+		}
+
+		@Override
+		public void run() {
+			task.run();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A set of messages to several topics that are dispatched together, created with {@link
+ * Orchestrator#batch()}.
+ *
+ * <p>When the batch is dispatched, every message in it is stored as its topic's last value and in
+ * the fields bound to the topic before any callback is queued, so a callback for any message in the
+ * batch sees the whole batch, rather than a mix of this batch and the last one.  A subscription to
+ * more than one topic in the batch gets all of its messages in a single task, one after another.
+ * If the batch was created with a topic, the whole batch is also published there as one {@link
+ * Batch} message, for subscribers that want a single callback.  Since that boxes every message in
+ * the batch, it's only done while something is subscribed to the batch topic.
+ *
+ * <p>That only holds for the batch's own callbacks.  The messages are still stored one topic at a
+ * time, so anything else reading last values or bound fields while the batch is dispatched, such as
+ * a {@link com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically} method, can see some
+ * of the batch and some of the last one.  Code that needs a consistent set should subscribe to the
+ * batch topic instead.
+ *
+ * <p>Primitive messages added through a {@link PrimitiveTopic} are only boxed if something needs
+ * them boxed, as when they are dispatched on their own.
+ *
+ * <p>A batch is not thread safe, and can only be dispatched once.
+ */
+public final class DispatchBatch {
+	private final OrchestratorImpl orchestrator;
+	/**
+	 * If not null, the topic the whole batch is published to
+	 */
+	private final Topic<Batch> batchTopic;
+	private final List<Entry<?>> entries = new ArrayList<>();
+	private boolean dispatched;
+
+	DispatchBatch(OrchestratorImpl orchestrator, Topic<Batch> batchTopic) {
+		this.orchestrator = orchestrator;
+		this.batchTopic = batchTopic;
+	}
+
+	public DispatchBatch put(String topicName, Object message) {
+		Objects.requireNonNull(message, "Message cannot be null");
+		return put(topicName, message.getClass(), message);
+	}
+
+	private <T> DispatchBatch put(String topicName, Class<T> messageType, Object message) {
+		return put(orchestrator.getOrAddTopic(topicName, messageType), messageType.cast(message));
+	}
+
+	public <T> DispatchBatch put(Topic<T> topic, T message) {
+		Objects.requireNonNull(message, "Message cannot be null");
+		entries.add(new Entry<>(topic, null, 0, message));
+		return this;
+	}
+
+	public DispatchBatch put(DoubleTopic topic, double value) {
+		entries.add(new Entry<>(topic.topic(), topic, Double.doubleToRawLongBits(value), null));
+		return this;
+	}
+
+	public DispatchBatch put(IntTopic topic, int value) {
+		entries.add(new Entry<>(topic.topic(), topic, value, null));
+		return this;
+	}
+
+	public DispatchBatch put(BooleanTopic topic, boolean value) {
+		entries.add(new Entry<>(topic.topic(), topic, value ? 1 : 0, null));
+		return this;
+	}
+
+	public DispatchBatch putAll(Map<String, ?> messages) {
+		messages.forEach(this::put);
+		return this;
+	}
+
+	/**
+	 * @return the number of messages in the batch, not counting the {@link Batch} message
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	public void dispatch() {
+		if (dispatched) throw new IllegalStateException("A batch can only be dispatched once");
+		dispatched = true;
+
+		if (batchTopic != null && !batchTopic.subscriptions().isEmpty())
+			entries.add(new Entry<>(batchTopic, null, 0, toBatch()));
+
+		var robot = orchestrator.robotDetails();
+		for (var entry : entries) {
+			entry.store(orchestrator, robot);
+			entry.trace = orchestrator.trace(entry.topic);
+		}
+
+		var tracked = orchestrator.waitsForCallbacks() ? new ArrayList<ListenableFuture<?>>() : null;
+		var shared = sharedSubscriptions();
+		// subscriptions compare by identity
+		var groups = shared.isEmpty() ? Collections.<Subscription<?>, Group>emptyMap() : new LinkedHashMap<Subscription<?>, Group>();
+		for (var entry : entries)
+			deliver(entry, robot, shared, groups, tracked);
+		for (var group : groups.values())
+			submit(group.subscription, orchestrator.callbackExecutor(group.topic), group.topic.priority(), group, tracked);
+
+		if (tracked != null) await(tracked);
+	}
+
+	private Batch toBatch() {
+		var messages = new LinkedHashMap<String, Object>();
+		for (var entry : entries) messages.put(entry.topic.name(), entry.message());
+		return new Batch(messages);
+	}
+
+	/**
+	 * @return the subscriptions that are subscribed to more than one topic in the batch
+	 */
+	private Set<Subscription<?>> sharedSubscriptions() {
+		if (entries.size() < 2) return Collections.emptySet();
+
+		// most topics in a batch have no subscribers, so don't allocate anything for them
+		IdentityHashMap<Subscription<?>, Integer> counts = null;
+		for (var entry : entries) {
+			for (var subscription : entry.topic.subscriptions()) {
+				if (counts == null) counts = new IdentityHashMap<>();
+				counts.merge(subscription, 1, Integer::sum);
+			}
+		}
+		if (counts == null) return Collections.emptySet();
+
+		var shared = Collections.newSetFromMap(new IdentityHashMap<Subscription<?>, Boolean>());
+		counts.forEach((subscription, count) -> {
+			if (count > 1) shared.add(subscription);
+		});
+		return shared;
+	}
+
+	private <T> void deliver(Entry<T> entry, RobotDetails robot, Set<Subscription<?>> shared, Map<Subscription<?>, Group> groups, List<ListenableFuture<?>> tracked) {
+		var topic = entry.topic;
+		var executor = orchestrator.callbackExecutor(topic);
+		for (var subscription : topic.subscriptions()) {
+			// completion tracking needs futures, so primitive subscriptions get boxed messages then
+			if (entry.primitive != null && tracked == null && subscription instanceof PrimitiveSubscription && !shared.contains(subscription)) {
+				((PrimitiveSubscription<?>) subscription).deliverBits(entry.bits, executor, topic.priority(), entry.trace);
+				continue;
+			}
+
+			var delivery = subscription.delivery(orchestrator, entry.message(), topic.name(), robot, entry.trace);
+			// a conflating subscription already has this message queued
+			if (delivery == null) continue;
+
+			if (shared.contains(subscription))
+				groups.computeIfAbsent(subscription, Group::new).add(delivery, topic);
+			else
+				submit(subscription, executor, topic.priority(), delivery, tracked);
+		}
+	}
+
+	private void submit(Subscription<?> subscription, Executor executor, TopicPriority priority, Runnable delivery, List<ListenableFuture<?>> tracked) {
+		// the delivery logs its own errors, so it needn't be wrapped
+		var target = subscription.executor(executor, priority);
+		if (tracked == null) target.execute(delivery);
+		else tracked.add(CallbackLane.submit(delivery, target));
+	}
+
+	private void await(List<ListenableFuture<?>> tracked) {
+		try {
+			Futures.allAsList(tracked).get(500, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | InterruptedException | ExecutionException e) {
+			orchestrator.err(e);
+		}
+	}
+
+	/**
+	 * One message in the batch.  Primitive messages are held as bits, and only boxed when needed.
+	 */
+	private static final class Entry<T> {
+		private final Topic<T> topic;
+		private final PrimitiveTopic<T> primitive;
+		private final long bits;
+		private T message;
+		private TraceContext trace;
+
+		Entry(Topic<T> topic, PrimitiveTopic<T> primitive, long bits, T message) {
+			this.topic = topic;
+			this.primitive = primitive;
+			this.bits = bits;
+			this.message = message;
+		}
+
+		T message() {
+			if (message == null) message = primitive.box(bits);
+			return message;
+		}
+
+		void store(LogInterface logInterface, RobotDetails robot) {
+			if (primitive == null) {
+				topic.store(logInterface, message, robot);
+				return;
+			}
+
+			var boxed = topic.storePrimitive(logInterface, bits, robot);
+			if (boxed != null) message = boxed;
+		}
+	}
+
+	/**
+	 * The messages for a subscription to more than one topic in the batch, which are delivered in
+	 * one task on the lane of the most urgent of those topics, with that topic's overflow policy
+	 */
+	private final class Group implements CallbackLane.Droppable {
+		private final Subscription<?> subscription;
+		private final List<Runnable> deliveries = new ArrayList<>();
+		/**
+		 * The most urgent topic the deliveries are for
+		 */
+		private Topic<?> topic;
+
+		Group(Subscription<?> subscription) {
+			this.subscription = subscription;
+		}
+
+		void add(Runnable delivery, Topic<?> topic) {
+			deliveries.add(delivery);
+			if (this.topic == null || topic.priority().compareTo(this.topic.priority()) < 0) this.topic = topic;
+		}
+
+		@Override
+		public void run() {
+			deliveries.forEach(Runnable::run);
+		}
+
+		@Override
+		public void dropped() {
+			for (var delivery : deliveries)
+				if (delivery instanceof CallbackLane.Droppable) ((CallbackLane.Droppable) delivery).dropped();
+		}
+	}
+}
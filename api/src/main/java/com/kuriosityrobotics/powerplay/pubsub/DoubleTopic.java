@@ -0,0 +1,59 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * A {@link PrimitiveTopic} of <code>double</code>s, such as encoder positions or the battery
+ * voltage.
+ */
+public final class DoubleTopic extends PrimitiveTopic<Double> {
+	DoubleTopic(OrchestratorImpl orchestrator, Topic<Double> topic) {
+		super(orchestrator, topic);
+	}
+
+	/**
+	 * Publishes a value to the topic without boxing it.
+	 */
+	public void dispatchDouble(double value) {
+		dispatchBits(Double.doubleToRawLongBits(value));
+	}
+
+	/**
+	 * Subscribes to the topic without boxing.  The subscriber only sees the newest value if it falls
+	 * behind; see {@link PrimitiveSubscription}.
+	 */
+	public Subscription<Double> subscribe(DoubleConsumer callback) {
+		var subscription = new PrimitiveSubscription<Double>(orchestrator, (value, topicName, robot) -> callback.accept(value)) {
+			@Override
+			void acceptBits(long bits) {
+				callback.accept(Double.longBitsToDouble(bits));
+			}
+		};
+		topic.addSubscription(subscription);
+		return subscription;
+	}
+
+	/**
+	 * @return the last value published to the topic by this robot, or <code>defaultValue</code> if
+	 * there hasn't been one
+	 */
+	public double lastDouble(double defaultValue) {
+		return hasLastValue() ? Double.longBitsToDouble(lastBits()) : defaultValue;
+	}
+
+	@Override
+	Double box(long bits) {
+		return Double.longBitsToDouble(bits);
+	}
+
+	@Override
+	long unbox(Object value) {
+		// other numbers have always been accepted for double fields, so keep accepting them
+		return Double.doubleToRawLongBits(((Number) value).doubleValue());
+	}
+
+	@Override
+	void setField(LastValueBinding binding, long bits) throws IllegalAccessException {
+		binding.setDouble(Double.longBitsToDouble(bits));
+	}
+}
@@ -0,0 +1,57 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.util.function.IntConsumer;
+
+/**
+ * A {@link PrimitiveTopic} of <code>int</code>s.
+ */
+public final class IntTopic extends PrimitiveTopic<Integer> {
+	IntTopic(OrchestratorImpl orchestrator, Topic<Integer> topic) {
+		super(orchestrator, topic);
+	}
+
+	/**
+	 * Publishes a value to the topic without boxing it.
+	 */
+	public void dispatchInt(int value) {
+		dispatchBits(value);
+	}
+
+	/**
+	 * Subscribes to the topic without boxing.  The subscriber only sees the newest value if it falls
+	 * behind; see {@link PrimitiveSubscription}.
+	 */
+	public Subscription<Integer> subscribe(IntConsumer callback) {
+		var subscription = new PrimitiveSubscription<Integer>(orchestrator, (value, topicName, robot) -> callback.accept(value)) {
+			@Override
+			void acceptBits(long bits) {
+				callback.accept((int) bits);
+			}
+		};
+		topic.addSubscription(subscription);
+		return subscription;
+	}
+
+	/**
+	 * @return the last value published to the topic by this robot, or <code>defaultValue</code> if
+	 * there hasn't been one
+	 */
+	public int lastInt(int defaultValue) {
+		return hasLastValue() ? (int) lastBits() : defaultValue;
+	}
+
+	@Override
+	Integer box(long bits) {
+		return (int) bits;
+	}
+
+	@Override
+	long unbox(Object value) {
+		return ((Number) value).intValue();
+	}
+
+	@Override
+	void setField(LastValueBinding binding, long bits) throws IllegalAccessException {
+		binding.setInt((int) bits);
+	}
+}
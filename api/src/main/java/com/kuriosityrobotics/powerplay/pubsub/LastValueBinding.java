@@ -0,0 +1,79 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+
+/**
+ * A {@link com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished} field bound to a
+ * topic.
+ *
+ * <p>The field is written reflectively, with the access check suppressed once when it's bound.  A
+ * field that's read from other threads should be declared <code>volatile</code>; the reflective write
+ * is then a volatile one, so everything the dispatching thread did before publishing the message is
+ * visible to a thread that reads the field.  VarHandles would avoid the reflection, but they're
+ * unavailable on the Control Hub, whose ART doesn't have them and whose dexer rejects the call
+ * sites.
+ *
+ * <p>Each binding is registered with both the collection it is delivered from and its node's {@link
+ * Node#boundFields}, so that closing the node only has to visit its own fields.
+ */
+final class LastValueBinding {
+	private final Node node;
+	private final Field field;
+	private final Collection<LastValueBinding> owner;
+
+	private LastValueBinding(Node node, Field field, Collection<LastValueBinding> owner) {
+		this.node = node;
+		this.field = field;
+		this.owner = owner;
+	}
+
+	/**
+	 * Binds a node's field, adding the binding to <code>owner</code> and to the node's back-index.
+	 */
+	static LastValueBinding bind(Node node, Field field, Collection<LastValueBinding> owner) {
+		field.setAccessible(true);
+
+		var binding = new LastValueBinding(node, field, owner);
+		owner.add(binding);
+		node.boundFields.add(binding);
+		return binding;
+	}
+
+	Node node() {
+		return node;
+	}
+
+	Field field() {
+		return field;
+	}
+
+	void set(Object value) throws IllegalAccessException {
+		field.set(node, value);
+	}
+
+	void setDouble(double value) throws IllegalAccessException {
+		field.setDouble(node, value);
+	}
+
+	void setInt(int value) throws IllegalAccessException {
+		field.setInt(node, value);
+	}
+
+	void setBoolean(boolean value) throws IllegalAccessException {
+		field.setBoolean(node, value);
+	}
+
+	/**
+	 * Stops delivering messages to the field.  The node's back-index is left alone, since this is
+	 * only called while the node is being closed.
+	 */
+	void unbind() {
+		owner.remove(this);
+	}
+
+	@Override
+	public String toString() {
+		return node + "." + field.getName();
+	}
+}
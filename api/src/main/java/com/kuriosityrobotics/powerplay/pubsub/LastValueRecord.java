@@ -0,0 +1,31 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+/**
+ * The last message a robot published to a {@link Topic}, along with when it was stored.
+ *
+ * <p>Records are immutable and are replaced as a whole, so a reader that has loaded one through a
+ * volatile reference always sees a value and a time that belong together, without taking a lock.
+ *
+ * @param <T> the message type of the topic
+ */
+final class LastValueRecord<T> {
+	final T value;
+	final long timeNanos;
+	/**
+	 * The order in which records were stored in their topic; of two records for the same topic, the
+	 * one with the higher sequence was stored later.
+	 */
+	final long sequence;
+
+	LastValueRecord(T value, long timeNanos, long sequence) {
+		this.value = value;
+		this.timeNanos = timeNanos;
+		this.sequence = sequence;
+	}
+
+	Instant time() {
+		return Instant.createInstant(timeNanos);
+	}
+}
@@ -0,0 +1,86 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.metrics.LatencyStats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of durations, in the style of an HDR histogram.
+ *
+ * <p>Values are counted in log-linear buckets: every power of two is split into eight buckets, so a
+ * reported percentile is never more than an eighth above the real one, whatever the scale.  Recording
+ * a value is a couple of atomic increments and never allocates, so it is cheap enough to do on every
+ * message.
+ */
+final class LatencyHistogram {
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAdder totalNanos = new LongAdder();
+	private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+	void record(long nanos) {
+		if (nanos < 0) nanos = 0;
+
+		counts.incrementAndGet(bucketOf(nanos));
+		totalNanos.add(nanos);
+		maxNanos.accumulate(nanos);
+	}
+
+	static int bucketOf(long value) {
+		if (value < SUB_BUCKETS) return (int) value;
+
+		var shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+	}
+
+	/**
+	 * @return the largest value that is counted in the given bucket
+	 */
+	static long highestValueIn(int bucket) {
+		if (bucket < SUB_BUCKETS) return bucket;
+
+		var shift = bucket / SUB_BUCKETS - 1;
+		var subBucket = bucket % SUB_BUCKETS;
+		return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+	}
+
+	/**
+	 * Summarises the values recorded since the last call to this method, and starts counting again.
+	 * Values recorded while the sample is being taken may land in either period.
+	 */
+	LatencyStats sampleStats() {
+		var snapshot = new long[BUCKETS];
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			snapshot[i] = counts.getAndSet(i, 0);
+			count += snapshot[i];
+		}
+		var total = totalNanos.sumThenReset();
+		var max = maxNanos.getThenReset();
+
+		return new LatencyStats(
+			count,
+			count == 0 ? 0 : total / count,
+			percentile(snapshot, count, max, 0.5),
+			percentile(snapshot, count, max, 0.9),
+			percentile(snapshot, count, max, 0.99),
+			max);
+	}
+
+	private static long percentile(long[] counts, long count, long max, double fraction) {
+		if (count == 0) return 0;
+
+		var rank = Math.max(1, (long) Math.ceil(fraction * count));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) return Math.min(highestValueIn(i), max);
+		}
+		return max;
+	}
+}
@@ -0,0 +1,83 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * A message that was logged through an {@link Orchestrator}.  Entries are created on the thread
+ * that logged them, and only turned into text on the orchestrator's log writer thread.
+ */
+public final class LogEntry {
+	private final long timeNanos;
+	private final LogLevel level;
+	private final String source;
+	private final String threadName;
+	private final String message;
+	private final Throwable throwable;
+
+	LogEntry(long timeNanos, LogLevel level, String source, String threadName, String message, Throwable throwable) {
+		this.timeNanos = timeNanos;
+		this.level = level;
+		this.source = source;
+		this.threadName = threadName;
+		this.message = message;
+		this.throwable = throwable;
+	}
+
+	/**
+	 * @return when the message was logged, in {@link com.kuriosityrobotics.powerplay.util.Instant}
+	 * nanos
+	 */
+	public long timeNanos() {
+		return timeNanos;
+	}
+
+	public LogLevel level() {
+		return level;
+	}
+
+	/**
+	 * @return the name of the node that logged the message, or <code>null</code> if it was logged
+	 * by the orchestrator itself
+	 */
+	public String source() {
+		return source;
+	}
+
+	public String threadName() {
+		return threadName;
+	}
+
+	/**
+	 * @return the message, or <code>null</code> if only an exception was logged
+	 */
+	public String message() {
+		return message;
+	}
+
+	/**
+	 * @return the exception that was logged, if any
+	 */
+	public Throwable throwable() {
+		return throwable;
+	}
+
+	/**
+	 * @return the message followed by the exception's stack trace
+	 */
+	public String text() {
+		if (throwable == null) return message;
+
+		var stackTrace = new StringWriter();
+		throwable.printStackTrace(new PrintWriter(stackTrace));
+		var trace = stackTrace.toString().stripTrailing();
+		return message == null ? trace : message + System.lineSeparator() + trace;
+	}
+
+	@Override
+	public String toString() {
+		var level = level().name().toLowerCase();
+		if (source == null) return String.format("(%s): %s", level, text());
+		return String.format("[%s] (%s): %s", source, level, text());
+	}
+}
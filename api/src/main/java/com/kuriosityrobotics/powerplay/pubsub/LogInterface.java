@@ -1,5 +1,7 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
+import java.util.function.Supplier;
+
 public interface LogInterface {
    /**
 	* Sends a telemetry message to the error topic with the given message and throws a {@link
@@ -88,6 +90,56 @@ public interface LogInterface {
 	*/
    void debug(String msg, Node originatingNode);
 
+   /**
+	* @param originatingNode the node the message would come from, or <code>null</code> for none
+	* @return whether a message of the given level would be logged
+	*/
+   default boolean isLoggable(LogLevel level, Node originatingNode) {
+	  return true;
+   }
+
+   /**
+	* Sends a telemetry message to the info topic, only building it if info messages are being
+	* logged
+	*
+	* @param msg the message
+	*/
+   default void info(Supplier<String> msg) {
+	  if (isLoggable(LogLevel.INFO, null)) info(msg.get());
+   }
+
+   /**
+	* Sends a telemetry message to the debug topic, only building it if debug messages are being
+	* logged
+	*
+	* @param msg the message
+	*/
+   default void debug(Supplier<String> msg) {
+	  if (isLoggable(LogLevel.DEBUG, null)) debug(msg.get());
+   }
+
+   /**
+	* Sends a telemetry message to the info topic, only building it if info messages from the node
+	* are being logged
+	*
+	* @param msg             the message
+	* @param originatingNode the node from whom the message originated
+	*/
+   default void info(Supplier<String> msg, Node originatingNode) {
+	  if (isLoggable(LogLevel.INFO, originatingNode)) info(msg.get(), originatingNode);
+   }
+
+   /**
+	* Sends a telemetry message to the debug topic, only building it if debug messages from the node
+	* are being logged
+	*
+	* @param msg             the message
+	* @param originatingNode the node from whom the message originated
+	*/
+   default void debug(Supplier<String> msg, Node originatingNode) {
+	  if (isLoggable(LogLevel.DEBUG, originatingNode)) debug(msg.get(), originatingNode);
+   }
+
    /**
 	* Sends an object to telemetry with the given name
 	*
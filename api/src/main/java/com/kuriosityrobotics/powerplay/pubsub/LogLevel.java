@@ -0,0 +1,36 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+/**
+ * How important a log message is.  Each level is published to its own topic,
+ * <code>log/&lt;level&gt;</code>, and messages below the threshold of the node that sent them are
+ * dropped before they're built.
+ *
+ * @see Orchestrator#setLogLevel(LogLevel)
+ * @see Orchestrator#setLogLevel(String, LogLevel)
+ */
+public enum LogLevel {
+	DEBUG("debug"),
+	INFO("info"),
+	WARN("warn"),
+	ERR("err");
+
+	private final String topicName;
+
+	LogLevel(String name) {
+		this.topicName = "log/" + name;
+	}
+
+	/**
+	 * @return the topic that messages of this level are published to
+	 */
+	public String topicName() {
+		return topicName;
+	}
+
+	/**
+	 * @return whether a message of this level gets through a threshold of the given level
+	 */
+	public boolean isAtLeast(LogLevel threshold) {
+		return compareTo(threshold) >= 0;
+	}
+}
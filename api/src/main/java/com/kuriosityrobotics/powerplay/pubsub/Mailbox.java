@@ -0,0 +1,173 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * An {@link Executor} that runs its tasks one at a time on the shared callback executors.  At most
+ * one task from a mailbox is ever running, so whatever the tasks touch needs no locking.
+ *
+ * <p>Each task is submitted with a {@link TopicPriority}, and the mailbox keeps a queue for each
+ * one.  Tasks of the same priority run in submission order, but a more urgent task runs before any
+ * less urgent one that is still queued, and the mailbox is drained on the callback executor of the
+ * most urgent task it holds, so that a node's control traffic doesn't wait behind its telemetry.
+ *
+ * <p>Submitting a task never blocks and never starts a thread of its own: if the mailbox is idle, a
+ * single drain task is handed to the shared executor, which then runs queued tasks until the
+ * mailbox is empty (or it has run {@link #MAX_BATCH} of them, so that one busy node can't hog a
+ * shared thread).
+ */
+final class Mailbox implements Executor {
+	private static final int MAX_BATCH = 32;
+
+	private final Function<TopicPriority, ? extends Executor> executors;
+	/**
+	 * One inbox per {@link TopicPriority}, indexed by ordinal, so most urgent first
+	 */
+	private final Inbox[] inboxes;
+	/**
+	 * Set while a task from the mailbox is running
+	 */
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	/**
+	 * @param executors the executor to drain the mailbox on, for the priority of the most urgent
+	 *                  task in it
+	 */
+	Mailbox(Function<TopicPriority, ? extends Executor> executors) {
+		this.executors = executors;
+
+		var priorities = TopicPriority.values();
+		this.inboxes = new Inbox[priorities.length];
+		for (var priority : priorities)
+			inboxes[priority.ordinal()] = new Inbox(priority);
+	}
+
+	/**
+	 * Runs a task in this mailbox with {@link TopicPriority#NORMAL} priority
+	 */
+	@Override
+	public void execute(Runnable task) {
+		execute(task, TopicPriority.NORMAL);
+	}
+
+	void execute(Runnable task, TopicPriority priority) {
+		inboxes[priority.ordinal()].queue.offer(task);
+		scheduleDrain();
+	}
+
+	/**
+	 * @return an executor that runs tasks in this mailbox with the given priority
+	 */
+	Executor executor(TopicPriority priority) {
+		return inboxes[priority.ordinal()];
+	}
+
+	/**
+	 * Runs a task in this mailbox and waits for it to finish.  If the mailbox is idle, the task is run
+	 * directly on the calling thread.  This is used for periodic tasks, so that they stay
+	 * fixed-delay.
+	 */
+	void executeAndWait(Runnable task, TopicPriority priority) {
+		if (running.compareAndSet(false, true)) {
+			try {
+				task.run();
+			} finally {
+				release();
+			}
+			return;
+		}
+
+		var executor = executors.apply(priority);
+		if (executor instanceof VirtualTimeScheduler && ((VirtualTimeScheduler) executor).isEventThread()) {
+			// the event thread is the only one that could drain the mailbox, and it's here, so
+			// nothing else is running in it; waiting for the drain would never finish
+			task.run();
+			return;
+		}
+
+		var done = new CompletableFuture<Void>();
+		execute(() -> {
+			try {
+				task.run();
+			} finally {
+				done.complete(null);
+			}
+		}, priority);
+		done.join();
+	}
+
+	private void scheduleDrain() {
+		// whatever is running will schedule another drain when it's done
+		if (running.get()) return;
+
+		for (var inbox : inboxes) {
+			if (inbox.queue.isEmpty()) continue;
+
+			// a drain may already be waiting on a less urgent executor; this one can overtake it
+			if (inbox.scheduled.compareAndSet(false, true))
+				executors.apply(inbox.priority).execute(inbox::drain);
+			return;
+		}
+	}
+
+	private void drain() {
+		if (!running.compareAndSet(false, true)) return;
+
+		try {
+			Runnable task;
+			for (int i = 0; i < MAX_BATCH && (task = poll()) != null; i++)
+				task.run();
+		} finally {
+			release();
+		}
+	}
+
+	/**
+	 * @return the oldest task of the most urgent priority, or <code>null</code> if there are none
+	 */
+	private Runnable poll() {
+		for (var inbox : inboxes) {
+			var task = inbox.queue.poll();
+			if (task != null) return task;
+		}
+		return null;
+	}
+
+	private void release() {
+		running.set(false);
+		// something may have been queued after we stopped polling
+		scheduleDrain();
+	}
+
+	/**
+	 * The tasks of one priority
+	 */
+	private final class Inbox implements Executor {
+		private final TopicPriority priority;
+		private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+		/**
+		 * Whether a drain has been handed to this priority's executor and hasn't started yet
+		 */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		Inbox(TopicPriority priority) {
+			this.priority = priority;
+		}
+
+		@Override
+		public void execute(Runnable task) {
+			Mailbox.this.execute(task, priority);
+		}
+
+		void drain() {
+			// cleared first, so that anything queued from here on can schedule another drain
+			scheduled.set(false);
+			Mailbox.this.drain();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static com.google.common.primitives.Primitives.wrap;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.ExceptionRunnable;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Turns annotated {@link Node} methods into plain functional interfaces, so that they can be called
+ * without going through {@link Method#invoke}.
+ *
+ * <p>The invokers are spun with {@link LambdaMetafactory} when the node is bound, which means that
+ * calling them is a normal interface call: no reflection, no varargs array, no boxing of the
+ * arguments into an <code>Object[]</code> and no {@link java.lang.reflect.InvocationTargetException}
+ * wrapping. Where {@link LambdaMetafactory} can't be used (it doesn't exist on ART, for example),
+ * the reflective invokers are used instead.  Nothing here may call a signature-polymorphic method
+ * such as {@link MethodHandle#invoke}, or this class couldn't be dexed for the Control Hub at all.
+ */
+final class MethodInvokers {
+	private MethodInvokers() {}
+
+	/**
+	 * Creates an invoker for a method with no parameters, such as a {@link
+	 * com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically} or {@link
+	 * com.kuriosityrobotics.powerplay.pubsub.annotation.RunnableAction} method.
+	 */
+	static ExceptionRunnable noArgs(Node node, Method method) {
+		if (method.getParameterCount() != 0)
+			throw new IllegalArgumentException("method must have no parameters " + method);
+
+		try {
+			return generate(node, method, ExceptionRunnable.class, "run", MethodType.methodType(void.class));
+		} catch (Throwable e) {
+			return reflectiveNoArgs(node, method);
+		}
+	}
+
+	/**
+	 * Creates an invoker for a {@link com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo}
+	 * method, which can take the message, the topic name and the originating robot (in that order),
+	 * or any prefix of those.
+	 */
+	@SuppressWarnings("unchecked")
+	static MessageConsumer<Object, String, RobotDetails> subscriber(Node node, Method method) {
+		var parameterCount = method.getParameterCount();
+		if (parameterCount > 3)
+			throw new IllegalArgumentException("subscriptions must have 0-3 parameters " + method);
+
+		try {
+			switch (parameterCount) {
+				case 0: {
+					var invoker = generate(node, method, ExceptionRunnable.class, "run", MethodType.methodType(void.class));
+					return (o, s, robotDetails) -> {
+						try {
+							invoker.run();
+						} catch (Throwable e) {
+							throw OrchestratorImpl.<RuntimeException>sneakyThrow(e);
+						}
+					};
+				}
+				case 1: {
+					Consumer<Object> invoker = generate(node, method, Consumer.class, "accept", MethodType.methodType(void.class, Object.class));
+					return (o, s, robotDetails) -> invoker.accept(o);
+				}
+				case 2: {
+					BiConsumer<Object, String> invoker = generate(node, method, BiConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class));
+					return (o, s, robotDetails) -> invoker.accept(o, s);
+				}
+				default:
+					return generate(node, method, MessageConsumer.class, "accept", MethodType.methodType(void.class, Object.class, Object.class, Object.class));
+			}
+		} catch (Throwable e) {
+			return reflectiveSubscriber(node, method);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <I> I generate(Node node, Method method, Class<? super I> functionalInterface, String name, MethodType samType) throws Throwable {
+		if (Modifier.isStatic(method.getModifiers()))
+			throw new IllegalArgumentException("static methods are invoked reflectively");
+
+		var lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup());
+		MethodHandle handle = lookup.unreflect(method);
+
+		// the generated class implements the erased sam type, but casts (and unboxes) to the
+		// method's real parameter types before calling it
+		var parameterTypes = method.getParameterTypes();
+		var instantiatedParameters = new Class<?>[parameterTypes.length];
+		for (int i = 0; i < parameterTypes.length; i++)
+			instantiatedParameters[i] = wrap(parameterTypes[i]);
+
+		var callSite = LambdaMetafactory.metafactory(
+			lookup,
+			name,
+			MethodType.methodType(functionalInterface, method.getDeclaringClass()),
+			samType,
+			handle,
+			MethodType.methodType(void.class, instantiatedParameters));
+
+		// invoke() would be an invoke-polymorphic call, which can't be dexed for the Control Hub
+		return (I) callSite.getTarget().invokeWithArguments(node);
+	}
+
+	static ExceptionRunnable reflectiveNoArgs(Node node, Method method) {
+		method.setAccessible(true);
+		return () -> method.invoke(node);
+	}
+
+	static MessageConsumer<Object, String, RobotDetails> reflectiveSubscriber(Node node, Method method) {
+		method.setAccessible(true);
+
+		switch (method.getParameterCount()) {
+			case 0:
+				return (o, s, robotDetails) -> invokeReflectively(node, method);
+			case 1:
+				return (o, s, robotDetails) -> invokeReflectively(node, method, o);
+			case 2:
+				return (o, s, robotDetails) -> invokeReflectively(node, method, o, s);
+			case 3:
+				return (o, s, robotDetails) -> invokeReflectively(node, method, o, s, robotDetails);
+			default:
+				throw new IllegalArgumentException("subscriptions must have 0-3 parameters " + method);
+		}
+	}
+
+	private static void invokeReflectively(Node node, Method method, Object... args) {
+		try {
+			method.invoke(node, args);
+		} catch (Throwable e) {
+			OrchestratorImpl.sneakyThrow(e);
+		}
+	}
+}
@@ -1,11 +1,14 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
 import static com.kuriosityrobotics.powerplay.util.StringUtils.toDisplayString;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SingleThreaded;
 import com.kuriosityrobotics.powerplay.util.Duration;
 import com.kuriosityrobotics.powerplay.util.ExceptionProducer;
 import com.kuriosityrobotics.powerplay.util.ExceptionRunnable;
+import com.kuriosityrobotics.powerplay.util.Instant;
 
 import java.util.HashSet;
 import java.util.LinkedList;
@@ -13,7 +16,6 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
@@ -29,7 +31,29 @@ import java.util.function.Supplier;
  */
 public abstract class Node implements AutoCloseable {
 	final Set<Subscription<?>> boundSubscriptions = new HashSet<>();
-	private final Set<ScheduledFuture<?>> periodicTasks = new HashSet<>();
+	/**
+	 * This node's {@link com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished}
+	 * fields, so that they can be unbound without searching every topic
+	 */
+	final Set<LastValueBinding> boundFields = new HashSet<>();
+	private final Set<PeriodicTask> periodicTasks = new HashSet<>();
+
+	/**
+	 * The queue that this node's callbacks are run through if it is {@link SingleThreaded}, otherwise
+	 * <code>null</code>
+	 */
+	final Mailbox mailbox;
+
+	/**
+	 * The group this node's periodic tasks run in, unless they pick their own
+	 */
+	final SchedulingGroup schedulingGroup;
+
+	/**
+	 * When this node's constructor began, for the {@link
+	 * com.kuriosityrobotics.powerplay.pubsub.metrics.StartupProfile}
+	 */
+	final long constructionStartNanos = Instant.nowNanos();
 
 	/**
 	 * The name of the node. This is used for logging and debugging. Field is injected by {@link
@@ -38,14 +62,20 @@ public abstract class Node implements AutoCloseable {
 	protected final Orchestrator orchestrator;
 
 	/**
-	 * Adds a task to the node's periodic task list, to be used by {@link #close()}.
+	 * Starts a periodic task and adds it to the node's periodic task list, to be used by {@link
+	 * #close()}.
 	 */
-	final void startPeriodicTask(Runnable task, int frequency) {
-		var scheduledTask =
-			orchestrator
-				.nodeExecutorService()
-				.scheduleWithFixedDelay(task, 0, (long) (1000. / frequency), MILLISECONDS);
-		periodicTasks.add(scheduledTask);
+	final PeriodicTask startPeriodicTask(String name, Runnable task, SchedulingGroup group, double frequency, boolean fixedRate, RunPeriodically.Overrun overrun) {
+		if (mailbox != null) {
+			var unserialised = task;
+			var priority = group.callbackPriority();
+			task = () -> mailbox.executeAndWait(unserialised, priority);
+		}
+
+		var periodicTask = new PeriodicTask(name, task, orchestrator.nodeExecutorService(group), frequency, fixedRate, overrun);
+		periodicTasks.add(periodicTask);
+		periodicTask.start();
+		return periodicTask;
 	}
 
 	/**
@@ -59,6 +89,11 @@ public abstract class Node implements AutoCloseable {
 	 */
 	protected Node(Orchestrator orchestrator) {
 		this.orchestrator = orchestrator;
+		this.mailbox = getClass().isAnnotationPresent(SingleThreaded.class)
+			? new Mailbox(orchestrator::callbackExecutorService)
+			: null;
+		var scheduling = getClass().getAnnotation(Scheduling.class);
+		this.schedulingGroup = scheduling == null ? SchedulingGroup.GENERAL : scheduling.value();
 		orchestrator.markNodeBeingConstructed(this);
 	}
 
@@ -116,6 +151,24 @@ public abstract class Node implements AutoCloseable {
 		orchestrator.debug(message, this);
 	}
 
+	/**
+	 * Logs an info message, only building it if this node's info messages are being logged
+	 *
+	 * @param message the message to log
+	 */
+	protected void info(Supplier<String> message) {
+		orchestrator.info(message, this);
+	}
+
+	/**
+	 * Logs a debug message, only building it if this node's debug messages are being logged
+	 *
+	 * @param message the message to log
+	 */
+	protected void debug(Supplier<String> message) {
+		orchestrator.debug(message, this);
+	}
+
 	/**
 	 * Asserts that the given condition is true. This is used for debugging.
 	 *
@@ -185,6 +238,22 @@ public abstract class Node implements AutoCloseable {
 		orchestrator.telemetry(caption, toDisplayString(value));
 	}
 
+	/**
+	 * Continues the trace of the last message on the given topic, so that messages dispatched before
+	 * the returned scope is closed count as caused by it.  Callbacks continue the trace of the
+	 * message they're handling by themselves; this is for periodic tasks that publish based on a
+	 * topic's last value.
+	 *
+	 * @see Orchestrator#setTracingEnabled(boolean)
+	 */
+	protected TraceContext.Scope continueTrace(String topicName) {
+		// this is called every tick of some control loops, so it costs one volatile read when off
+		if (!orchestrator.isTracingEnabled()) return TraceContext.NO_SCOPE;
+
+		var topic = orchestrator.getTopics().get(topicName);
+		return TraceContext.continueFrom(topic == null ? null : topic.lastTrace());
+	}
+
 	/**
 	 * Wraps the given {@link Runnable} in a try-catch, and logs the exception if it occurs.
 	 *
@@ -207,19 +276,12 @@ public abstract class Node implements AutoCloseable {
 	@Override
 	public void close() {
 		orchestrator.info("Stopping " + this);
-		HashSet<Runnable> toDelete = new HashSet<>();
-		orchestrator
-			.getTopics()
-			.forEach(
-				(k, v) -> v.lastValueHandles.forEach(
-					(handle, node) -> {
-						if (node == this) {
-							toDelete.add(() -> v.lastValueHandles.remove(handle));
-						}
-					}));
-
-		toDelete.forEach(Runnable::run);
-		boundSubscriptions.forEach(orchestrator::removeSubscription);
+		boundFields.forEach(LastValueBinding::unbind);
+		orchestrator.removeSubscriptions(boundSubscriptions);
+		cancelPeriodicTasks();
+	}
+
+	final void cancelPeriodicTasks() {
 		periodicTasks.forEach(n -> n.cancel(true));
 	}
 
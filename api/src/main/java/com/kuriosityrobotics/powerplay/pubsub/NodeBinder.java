@@ -0,0 +1,42 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+/**
+ * Binds the annotated members of one type of {@link Node} without scanning it reflectively.
+ *
+ * <p>Binders are generated at build time by the <code>processor</code> module, one per node class,
+ * and found with {@link java.util.ServiceLoader}.  They hand the values of the annotations straight
+ * to the {@link PubsubAnnotationBinder}, and call the annotated methods directly unless they're
+ * private.  Nodes without a binder (anonymous and private classes, or classes compiled without the
+ * processor) are bound reflectively, as before.  Like the reflective binder, a generated binder only
+ * binds the members declared by its own class.
+ *
+ * @param <N> the type of node
+ */
+public interface NodeBinder<N extends Node> {
+	/**
+	 * @return the exact class of the nodes this binds
+	 */
+	Class<N> nodeType();
+
+	/**
+	 * Binds the node's {@link com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished}
+	 * fields, while it is being constructed
+	 */
+	void bindFields(N node, PubsubAnnotationBinder binder) throws ReflectiveOperationException;
+
+	/**
+	 * Binds the node's subscriptions, periodic tasks and actions, once it has been constructed
+	 */
+	void bindMethods(N node, PubsubAnnotationBinder binder) throws ReflectiveOperationException;
+
+	/**
+	 * A {@link com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo} method, which is
+	 * passed whichever of the arguments it takes
+	 */
+	@FunctionalInterface
+	interface Subscriber {
+		void accept(Object message, String topicName, RobotDetails originatingRobot) throws Throwable;
+	}
+}
@@ -0,0 +1,149 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.debug.StdoutTopicLogger;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+
+import org.reflections.Reflections;
+import org.reflections.util.ConfigurationBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The binders generated for the nodes on the classpath, and the index of installed nodes built from
+ * them.  Both are loaded once, the first time they're needed.
+ */
+public final class NodeBinders {
+	private NodeBinders() {}
+
+	/**
+	 * Written by the binder processor, with the names of the node classes that don't get a binder
+	 * because they're private
+	 */
+	private static final String PRIVATE_NODES = "META-INF/com.kuriosityrobotics.powerplay.pubsub.PrivateNodes";
+
+	/**
+	 * The binders, and classes listed in {@link #PRIVATE_NODES}, that couldn't be loaded and haven't
+	 * been reported yet
+	 */
+	private static final Queue<String> SKIPPED = new ConcurrentLinkedQueue<>();
+
+	private static final class Holder {
+		@SuppressWarnings("rawtypes")
+		static final Map<Class<?>, NodeBinder> BINDERS = load(NodeBinder.class, NodeBinder::nodeType);
+		static final List<String> INSTALLED_NODES = findInstalledNodes();
+	}
+
+	/**
+	 * @return the generated binder for nodes of exactly the given class, or <code>null</code> if it
+	 * doesn't have one
+	 */
+	@SuppressWarnings("unchecked")
+	static <N extends Node> NodeBinder<N> forType(Class<N> nodeType) {
+		return (NodeBinder<N>) Holder.BINDERS.get(nodeType);
+	}
+
+	/**
+	 * @return the names of the node classes that can be started on this robot, excluding {@link
+	 * Hidden} ones
+	 */
+	public static List<String> installedNodes() {
+		return Holder.INSTALLED_NODES;
+	}
+
+	/**
+	 * Logs each binder or node class that couldn't be loaded since this was last called, so that
+	 * every one is only reported once
+	 */
+	static void reportSkipped(LogInterface log) {
+		String message;
+		while ((message = SKIPPED.poll()) != null)
+			log.warn(message);
+	}
+
+	/**
+	 * Loads every provider of a binder service, indexed by the node class it binds.  A provider that
+	 * can't be loaded (because a class it refers to is missing at runtime, say) is skipped, and its
+	 * node falls back to being bound reflectively; the reason is kept for {@link #reportSkipped}.
+	 */
+	static <B> Map<Class<?>, B> load(Class<B> service, Function<B, Class<?>> nodeType) {
+		var binders = new HashMap<Class<?>, B>();
+		var providers = ServiceLoader.load(service, service.getClassLoader()).iterator();
+		while (true) {
+			try {
+				if (!providers.hasNext()) break;
+				var binder = providers.next();
+				binders.put(nodeType.apply(binder), binder);
+			} catch (ServiceConfigurationError | LinkageError e) {
+				SKIPPED.add("Skipping node binder:  " + e);
+			}
+		}
+		return Collections.unmodifiableMap(binders);
+	}
+
+	private static List<String> findInstalledNodes() {
+		// without generated binders (a build that didn't run the processor), scan the classpath
+		if (Holder.BINDERS.isEmpty()) return scanInstalledNodes();
+
+		var nodes = new ArrayList<String>();
+		for (var nodeType : Holder.BINDERS.keySet()) {
+			if (!nodeType.isAnnotationPresent(Hidden.class)) nodes.add(nodeType.getName());
+		}
+		for (var nodeType : privateNodes()) {
+			if (!nodeType.isAnnotationPresent(Hidden.class)) nodes.add(nodeType.getName());
+		}
+		Collections.sort(nodes);
+		return Collections.unmodifiableList(nodes);
+	}
+
+	/**
+	 * @return the private node classes listed by the binder processor, which aren't in {@link
+	 * Holder#BINDERS}
+	 */
+	private static List<Class<?>> privateNodes() {
+		var loader = NodeBinders.class.getClassLoader();
+		var nodes = new ArrayList<Class<?>>();
+		try {
+			var resources = loader.getResources(PRIVATE_NODES);
+			while (resources.hasMoreElements()) {
+				try (var in = new BufferedReader(new InputStreamReader(resources.nextElement().openStream(), StandardCharsets.UTF_8))) {
+					String name;
+					while ((name = in.readLine()) != null) {
+						try {
+							nodes.add(Class.forName(name, false, loader));
+						} catch (ClassNotFoundException | LinkageError e) {
+							SKIPPED.add("Not indexing node " + name + ":  " + e);
+						}
+					}
+				}
+			}
+		} catch (IOException e) {
+			SKIPPED.add("Couldn't read " + PRIVATE_NODES + ":  " + e);
+		}
+		return nodes;
+	}
+
+	private static List<String> scanInstalledNodes() {
+		return new Reflections(
+			new ConfigurationBuilder()
+				.forPackage("com.kuriosityrobotics")
+				.addClassLoaders(StdoutTopicLogger.class.getClassLoader())) // add api classloader
+			.getSubTypesOf(Node.class).stream()
+			.filter(n -> !n.isAnnotationPresent(Hidden.class))
+			.map(Class::getName)
+			.collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+	}
+}
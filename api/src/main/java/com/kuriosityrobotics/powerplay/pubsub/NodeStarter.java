@@ -0,0 +1,109 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.DependsOn;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Constructs and starts a set of nodes at the same time, each once the nodes it {@link DependsOn}
+ * have started.
+ */
+final class NodeStarter {
+	private final OrchestratorImpl orchestrator;
+	private final Executor executor;
+
+	NodeStarter(OrchestratorImpl orchestrator, Executor executor) {
+		this.orchestrator = orchestrator;
+		this.executor = executor;
+	}
+
+	/**
+	 * Starts the given nodes, each named after its class, and waits for them all.  If a node can't be
+	 * constructed, the nodes that depend on it aren't started, but the others are.
+	 *
+	 * @throws IllegalArgumentException if the nodes depend on each other in a cycle
+	 * @throws RuntimeException         if any of the nodes couldn't be constructed
+	 */
+	void start(Collection<Class<? extends Node>> nodeTypes) {
+		var started = new LinkedHashMap<Class<?>, CompletableFuture<Void>>();
+		for (var nodeType : dependencyOrder(nodeTypes)) {
+			var dependencies = new ArrayList<CompletableFuture<Void>>();
+			for (var dependency : dependenciesOf(nodeType)) {
+				var future = started.get(dependency);
+				if (future != null) dependencies.add(future);
+			}
+
+			started.put(
+				nodeType,
+				CompletableFuture.allOf(dependencies.toArray(CompletableFuture<?>[]::new))
+					.thenRunAsync(() -> start(nodeType), executor));
+		}
+
+		RuntimeException failure = null;
+		var reported = Collections.newSetFromMap(new IdentityHashMap<Throwable, Boolean>());
+		for (var entry : started.entrySet()) {
+			try {
+				entry.getValue().join();
+			} catch (CompletionException e) {
+				// the nodes that depend on one that failed fail with the same exception
+				var cause = e.getCause();
+				if (!reported.add(cause)) continue;
+
+				var error = new RuntimeException("Error constructing " + entry.getKey().getSimpleName() + ": " + cause, cause);
+				if (failure == null) failure = error;
+				else failure.addSuppressed(error);
+			}
+		}
+		if (failure != null) throw failure;
+	}
+
+	private void start(Class<? extends Node> nodeType) {
+		try {
+			orchestrator.startNode(nodeType.getSimpleName(), orchestrator.constructNode(nodeType));
+		} catch (InvocationTargetException e) {
+			throw new CompletionException(e.getCause());
+		} catch (ReflectiveOperationException e) {
+			throw new CompletionException(e);
+		}
+	}
+
+	private static List<Class<? extends Node>> dependenciesOf(Class<?> nodeType) {
+		var dependsOn = nodeType.getAnnotation(DependsOn.class);
+		return dependsOn == null ? List.of() : List.of(dependsOn.value());
+	}
+
+	/**
+	 * @return the nodes, with each after the ones it depends on, but otherwise in the order given.
+	 * Dependencies that aren't being started are ignored, since they may well be running already.
+	 */
+	static List<Class<? extends Node>> dependencyOrder(Collection<Class<? extends Node>> nodeTypes) {
+		var remaining = new HashSet<Class<?>>(nodeTypes);
+		var order = new ArrayList<Class<? extends Node>>();
+		for (var nodeType : nodeTypes)
+			visit(nodeType, remaining, new HashSet<>(), order);
+		return order;
+	}
+
+	private static void visit(Class<? extends Node> nodeType, Set<Class<?>> remaining, Set<Class<?>> visiting, List<Class<? extends Node>> order) {
+		if (!remaining.contains(nodeType)) return;
+		if (!visiting.add(nodeType))
+			throw new IllegalArgumentException("Nodes depend on each other in a cycle through " + nodeType.getSimpleName());
+
+		for (var dependency : dependenciesOf(nodeType))
+			visit(dependency, remaining, visiting, order);
+
+		remaining.remove(nodeType);
+		order.add(nodeType);
+	}
+}
@@ -3,15 +3,18 @@ package com.kuriosityrobotics.powerplay.pubsub;
 import com.kuriosityrobotics.powerplay.debug.StdoutTopicLogger;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.NodeInfo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.StartupProfile;
 import com.kuriosityrobotics.powerplay.util.ExceptionRunnable;
 
 import com.kuriosityrobotics.powerplay.util.Instant;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
@@ -40,10 +43,25 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 		return impl;
 	}
 
+	/**
+	 * Creates an orchestrator that runs on virtual time: its periodic tasks, timers and callbacks run
+	 * in timestamp order on whichever thread runs the scheduler, and {@link Instant#now()} follows
+	 * the scheduler's clock until the orchestrator is closed.  Only one virtual orchestrator should
+	 * be open at a time, since the clock is shared by the whole process.
+	 */
+	static Orchestrator createVirtual(RobotDetails robotDetails, VirtualTimeScheduler scheduler) {
+		return new OrchestratorImpl(robotDetails, true, false, null, scheduler);
+	}
+
 	static Orchestrator createTest(String robotName, boolean startNetwork) {
 		return createTest(new RobotDetails(robotName, random.nextLong()), startNetwork);
 	}
 
+	/**
+	 * Starts the bridge to other robots, if it isn't running already.  Orchestrators created with
+	 * <code>startNetwork</code> start it in the background once they've been created; otherwise it's
+	 * started the first time a message is sent to another robot.
+	 */
 	void startBridge();
 
 	void setBlockingDispatch(boolean blockingDispatch);
@@ -104,6 +122,70 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 
 	<T> void dispatchSynchronous(String topicName, T message);
 
+	/**
+	 * Sends a message to an already-resolved topic. Unlike {@link #dispatch(String, Object)}, this
+	 * does not look the topic up by name, so it is the fast path used by {@link Publisher}.
+	 *
+	 * @param topic            the topic this should be sent to
+	 * @param originatingRobot the robot the message originated from
+	 * @param message          the message
+	 * @param <T>              the message type
+	 */
+	<T> void dispatchTo(Topic<T> topic, RobotDetails originatingRobot, T message);
+
+	<T> void dispatchTo(Topic<T> topic, T message);
+
+	/**
+	 * Starts a batch of messages to several topics that are dispatched together.  Every message in
+	 * the batch is stored before any callback is queued, so the batch's callbacks never see half of
+	 * it.  Code reading last values outside those callbacks still can.
+	 *
+	 * @see DispatchBatch
+	 */
+	DispatchBatch batch();
+
+	/**
+	 * Starts a batch of messages that, when it is dispatched, is also published to
+	 * <code>batchTopic</code> as one {@link Batch} message, for subscribers that need several of
+	 * the messages in one callback.  The {@link Batch} is only built while something is subscribed
+	 * to <code>batchTopic</code>.
+	 *
+	 * @see DispatchBatch
+	 */
+	DispatchBatch batch(String batchTopic);
+
+	/**
+	 * Dispatches several messages, by topic name, as one batch
+	 *
+	 * @see #batch()
+	 */
+	void dispatchBatch(Map<String, ?> messages);
+
+	/**
+	 * Gets an unboxed view of a topic of <code>double</code>s, creating the topic if it doesn't
+	 * exist.  Messages dispatched through the view are not boxed unless something needs them boxed.
+	 *
+	 * @param topicName the name of the topic
+	 * @return the unboxed view of the topic
+	 * @throws IllegalArgumentException if the topic already has a view of a different type
+	 */
+	DoubleTopic doubleTopic(String topicName);
+
+	/**
+	 * Gets an unboxed view of a topic of <code>int</code>s, creating the topic if it doesn't exist.
+	 *
+	 * @see #doubleTopic(String)
+	 */
+	IntTopic intTopic(String topicName);
+
+	/**
+	 * Gets an unboxed view of a topic of <code>boolean</code>s, creating the topic if it doesn't
+	 * exist.
+	 *
+	 * @see #doubleTopic(String)
+	 */
+	BooleanTopic booleanTopic(String topicName);
+
 	/**
 	 * Subscribes to all the specified topics, calling the callback when a message is published to
 	 * any of them
@@ -138,10 +220,52 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 		Class<T> messageType,
 		MessageConsumer<T, String, RobotDetails> callback);
 
+	/**
+	 * Subscribes to a topic, optionally conflating messages: a conflating subscriber that falls
+	 * behind only sees the newest message, rather than working through a backlog.
+	 *
+	 * @param topicName   the name of the topic
+	 * @param messageType the type of the topic
+	 * @param callback    to be called when a message is sent to the topic
+	 * @param conflate    whether a newer message should replace one that is still waiting to be
+	 *                    delivered to this subscriber
+	 * @param <T>         the type param for the topic type
+	 * @return a Subscriber whose callback will be called whenever a message is sent to the topic
+	 */
+	<T> Subscription<T> subscribe(String topicName, Class<T> messageType, Consumer<T> callback, boolean conflate);
+
+	/**
+	 * Subscribes to an already-resolved topic
+	 *
+	 * @param topic    the topic
+	 * @param callback to be called when a message is sent to the topic
+	 * @param <T>      the type param for the topic type
+	 * @return a Subscriber whose callback will be called whenever a message is sent to the topic
+	 */
+	<T> Subscription<T> subscribe(Topic<T> topic, MessageConsumer<T, String, RobotDetails> callback);
+
+	/**
+	 * Subscribes to an already-resolved topic, optionally conflating messages
+	 *
+	 * @param topic    the topic
+	 * @param callback to be called when a message is sent to the topic
+	 * @param conflate whether a newer message should replace one that is still waiting to be
+	 *                 delivered to this subscriber
+	 * @param <T>      the type param for the topic type
+	 * @return a Subscriber whose callback will be called whenever a message is sent to the topic
+	 * @see #subscribe(String, Class, Consumer, boolean)
+	 */
+	<T> Subscription<T> subscribe(
+		Topic<T> topic, MessageConsumer<T, String, RobotDetails> callback, boolean conflate);
+
 	/**
 	 * Subscribes to all current (and future-added) topics whose names are matched by the provided
 	 * {@link Pattern}.
 	 *
+	 * <p>Patterns that just select a namespace, such as <code>.*</code> or <code>log/.*</code>, are
+	 * handled as globs (see {@link #subscribeToGlob}); any other regex has to be tried against every
+	 * topic name, which is slower.
+	 *
 	 * @param namePattern the pattern to match topic names against
 	 * @param callback    the function to call on messages sent to topics matching the requested {@link
 	 *                    Pattern}
@@ -149,6 +273,33 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 	Subscription<Object> subscribeToPattern(
 		Pattern namePattern, MessageConsumer<Object, String, RobotDetails> callback);
 
+	/**
+	 * Subscribes to all current (and future-added) topics whose names are matched by the provided
+	 * glob.  Topic names are split into segments on <code>/</code>; in the glob, a <code>*</code>
+	 * segment matches any one segment and a <code>**</code> segment matches one or more segments.
+	 * For example, <code>gamepad1/*</code> matches <code>gamepad1/x</code> but not
+	 * <code>gamepad1/a/rising</code>, and <code>gamepad1/**</code> matches both.
+	 *
+	 * @param glob     the glob to match topic names against
+	 * @param callback the function to call on messages sent to topics matching the glob
+	 */
+	Subscription<Object> subscribeToGlob(
+		String glob, MessageConsumer<Object, String, RobotDetails> callback);
+
+	/**
+	 * Subscribes to all current (and future-added) topics whose names are matched by the provided
+	 * glob, always running the callback on the given executor.  With <code>Runnable::run</code>, the
+	 * callback runs on the thread that dispatched the message, before the dispatch returns, so it
+	 * must be quick and must never block.
+	 *
+	 * @param glob     the glob to match topic names against
+	 * @param callback the function to call on messages sent to topics matching the glob
+	 * @param executor the executor to run the callback on
+	 * @see #subscribeToGlob(String, MessageConsumer)
+	 */
+	Subscription<Object> subscribeToGlob(
+		String glob, MessageConsumer<Object, String, RobotDetails> callback, Executor executor);
+
 	/**
 	 * Subscribes to all current (and future-added) topics whose names are matched by the provided
 	 * {@link Pattern}.
@@ -204,10 +355,116 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 	 */
 	void startNode(String name, Node node);
 
+	/**
+	 * Constructs and starts nodes of the given classes, each named after its class, and waits for
+	 * them all.  Nodes are constructed at the same time, except that each waits for the nodes it
+	 * {@link com.kuriosityrobotics.powerplay.pubsub.annotation.DependsOn} to start first.  If a node
+	 * can't be constructed, the nodes that depend on it aren't started, but the rest are.
+	 *
+	 * @throws IllegalArgumentException if the nodes depend on each other in a cycle
+	 * @throws RuntimeException         if any of the nodes couldn't be constructed
+	 */
+	void startNodes(Collection<Class<? extends Node>> nodeTypes);
+
+	/**
+	 * @return how long each phase of this orchestrator's startup and each node's constructor took,
+	 * and how long it took for the first control loop to run.  This is also published to
+	 * <code>metrics/startup</code> whenever it changes.
+	 */
+	StartupProfile startupProfile();
+
 	void fireMessageAt(Object datum, String topicName, RobotDetails target);
 
+	/**
+	 * Sets the priority class of a topic, creating the topic if it doesn't exist yet.  Callbacks for
+	 * topics of different priorities are queued and run separately.
+	 *
+	 * @param topicName the name of the topic
+	 * @param priority  the priority class to run the topic's callbacks in
+	 */
+	void setTopicPriority(String topicName, TopicPriority priority);
+
+	/**
+	 * Sets what happens to a topic's callbacks when the queue of its priority class is full, creating
+	 * the topic if it doesn't exist yet.
+	 *
+	 * @param topicName      the name of the topic
+	 * @param overflowPolicy the policy, or <code>null</code> for the default for the topic's priority
+	 */
+	void setTopicOverflowPolicy(String topicName, OverflowPolicy overflowPolicy);
+
+	/**
+	 * Sets how many callbacks the queue of a priority class holds before the {@link OverflowPolicy}
+	 * of each topic kicks in.  Each queue holds 1024 to start with.
+	 */
+	void setCallbackQueueCapacity(TopicPriority priority, int capacity);
+
+	/**
+	 * Sets the lowest level of message that is logged, for every node that hasn't been given its own
+	 * threshold.  Messages below it are dropped before they're queued, and if they're logged through
+	 * a {@link java.util.function.Supplier}, before they're built.  The threshold starts at {@link
+	 * LogLevel#DEBUG} in debug mode and {@link LogLevel#INFO} otherwise.
+	 */
+	void setLogLevel(LogLevel level);
+
+	/**
+	 * Sets the lowest level of message that is logged from the given node
+	 *
+	 * @param nodeName the name the node was started with
+	 * @param level    the threshold, or <code>null</code> to go back to the orchestrator's
+	 */
+	void setLogLevel(String nodeName, LogLevel level);
+
+	/**
+	 * Starts or stops recording pub/sub metrics: the message rate of every topic, how long each
+	 * subscription's deliveries wait in their queue and take to run, and how long callbacks wait in
+	 * each callback lane (which is otherwise reported as zero).  While they're being recorded,
+	 * they are published once a second to <code>metrics/pubsub/topic/&lt;topic&gt;</code> and
+	 * <code>metrics/pubsub/subscriber/&lt;subscription&gt;</code>.  When they're off, they cost a
+	 * volatile read per message.
+	 *
+	 * <p>They can also be switched from another robot by publishing to
+	 * <code>metrics/pubsub/enabled</code>.
+	 */
+	void setPubsubMetricsEnabled(boolean enabled);
+
+	boolean isPubsubMetricsEnabled();
+
+	/**
+	 * Starts or stops tracing messages back to their origin.  While tracing is on, every message is
+	 * given a {@link TraceContext}, which messages dispatched from its callbacks continue, and the age
+	 * of the origin of each message that continues a trace is recorded.  Once a second, these are
+	 * published to <code>metrics/trace/&lt;origin&gt;/&lt;topic&gt;</code> for each chain from an
+	 * origin topic to a topic it led to.  When tracing is off, it costs a volatile read per message.
+	 *
+	 * <p>It can also be switched from another robot by publishing to
+	 * <code>metrics/trace/enabled</code>.
+	 */
+	void setTracingEnabled(boolean enabled);
+
+	boolean isTracingEnabled();
+
+	/**
+	 * @return the executor for {@link SchedulingGroup#GENERAL}
+	 */
 	ScheduledExecutorService nodeExecutorService();
 
+	/**
+	 * @return the executor that runs periodic tasks in the given scheduling group
+	 */
+	ScheduledExecutorService nodeExecutorService(SchedulingGroup group);
+
+	/**
+	 * @return the executor that subscription callbacks for {@link TopicPriority#NORMAL} topics are
+	 * run on
+	 */
+	ExecutorService callbackExecutorService();
+
+	/**
+	 * @return the executor that subscription callbacks for topics of the given priority are run on
+	 */
+	ExecutorService callbackExecutorService(TopicPriority priority);
+
 	void registerNode(NodeInfo requestedNode, Node node);
 
 	/**
@@ -224,6 +481,14 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 	 */
 	void stopNode(Node node);
 
+	/**
+	 * Stops a group of {@link Node}s together.  None of their periodic tasks runs again once any of
+	 * them has started being torn down, and their subscriptions are taken off each topic at once.
+	 *
+	 * @param nodes the nodes to be stopped
+	 */
+	void stopNodes(Collection<? extends Node> nodes);
+
 	/**
 	 * @return an immutable {@link Map} of all registered topics and their names
 	 */
@@ -239,6 +504,14 @@ public interface Orchestrator extends AutoCloseable, LogInterface {
 	 */
 	void removeSubscription(Subscription<?> subscription);
 
+	/**
+	 * Removes several {@link Subscription}s from all the topics they were subscribed to, visiting
+	 * each of those topics once.
+	 *
+	 * @param subscriptions the subscriptions to remove
+	 */
+	void removeSubscriptions(Collection<? extends Subscription<?>> subscriptions);
+
 	/**
 	 * Gets a {@link Set} of all connected {@link RobotDetails}. The returned set is unmodifiable.
 	 *
@@ -7,43 +7,49 @@ import static java.util.Optional.empty;
 import static java.util.Optional.of;
 
 import com.google.common.collect.HashBiMap;
-import com.google.common.io.ByteStreams;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.BidirectionalBridge;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.NodeInfo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.StartupProfile;
 import com.kuriosityrobotics.powerplay.util.ExceptionRunnable;
 import com.kuriosityrobotics.powerplay.util.Instant;
 
-import org.jetbrains.annotations.NotNull;
-
-import java.io.PrintStream;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
-import nu.pattern.OpenCV;
-
 /**
  * The Orchestrator manages subscriptions and publishers to topics and <code>Node</code> lifecycles.
  */
@@ -51,24 +57,28 @@ import nu.pattern.OpenCV;
 class OrchestratorImpl implements Orchestrator {
 	protected final boolean debugMode;
 
-	static {
-		try {
-			OpenCV.loadShared();
-		} catch (Throwable e) {
-//			System.load(
-//				"/usr/local/opencv/share/java/opencv4/lib"
-//					+ Core.NATIVE_LIBRARY_NAME
-//					+ ".dylib");
-		}
-	}
-
-	private final Instant startTime = Instant.now();
+	private final Instant startTime;
+	final StartupProfiler startupProfiler;
 
 	private final Object hardwareMap;
 	private final RobotDetails robotDetails;
 
+	/**
+	 * One callback executor per {@link TopicPriority}, indexed by ordinal
+	 */
+	private final CallbackLane[] callbackLanes;
 	protected final ThreadPoolExecutor callbackExecutorService;
+	/**
+	 * One node executor per {@link SchedulingGroup}, indexed by ordinal
+	 */
+	private final ScheduledExecutorService[] schedulingGroups;
 	protected final ScheduledExecutorService nodeExecutorService;
+	/**
+	 * If not null, the scheduler that periodic tasks, timers and callbacks all run on, in virtual
+	 * time, instead of the thread pools
+	 */
+	private final VirtualTimeScheduler virtualTime;
+	private final Thread shutdownHook;
 	protected final ActionExecutor actionExecutor;
 
 
@@ -79,60 +89,119 @@ class OrchestratorImpl implements Orchestrator {
 	private final Map<String, Node.NodeTimer> actions;
 	private final Map<Node, Set<String>> nodeActions;
 
-	private final HashBiMap<Pattern, Subscription<?>> topicPatternSubscriptions;
+	/**
+	 * Every topic, indexed by name so that pattern subscriptions can find the topics they match
+	 * without scanning all of them
+	 */
+	private final TopicNamespace<Topic<?>> topicNamespace = new TopicNamespace<>();
+	/**
+	 * Pattern subscriptions whose pattern could be turned into a glob, indexed by glob so that a new
+	 * topic can find the subscriptions that match it without trying every pattern
+	 */
+	private final TopicNamespace<Subscription<?>> globSubscriptions = new TopicNamespace<>();
+	private final Map<Subscription<?>, String> subscriptionGlobs = new HashMap<>();
+	/**
+	 * Pattern subscriptions that have to be matched as regexes
+	 */
+	private final Map<Subscription<?>, Pattern> regexSubscriptions = new LinkedHashMap<>();
 	private final HashBiMap<String, Node> nodes;
+	/**
+	 * Every running {@link RunPeriodically} task, for their stats
+	 */
+	private final Set<PeriodicTask> periodicTasks = ConcurrentHashMap.newKeySet();
 
-	protected BidirectionalBridge bridge;
+	protected volatile BidirectionalBridge bridge;
+	private final Object bridgeLock = new Object();
+	/**
+	 * Set once the orchestrator has closed the bridge, so that a bridge that was still starting in the
+	 * background doesn't open its sockets afterwards; guarded by {@link #bridgeLock}
+	 */
+	private boolean bridgeClosed;
 	/**
 	 * If this is true, dispatch() will block until the callback queue is empty. This is useful for
 	 * testing
 	 */
 	private boolean blockingDispatch = false;
+	private volatile boolean pubsubMetricsEnabled;
+	private volatile boolean tracingEnabled;
+
+	/**
+	 * <code>null</code> until the callback lanes exist, since it publishes to the <code>log/</code>
+	 * topics; anything logged before then is written out straight away
+	 */
+	private final AsyncLogger logger;
+	private volatile LogLevel logLevel;
+	private final Map<String, LogLevel> nodeLogLevels = new ConcurrentHashMap<>();
 
 	/**
-	 * Creates a new {@link Orchestrator}. This will create two thread pool: the first one is for
-	 * executing callbacks of publishers. It has a default size of 0, and will grow up to 8 threads.
-	 * The second thread pool has a fixed size, and runs the update functions for Nodes.
+	 * Creates a new {@link Orchestrator}. This will create a callback executor for each {@link
+	 * TopicPriority}, each with its own queue and threads, so that control traffic never waits
+	 * behind diagnostics. A separate thread pool of fixed size runs the update functions for Nodes.
 	 */
 	public OrchestratorImpl(
 		RobotDetails robotDetails,
 		boolean debugMode,
 		boolean startNetwork,
 		Object hardwareMap) {
+		this(robotDetails, debugMode, startNetwork, hardwareMap, null);
+	}
+
+	/**
+	 * Creates a new {@link Orchestrator}, which runs everything on the given {@link
+	 * VirtualTimeScheduler} if it isn't <code>null</code>.  {@link Instant#now()} then follows the
+	 * scheduler's clock until the orchestrator is closed.
+	 */
+	OrchestratorImpl(
+		RobotDetails robotDetails,
+		boolean debugMode,
+		boolean startNetwork,
+		Object hardwareMap,
+		VirtualTimeScheduler virtualTime) {
 		this.robotDetails = robotDetails;
 		this.debugMode = debugMode;
+		this.logLevel = debugMode ? LogLevel.DEBUG : LogLevel.INFO;
+		this.virtualTime = virtualTime;
+		if (virtualTime != null) Instant.setClock(virtualTime);
+		this.startTime = Instant.now();
+		this.startupProfiler = new StartupProfiler(Instant.nowNanos());
+		var phaseStart = Instant.nowNanos();
 
 		this.pubsubAnnotationBinder = new PubsubAnnotationBinder(this);
 
-		this.topics = Collections.synchronizedMap(new TreeMap<>());
+		this.topics = new ConcurrentSkipListMap<>();
 		this.actions = Collections.synchronizedMap(new TreeMap<>());
 		this.nodeActions = new ConcurrentHashMap<>();
-		this.topicPatternSubscriptions = HashBiMap.create();
 		this.nodes = HashBiMap.create();
 
-		this.nodeExecutorService = Executors.newScheduledThreadPool(2, this::createThread);
-
-		this.callbackExecutorService =
-			new ThreadPoolExecutor(
-				2,
-				8,
-				60L,
-				TimeUnit.SECONDS,
-				new LinkedBlockingQueue<>() {
-					@Override
-					public boolean offer(@NotNull Runnable runnable) {
-						try {
-							put(runnable);
-							return true;
-						} catch (InterruptedException e) {
-							return false;
-						}
-					}
-				},
-				this::createThread,
-				(runnable, executor) -> runnable.run());
-		// action executor service has infinite threads
-		this.actionExecutor = new ActionExecutor(this::createThread);
+		var groups = SchedulingGroup.values();
+		this.schedulingGroups = new ScheduledExecutorService[groups.length];
+		for (var group : groups)
+			schedulingGroups[group.ordinal()] = virtualTime != null ? virtualTime : createSchedulingGroup(group);
+		this.nodeExecutorService = nodeExecutorService(SchedulingGroup.GENERAL);
+
+		this.callbackLanes = new CallbackLane[]{
+			createCallbackLane(TopicPriority.CONTROL, 2),
+			createCallbackLane(TopicPriority.NORMAL, 2),
+			createCallbackLane(TopicPriority.DIAGNOSTIC, 1)
+		};
+		this.callbackExecutorService = callbackLane(TopicPriority.NORMAL);
+		startupProfiler.phase("executors", phaseStart);
+
+		phaseStart = Instant.nowNanos();
+		// created up front, so that the first message of each level doesn't add a topic from the
+		// writer thread
+		for (var level : LogLevel.values()) getOrAddTopic(level.topicName(), String.class);
+		this.logger = new AsyncLogger(
+			AsyncLogger.DEFAULT_CAPACITY,
+			this::createThread,
+			this::writeLog,
+			(level, text) -> dispatch(level.topicName(), text));
+		startupProfiler.phase("logger", phaseStart);
+
+		phaseStart = Instant.nowNanos();
+		this.actionExecutor = new ActionExecutor(
+			ActionExecutor.Backend.preferred(), ActionExecutor.DEFAULT_PARALLELISM, this::onUncaughtException);
+		startupProfiler.phase("actions", phaseStart);
 
 		this.hardwareMap = hardwareMap;
 		assertThat(
@@ -141,9 +210,64 @@ class OrchestratorImpl implements Orchestrator {
 
 		startNode("helper", new OrchestratorHelper());
 
-		Runtime.getRuntime().addShutdownHook(createThread(this::close));
+		this.shutdownHook = createThread(this::close);
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+
+		// the bridge has to look up the network interfaces and open its sockets, which is slow, so
+		// it's started in the background; sending a message to another robot starts it straight away
+		if (startNetwork) {
+			nodeExecutorService(SchedulingGroup.IO).execute(() -> {
+				try {
+					startBridge();
+				} catch (Throwable e) {
+					err(e);
+				}
+			});
+		}
+	}
+
+	private CallbackLane createCallbackLane(TopicPriority priority, int threads) {
+		var threadNumber = new AtomicInteger();
+		return new CallbackLane(priority, threads, CallbackLane.DEFAULT_CAPACITY, runnable -> {
+			var thread = createThread(runnable);
+			thread.setName("callback-" + priority.name().toLowerCase() + "-" + threadNumber.incrementAndGet());
+			return thread;
+		});
+	}
+
+	private SchedulingGroupExecutor createSchedulingGroup(SchedulingGroup group) {
+		var threadNumber = new AtomicInteger();
+		return new SchedulingGroupExecutor(group, runnable -> {
+			var thread = createThread(runnable);
+			thread.setName("scheduler-" + group.name().toLowerCase() + "-" + threadNumber.incrementAndGet());
+			thread.setPriority(group.threadPriority());
+			return thread;
+		});
+	}
 
-		if (startNetwork) startBridge();
+	void addPeriodicTask(PeriodicTask task) {
+		periodicTasks.add(task);
+	}
+
+	CallbackLane callbackLane(TopicPriority priority) {
+		return callbackLanes[priority.ordinal()];
+	}
+
+	/**
+	 * @return the executor that callbacks of the given priority run on
+	 */
+	Executor callbackExecutor(TopicPriority priority) {
+		if (virtualTime != null) return virtualTime;
+		return callbackLane(priority);
+	}
+
+	/**
+	 * @return the executor that the given topic's callbacks run on, which applies the topic's
+	 * overflow policy
+	 */
+	Executor callbackExecutor(Topic<?> topic) {
+		if (virtualTime != null) return virtualTime;
+		return callbackLane(topic.priority()).executor(topic.overflowPolicy());
 	}
 
 	protected Thread createThread(Runnable runnable) {
@@ -163,9 +287,16 @@ class OrchestratorImpl implements Orchestrator {
 
 	@Override
 	public void startBridge() {
-		if (bridge == null) {
-			bridge = new BidirectionalBridge(this);
+		if (bridge != null) return;
+
+		synchronized (bridgeLock) {
+			if (bridge != null || bridgeClosed) return;
+
+			var phaseStart = Instant.nowNanos();
+			var bridge = new BidirectionalBridge(this);
+			this.bridge = bridge;
 			startNode("bridge", bridge);
+			startupProfiler.phase("bridge", phaseStart);
 		}
 	}
 
@@ -204,60 +335,268 @@ class OrchestratorImpl implements Orchestrator {
 	}
 
 	@Override
-	public <T> Topic<T> addTopic(String topicName, Class<T> messageType) {
+	public synchronized <T> Topic<T> addTopic(String topicName, Class<T> messageType) {
 		if (topics.get(topicName) != null)
 			throw new IllegalArgumentException("Topic " + topicName + " already exists.");
 
-		var topic = new Topic<>(this, robotDetails, unwrap(messageType));
+		var topic = new Topic<>(this, robotDetails, topicName, unwrap(messageType));
+		topic.setPriority(TopicPriority.defaultFor(topicName));
+		// looked up on every replay, so that it follows the topic's priority
+		topic.setReplayExecutor(task -> callbackExecutor(topic).execute(task));
+		if (pubsubMetricsEnabled) topic.setMetricsEnabled(true);
 
-		topicPatternSubscriptions.forEach(
-			(topicPattern, subscription) -> {
+		for (var subscription : globSubscriptions.globsMatching(topicName))
+			topic.addSubscription((Subscription<? super T>) subscription);
+		regexSubscriptions.forEach(
+			(subscription, topicPattern) -> {
 				if (topicPattern.matcher(topicName).matches())
 					topic.addSubscription((Subscription<? super T>) subscription);
 			});
 
+		topicNamespace.put(topicName, topic);
 		topics.put(topicName, topic);
 
 		return topic;
 	}
 
+	@Override
+	public void setTopicPriority(String topicName, TopicPriority priority) {
+		getOrAddTopic(topicName, Object.class).setPriority(priority);
+	}
+
+	@Override
+	public void setTopicOverflowPolicy(String topicName, OverflowPolicy overflowPolicy) {
+		getOrAddTopic(topicName, Object.class).setOverflowPolicy(overflowPolicy);
+	}
+
+	@Override
+	public void setCallbackQueueCapacity(TopicPriority priority, int capacity) {
+		callbackLane(priority).setCapacity(capacity);
+	}
+
+	@Override
+	public void setPubsubMetricsEnabled(boolean enabled) {
+		List<Topic<?>> topics;
+		synchronized (this) {
+			pubsubMetricsEnabled = enabled;
+			topics = new ArrayList<>(this.topics.values());
+		}
+
+		for (var topic : topics) topic.setMetricsEnabled(enabled);
+		for (var lane : callbackLanes) lane.setWaitsTimed(enabled);
+	}
+
+	@Override
+	public boolean isPubsubMetricsEnabled() {
+		return pubsubMetricsEnabled;
+	}
+
+	@Override
+	public void setTracingEnabled(boolean enabled) {
+		tracingEnabled = enabled;
+		if (enabled) return;
+
+		List<Topic<?>> topics;
+		synchronized (this) {
+			topics = new ArrayList<>(this.topics.values());
+		}
+		for (var topic : topics) topic.clearTraces();
+	}
+
+	@Override
+	public boolean isTracingEnabled() {
+		return tracingEnabled;
+	}
+
+	/**
+	 * Gives a message that is being dispatched to the given topic its trace: the next hop of the
+	 * trace of the message being handled on this thread, if there is one, or a new trace with this
+	 * message as its origin.
+	 *
+	 * @return the trace, or <code>null</code> if tracing is off
+	 */
+	TraceContext trace(Topic<?> topic) {
+		if (!tracingEnabled) return null;
+
+		var now = Instant.nowNanos();
+		var current = TraceContext.current();
+		var trace = current == null ? new TraceContext(topic.name(), now, 0) : current.next();
+		topic.traced(trace, now);
+		return trace;
+	}
+
 	public Set<Node> getNodes() {
-		return nodes.values();
+		synchronized (nodes) {
+			return Set.copyOf(nodes.values());
+		}
 	}
 
 	@Override
-	public synchronized <T> Topic<T> getOrAddTopic(String topicName, Class<T> messageType) {
-		return this.getTopic(topicName, messageType)
-			.orElseGet(() -> addTopic(topicName, messageType));
+	public <T> Topic<T> getOrAddTopic(String topicName, Class<T> messageType) {
+		// fast path: the topic almost always exists already, so don't take the orchestrator's
+		// monitor unless we might need to add it
+		var topic = topics.get(topicName);
+		if (topic != null) return checkMessageType(topic, messageType);
+
+		synchronized (this) {
+			return this.getTopic(topicName, messageType)
+				.orElseGet(() -> addTopic(topicName, messageType));
+		}
+	}
+
+	/**
+	 * @return the topic, as a topic of the given type
+	 * @throws IllegalArgumentException if the topic's messages can't be of the given type
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T> Topic<T> checkMessageType(Topic<?> topic, Class<T> messageType) {
+		var topicType = topic.messageType();
+		// the common cases, without looking up the wrapper types
+		if (topicType == messageType || topicType == Object.class || messageType == Object.class)
+			return (Topic<T>) topic;
+
+		topicType = wrap(topicType);
+		var wrappedType = wrap(messageType);
+		// numbers have always been converted into each other for primitive fields
+		var numbers = Number.class.isAssignableFrom(topicType) && Number.class.isAssignableFrom(wrappedType);
+		if (!numbers && !topicType.isAssignableFrom(wrappedType) && !wrappedType.isAssignableFrom(topicType))
+			throw new IllegalArgumentException(
+				"Topic " + topic.name() + " carries " + topicType.getSimpleName() + ", not " + messageType.getSimpleName());
+		return (Topic<T>) topic;
 	}
 
 	public <T> void dispatch(String topicName, RobotDetails originatingRobot, T message, boolean synchronous) {
 		if (topicName == null) throw new IllegalArgumentException("Topic name cannot be null");
+		if (message == null) throw new IllegalArgumentException("Message cannot be null");
+
+		var topic = this.getOrAddTopic(topicName, (Class<T>) message.getClass());
+		dispatchTo(topic, originatingRobot, message, synchronous);
+	}
+
+	<T> void dispatchTo(Topic<T> topic, RobotDetails originatingRobot, T message, boolean synchronous) {
 		if (originatingRobot == null)
 			throw new IllegalArgumentException("Originating robot cannot be null");
 		if (message == null) throw new IllegalArgumentException("Message cannot be null");
 
-		var topic = this.getOrAddTopic(topicName, (Class<T>) message.getClass());
 		topic.setLastValue(originatingRobot, message);
+		var trace = trace(topic);
 
 		if (synchronous) {
-			topic.handleMessage(
-				this, Runnable::run, message, topicName, originatingRobot
+			topic.deliverMessage(
+				this, Runnable::run, message, topic.name(), originatingRobot, trace
 			);
 			return;
 		}
 
+		var lane = callbackExecutor(topic);
+		// in virtual time, the callbacks can't run until the event thread is free, so waiting for
+		// them would deadlock; the event queue keeps them in order anyway
+		if (!blockingDispatch || virtualTime != null) {
+			topic.deliverMessage(
+				this, lane, message, topic.name(), originatingRobot, trace);
+			return;
+		}
+
+		// only track completion when something is actually going to wait for it
 		var future =
 			topic.handleMessage(
-				this, callbackExecutorService, message, topicName, originatingRobot);
-		if (blockingDispatch) {
-			try {
-				future.get(500, TimeUnit.MILLISECONDS);
-			} catch (TimeoutException | InterruptedException | ExecutionException e) {
-				System.err.println("NAME OF TIMEING OUT TOPIC:  " + topicName + ", MESSAGE:  " + message);
-				err(e);
+				this, lane, message, topic.name(), originatingRobot, trace);
+		try {
+			future.get(500, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | InterruptedException | ExecutionException e) {
+			System.err.println("NAME OF TIMEING OUT TOPIC:  " + topic.name() + ", MESSAGE:  " + message);
+			err(e);
+		}
+	}
+
+	@Override
+	public DispatchBatch batch() {
+		return new DispatchBatch(this, null);
+	}
+
+	@Override
+	public DispatchBatch batch(String batchTopic) {
+		return new DispatchBatch(this, getOrAddTopic(batchTopic, Batch.class));
+	}
+
+	@Override
+	public void dispatchBatch(Map<String, ?> messages) {
+		batch().putAll(messages).dispatch();
+	}
+
+	/**
+	 * @return whether dispatching waits for the callbacks to run
+	 */
+	boolean waitsForCallbacks() {
+		// in virtual time, the callbacks can't run until the event thread is free
+		return blockingDispatch && virtualTime == null;
+	}
+
+	/**
+	 * Dispatches a primitive message from this robot through a {@link PrimitiveTopic}, without boxing
+	 * it unless something needs it boxed.
+	 */
+	void dispatchPrimitive(PrimitiveTopic<?> primitive, long bits) {
+		if (blockingDispatch && virtualTime == null) {
+			// completion tracking needs futures, and so objects, anyway
+			dispatchBoxed(primitive, bits);
+			return;
+		}
+
+		var topic = primitive.topic();
+		topic.deliverPrimitive(this, callbackExecutor(topic), bits, robotDetails, trace(topic));
+	}
+
+	private <T> void dispatchBoxed(PrimitiveTopic<T> primitive, long bits) {
+		dispatchTo(primitive.topic(), robotDetails, primitive.box(bits), false);
+	}
+
+	@Override
+	public DoubleTopic doubleTopic(String topicName) {
+		return primitiveTopic(topicName, Double.class, DoubleTopic.class, DoubleTopic::new);
+	}
+
+	@Override
+	public IntTopic intTopic(String topicName) {
+		return primitiveTopic(topicName, Integer.class, IntTopic.class, IntTopic::new);
+	}
+
+	@Override
+	public BooleanTopic booleanTopic(String topicName) {
+		return primitiveTopic(topicName, Boolean.class, BooleanTopic.class, BooleanTopic::new);
+	}
+
+	/**
+	 * Gets the {@link PrimitiveTopic} view of a topic, creating the topic and the view if needed
+	 */
+	<T, P extends PrimitiveTopic<T>> P primitiveTopic(
+		String topicName, Class<T> messageType, Class<P> viewType, BiFunction<OrchestratorImpl, Topic<T>, P> createView) {
+		var topic = getOrAddTopic(topicName, messageType);
+
+		PrimitiveTopic<T> primitive;
+		synchronized (topic) {
+			primitive = topic.primitive();
+			if (primitive == null) {
+				primitive = createView.apply(this, topic);
+				topic.setPrimitive(primitive);
 			}
 		}
+
+		if (!viewType.isInstance(primitive))
+			throw new IllegalArgumentException(
+				"Topic " + topicName + " is already a " + primitive.getClass().getSimpleName() + ", not a " + viewType.getSimpleName());
+
+		return viewType.cast(primitive);
+	}
+
+	@Override
+	public <T> void dispatchTo(Topic<T> topic, RobotDetails originatingRobot, T message) {
+		dispatchTo(topic, originatingRobot, message, false);
+	}
+
+	@Override
+	public <T> void dispatchTo(Topic<T> topic, T message) {
+		dispatchTo(topic, robotDetails, message, false);
 	}
 
 	public <T> void dispatch(String topicName, T message, boolean synchronous) {
@@ -299,13 +638,44 @@ class OrchestratorImpl implements Orchestrator {
 		return sub;
 	}
 
+	@Override
+	public <T> Subscription<T> subscribe(
+		String topicName, Class<T> messageType, Consumer<T> callback, boolean conflate) {
+		return subscribe(
+			getOrAddTopic(topicName, messageType),
+			(datum, topicName_, robotDetails_) -> callback.accept(datum),
+			conflate);
+	}
+
 	@Override
 	public <T> Subscription<T> subscribe(
 		String topicName,
 		Class<T> messageType,
 		MessageConsumer<T, String, RobotDetails> callback) {
-		var sub = new Subscription<T>(callback);
-		var topic = getOrAddTopic(topicName, messageType);
+		return subscribe(getOrAddTopic(topicName, messageType), callback);
+	}
+
+	@Override
+	public <T> Subscription<T> subscribe(
+		Topic<T> topic, MessageConsumer<T, String, RobotDetails> callback) {
+		return subscribe(topic, callback, null, false);
+	}
+
+	@Override
+	public <T> Subscription<T> subscribe(
+		Topic<T> topic, MessageConsumer<T, String, RobotDetails> callback, boolean conflate) {
+		return subscribe(topic, callback, null, conflate);
+	}
+
+	/**
+	 * Subscribes to a topic, always running the callback on the given executor
+	 *
+	 * @param executor the executor to run the callback on, or <code>null</code> to use the default
+	 * @param conflate whether the subscription should only see the newest message
+	 */
+	<T> Subscription<T> subscribe(
+		Topic<T> topic, MessageConsumer<T, String, RobotDetails> callback, Executor executor, boolean conflate) {
+		var sub = new Subscription<T>(callback, executor, conflate);
 		topic.addSubscription(sub);
 		return sub;
 	}
@@ -313,13 +683,74 @@ class OrchestratorImpl implements Orchestrator {
 	@Override
 	public Subscription<Object> subscribeToPattern(
 		Pattern namePattern, MessageConsumer<Object, String, RobotDetails> callback) {
-		var subscription = new Subscription<>(callback);
-		topicPatternSubscriptions.put(namePattern, subscription);
-		topics.forEach(
-			(topicName, topic) -> {
-				if (namePattern.matcher(topicName).matches())
-					topic.addSubscription(subscription);
-			});
+		return subscribeToPattern(namePattern, callback, null, false);
+	}
+
+	/**
+	 * Subscribes to all topics matching a {@link Pattern}, always running the callback on the given
+	 * executor.  If the pattern just selects a namespace, it is turned into a glob and indexed;
+	 * otherwise, it is matched against the name of every topic.
+	 *
+	 * @param executor the executor to run the callback on, or <code>null</code> to use the default
+	 * @param conflate whether the subscription should only see the newest message on each topic
+	 */
+	Subscription<Object> subscribeToPattern(
+		Pattern namePattern, MessageConsumer<Object, String, RobotDetails> callback, Executor executor, boolean conflate) {
+		var glob = TopicNamespace.globFor(namePattern);
+		if (glob != null)
+			return subscribeToGlob(glob, callback, executor, conflate);
+
+		var subscription = new Subscription<>(callback, executor, conflate);
+		subscription.setDefaultName(namePattern.pattern());
+		var matchingTopics = new ArrayList<Topic<?>>();
+		synchronized (this) {
+			regexSubscriptions.put(subscription, namePattern);
+			topics.forEach(
+				(topicName, topic) -> {
+					if (namePattern.matcher(topicName).matches())
+						matchingTopics.add(topic);
+				});
+		}
+
+		// topics added from here on pick the subscription up themselves
+		for (var topic : matchingTopics)
+			((Topic<Object>) topic).addSubscription(subscription);
+
+		return subscription;
+	}
+
+	@Override
+	public Subscription<Object> subscribeToGlob(
+		String glob, MessageConsumer<Object, String, RobotDetails> callback) {
+		return subscribeToGlob(glob, callback, null, false);
+	}
+
+	@Override
+	public Subscription<Object> subscribeToGlob(
+		String glob, MessageConsumer<Object, String, RobotDetails> callback, Executor executor) {
+		return subscribeToGlob(glob, callback, executor, false);
+	}
+
+	/**
+	 * Subscribes to all topics matching a glob, always running the callback on the given executor
+	 *
+	 * @param executor the executor to run the callback on, or <code>null</code> to use the default
+	 * @param conflate whether the subscription should only see the newest message on each topic
+	 */
+	Subscription<Object> subscribeToGlob(
+		String glob, MessageConsumer<Object, String, RobotDetails> callback, Executor executor, boolean conflate) {
+		var subscription = new Subscription<>(callback, executor, conflate);
+		subscription.setDefaultName(glob);
+		Collection<Topic<?>> matchingTopics;
+		synchronized (this) {
+			globSubscriptions.put(glob, subscription);
+			subscriptionGlobs.put(subscription, glob);
+			matchingTopics = topicNamespace.namesMatchedBy(glob);
+		}
+
+		// topics added from here on pick the subscription up themselves
+		for (var topic : matchingTopics)
+			((Topic<Object>) topic).addSubscription(subscription);
 
 		return subscription;
 	}
@@ -333,9 +764,8 @@ class OrchestratorImpl implements Orchestrator {
 
 	@Override
 	public <T> Publisher<T> publisher(String topicName, Class<T> messageType) {
-		var pub = new Publisher<T>(topicName, this);
-
 		var topic = getOrAddTopic(topicName, messageType);
+		var pub = new Publisher<>(topic, this);
 		topic.addPublisher(pub);
 		return pub;
 	}
@@ -353,7 +783,11 @@ class OrchestratorImpl implements Orchestrator {
 
 	@Override
 	public void startNode(String name, Node node) {
-		if (nodes.containsKey(name)) {
+		boolean running;
+		synchronized (nodes) {
+			running = nodes.containsKey(name);
+		}
+		if (running) {
 			warn("Not starting node with name " + name + " twice.");
 			return;
 		}
@@ -366,6 +800,7 @@ class OrchestratorImpl implements Orchestrator {
 			dispatch(topicName, datum);
 			return;
 		}
+		startBridge();
 		bridge.distributeMessage(datum, topicName, target);
 	}
 
@@ -374,50 +809,119 @@ class OrchestratorImpl implements Orchestrator {
 		return nodeExecutorService;
 	}
 
+	@Override
+	public ScheduledExecutorService nodeExecutorService(SchedulingGroup group) {
+		return schedulingGroups[group.ordinal()];
+	}
+
+	@Override
+	public ExecutorService callbackExecutorService() {
+		if (virtualTime != null) return virtualTime;
+		return callbackExecutorService;
+	}
+
+	@Override
+	public ExecutorService callbackExecutorService(TopicPriority priority) {
+		if (virtualTime != null) return virtualTime;
+		return callbackLane(priority);
+	}
+
 	@Hidden
+	@Scheduling(SchedulingGroup.DIAGNOSTICS)
 	private class OrchestratorHelper extends Node {
 		OrchestratorHelper() {
 			super(OrchestratorImpl.this);
 		}
 
+		@RunPeriodically(maxFrequency = 1)
+		void publishCallbackQueueStats() {
+			for (var lane : callbackLanes) {
+				var stats = lane.sampleStats();
+				dispatch("metrics/callbackQueue/" + stats.lane(), stats);
+			}
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishLoggerStats() {
+			dispatch("metrics/log", logger.sampleStats());
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishSchedulingGroupStats() {
+			for (var executor : schedulingGroups) {
+				if (executor instanceof SchedulingGroupExecutor) {
+					var stats = ((SchedulingGroupExecutor) executor).sampleStats();
+					dispatch("metrics/schedulingGroup/" + stats.group(), stats);
+				}
+			}
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishPeriodicTaskStats() {
+			periodicTasks.removeIf(PeriodicTask::isCancelled);
+			for (var task : periodicTasks)
+				dispatch("metrics/periodic/" + task.name(), task.sampleStats());
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishPubsubStats() {
+			if (!pubsubMetricsEnabled) return;
+
+			var topics = new ArrayList<>(getTopics().values());
+
+			// pattern subscriptions are shared between topics, so each one is only sampled once
+			var subscriptions = Collections.newSetFromMap(new IdentityHashMap<Subscription<?>, Boolean>());
+			for (var topic : topics) {
+				// these are the metrics themselves; counting them is fine, but publishing them would
+				// make a new topic for every one, every second
+				if (topic.name().startsWith("metrics/pubsub/")) continue;
+
+				var stats = topic.sampleStats();
+				if (stats != null && stats.messages() > 0)
+					dispatch("metrics/pubsub/topic/" + topic.name(), stats);
+				subscriptions.addAll(topic.subscriptions());
+			}
+
+			for (var subscription : subscriptions) {
+				var stats = subscription.sampleStats();
+				if (stats != null && stats.deliveries() > 0)
+					dispatch("metrics/pubsub/subscriber/" + stats.subscriber(), stats);
+			}
+		}
+
+		@SubscribedTo(topic = "metrics/pubsub/enabled")
+		void setPubsubMetricsEnabled(Boolean enabled) {
+			OrchestratorImpl.this.setPubsubMetricsEnabled(enabled);
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishTraceStats() {
+			if (!tracingEnabled) return;
+
+			var topics = new ArrayList<>(getTopics().values());
+
+			for (var topic : topics) {
+				for (var stats : topic.sampleTraceStats())
+					dispatch("metrics/trace/" + stats.originTopic() + "/" + stats.topic(), stats);
+			}
+		}
+
+		@SubscribedTo(topic = "metrics/trace/enabled")
+		void setTracingEnabled(Boolean enabled) {
+			OrchestratorImpl.this.setTracingEnabled(enabled);
+		}
+
+		@RunPeriodically(maxFrequency = 1)
+		void publishStartupProfile() {
+			var profile = startupProfiler.sampleIfChanged();
+			if (profile != null) dispatch("metrics/startup", profile);
+		}
+
 		@SubscribedTo(topic = "node/requestStart")
-		void handleStartRequest(NodeInfo requestedNode)
-			throws ClassNotFoundException, NoSuchMethodException, InvocationTargetException,
-			InstantiationException, IllegalAccessException {
+		void handleStartRequest(NodeInfo requestedNode) {
 			Node node = null;
 			try {
-				var constructor =
-					(Constructor<Node>)
-						getClass()
-							.getClassLoader()
-							.loadClass(requestedNode.nodeType())
-							.getDeclaredConstructor();
-				constructor.setAccessible(true);
-				node = constructor.newInstance();
-			} catch (NoSuchMethodException e) {
-				try {
-					var constructor =
-						(Constructor<Node>)
-							getClass()
-								.getClassLoader()
-								.loadClass(requestedNode.nodeType())
-								.getDeclaredConstructor(Orchestrator.class);
-					constructor.setAccessible(true);
-					node = constructor.newInstance(OrchestratorImpl.this);
-				} catch (NoSuchMethodException e1) {
-					if (hardwareMap == null) {
-						throw e1;
-					}
-					var constructor =
-						(Constructor<Node>)
-							getClass()
-								.getClassLoader()
-								.loadClass(requestedNode.nodeType())
-								.getDeclaredConstructor(
-									Orchestrator.class, hardwareMap.getClass());
-					constructor.setAccessible(true);
-					node = constructor.newInstance(OrchestratorImpl.this, hardwareMap);
-				}
+				node = constructNode(getClass().getClassLoader().loadClass(requestedNode.nodeType()));
 			} catch (Throwable e) {
 				err(e);
 			} finally {
@@ -433,6 +937,54 @@ class OrchestratorImpl implements Orchestrator {
 		}
 	}
 
+	/**
+	 * Constructs a node of the given class, with whichever of the constructors
+	 * <code>()</code>, <code>(Orchestrator)</code> and, on a robot,
+	 * <code>(Orchestrator, HardwareMap)</code> it has.
+	 */
+	Node constructNode(Class<?> nodeType) throws ReflectiveOperationException {
+		Constructor<Node> constructor;
+		try {
+			constructor = (Constructor<Node>) nodeType.getDeclaredConstructor();
+			constructor.setAccessible(true);
+			return constructor.newInstance();
+		} catch (NoSuchMethodException e) {
+			try {
+				constructor = (Constructor<Node>) nodeType.getDeclaredConstructor(Orchestrator.class);
+				constructor.setAccessible(true);
+				return constructor.newInstance(this);
+			} catch (NoSuchMethodException e1) {
+				if (hardwareMap == null) throw e1;
+
+				constructor = (Constructor<Node>) nodeType.getDeclaredConstructor(Orchestrator.class, hardwareMap.getClass());
+				constructor.setAccessible(true);
+				return constructor.newInstance(this, hardwareMap);
+			}
+		}
+	}
+
+	@Override
+	public void startNodes(Collection<Class<? extends Node>> nodeTypes) {
+		// the scheduler's thread can't be waited for in virtual time, and there's no point anyway
+		if (virtualTime != null) {
+			new NodeStarter(this, Runnable::run).start(nodeTypes);
+			return;
+		}
+
+		// constructors mostly wait on the hardware rather than use the CPU, so each node gets a thread
+		var threads = Executors.newFixedThreadPool(Math.max(1, nodeTypes.size()), this::createThread);
+		try {
+			new NodeStarter(this, threads).start(nodeTypes);
+		} finally {
+			threads.shutdown();
+		}
+	}
+
+	@Override
+	public StartupProfile startupProfile() {
+		return startupProfiler.profile();
+	}
+
 	@Override
 	public void registerNode(NodeInfo requestedNode, Node node) {
 		debug(
@@ -441,7 +993,13 @@ class OrchestratorImpl implements Orchestrator {
 				+ " as "
 				+ requestedNode.nodeName());
 		pubsubAnnotationBinder.bindMethods(node);
-		nodes.inverse().forcePut(node, requestedNode.nodeName());
+		// the node's binders have been loaded by now, if they're going to be
+		NodeBinders.reportSkipped(this);
+		// nodes can be started from several threads at once by startNodes
+		synchronized (nodes) {
+			nodes.inverse().forcePut(node, requestedNode.nodeName());
+		}
+		startupProfiler.node(requestedNode.nodeName(), node.constructionStartNanos);
 
 		if (!node.getClass().isAnnotationPresent(Hidden.class)) {
 			robotDetails.runningNodes().add(requestedNode);
@@ -452,25 +1010,50 @@ class OrchestratorImpl implements Orchestrator {
 	public void markNodeBeingConstructed(Node node) {
 		info("Constructing node " + Orchestrator.defaultToString(node));
 		pubsubAnnotationBinder.bindFields(node);
-		nodes.inverse().put(node, "[IN CONSTRUCTION] " + Orchestrator.defaultToString(node));
+		synchronized (nodes) {
+			nodes.inverse().put(node, "[IN CONSTRUCTION] " + Orchestrator.defaultToString(node));
+		}
 	}
 
 	@Override
 	@SuppressWarnings("ConstantConditions")
 	public void stopNode(String name) {
-		var node = nodes.get(name);
+		Node node;
+		synchronized (nodes) {
+			node = nodes.get(name);
+		}
 		if (assertThat(node != null, "Attempted to stop node " + name + ", but it is not running."))
 			stopNode(node);
 	}
 
 	@Override
 	public void stopNode(Node node) {
-		node.stopped = true;
-		node.close();
-		nodeActions.getOrDefault(node, Collections.emptySet()).forEach(this::unregisterAction);
-		nodeActions.remove(node);
-		var removedName = nodes.inverse().remove(node);
-		robotDetails.runningNodes().removeIf(n -> n.nodeName().equals(removedName));
+		stopNodes(List.of(node));
+	}
+
+	@Override
+	public void stopNodes(Collection<? extends Node> nodes) {
+		// none of them runs again once any of them has started being torn down
+		for (var node : nodes) {
+			node.stopped = true;
+			node.cancelPeriodicTasks();
+		}
+
+		for (var node : nodes) {
+			node.close();
+			var actions = nodeActions.remove(node);
+			if (actions != null) actions.forEach(this::unregisterAction);
+		}
+
+		var removedNames = new HashSet<String>();
+		synchronized (this.nodes) {
+			for (var node : nodes) {
+				var removedName = this.nodes.inverse().remove(node);
+				if (removedName != null) removedNames.add(removedName);
+			}
+		}
+		if (!removedNames.isEmpty())
+			robotDetails.runningNodes().removeIf(n -> removedNames.contains(n.nodeName()));
 	}
 
 	@Override
@@ -480,9 +1063,28 @@ class OrchestratorImpl implements Orchestrator {
 
 	@Override
 	public void removeSubscription(Subscription<?> subscription) {
-		var values = new HashMap<>(topics);
-		for (var topic : values.values())
-			topic.removeSubscription((Subscription<? super Object>) subscription);
+		removeSubscriptions(List.of(subscription));
+	}
+
+	@Override
+	public void removeSubscriptions(Collection<? extends Subscription<?>> subscriptions) {
+		if (subscriptions.isEmpty()) return;
+
+		synchronized (this) {
+			for (var subscription : subscriptions) {
+				var glob = subscriptionGlobs.remove(subscription);
+				if (glob != null) globSubscriptions.remove(glob, subscription);
+				regexSubscriptions.remove(subscription);
+			}
+		}
+
+		// only the topics the subscriptions are attached to, each of them once
+		var byTopic = new IdentityHashMap<Topic<?>, List<Subscription<?>>>();
+		for (var subscription : subscriptions) {
+			for (var topic : subscription.detachAll())
+				byTopic.computeIfAbsent(topic, __ -> new ArrayList<>()).add(subscription);
+		}
+		byTopic.forEach(Topic::removeDetachedSubscriptions);
 	}
 
 	@Override
@@ -497,22 +1099,47 @@ class OrchestratorImpl implements Orchestrator {
 	public void close() {
 		setBlockingDispatch(true);
 		info("closing");
-		nodes.forEach((k, v) -> stopNode(k));
-		nodeExecutorService.shutdown();
-		callbackExecutorService.shutdown();
+		List<Node> running;
+		synchronized (nodes) {
+			running = new ArrayList<>(nodes.values());
+		}
+		stopNodes(running);
+		for (var executor : distinctSchedulingGroups()) executor.shutdown();
+		for (var lane : callbackLanes) lane.shutdown();
 
 		try {
-			nodeExecutorService.awaitTermination(500, TimeUnit.MILLISECONDS);
-			callbackExecutorService.awaitTermination(500, TimeUnit.MILLISECONDS);
+			for (var executor : distinctSchedulingGroups()) executor.awaitTermination(500, TimeUnit.MILLISECONDS);
+			for (var lane : callbackLanes) lane.awaitTermination(500, TimeUnit.MILLISECONDS);
 		} catch (Throwable e) {
 			e.printStackTrace();
-			nodeExecutorService.shutdownNow();
-			callbackExecutorService.shutdownNow();
+			for (var executor : distinctSchedulingGroups()) executor.shutdownNow();
+			for (var lane : callbackLanes) lane.shutdownNow();
+		}
+		actionExecutor.shutdownNow();
+		synchronized (bridgeLock) {
+			bridgeClosed = true;
+			if (bridge != null) bridge.close();
 		}
-		if (bridge != null) bridge.close();
+		if (virtualTime != null && Instant.clock() == virtualTime) Instant.setClock(null);
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// we're being closed by the hook
+		}
+		logger.close();
 		closed = true;
 	}
 
+	/**
+	 * @return the scheduling group executors, without repeats (they're all the same one in virtual
+	 * time)
+	 */
+	private Set<ScheduledExecutorService> distinctSchedulingGroups() {
+		var executors = Collections.<ScheduledExecutorService>newSetFromMap(new IdentityHashMap<>());
+		Collections.addAll(executors, schedulingGroups);
+		return executors;
+	}
+
 	@Override
 	@SuppressWarnings("deprecation")
 	protected void finalize() {
@@ -535,152 +1162,111 @@ class OrchestratorImpl implements Orchestrator {
 		}, millis, TimeUnit.MILLISECONDS);
 	}
 
-	private static PrintStream printlnStreamFromConsumer(Consumer<String> consumer) {
-		return new PrintStream(ByteStreams.nullOutputStream()) {
-			@Override
-			public void println(String x) {
-				consumer.accept(x);
-			}
-		};
+	@Override
+	public void setLogLevel(LogLevel level) {
+		this.logLevel = level;
+	}
+
+	@Override
+	public void setLogLevel(String nodeName, LogLevel level) {
+		if (level == null) nodeLogLevels.remove(nodeName);
+		else nodeLogLevels.put(nodeName, level);
+	}
+
+	@Override
+	public boolean isLoggable(LogLevel level, Node originatingNode) {
+		// the node's name is only needed if some node has a threshold of its own
+		if (originatingNode == null || nodeLogLevels.isEmpty()) return level.isAtLeast(logLevel);
+		return level.isAtLeast(nodeLogLevels.getOrDefault(getNodeName(originatingNode), logLevel));
+	}
+
+	/**
+	 * Queues a log entry for the writer, if it gets through the threshold of the node that sent it.
+	 * The node's name is only looked up if a node has a threshold of its own, or the entry is
+	 * logged.
+	 */
+	private void log(LogLevel level, Node originatingNode, String msg, Throwable e) {
+		String source = null;
+		if (originatingNode == null || nodeLogLevels.isEmpty()) {
+			if (!level.isAtLeast(logLevel)) return;
+		} else {
+			source = getNodeName(originatingNode);
+			if (!level.isAtLeast(nodeLogLevels.getOrDefault(source, logLevel))) return;
+		}
+		if (source == null && originatingNode != null) source = getNodeName(originatingNode);
+
+		var entry = new LogEntry(Instant.nowNanos(), level, source, Thread.currentThread().getName(), msg, e);
+		if (logger == null) writeLog(entry);
+		else logger.log(entry);
+	}
+
+	/**
+	 * Writes a log entry out.  This is called on the log writer thread, after the entry has been
+	 * queued, so it can afford to be slow.
+	 */
+	protected void writeLog(LogEntry entry) {
+		(entry.level().isAtLeast(LogLevel.WARN) ? System.err : System.out).println(entry);
 	}
 
 	@Override
 	public void err(String msg) {
-		getErrorStream().accept(msg);
+		log(LogLevel.ERR, null, msg, null);
 	}
 
 	@Override
 	public void err(String msg, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		getErrorStream(originatingNode).accept(msg);
+		log(LogLevel.ERR, originatingNode, msg, null);
 	}
 
 	@Override
 	public void err(Throwable e) {
-		e.printStackTrace(printlnStreamFromConsumer(getErrorStream()));
+		log(LogLevel.ERR, null, null, e);
 	}
 
 	@Override
 	public void err(Throwable e, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		e.printStackTrace(printlnStreamFromConsumer(getErrorStream(originatingNode)));
+		log(LogLevel.ERR, originatingNode, null, e);
 	}
 
 	@Override
 	public void warn(String msg) {
-		getWarnStream().accept(msg);
+		log(LogLevel.WARN, null, msg, null);
 	}
 
 	@Override
 	public void warn(String msg, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		getWarnStream(originatingNode).accept(msg);
+		log(LogLevel.WARN, originatingNode, msg, null);
 	}
 
 	@Override
 	public void warn(Throwable e, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		e.printStackTrace(printlnStreamFromConsumer(getWarnStream(originatingNode)));
+		log(LogLevel.WARN, originatingNode, null, e);
 	}
 
 	@Override
 	public void info(String msg) {
-		getInfoStream().accept(msg);
+		log(LogLevel.INFO, null, msg, null);
 	}
 
 	@Override
 	public void info(String msg, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		getInfoStream(originatingNode).accept(msg);
+		log(LogLevel.INFO, originatingNode, msg, null);
 	}
 
 	@Override
 	public void debug(String msg) {
-		getDebugStream().accept(msg);
+		log(LogLevel.DEBUG, null, msg, null);
 	}
 
 	@Override
 	public void debug(String msg, Node originatingNode) {
-		var nodeName = getNodeName(originatingNode);
-		assertThat(
-			nodeName != null,
-			"Attempted to send debug message from node "
-				+ originatingNode
-				+ ", but it is "
-				+ "not"
-				+ " running.");
-		getDebugStream(originatingNode).accept(msg);
+		log(LogLevel.DEBUG, originatingNode, msg, null);
 	}
 
 	protected String getNodeName(Node originatingNode) {
-		return nodes.inverse().getOrDefault(originatingNode, originatingNode.getClass().getSimpleName());
-	}
-
-	protected Consumer<String> getErrorStream() {
-		return x -> System.err.printf("(err): %s%n", x);
-	}
-
-	protected Consumer<String> getErrorStream(Node originatingNode) {
-		return msg -> System.err.printf("[%s] (err): %s%n", getNodeName(originatingNode), msg);
-	}
-
-	protected Consumer<String> getWarnStream() {
-		return x -> System.err.printf("(warn): %s%n", x);
-	}
-
-	protected Consumer<String> getWarnStream(Node originatingNode) {
-		return msg -> System.err.printf("[%s] (warn): %s%n", getNodeName(originatingNode), msg);
-	}
-
-	protected Consumer<String> getInfoStream() {
-		return x -> System.out.printf("(info): %s%n", x);
-	}
-
-	protected Consumer<String> getInfoStream(Node originatingNode) {
-		return msg -> System.out.printf("[%s] (info): %s%n", getNodeName(originatingNode), msg);
-	}
-
-	protected Consumer<String> getDebugStream() {
-		return x -> System.out.printf("(debug): %s%n", x);
-	}
-
-	protected Consumer<String> getDebugStream(Node originatingNode) {
-		return msg -> System.out.printf("[%s] (debug): %s%n", getNodeName(originatingNode), msg);
+		synchronized (nodes) {
+			return nodes.inverse().getOrDefault(originatingNode, originatingNode.getClass().getSimpleName());
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -728,7 +1314,11 @@ class OrchestratorImpl implements Orchestrator {
 	}
 
 	private final AtomicInteger runningActions = new AtomicInteger(0);
-	private final Object runningActionsLock = new Object();
+	/**
+	 * The threads in {@link #awaitActionCompletion()}, which are unparked when the last action
+	 * finishes
+	 */
+	private final Set<Thread> actionCompletionWaiters = ConcurrentHashMap.newKeySet();
 
 	@Override
 	public void actionStarted() {
@@ -737,22 +1327,19 @@ class OrchestratorImpl implements Orchestrator {
 
 	@Override
 	public void actionFinished() {
-		runningActions.updateAndGet(n -> {
-			n--;
-			if (n == 0)
-				synchronized (runningActionsLock) {
-					runningActionsLock.notifyAll();
-				}
-
-			return n;
-		});
+		if (runningActions.decrementAndGet() == 0)
+			actionCompletionWaiters.forEach(LockSupport::unpark);
 	}
 
 	@Override
 	public void awaitActionCompletion() throws InterruptedException {
-		synchronized (runningActionsLock) {
-			if (runningActions.get() > 0)
-				runningActionsLock.wait(0);
+		var thread = Thread.currentThread();
+		actionCompletionWaiters.add(thread);
+		try {
+			// registered before the first check, so the last action to finish can't miss it
+			ActionExecutor.awaitCondition(this::actionsDone);
+		} finally {
+			actionCompletionWaiters.remove(thread);
 		}
 	}
 
@@ -808,11 +1395,13 @@ class OrchestratorImpl implements Orchestrator {
 	}
 
 	public boolean nodeIsRunning(String name) {
-		return nodes.containsKey(name);
+		synchronized (nodes) {
+			return nodes.containsKey(name);
+		}
 	}
 
 	public void stopAllNodes() {
-		for (Node node : Set.copyOf(nodes.values())) {
+		for (Node node : getNodes()) {
 			if (!node.getClass().isAnnotationPresent(Hidden.class))
 				stopNode(node);
 		}
@@ -0,0 +1,41 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+/**
+ * What happens to a callback when the queue of its {@link TopicPriority} is full, because the
+ * subscribers in that priority class aren't keeping up with the publishers.  Each topic has its own
+ * policy; what the lane drops or blocks on is counted, and published with its other stats to
+ * <code>metrics/callbackQueue/&lt;priority&gt;</code>.
+ *
+ * @see Topic#setOverflowPolicy(OverflowPolicy)
+ * @see Orchestrator#setTopicOverflowPolicy(String, OverflowPolicy)
+ * @see Orchestrator#setCallbackQueueCapacity(TopicPriority, int)
+ */
+public enum OverflowPolicy {
+	/**
+	 * The publisher waits until there's room in the queue.  Nothing is lost, but a slow subscriber
+	 * slows down everything that publishes in its priority class.
+	 */
+	BLOCK,
+	/**
+	 * The oldest queued callback in the lane that was also queued with this policy is dropped to make
+	 * room.  If there isn't one, the new callback is dropped instead.  Use this for streams where
+	 * only recent messages matter.
+	 */
+	DROP_OLDEST,
+	/**
+	 * The new callback is dropped.
+	 */
+	DROP_NEWEST,
+	/**
+	 * The publisher runs the callback itself, before the dispatch returns.
+	 */
+	CALLER_RUNS;
+
+	/**
+	 * @return the policy of a topic in the given priority class that hasn't been given one
+	 */
+	static OverflowPolicy defaultFor(TopicPriority priority) {
+		// telemetry and logs aren't worth stalling the robot for
+		return priority == TopicPriority.DIAGNOSTIC ? DROP_OLDEST : BLOCK;
+	}
+}
@@ -0,0 +1,201 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically.Overrun;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.PeriodicTaskStats;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.util.Arrays;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A {@link com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically} task.
+ *
+ * <p>Each run schedules the next one itself, which lets the task run on a fixed-rate grid with
+ * nanosecond periods and choose what to do about overruns, rather than being limited to what
+ * {@link ScheduledExecutorService#scheduleAtFixedRate} does.  Only one run is ever in progress.
+ *
+ * <p>Times come from {@link Instant#nowNanos()}, so under virtual time the task is always on
+ * schedule.
+ */
+final class PeriodicTask implements Runnable {
+	/**
+	 * The number of lateness samples kept per stats period; at higher rates, only the newest are used
+	 * for the percentiles
+	 */
+	private static final int LATENESS_SAMPLES = 1024;
+
+	private final String name;
+	private final Runnable task;
+	private final ScheduledExecutorService executor;
+	private final long periodNanos;
+	private final boolean fixedRate;
+	private final Overrun overrun;
+
+	/**
+	 * When the pending run is due
+	 */
+	private long dueNanos;
+	private long lastStartNanos = -1;
+	private volatile ScheduledFuture<?> next;
+	private volatile boolean cancelled;
+
+	// stats since the last sample, guarded by this
+	private long runs;
+	private long periods;
+	private long totalPeriodNanos;
+	private long totalExecutionNanos;
+	private long maxExecutionNanos;
+	private long missedDeadlines;
+	private final long[] lateness = new long[LATENESS_SAMPLES];
+
+	PeriodicTask(String name, Runnable task, ScheduledExecutorService executor, double frequency, boolean fixedRate, Overrun overrun) {
+		if (!(frequency > 0)) throw new IllegalArgumentException("frequency must be positive");
+
+		this.name = name;
+		this.task = task;
+		this.executor = executor;
+		this.periodNanos = Math.max(1, Math.round(1e9 / frequency));
+		this.fixedRate = fixedRate;
+		this.overrun = overrun;
+	}
+
+	String name() {
+		return name;
+	}
+
+	long periodNanos() {
+		return periodNanos;
+	}
+
+	void start() {
+		dueNanos = Instant.nowNanos();
+		scheduleNext();
+	}
+
+	boolean isCancelled() {
+		return cancelled;
+	}
+
+	void cancel(boolean mayInterruptIfRunning) {
+		cancelled = true;
+		var next = this.next;
+		if (next != null) next.cancel(mayInterruptIfRunning);
+	}
+
+	@Override
+	public void run() {
+		if (cancelled) return;
+
+		var start = Instant.nowNanos();
+		try {
+			task.run();
+		} finally {
+			var end = Instant.nowNanos();
+			record(start, end);
+
+			if (!cancelled) {
+				advance(end);
+				scheduleNext();
+			}
+		}
+	}
+
+	private void advance(long end) {
+		if (!fixedRate) {
+			dueNanos = end + periodNanos;
+			return;
+		}
+
+		dueNanos += periodNanos;
+		if (dueNanos >= end) return;
+
+		// every tick up to and including the end of this run has been missed
+		var missedTicks = (end - dueNanos) / periodNanos + 1;
+		switch (overrun) {
+			case SKIP:
+				dueNanos += missedTicks * periodNanos;
+				addMissed(missedTicks);
+				break;
+			case COALESCE:
+				dueNanos = end;
+				addMissed(missedTicks - 1);
+				break;
+			case CATCH_UP:
+				// the late runs are counted as they start
+				break;
+		}
+	}
+
+	private void scheduleNext() {
+		try {
+			next = executor.schedule(this, Math.max(0, dueNanos - Instant.nowNanos()), NANOSECONDS);
+		} catch (RejectedExecutionException e) {
+			// the orchestrator is closing
+			cancelled = true;
+		}
+	}
+
+	private synchronized void addMissed(long ticks) {
+		missedDeadlines += ticks;
+	}
+
+	private synchronized void record(long start, long end) {
+		var late = Math.max(0, start - dueNanos);
+		lateness[(int) (runs % LATENESS_SAMPLES)] = late;
+		runs++;
+		if (late > periodNanos) missedDeadlines++;
+
+		if (lastStartNanos >= 0) {
+			periods++;
+			totalPeriodNanos += start - lastStartNanos;
+		}
+		lastStartNanos = start;
+
+		var execution = end - start;
+		totalExecutionNanos += execution;
+		maxExecutionNanos = Math.max(maxExecutionNanos, execution);
+	}
+
+	/**
+	 * @return the schedule statistics since the last call to this method
+	 */
+	synchronized PeriodicTaskStats sampleStats() {
+		var samples = Arrays.copyOf(lateness, (int) Math.min(runs, LATENESS_SAMPLES));
+		Arrays.sort(samples);
+
+		var stats = new PeriodicTaskStats(
+			name,
+			periodNanos,
+			runs,
+			periods == 0 ? 0 : totalPeriodNanos / periods,
+			percentile(samples, 0.5),
+			percentile(samples, 0.9),
+			percentile(samples, 0.99),
+			samples.length == 0 ? 0 : samples[samples.length - 1],
+			runs == 0 ? 0 : totalExecutionNanos / runs,
+			maxExecutionNanos,
+			missedDeadlines);
+
+		runs = 0;
+		periods = 0;
+		totalPeriodNanos = 0;
+		totalExecutionNanos = 0;
+		maxExecutionNanos = 0;
+		missedDeadlines = 0;
+		return stats;
+	}
+
+	private static long percentile(long[] sorted, double fraction) {
+		if (sorted.length == 0) return 0;
+		return sorted[(int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1)];
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
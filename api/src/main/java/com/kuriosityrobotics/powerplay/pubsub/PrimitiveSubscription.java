@@ -0,0 +1,86 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A subscription to a {@link PrimitiveTopic} that can be handed a message without boxing it.
+ *
+ * <p>To avoid allocating a task per message, a primitive subscription only ever has one delivery
+ * queued, which delivers the newest value when it runs.  Like a conflating {@link Subscription}, a
+ * subscriber that falls behind skips straight to the latest value.
+ *
+ * @param <T> the boxed type of the topic
+ */
+abstract class PrimitiveSubscription<T> extends Subscription<T> {
+	private final LogInterface logInterface;
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+	private final CallbackLane.Droppable drain;
+
+	private volatile long pendingBits;
+	private volatile TraceContext pendingTrace;
+	/**
+	 * When the queued delivery was queued, or zero if metrics weren't being recorded then
+	 */
+	private long queuedNanos;
+
+	PrimitiveSubscription(LogInterface logInterface, MessageConsumer<? super T, String, RobotDetails> boxedCallback) {
+		super(boxedCallback);
+		this.logInterface = logInterface;
+		this.drain = new CallbackLane.Droppable() {
+			@Override
+			public void run() {
+				drain();
+			}
+
+			@Override
+			public void dropped() {
+				// the next message has to schedule another delivery
+				scheduled.set(false);
+			}
+		};
+	}
+
+	/**
+	 * Hands the subscriber a message without boxing it.  If a delivery is already queued, it will
+	 * deliver this message instead of the one it was going to deliver.
+	 *
+	 * @param trace the message's trace, or <code>null</code> if it isn't being traced
+	 */
+	void deliverBits(long bits, Executor dispatchExecutor, TopicPriority priority, TraceContext trace) {
+		pendingTrace = trace;
+		pendingBits = bits;
+		var metrics = metrics();
+		if (scheduled.compareAndSet(false, true)) {
+			queuedNanos = metrics == null ? 0 : System.nanoTime();
+			executor(dispatchExecutor, priority).execute(drain);
+		} else if (metrics != null) {
+			metrics.conflated.increment();
+		}
+	}
+
+	private void drain() {
+		// clear the flag before reading, so a message that arrives while we're running the callback
+		// schedules another delivery rather than getting lost
+		var queuedNanos = this.queuedNanos;
+		scheduled.set(false);
+
+		var metrics = metrics();
+		var start = metrics == null ? 0 : System.nanoTime();
+		if (metrics != null && queuedNanos != 0) metrics.queueWait.record(start - queuedNanos);
+		var trace = pendingTrace;
+		var previousTrace = trace == null ? null : TraceContext.enter(trace);
+		try {
+			acceptBits(pendingBits);
+		} catch (Throwable e) {
+			logInterface.err(e);
+		} finally {
+			if (trace != null) TraceContext.exit(previousTrace);
+			if (metrics != null) metrics.callback.record(System.nanoTime() - start);
+		}
+	}
+
+	abstract void acceptBits(long bits);
+}
@@ -0,0 +1,149 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An unboxed view of a {@link Topic} whose messages are primitives.
+ *
+ * <p>Messages dispatched through the view are never boxed unless something needs an object: the
+ * local robot's last value is kept in a primitive slot, primitive <code>@LastMessagePublished</code>
+ * fields are set with the primitive setters, and primitive subscriptions are handed the raw value.
+ * Only ordinary subscriptions, object fields and replay cause a message to be boxed, and then only
+ * once.  Messages sent to the underlying topic as objects (from another robot, for example) still
+ * reach everything bound through the view.
+ *
+ * <p>Values are stored as the <code>long</code> bits of the primitive, which lets the three
+ * primitive types share the slot and the subscription machinery.
+ *
+ * @param <T> the boxed type of the topic
+ */
+public abstract class PrimitiveTopic<T> {
+	final OrchestratorImpl orchestrator;
+	final Topic<T> topic;
+
+	/**
+	 * The local robot's last value is guarded by a sequence lock: the version is odd while the slot
+	 * is being written, so a reader that sees the same even version before and after reading has a
+	 * consistent value, time and sequence.  Zero means that nothing has been written yet.
+	 */
+	private final AtomicLong version = new AtomicLong();
+	private volatile long lastBits;
+	private volatile long lastTimeNanos;
+	/**
+	 * The {@link LastValueRecord#sequence} of the value in the slot, so that it can be ordered
+	 * against the records of other robots
+	 */
+	private volatile long lastSequence;
+
+	final List<LastValueBinding> lastValueFields = new CopyOnWriteArrayList<>();
+
+	PrimitiveTopic(OrchestratorImpl orchestrator, Topic<T> topic) {
+		this.orchestrator = orchestrator;
+		this.topic = topic;
+	}
+
+	/**
+	 * @return the topic this is a view of
+	 */
+	public Topic<T> topic() {
+		return topic;
+	}
+
+	public String name() {
+		return topic.name();
+	}
+
+	abstract T box(long bits);
+
+	abstract long unbox(Object value);
+
+	abstract void setField(LastValueBinding binding, long bits) throws IllegalAccessException;
+
+	void dispatchBits(long bits) {
+		orchestrator.dispatchPrimitive(this, bits);
+	}
+
+	/**
+	 * Stores a value in the local robot's slot
+	 */
+	void setLastBits(long bits) {
+		var lastSequence = topic.nextLastValueSequence();
+		var lastTimeNanos = Instant.nowNanos();
+
+		long start;
+		do {
+			start = version.get();
+		} while ((start & 1) != 0 || !version.compareAndSet(start, start + 1));
+
+		this.lastBits = bits;
+		this.lastTimeNanos = lastTimeNanos;
+		this.lastSequence = lastSequence;
+		version.set(start + 2);
+	}
+
+	/**
+	 * @return whether anything has been stored in the local robot's slot
+	 */
+	boolean hasLastValue() {
+		return version.get() != 0;
+	}
+
+	/**
+	 * Reads the local robot's last value.  Check {@link #hasLastValue()} first.
+	 */
+	long lastBits() {
+		while (true) {
+			var start = version.get();
+			var bits = lastBits;
+			if ((start & 1) == 0 && start == version.get()) return bits;
+			Thread.onSpinWait();
+		}
+	}
+
+	Instant lastValueTime() {
+		while (true) {
+			var start = version.get();
+			var time = lastTimeNanos;
+			if ((start & 1) == 0 && start == version.get()) return Instant.createInstant(time);
+			Thread.onSpinWait();
+		}
+	}
+
+	/**
+	 * Reads the local robot's last value, time and sequence together.  Check {@link
+	 * #hasLastValue()} first.
+	 */
+	LastValueRecord<T> lastRecord() {
+		while (true) {
+			var start = version.get();
+			var bits = lastBits;
+			var time = lastTimeNanos;
+			var sequence = lastSequence;
+			if ((start & 1) == 0 && start == version.get()) return new LastValueRecord<>(box(bits), time, sequence);
+			Thread.onSpinWait();
+		}
+	}
+
+	T lastBoxedValue() {
+		return box(lastBits());
+	}
+
+	void addLastValueField(Node node, Field field) {
+		LastValueBinding.bind(node, field, lastValueFields);
+	}
+
+	void setLastValueFields(long bits) {
+		for (var binding : lastValueFields) {
+			try {
+				setField(binding, bits);
+			} catch (IllegalAccessException e) {
+				orchestrator.err(e);
+			}
+		}
+	}
+}
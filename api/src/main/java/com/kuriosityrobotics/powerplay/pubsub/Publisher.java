@@ -3,17 +3,27 @@ package com.kuriosityrobotics.powerplay.pubsub;
 /**
  * A <code>Publisher</code> is an object that publishes messages to a given topic.
  *
+ * <p>The {@link Topic} is resolved once, when the publisher is created, so publishing a message
+ * does not need to look the topic up by name again.
+ *
  * @param <T> The type of message published to the topic
  */
 public final class Publisher<T> {
-	private final String topic;
+	private final Topic<T> topic;
 	private final Orchestrator orchestrator;
 
-	Publisher(String topic, Orchestrator orchestrator) {
+	Publisher(Topic<T> topic, Orchestrator orchestrator) {
 		this.topic = topic;
 		this.orchestrator = orchestrator;
 	}
 
+	/**
+	 * @return the topic that this publisher publishes to
+	 */
+	public Topic<T> topic() {
+		return topic;
+	}
+
 	/**
 	 * Publish a message to the topic.
 	 *
@@ -24,14 +34,23 @@ public final class Publisher<T> {
 			throw new IllegalArgumentException("Message cannot be null");
 		}
 
-		orchestrator.dispatch(topic, message);
+		orchestrator.dispatchTo(topic, message);
 	}
 
 	/**
 	 * Makes the topic that this publisher publishes to replay missed messages to new subscribers.
 	 */
 	Publisher<T> replay() {
-		orchestrator.getTopic(topic).get().setReplay(true);
+		topic.setReplay(true);
+		return this;
+	}
+
+	/**
+	 * Makes the topic that this publisher publishes to replay recent messages to new subscribers, as
+	 * limited by the given policy.
+	 */
+	Publisher<T> replay(ReplayPolicy policy) {
+		topic.setReplay(policy);
 		return this;
 	}
 }
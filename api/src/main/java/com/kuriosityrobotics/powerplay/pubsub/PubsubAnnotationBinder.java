@@ -5,22 +5,38 @@ import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunnableAction;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.ExceptionRunnable;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
-final class PubsubAnnotationBinder {
-	private final Orchestrator orchestrator;
+/**
+ * Binds the annotated members of a {@link Node}: subscriptions, periodic tasks, actions and last
+ * value fields.  Nodes with a generated {@link NodeBinder} are bound through it, without scanning
+ * their members; the others are scanned reflectively.  Both paths end up in the same
+ * <code>bind</code> methods, which generated binders call with the values of the annotations.
+ */
+public final class PubsubAnnotationBinder {
+	private final OrchestratorImpl orchestrator;
 
-	public PubsubAnnotationBinder(Orchestrator orchestrator) {
+	PubsubAnnotationBinder(OrchestratorImpl orchestrator) {
 		this.orchestrator = orchestrator;
 	}
 
-	public void bindFields(Node node) {
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void bindFields(Node node) {
+		NodeBinder binder = NodeBinders.forType(node.getClass());
+		if (binder != null) {
+			node.wrapException(() -> {
+				binder.bindFields(node, this);
+				return null;
+			});
+			return;
+		}
+
 		node.wrapException(
 			() -> {
 				for (Field field : node.getClass().getDeclaredFields()) {
@@ -30,7 +46,17 @@ final class PubsubAnnotationBinder {
 			});
 	}
 
-	public void bindMethods(Node node) {
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	void bindMethods(Node node) {
+		NodeBinder binder = NodeBinders.forType(node.getClass());
+		if (binder != null) {
+			node.wrapException(() -> {
+				binder.bindMethods(node, this);
+				return null;
+			});
+			return;
+		}
+
 		node.wrapException(
 			() -> {
 				for (Method method : node.getClass().getDeclaredMethods()) {
@@ -42,7 +68,27 @@ final class PubsubAnnotationBinder {
 			});
 	}
 
-	private void bindActionIfPresent(Node node, Method method) throws InvocationTargetException, IllegalAccessException {
+	/**
+	 * @return an invoker for one of the node's methods with no parameters, for methods a generated
+	 * binder can't call directly
+	 */
+	public ExceptionRunnable invoker(Node node, String methodName) throws NoSuchMethodException {
+		var method = node.getClass().getDeclaredMethod(methodName);
+		method.setAccessible(true);
+		return MethodInvokers.noArgs(node, method);
+	}
+
+	/**
+	 * @return an invoker for one of the node's subscriber methods, for methods a generated binder
+	 * can't call directly
+	 */
+	public NodeBinder.Subscriber subscriber(Node node, String methodName, Class<?>... parameterTypes) throws NoSuchMethodException {
+		var method = node.getClass().getDeclaredMethod(methodName, parameterTypes);
+		method.setAccessible(true);
+		return MethodInvokers.subscriber(node, method)::accept;
+	}
+
+	private void bindActionIfPresent(Node node, Method method) {
 		var runnableActions = method.getAnnotationsByType(RunnableAction.class);
 
 		if (runnableActions.length == 0) return;
@@ -50,30 +96,50 @@ final class PubsubAnnotationBinder {
 			orchestrator.warn("Multiple @RunnableAction annotations on method" + method);
 
 		method.setAccessible(true);
-		for (var runnableAction : runnableActions) {
-			orchestrator.assertThat(
-				runnableAction.actionName().length() > 0,
-				"Action name length must be greater than 0"
-			);
-			method.setAccessible(true);
-			Node.NodeTimer supplier = () -> {
-				try {
-					method.invoke(node);
-				} catch (IllegalAccessException | InvocationTargetException e) {
-					if (e.getCause() instanceof InterruptedException)
-						return;
+		for (var runnableAction : runnableActions)
+			bindRunnableAction(node, runnableAction.actionName(), MethodInvokers.noArgs(node, method));
+	}
 
-					throw new RuntimeException(e);
-				}
-			};
-			orchestrator.addAction(node, runnableAction.actionName(), supplier);
-		}
+	/**
+	 * Binds a {@link RunnableAction} method
+	 */
+	public void bindRunnableAction(Node node, String actionName, ExceptionRunnable invoker) {
+		orchestrator.assertThat(
+			actionName.length() > 0,
+			"Action name length must be greater than 0"
+		);
+		Node.NodeTimer supplier = () -> {
+			try {
+				invoker.run();
+			} catch (InterruptedException e) {
+				// the action was cancelled
+			} catch (InvocationTargetException e) {
+				if (e.getCause() instanceof InterruptedException)
+					return;
+
+				throw new RuntimeException(e);
+			}
+		};
+		orchestrator.addAction(node, actionName, supplier);
 	}
 
 	private void bindLastMessagePublishedIfPresent(Node node, Field field)
 		throws IllegalAccessException {
 		var lastMessagePublished = field.getAnnotation(LastMessagePublished.class);
 		if (lastMessagePublished == null) return;
+
+		bindLastMessagePublished(node, field, lastMessagePublished.topic());
+	}
+
+	/**
+	 * Binds a {@link LastMessagePublished} field, declared by the node's class, to a topic
+	 */
+	public void bindLastMessagePublished(Node node, String fieldName, String topicName) throws ReflectiveOperationException {
+		bindLastMessagePublished(node, node.getClass().getDeclaredField(fieldName), topicName);
+	}
+
+	private void bindLastMessagePublished(Node node, Field field, String topicName)
+		throws IllegalAccessException {
 		field.setAccessible(true);
 
 		if ((field.getModifiers() & Modifier.FINAL) != 0) {
@@ -81,15 +147,28 @@ final class PubsubAnnotationBinder {
 				"LastMessagePublished fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
 			return;
 		}
-		orchestrator
-			.getOrAddTopic(lastMessagePublished.topic(), field.getType())
-			.addLastValueHandle(node, field);
+		var primitive = primitiveTopicFor(topicName, field.getType());
+		if (primitive != null) {
+			// set with the primitive setters, so the value never needs boxing
+			primitive.addLastValueField(node, field);
+			return;
+		}
+
+		var topic = orchestrator.getOrAddTopic(topicName, field.getType());
+		topic.addLastValueHandle(node, field);
 
 		if (field.get(node) == null) {
-			field.set(node, orchestrator.getTopic(lastMessagePublished.topic()).map(Topic::lastValue).orElse(null));
+			field.set(node, topic.lastValue());
 		}
 	}
 
+	private PrimitiveTopic<?> primitiveTopicFor(String topicName, Class<?> type) {
+		if (type == double.class) return orchestrator.doubleTopic(topicName);
+		if (type == int.class) return orchestrator.intTopic(topicName);
+		if (type == boolean.class) return orchestrator.booleanTopic(topicName);
+		return null;
+	}
+
 	private void bindPeriodicallyIfPresent(Node node, Method method) {
 		var runPeriodicallyList = method.getAnnotationsByType(RunPeriodically.class);
 		if (runPeriodicallyList.length == 0) return;
@@ -99,90 +178,125 @@ final class PubsubAnnotationBinder {
 
 		for (var runPeriodically : runPeriodicallyList) {
 			method.setAccessible(true);
-			orchestrator.assertThat(
-				runPeriodically.maxFrequency() > 0, "frequency must be positive");
-
-			method.setAccessible(true);
-			node.startPeriodicTask(
-				() -> node.wrapException(() -> method.invoke(node)),
-				runPeriodically.maxFrequency());
-			orchestrator.info("Started period:  " + method.getName());
+			bindRunPeriodically(
+				node,
+				method.getName(),
+				MethodInvokers.noArgs(node, method),
+				runPeriodically.maxFrequency(),
+				runPeriodically.fixedRate(),
+				runPeriodically.overrun(),
+				runPeriodically.group());
 		}
 	}
 
+	/**
+	 * Binds a {@link RunPeriodically} method
+	 */
+	public void bindRunPeriodically(Node node, String methodName, ExceptionRunnable invoker, double maxFrequency, boolean fixedRate, RunPeriodically.Overrun overrun, SchedulingGroup group) {
+		orchestrator.assertThat(
+			maxFrequency > 0, "frequency must be positive");
+
+		var taskGroup = group != SchedulingGroup.GENERAL ? group : node.schedulingGroup;
+		var task = node.startPeriodicTask(
+			node.getClass().getSimpleName() + "/" + methodName,
+			() -> {
+				try {
+					invoker.run();
+				} catch (Throwable e) {
+					e.setStackTrace(StackUnwinder.unwind());
+					node.err(e);
+				}
+				// for the startup profile's time to the first control loop
+				if (taskGroup == SchedulingGroup.CONTROL) orchestrator.startupProfiler.controlLoopRan();
+			},
+			taskGroup,
+			maxFrequency,
+			fixedRate,
+			overrun);
+		orchestrator.addPeriodicTask(task);
+		orchestrator.info("Started period:  " + methodName);
+	}
+
 	private void bindSubscribedIfPresent(Node node, Method method) {
 		var subscribedList = method.getAnnotationsByType(SubscribedTo.class);
 		if (subscribedList.length == 0) return;
 
 		for (var subscribed : subscribedList) {
 			method.setAccessible(true);
-			MessageConsumer handle = getSubscriptionHandle(node, method);
+			var invoker = MethodInvokers.subscriber(node, method);
 			var messageType = method.getParameterTypes().length > 0 ? method.getParameterTypes()[0] : Object.class;
 
-			Subscription sub;
-			if (subscribed.isPattern()) {
-				sub =
-					orchestrator.subscribeToPattern(
-						Pattern.compile(subscribed.topic()),
-						(message, topicName, origin) -> {
-							if (subscribed.onlyLocal()
-								&& !origin.equals(orchestrator.robotDetails())) return;
-							if (!messageType.isAssignableFrom(message.getClass())) {
-								orchestrator.err("Method " + method.getName() + "'s parameter of type " + messageType.getSimpleName() + " is not applicable to topic message type " + message.getClass().getSimpleName());
-								return; // should we warn here, or is it ok to just implicitly match on the type?
-							}
-
-							handle.accept(message, topicName, origin);
-						});
-			} else {
-				sub =
-					orchestrator.subscribe(
-						subscribed.topic(),
-						messageType,
-						(message, topicName, origin) -> {
-							if (subscribed.onlyLocal()
-								&& !origin.equals(orchestrator.robotDetails())) return;
-							handle.accept(message, topicName, origin);
-						});
-			}
+			bindSubscribedTo(
+				node,
+				method.getName(),
+				messageType,
+				invoker::accept,
+				subscribed.topic(),
+				subscribed.onlyLocal(),
+				subscribed.isPattern(),
+				subscribed.conflate(),
+				subscribed.priority());
+		}
+	}
+
+	/**
+	 * Binds a {@link SubscribedTo} method
+	 *
+	 * @param messageType the type of the method's first parameter, or <code>Object</code> if it has
+	 *                    none
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	public void bindSubscribedTo(Node node, String methodName, Class<?> messageType, NodeBinder.Subscriber invoker, String topicName, boolean onlyLocal, boolean isPattern, boolean conflate, TopicPriority priority) {
+		MessageConsumer handle = getSubscriptionHandle(node, invoker);
+
+		Subscription sub;
+		if (isPattern) {
+			if (priority != TopicPriority.NORMAL)
+				orchestrator.warn("Ignoring priority of pattern subscription " + methodName);
+			sub =
+				orchestrator.subscribeToPattern(
+					Pattern.compile(topicName),
+					(message, topic, origin) -> {
+						if (onlyLocal
+							&& !origin.equals(orchestrator.robotDetails())) return;
+						if (!messageType.isAssignableFrom(message.getClass())) {
+							orchestrator.err("Method " + methodName + "'s parameter of type " + messageType.getSimpleName() + " is not applicable to topic message type " + message.getClass().getSimpleName());
+							return; // should we warn here, or is it ok to just implicitly match on the type?
+						}
 
-			node.boundSubscriptions.add(sub);
+						handle.accept(message, topic, origin);
+					},
+					node.mailbox,
+					conflate);
+		} else {
+			var topic = orchestrator.getOrAddTopic(topicName, messageType);
+			if (priority != TopicPriority.NORMAL)
+				topic.setPriority(priority);
+			sub =
+				orchestrator.subscribe(
+					topic,
+					(message, topicName_, origin) -> {
+						if (onlyLocal
+							&& !origin.equals(orchestrator.robotDetails())) return;
+						handle.accept(message, topicName_, origin);
+					},
+					node.mailbox,
+					conflate);
 		}
+
+		sub.setName(node.getClass().getSimpleName() + "/" + methodName);
+		node.boundSubscriptions.add(sub);
 	}
 
-	private static MessageConsumer<?, String, RobotDetails> getSubscriptionHandle(Node node, Method method) {
-		var parameterCount = method.getParameterTypes().length;
-
-		MessageConsumer<?, String, RobotDetails> consumer;
-		if (parameterCount == 3)
-			consumer = ((o, s, robotDetails) -> node.wrapException(() -> method.invoke(node, o, s, robotDetails)));
-		else if (parameterCount == 2)
-			consumer = ((o, s, robotDetails) -> node.wrapException(() -> method.invoke(node, o, s)));
-		else if (parameterCount == 1)
-			consumer = ((o, s, robotDetails) -> node.wrapException(() -> method.invoke(node, o)));
-		else if (parameterCount == 0)
-			consumer = ((o, s, robotDetails) -> node.wrapException(() -> method.invoke(node)));
-		else
-			throw new IllegalArgumentException("subscriptions must have 0-3 parameters " + method);
-
-
-		return consumer;
-	}
-
-	/*
-	var callSite = LambdaMetafactory.metafactory(
-	// method handle lookup
-	lookup,
-	// name of the method defined in the target functional interface
-	"accept",
-	// type to be implemented and captured objects
-	// in this case the Node instance is captured
-	MethodType.methodType(Consumer.class, Node.class),
-	MethodType.methodType(void.class, type.parameterType(0)),
-	// method handle to transform
-	handle,
-	// Supplier method real signature (reified)
-	// trim accepts no parameters and returns String
-	MethodType.methodType(void.class, type.parameterType(0)));
-	*/
+	private static MessageConsumer<?, String, RobotDetails> getSubscriptionHandle(Node node, NodeBinder.Subscriber invoker) {
+		// caught here rather than through Node.wrapException, which would capture a lambda per message
+		return (o, s, robotDetails) -> {
+			try {
+				invoker.accept(o, s, robotDetails);
+			} catch (Throwable e) {
+				e.setStackTrace(StackUnwinder.unwind());
+				node.err(e);
+			}
+		};
+	}
 }
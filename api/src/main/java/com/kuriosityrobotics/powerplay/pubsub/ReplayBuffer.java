@@ -0,0 +1,129 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The messages a replaying {@link Topic} keeps for late subscribers, in a ring buffer that holds
+ * at most {@link ReplayPolicy#maxMessages()} of them.  Messages older than {@link
+ * ReplayPolicy#maxAgeNanos()} are evicted as new ones come in, and skipped when taking a snapshot,
+ * so an age-limited buffer only grows as large as the traffic in that window.
+ */
+final class ReplayBuffer<T> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final ReplayPolicy policy;
+
+	private Object[] messages;
+	private String[] topicNames;
+	private RobotDetails[] robots;
+	private long[] times;
+	/**
+	 * The index of the oldest message
+	 */
+	private int head;
+	private int size;
+
+	ReplayBuffer(ReplayPolicy policy) {
+		this.policy = policy;
+
+		var capacity = Math.min(INITIAL_CAPACITY, policy.maxMessages());
+		this.messages = new Object[capacity];
+		this.topicNames = new String[capacity];
+		this.robots = new RobotDetails[capacity];
+		this.times = new long[capacity];
+	}
+
+	ReplayPolicy policy() {
+		return policy;
+	}
+
+	synchronized void add(T message, String topicName, RobotDetails robot) {
+		var now = Instant.nowNanos();
+		evictOlderThan(now);
+
+		if (size == messages.length) {
+			if (size < policy.maxMessages()) grow();
+			else removeOldest();
+		}
+
+		var index = (head + size) % messages.length;
+		messages[index] = message;
+		topicNames[index] = topicName;
+		robots[index] = robot;
+		times[index] = now;
+		size++;
+	}
+
+	/**
+	 * @return the messages that should be replayed now, oldest first
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized List<Replayed<T>> snapshot() {
+		evictOlderThan(Instant.nowNanos());
+
+		var result = new ArrayList<Replayed<T>>(size);
+		for (int i = 0; i < size; i++) {
+			var index = (head + i) % messages.length;
+			result.add(new Replayed<>((T) messages[index], topicNames[index], robots[index]));
+		}
+		return result;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	private void evictOlderThan(long now) {
+		if (policy.maxAgeNanos() == Long.MAX_VALUE) return;
+
+		while (size > 0 && now - times[head] > policy.maxAgeNanos())
+			removeOldest();
+	}
+
+	private void removeOldest() {
+		// don't keep evicted messages reachable
+		messages[head] = null;
+		topicNames[head] = null;
+		robots[head] = null;
+		head = (head + 1) % messages.length;
+		size--;
+	}
+
+	private void grow() {
+		var capacity = (int) Math.min((long) messages.length * 2, policy.maxMessages());
+
+		var newMessages = new Object[capacity];
+		var newTopicNames = new String[capacity];
+		var newRobots = new RobotDetails[capacity];
+		var newTimes = new long[capacity];
+		for (int i = 0; i < size; i++) {
+			var index = (head + i) % messages.length;
+			newMessages[i] = messages[index];
+			newTopicNames[i] = topicNames[index];
+			newRobots[i] = robots[index];
+			newTimes[i] = times[index];
+		}
+
+		messages = newMessages;
+		topicNames = newTopicNames;
+		robots = newRobots;
+		times = newTimes;
+		head = 0;
+	}
+
+	static final class Replayed<T> {
+		final T message;
+		final String topicName;
+		final RobotDetails robot;
+
+		Replayed(T message, String topicName, RobotDetails robot) {
+			this.message = message;
+			this.topicName = topicName;
+			this.robot = robot;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.util.Duration;
+
+/**
+ * How much of a topic's history is replayed to a subscriber that subscribes late: at most the last
+ * {@link #maxMessages()} messages, and only those dispatched within {@link #maxAgeNanos()} of the
+ * subscription.  Whichever limit is hit first wins.
+ *
+ * @see Topic#setReplay(ReplayPolicy)
+ */
+public final class ReplayPolicy {
+	/**
+	 * The policy of a topic that replays with {@link Topic#setReplay(boolean)}
+	 */
+	public static final ReplayPolicy DEFAULT = of(256, Duration.ofSeconds(30));
+
+	private final int maxMessages;
+	private final long maxAgeNanos;
+
+	private ReplayPolicy(int maxMessages, long maxAgeNanos) {
+		if (maxMessages < 1) throw new IllegalArgumentException("maxMessages must be positive, not " + maxMessages);
+		if (maxAgeNanos < 1) throw new IllegalArgumentException("maxAge must be positive, not " + maxAgeNanos + "ns");
+
+		this.maxMessages = maxMessages;
+		this.maxAgeNanos = maxAgeNanos;
+	}
+
+	/**
+	 * @return a policy that replays the last <code>maxMessages</code> messages, however old they are
+	 */
+	public static ReplayPolicy lastMessages(int maxMessages) {
+		return new ReplayPolicy(maxMessages, Long.MAX_VALUE);
+	}
+
+	/**
+	 * @return a policy that replays every message dispatched within <code>maxAge</code>
+	 */
+	public static ReplayPolicy within(Duration maxAge) {
+		return new ReplayPolicy(Integer.MAX_VALUE, maxAge.toNanos());
+	}
+
+	public static ReplayPolicy of(int maxMessages, Duration maxAge) {
+		return new ReplayPolicy(maxMessages, maxAge.toNanos());
+	}
+
+	public int maxMessages() {
+		return maxMessages;
+	}
+
+	public long maxAgeNanos() {
+		return maxAgeNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "ReplayPolicy["
+			+ "maxMessages="
+			+ (maxMessages == Integer.MAX_VALUE ? "unlimited" : maxMessages)
+			+ ", "
+			+ "maxAge="
+			+ (maxAgeNanos == Long.MAX_VALUE ? "unlimited" : maxAgeNanos / 1e9 + "s")
+			+ ']';
+	}
+}
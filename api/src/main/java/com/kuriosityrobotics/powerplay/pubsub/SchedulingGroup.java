@@ -0,0 +1,70 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+/**
+ * A set of threads that {@link com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically}
+ * tasks run on.  Each group has its own threads, at its own thread priority, so a node that blocks
+ * for a long time (in a solver, or on the network) only delays the other nodes in its group.
+ *
+ * @see com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling
+ * @see Orchestrator#nodeExecutorService(SchedulingGroup)
+ */
+public enum SchedulingGroup {
+	/**
+	 * Loops the robot needs to move correctly, such as reading the hubs and driving the motors
+	 */
+	CONTROL(2, Thread.MAX_PRIORITY - 1),
+	/**
+	 * State estimation, such as localisation
+	 */
+	ESTIMATION(1, Thread.MAX_PRIORITY - 2),
+	/**
+	 * Slow, heavy computation, such as path planning and MPC solves
+	 */
+	PLANNING(1, Thread.NORM_PRIORITY),
+	/**
+	 * Work that waits on the network or on files
+	 */
+	IO(2, Thread.NORM_PRIORITY),
+	/**
+	 * Things that are only there for humans to look at, such as telemetry and metrics
+	 */
+	DIAGNOSTICS(1, Thread.MIN_PRIORITY + 1),
+	/**
+	 * Everything that hasn't been put in a group
+	 */
+	GENERAL(2, Thread.NORM_PRIORITY);
+
+	private final int threads;
+	private final int threadPriority;
+
+	SchedulingGroup(int threads, int threadPriority) {
+		this.threads = threads;
+		this.threadPriority = threadPriority;
+	}
+
+	public int threads() {
+		return threads;
+	}
+
+	/**
+	 * @return the {@link Thread#setPriority(int) priority} of the group's threads
+	 */
+	public int threadPriority() {
+		return threadPriority;
+	}
+
+	/**
+	 * @return the priority of the callbacks that a task in this group is as urgent as, for nodes
+	 * whose periodic tasks and callbacks share a {@link Mailbox}
+	 */
+	TopicPriority callbackPriority() {
+		switch (this) {
+			case CONTROL:
+				return TopicPriority.CONTROL;
+			case DIAGNOSTICS:
+				return TopicPriority.DIAGNOSTIC;
+			default:
+				return TopicPriority.NORMAL;
+		}
+	}
+}
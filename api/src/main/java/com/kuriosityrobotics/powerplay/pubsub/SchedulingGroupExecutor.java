@@ -0,0 +1,60 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.kuriosityrobotics.powerplay.pubsub.metrics.SchedulingGroupStats;
+
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The executor for one {@link SchedulingGroup}.  It keeps track of how late tasks start, which is
+ * how long they were kept waiting by the other tasks in the group once they were due.
+ */
+final class SchedulingGroupExecutor extends ScheduledThreadPoolExecutor {
+	private final SchedulingGroup group;
+
+	private final LongAdder tasks = new LongAdder();
+	private final LongAdder totalLatencyNanos = new LongAdder();
+	private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+	SchedulingGroupExecutor(SchedulingGroup group, ThreadFactory threadFactory) {
+		super(group.threads(), threadFactory);
+		this.group = group;
+		// cancelled periodic tasks shouldn't sit in the queue until they would have been due
+		setRemoveOnCancelPolicy(true);
+	}
+
+	SchedulingGroup group() {
+		return group;
+	}
+
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		if (r instanceof RunnableScheduledFuture) {
+			var latency = Math.max(0, -((RunnableScheduledFuture<?>) r).getDelay(NANOSECONDS));
+			tasks.increment();
+			totalLatencyNanos.add(latency);
+			maxLatencyNanos.accumulate(latency);
+		}
+	}
+
+	/**
+	 * @return the latency statistics since the last call to this method
+	 */
+	SchedulingGroupStats sampleStats() {
+		var count = tasks.sumThenReset();
+		var total = totalLatencyNanos.sumThenReset();
+		var max = maxLatencyNanos.getThenReset();
+
+		return new SchedulingGroupStats(
+			group.name().toLowerCase(),
+			count,
+			count == 0 ? 0 : total / count,
+			max,
+			getActiveCount());
+	}
+}
@@ -0,0 +1,72 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.metrics.StartupProfile;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records how long an orchestrator's startup phases and node constructors take, and when its first
+ * control loop runs, for {@link StartupProfile}.
+ */
+final class StartupProfiler {
+	private final long startNanos;
+
+	// guarded by this
+	private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+	private final Map<String, Long> nodeNanos = new LinkedHashMap<>();
+	private volatile long timeToFirstControlLoopNanos = -1;
+	/**
+	 * Whether anything has been recorded since the profile was last sampled
+	 */
+	private volatile boolean changed;
+
+	StartupProfiler(long startNanos) {
+		this.startNanos = startNanos;
+	}
+
+	/**
+	 * Records a phase that started at the given time and has just finished.  The times of phases
+	 * that happen more than once are added up.
+	 */
+	synchronized void phase(String name, long phaseStartNanos) {
+		phaseNanos.merge(name, Instant.nowNanos() - phaseStartNanos, Long::sum);
+		changed = true;
+	}
+
+	/**
+	 * Records a node that has just been started, whose constructor began at the given time
+	 */
+	synchronized void node(String name, long constructionStartNanos) {
+		nodeNanos.put(name, Instant.nowNanos() - constructionStartNanos);
+		changed = true;
+	}
+
+	/**
+	 * Called after every run of a control loop; only the first one is recorded, and the rest cost a
+	 * volatile read
+	 */
+	void controlLoopRan() {
+		if (timeToFirstControlLoopNanos >= 0) return;
+
+		synchronized (this) {
+			if (timeToFirstControlLoopNanos >= 0) return;
+			timeToFirstControlLoopNanos = Instant.nowNanos() - startNanos;
+			changed = true;
+		}
+	}
+
+	synchronized StartupProfile profile() {
+		return new StartupProfile(phaseNanos, nodeNanos, timeToFirstControlLoopNanos);
+	}
+
+	/**
+	 * @return the profile, or <code>null</code> if nothing has changed since it was last sampled
+	 */
+	synchronized StartupProfile sampleIfChanged() {
+		if (!changed) return null;
+		changed = false;
+		return profile();
+	}
+}
@@ -1,7 +1,17 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.SubscriberStats;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
@@ -13,13 +23,240 @@ import java.util.function.Consumer;
  */
 public class Subscription<T> {
 	private final MessageConsumer<? super T, String, RobotDetails> callback;
+	/**
+	 * If not null, the executor this subscription's callback must always be run on (for example, the
+	 * {@link Mailbox} of a {@link com.kuriosityrobotics.powerplay.pubsub.annotation.SingleThreaded}
+	 * node)
+	 */
+	private final Executor executor;
+	/**
+	 * If not null, this subscription is conflating: this holds the newest undelivered message for each
+	 * topic that has a delivery queued
+	 */
+	private final Map<String, PendingMessage<T>> pending;
 
-	Subscription(MessageConsumer<? super T, String, RobotDetails> callback) {
+	private volatile String name;
+	/**
+	 * If not null, how long this subscription's deliveries wait and run for is being recorded
+	 */
+	private volatile DeliveryMetrics metrics;
+
+	/**
+	 * The topics this subscription is attached to, so that removing it only touches those topics;
+	 * guarded by itself
+	 */
+	private final Set<Topic<?>> topics = Collections.newSetFromMap(new IdentityHashMap<>());
+	/**
+	 * Set once the subscription has been removed, after which no topic can attach it again; guarded
+	 * by {@link #topics}
+	 */
+	private boolean removed;
+
+	Subscription(MessageConsumer<? super T, String, RobotDetails> callback, Executor executor, boolean conflate) {
 		this.callback = callback;
+		this.executor = executor;
+		this.pending = conflate ? new ConcurrentHashMap<>() : null;
+	}
+
+	Subscription(MessageConsumer<? super T, String, RobotDetails> callback, Executor executor) {
+		this(callback, executor, false);
+	}
+
+	Subscription(MessageConsumer<? super T, String, RobotDetails> callback) {
+		this(callback, null);
 	}
 
 	Subscription(Consumer<? super T> callback) {
-		this.callback = (datum, topicName_, robotDetails_) -> callback.accept(datum);
+		this((datum, topicName_, robotDetails_) -> callback.accept(datum));
+	}
+
+	/**
+	 * @param priority the priority of the topic the message is from, which a {@link Mailbox} uses to
+	 *                 order it against the node's other work
+	 * @return the executor to run this subscription's callback on, given the one the dispatcher
+	 * would otherwise use
+	 */
+	Executor executor(Executor dispatchExecutor, TopicPriority priority) {
+		if (executor == null) return dispatchExecutor;
+		if (executor instanceof Mailbox) return ((Mailbox) executor).executor(priority);
+		return executor;
+	}
+
+	/**
+	 * @return the name this subscription's metrics are published under
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * Sets the name this subscription's metrics are published under.  By default, a subscription is
+	 * named after the first topic (or pattern) it was subscribed to.
+	 */
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Records that the subscription has been added to the given topic
+	 *
+	 * @return <code>false</code> if the subscription has already been removed, in which case the
+	 * topic mustn't keep it
+	 */
+	boolean attach(Topic<?> topic) {
+		synchronized (topics) {
+			if (removed) return false;
+			topics.add(topic);
+			return true;
+		}
+	}
+
+	/**
+	 * Marks the subscription as removed, so that no more topics can attach it
+	 *
+	 * @return the topics it was attached to, which it still has to be taken off
+	 */
+	List<Topic<?>> detachAll() {
+		synchronized (topics) {
+			removed = true;
+			var attached = new ArrayList<>(topics);
+			topics.clear();
+			return attached;
+		}
+	}
+
+	/**
+	 * @return the topics the subscription is attached to; only tests need this
+	 */
+	List<Topic<?>> topics() {
+		synchronized (topics) {
+			return new ArrayList<>(topics);
+		}
+	}
+
+	void setDefaultName(String name) {
+		if (this.name == null)
+			this.name = name + "@" + Integer.toHexString(System.identityHashCode(this));
+	}
+
+	/**
+	 * Starts or stops recording metrics for this subscription.  Starting it again keeps the metrics
+	 * that are already being recorded.
+	 */
+	void setMetricsEnabled(boolean enabled) {
+		if (!enabled) metrics = null;
+		else if (metrics == null) metrics = new DeliveryMetrics();
+	}
+
+	DeliveryMetrics metrics() {
+		return metrics;
+	}
+
+	/**
+	 * @return the delivery metrics since the last call to this method, or <code>null</code> if they
+	 * aren't being recorded
+	 */
+	SubscriberStats sampleStats() {
+		var metrics = this.metrics;
+		if (metrics == null) return null;
+
+		return new SubscriberStats(
+			name,
+			metrics.conflated.sumThenReset(),
+			metrics.queueWait.sampleStats(),
+			metrics.callback.sampleStats());
+	}
+
+	/**
+	 * @return whether this subscription only ever sees the newest message on a topic, rather than
+	 * every message
+	 */
+	public boolean isConflating() {
+		return pending != null;
+	}
+
+	/**
+	 * Prepares the delivery of a message to this subscription.
+	 *
+	 * <p>For a conflating subscription, if a delivery is already queued for this topic, the message
+	 * replaces the one it was going to deliver, and <code>null</code> is returned because there is
+	 * nothing more to queue.
+	 *
+	 * <p>The task sends anything the callback throws to <code>logInterface</code> itself, so it can
+	 * be handed to an executor as it is.
+	 *
+	 * @param trace the message's trace, which is made current while the callback runs, or
+	 *              <code>null</code> if it isn't being traced
+	 * @return the task that delivers the message, or <code>null</code> if it has been folded into an
+	 * already queued delivery
+	 */
+	Runnable delivery(LogInterface logInterface, T message, String topicName, RobotDetails originatingRobot, TraceContext trace) {
+		var metrics = this.metrics;
+		if (pending == null) {
+			var queuedNanos = metrics == null ? 0 : System.nanoTime();
+			return () -> deliver(logInterface, metrics, queuedNanos, trace, message, topicName, originatingRobot);
+		}
+
+		if (pending.put(topicName, new PendingMessage<>(message, originatingRobot, trace)) != null) {
+			if (metrics != null) metrics.conflated.increment();
+			return null;
+		}
+
+		return new ConflatedDelivery(logInterface, topicName, metrics, metrics == null ? 0 : System.nanoTime());
+	}
+
+	/**
+	 * Prepares the delivery of a replayed message to a conflating subscription.  Unlike {@link
+	 * #delivery}, this doesn't replace a message that is already queued, since that one arrived live
+	 * and is at least as new.
+	 *
+	 * @return the task that delivers the message, or <code>null</code> if a newer one is already
+	 * queued
+	 */
+	Runnable replayDelivery(LogInterface logInterface, T message, String topicName, RobotDetails originatingRobot) {
+		var metrics = this.metrics;
+		if (pending.putIfAbsent(topicName, new PendingMessage<>(message, originatingRobot, null)) != null) {
+			if (metrics != null) metrics.conflated.increment();
+			return null;
+		}
+
+		return new ConflatedDelivery(logInterface, topicName, metrics, metrics == null ? 0 : System.nanoTime());
+	}
+
+	/**
+	 * Runs the callback, recording its metrics if they're being recorded, and logs anything it throws
+	 */
+	private void deliver(LogInterface logInterface, DeliveryMetrics metrics, long queuedNanos, TraceContext trace, T message, String topicName, RobotDetails originatingRobot) {
+		try {
+			if (metrics == null) handle(trace, message, topicName, originatingRobot);
+			else handle(metrics, queuedNanos, trace, message, topicName, originatingRobot);
+		} catch (Throwable e) {
+			logInterface.err(e);
+		}
+	}
+
+	private void handle(DeliveryMetrics metrics, long queuedNanos, TraceContext trace, T message, String topicName, RobotDetails originatingRobot) {
+		var start = System.nanoTime();
+		metrics.queueWait.record(start - queuedNanos);
+		try {
+			handle(trace, message, topicName, originatingRobot);
+		} finally {
+			metrics.callback.record(System.nanoTime() - start);
+		}
+	}
+
+	private void handle(TraceContext trace, T message, String topicName, RobotDetails originatingRobot) {
+		if (trace == null) {
+			handle(message, topicName, originatingRobot);
+			return;
+		}
+
+		var previous = TraceContext.enter(trace);
+		try {
+			handle(message, topicName, originatingRobot);
+		} finally {
+			TraceContext.exit(previous);
+		}
 	}
 
 	/**
@@ -39,4 +276,58 @@ public class Subscription<T> {
 		  throw e;
 	   }
 	}
+
+	/**
+	 * A subscription's delivery metrics.  Durations are measured with {@link System#nanoTime()}, not
+	 * the orchestrator's clock, since they're about how much real time the callbacks cost.
+	 */
+	static final class DeliveryMetrics {
+		final LatencyHistogram queueWait = new LatencyHistogram();
+		final LatencyHistogram callback = new LatencyHistogram();
+		final LongAdder conflated = new LongAdder();
+	}
+
+	/**
+	 * The queued delivery of a conflating subscription, which delivers the newest message on its
+	 * topic when it runs.  If it's dropped, the message is too, so that the next one queues another
+	 * delivery.
+	 */
+	private final class ConflatedDelivery implements CallbackLane.Droppable {
+		private final LogInterface logInterface;
+		private final String topicName;
+		private final DeliveryMetrics metrics;
+		private final long queuedNanos;
+
+		ConflatedDelivery(LogInterface logInterface, String topicName, DeliveryMetrics metrics, long queuedNanos) {
+			this.logInterface = logInterface;
+			this.topicName = topicName;
+			this.metrics = metrics;
+			this.queuedNanos = queuedNanos;
+		}
+
+		@Override
+		public void run() {
+			var newest = pending.remove(topicName);
+			if (newest == null) return;
+
+			deliver(logInterface, metrics, queuedNanos, newest.trace, newest.message, topicName, newest.originatingRobot);
+		}
+
+		@Override
+		public void dropped() {
+			pending.remove(topicName);
+		}
+	}
+
+	private static final class PendingMessage<T> {
+		private final T message;
+		private final RobotDetails originatingRobot;
+		private final TraceContext trace;
+
+		PendingMessage(T message, RobotDetails originatingRobot, TraceContext trace) {
+			this.message = message;
+			this.originatingRobot = originatingRobot;
+			this.trace = trace;
+		}
+	}
 }
@@ -3,22 +3,26 @@ package com.kuriosityrobotics.powerplay.pubsub;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.TopicStats;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.TraceStats;
 import com.kuriosityrobotics.powerplay.util.Instant;
 
-import org.apache.commons.collections4.map.ListOrderedMap;
-
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * A <code>Topic</code> is a pub/sub data channel. It keeps track of a list of subscribers, a list
@@ -30,73 +34,358 @@ public final class Topic<T> {
 	private final LogInterface logInterface;
 
 	private final RobotDetails local;
+	private final String name;
 	private Class<T> messageType;
 	private final Set<Subscription<? super T>> subscriptions;
 	private final Set<Publisher<T>> publishers;
 
-	final Map<Field, Node> lastValueHandles = new HashMap<>();
-	private final ListOrderedMap<RobotDetails, T> lastValue = new ListOrderedMap<>();
-	private final ListOrderedMap<RobotDetails, Instant> lastValueTime = new ListOrderedMap<>();
-
-	private boolean replay = false;
-	private final List<Object[]> replayBuffer = new Vector<>();
-
+	final List<LastValueBinding> lastValueBindings = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Each robot's last value is an immutable {@link LastValueRecord} that is replaced on every
+	 * message, so reads never lock and a writer never blocks readers.  The local robot's record is
+	 * kept in its own field, since it's the one that's read and written the most.
+	 */
+	private volatile LastValueRecord<T> localLastValue;
+	private final Map<RobotDetails, LastValueRecord<T>> remoteLastValues = new ConcurrentHashMap<>();
+	private final AtomicLong lastValueSequence = new AtomicLong();
+	/**
+	 * The number of threads in {@link #waitForMessage()}, so that delivering a message only has to
+	 * take the monitor when somebody is waiting on it
+	 */
+	private volatile int waiters;
+
+	private volatile TopicPriority priority = TopicPriority.NORMAL;
+	/**
+	 * If null, the default policy for the topic's priority
+	 */
+	private volatile OverflowPolicy overflowPolicy;
+	/**
+	 * If not null, the unboxed view of this topic.  The local robot's last value is then kept in the
+	 * view's primitive slot rather than in {@link #localLastValue}.
+	 */
+	private volatile PrimitiveTopic<T> primitive;
+
+	/**
+	 * If not null, metrics are being recorded for this topic, and this counts the messages dispatched
+	 * to it since the last sample
+	 */
+	private volatile LongAdder messageCount;
+	private long statsSampledNanos;
+
+	/**
+	 * The trace of the last message dispatched to this topic while tracing was on
+	 */
+	private volatile TraceContext lastTrace;
+	/**
+	 * How old the origins of the traced messages dispatched to this topic were, by origin topic
+	 */
+	private final Map<String, TraceChain> traceChains = new ConcurrentHashMap<>();
+
+	/**
+	 * If not null, the messages kept to replay to new subscribers
+	 */
+	private volatile ReplayBuffer<T> replayBuffer;
+	/**
+	 * What replays to new subscribers are run on, unless the subscription has its own executor
+	 */
+	private volatile Executor replayExecutor = Runnable::run;
+
+	/**
+	 * Starts or stops replaying recent messages to new subscribers, with the {@link
+	 * ReplayPolicy#DEFAULT default policy}.  This keeps what has already been recorded if the topic
+	 * is already replaying.
+	 */
 	public void setReplay(boolean replay) {
-		this.replay = replay;
+		if (!replay) replayBuffer = null;
+		else if (replayBuffer == null) setReplay(ReplayPolicy.DEFAULT);
+	}
+
+	/**
+	 * Starts replaying recent messages to new subscribers, as limited by the given policy, or stops
+	 * if it is <code>null</code>.  Anything recorded under the previous policy is forgotten.
+	 */
+	public void setReplay(ReplayPolicy policy) {
+		replayBuffer = policy == null ? null : new ReplayBuffer<>(policy);
 	}
 
 	public boolean isReplay() {
-		return replay;
+		return replayBuffer != null;
+	}
+
+	/**
+	 * @return the policy of the messages replayed to new subscribers, or <code>null</code> if this
+	 * topic doesn't replay
+	 */
+	public ReplayPolicy replayPolicy() {
+		var replayBuffer = this.replayBuffer;
+		return replayBuffer == null ? null : replayBuffer.policy();
+	}
+
+	void setReplayExecutor(Executor replayExecutor) {
+		this.replayExecutor = replayExecutor;
 	}
 
 	Topic(
 		LogInterface logInterface, RobotDetails local,
+		String name,
 		Class<T> messageType,
 		Set<Subscription<? super T>> subscriptions,
 		Set<Publisher<T>> publishers) {
 		this.logInterface = logInterface;
 		this.local = local;
+		this.name = name;
 		this.messageType = messageType;
 		this.subscriptions = subscriptions;
 		this.publishers = publishers;
 	}
 
-	public Topic(LogInterface logInterface, RobotDetails local, Class<T> messageType) {
-		this(logInterface, local, messageType, ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+	public Topic(LogInterface logInterface, RobotDetails local, String name, Class<T> messageType) {
+		this(logInterface, local, name, messageType, ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+	}
+
+	/**
+	 * @return the name this topic is registered under in its {@link Orchestrator}
+	 */
+	public String name() {
+		return name;
+	}
+
+	/**
+	 * @return the priority class this topic's callbacks are run in
+	 */
+	public TopicPriority priority() {
+		return priority;
+	}
+
+	/**
+	 * Moves this topic's callbacks into a different priority class.  Messages that have already been
+	 * queued stay where they are.
+	 */
+	public void setPriority(TopicPriority priority) {
+		this.priority = Objects.requireNonNull(priority);
+	}
+
+	/**
+	 * @return what happens to this topic's callbacks when the queue of its priority class is full
+	 */
+	public OverflowPolicy overflowPolicy() {
+		var overflowPolicy = this.overflowPolicy;
+		return overflowPolicy == null ? OverflowPolicy.defaultFor(priority) : overflowPolicy;
+	}
+
+	/**
+	 * Sets what happens to this topic's callbacks when the queue of its priority class is full.
+	 * <code>null</code> goes back to the default for the topic's priority.
+	 */
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
 	}
 
+	PrimitiveTopic<T> primitive() {
+		return primitive;
+	}
+
+	void setPrimitive(PrimitiveTopic<T> primitive) {
+		this.primitive = primitive;
+	}
+
+	/**
+	 * @return a snapshot of the last value published by each robot, starting with the local robot
+	 */
 	public Map<RobotDetails, T> lastValues() {
-		return Collections.synchronizedMap(lastValue);
+		var result = new LinkedHashMap<RobotDetails, T>();
+		var localRecord = localRecord();
+		if (localRecord != null) result.put(local, localRecord.value);
+		remoteLastValues.forEach((robot, record) -> result.put(robot, record.value));
+		return Collections.unmodifiableMap(result);
+	}
+
+	/**
+	 * @return a snapshot of when each robot last published, starting with the local robot
+	 */
+	public Map<RobotDetails, Instant> lastValueTimes() {
+		var result = new LinkedHashMap<RobotDetails, Instant>();
+		var localRecord = localRecord();
+		if (localRecord != null) result.put(local, localRecord.time());
+		remoteLastValues.forEach((robot, record) -> result.put(robot, record.time()));
+		return Collections.unmodifiableMap(result);
 	}
 
 	public Set<RobotDetails> activeRobotDetailsPublishingToThisTopic() {
-		return lastValue.keySet();
+		var result = new LinkedHashSet<RobotDetails>();
+		if (hasLocalValue()) result.add(local);
+		result.addAll(remoteLastValues.keySet());
+		return Collections.unmodifiableSet(result);
+	}
+
+	public T lastValue() {
+		var primitive = this.primitive;
+		if (primitive != null && primitive.hasLastValue()) return primitive.lastBoxedValue();
+
+		var record = localLastValue;
+		return record == null ? null : record.value;
 	}
 
-	public synchronized T lastValue() {
-		return lastValue.get(local);
+	public Instant lastValueTime() {
+		var primitive = this.primitive;
+		if (primitive != null && primitive.hasLastValue()) return primitive.lastValueTime();
+
+		var record = localLastValue;
+		return record == null ? null : record.time();
 	}
 
-	public synchronized Instant lastValueTime() {
-		return lastValueTime.get(local);
+	/**
+	 * @return the last value published by the given robot, or <code>null</code> if it hasn't
+	 *     published anything
+	 */
+	public T lastValue(RobotDetails robot) {
+		if (robot.equals(local)) return lastValue();
+
+		var record = remoteLastValues.get(robot);
+		return record == null ? null : record.value;
 	}
 
-	public synchronized ListOrderedMap<RobotDetails, Instant> lastValueTimes() {
-		return lastValueTime;
+	/**
+	 * @return when the given robot last published, or <code>null</code> if it hasn't published
+	 *     anything
+	 */
+	public Instant lastValueTime(RobotDetails robot) {
+		if (robot.equals(local)) return lastValueTime();
+
+		var record = remoteLastValues.get(robot);
+		return record == null ? null : record.time();
 	}
 
-	public synchronized void setLastValue(RobotDetails robotDetails, T lastValue) {
-		this.lastValue.put(robotDetails, lastValue);
-		this.lastValueTime.put(robotDetails, Instant.now());
+	/**
+	 * @return the value that was stored most recently, by any robot, or <code>null</code> if nothing
+	 *     has been published
+	 */
+	public T newestValue() {
+		var newest = localRecord();
+		for (var record : remoteLastValues.values()) {
+			if (newest == null || record.sequence > newest.sequence) newest = record;
+		}
+
+		return newest == null ? null : newest.value;
+	}
+
+	public void setLastValue(RobotDetails robotDetails, T lastValue) {
+		var primitive = this.primitive;
+		var isLocal = robotDetails.equals(local);
+		if (primitive != null && isLocal) {
+			primitive.setLastBits(primitive.unbox(lastValue));
+			return;
+		}
+
+		var record = new LastValueRecord<>(lastValue, Instant.nowNanos(), nextLastValueSequence());
+		if (isLocal) localLastValue = record;
+		else remoteLastValues.put(robotDetails, record);
 	}
 
-	void removeSubscription(Subscription<? super T> subscription) {
-		subscriptions.remove(subscription);
+	long nextLastValueSequence() {
+		return lastValueSequence.incrementAndGet();
+	}
+
+	private boolean hasLocalValue() {
+		var primitive = this.primitive;
+		return (primitive != null && primitive.hasLastValue()) || localLastValue != null;
+	}
+
+	private LastValueRecord<T> localRecord() {
+		var primitive = this.primitive;
+		if (primitive != null && primitive.hasLastValue()) return primitive.lastRecord();
+
+		return localLastValue;
+	}
+
+	/**
+	 * Starts or stops recording metrics for this topic and its subscriptions
+	 */
+	void setMetricsEnabled(boolean enabled) {
+		if (!enabled) {
+			messageCount = null;
+		} else if (messageCount == null) {
+			statsSampledNanos = Instant.nowNanos();
+			messageCount = new LongAdder();
+		}
+
+		for (var subscription : subscriptions)
+			subscription.setMetricsEnabled(enabled);
+	}
+
+	/**
+	 * @return the traffic since the last call to this method, or <code>null</code> if metrics aren't
+	 * being recorded
+	 */
+	TopicStats sampleStats() {
+		var messageCount = this.messageCount;
+		if (messageCount == null) return null;
+
+		var now = Instant.nowNanos();
+		var messages = messageCount.sumThenReset();
+		var elapsed = now - statsSampledNanos;
+		statsSampledNanos = now;
+
+		return new TopicStats(name, messages, elapsed > 0 ? messages * 1e9 / elapsed : 0, subscriptions.size());
+	}
+
+	/**
+	 * @return the trace of the last message dispatched to this topic while tracing was on, or
+	 * <code>null</code> if there wasn't one
+	 */
+	public TraceContext lastTrace() {
+		return lastTrace;
+	}
+
+	/**
+	 * Records that a message with the given trace is being dispatched to this topic
+	 */
+	void traced(TraceContext trace, long nowNanos) {
+		lastTrace = trace;
+		if (trace.hops() == 0) return;
+
+		var chain = traceChains.get(trace.originTopic());
+		if (chain == null) chain = traceChains.computeIfAbsent(trace.originTopic(), origin -> new TraceChain());
+		chain.hops = trace.hops();
+		chain.age.record(nowNanos - trace.originNanos());
+	}
+
+	/**
+	 * @return the age of the traced messages dispatched to this topic since the last call to this
+	 * method, for each origin that led to at least one
+	 */
+	List<TraceStats> sampleTraceStats() {
+		var result = new ArrayList<TraceStats>();
+		traceChains.forEach((origin, chain) -> {
+			var age = chain.age.sampleStats();
+			if (age.count() > 0) result.add(new TraceStats(origin, name, chain.hops, age));
+		});
+		return result;
+	}
+
+	/**
+	 * Forgets the traces dispatched to this topic, once tracing has been switched off
+	 */
+	void clearTraces() {
+		lastTrace = null;
+		traceChains.clear();
+	}
+
+	Set<Subscription<? super T>> subscriptions() {
+		return Collections.unmodifiableSet(subscriptions);
+	}
+
+	/**
+	 * Takes subscriptions that have already been {@link Subscription#detachAll() detached} off this
+	 * topic, all at once
+	 */
+	void removeDetachedSubscriptions(Collection<? extends Subscription<?>> removed) {
+		subscriptions.removeAll(removed);
 	}
 
 	public void addLastValueHandle(Node target, Field handle) {
-		handle.setAccessible(true);
-		lastValueHandles.put(handle, target);
+		LastValueBinding.bind(target, handle, lastValueBindings);
 	}
 
 	public Class<T> messageType() {
@@ -107,6 +396,12 @@ public final class Topic<T> {
 		this.messageType = messageType;
 	}
 
+	/**
+	 * Hands a message to every subscriber on the given executor, and returns a future that completes
+	 * once they have all run.  This allocates a future per subscriber, so it should only be used when
+	 * the caller actually needs to know when the message has been handled; otherwise, use {@link
+	 * #deliverMessage}.
+	 */
 	public ListenableFuture<?> handleMessage
 		(
 			LogInterface logInterface,
@@ -115,32 +410,28 @@ public final class Topic<T> {
 			String topicName,
 			RobotDetails robot
 		) {
-		if (replay) {
-			replayBuffer.add(new Object[]{message, topicName, robot});
-		}
-
-		for (var handle : lastValueHandles.entrySet()) {
-			try {
-				handle.getKey().set(handle.getValue(), message);
-			} catch (IllegalAccessException e) {
-				logInterface.err(e);
-			}
-		}
+		return handleMessage(logInterface, executor, message, topicName, robot, null);
+	}
 
-		synchronized (this) {
-			notifyAll();
-		}
+	ListenableFuture<?> handleMessage
+		(
+			LogInterface logInterface,
+			Executor executor,
+			T message,
+			String topicName,
+			RobotDetails robot,
+			TraceContext trace
+		) {
+		beforeDelivery(logInterface, message, topicName, robot);
 
 		var futures = new ArrayList<ListenableFuture<?>>();
-//		var state = StackUnwinder.saveCurrent();
 		subscriptions.forEach(
 			subscription -> {
-				var future =
-					Futures.submit(
-						() -> {
-//							StackUnwinder.publishStackElementThreadLocal.set(state);
-							subscription.handle(message, topicName, robot);
-						}, executor);
+				var delivery = subscription.delivery(logInterface, message, topicName, robot, trace);
+				// a conflating subscription already has this message queued
+				if (delivery == null) return;
+
+				var future = CallbackLane.submit(delivery, subscription.executor(executor, priority));
 				futures.add(
 					Futures.catching(
 						future,
@@ -155,6 +446,134 @@ public final class Topic<T> {
 		return Futures.allAsList(futures);
 	}
 
+	/**
+	 * Hands a message to every subscriber on the given executor without tracking completion.  No
+	 * futures are created; exceptions thrown by subscribers are sent straight to {@link
+	 * LogInterface#err(Throwable)}.
+	 */
+	public void deliverMessage
+		(
+			LogInterface logInterface,
+			Executor executor,
+			T message,
+			String topicName,
+			RobotDetails robot
+		) {
+		deliverMessage(logInterface, executor, message, topicName, robot, null);
+	}
+
+	void deliverMessage
+		(
+			LogInterface logInterface,
+			Executor executor,
+			T message,
+			String topicName,
+			RobotDetails robot,
+			TraceContext trace
+		) {
+		beforeDelivery(logInterface, message, topicName, robot);
+
+		for (var subscription : subscriptions)
+			deliverTo(subscription, logInterface, executor, priority, message, topicName, robot, trace);
+	}
+
+	/**
+	 * Hands a primitive message, dispatched through this topic's {@link PrimitiveTopic} by the local
+	 * robot, to every subscriber.  The message is only boxed if an ordinary subscriber, an object
+	 * field or the replay buffer needs it.
+	 */
+	void deliverPrimitive(LogInterface logInterface, Executor executor, long bits, RobotDetails robot, TraceContext trace) {
+		var primitive = this.primitive;
+		var boxed = storePrimitive(logInterface, bits, robot);
+
+		for (var subscription : subscriptions) {
+			if (subscription instanceof PrimitiveSubscription) {
+				((PrimitiveSubscription<?>) subscription).deliverBits(bits, executor, priority, trace);
+				continue;
+			}
+
+			if (boxed == null) boxed = primitive.box(bits);
+			deliverTo(subscription, logInterface, executor, priority, boxed, name, robot, trace);
+		}
+	}
+
+	/**
+	 * Stores a message as the last value and in the fields bound to this topic, without handing it
+	 * to the subscribers.  Used by {@link DispatchBatch}, which stores a whole batch before
+	 * delivering any of it.
+	 */
+	void store(LogInterface logInterface, T message, RobotDetails robot) {
+		setLastValue(robot, message);
+		beforeDelivery(logInterface, message, name, robot);
+	}
+
+	/**
+	 * Stores a primitive message, dispatched through this topic's {@link PrimitiveTopic} by the
+	 * local robot, without handing it to the subscribers.
+	 *
+	 * @return the boxed message, if something needed it boxed, or <code>null</code>
+	 */
+	T storePrimitive(LogInterface logInterface, long bits, RobotDetails robot) {
+		var primitive = this.primitive;
+		primitive.setLastBits(bits);
+		countMessage();
+
+		T boxed = null;
+		var replayBuffer = this.replayBuffer;
+		if (replayBuffer != null || !lastValueBindings.isEmpty()) {
+			boxed = primitive.box(bits);
+			if (replayBuffer != null) replayBuffer.add(boxed, name, robot);
+			setLastValueHandles(logInterface, boxed);
+		}
+		primitive.setLastValueFields(bits);
+
+		wakeWaiters();
+		return boxed;
+	}
+
+	private static <T> void deliverTo(Subscription<? super T> subscription, LogInterface logInterface, Executor executor, TopicPriority priority, T message, String topicName, RobotDetails robot, TraceContext trace) {
+		var delivery = subscription.delivery(logInterface, message, topicName, robot, trace);
+		if (delivery == null) return;
+
+		// the delivery logs its own errors, so it needn't be wrapped
+		subscription.executor(executor, priority).execute(delivery);
+	}
+
+	private void beforeDelivery(LogInterface logInterface, T message, String topicName, RobotDetails robot) {
+		countMessage();
+		var replayBuffer = this.replayBuffer;
+		if (replayBuffer != null) replayBuffer.add(message, topicName, robot);
+
+		setLastValueHandles(logInterface, message);
+		var primitive = this.primitive;
+		if (primitive != null) primitive.setLastValueFields(primitive.unbox(message));
+
+		wakeWaiters();
+	}
+
+	private void countMessage() {
+		var messageCount = this.messageCount;
+		if (messageCount != null) messageCount.increment();
+	}
+
+	private void wakeWaiters() {
+		if (waiters == 0) return;
+
+		synchronized (this) {
+			notifyAll();
+		}
+	}
+
+	private void setLastValueHandles(LogInterface logInterface, T message) {
+		for (var binding : lastValueBindings) {
+			try {
+				binding.set(message);
+			} catch (IllegalAccessException e) {
+				logInterface.err(e);
+			}
+		}
+	}
+
 	@Override
 	public boolean equals(Object obj) {
 		if (obj == this) return true;
@@ -173,9 +592,18 @@ public final class Topic<T> {
 	@Override
 	public String toString() {
 		return "Topic["
+			+ "name="
+			+ name
+			+ ", "
 			+ "messageType="
 			+ messageType
 			+ ", "
+			+ "priority="
+			+ priority
+			+ ", "
+			+ "overflowPolicy="
+			+ overflowPolicy()
+			+ ", "
 			+ "subscriptions="
 			+ subscriptions
 			+ ", "
@@ -184,17 +612,49 @@ public final class Topic<T> {
 			+ ']';
 	}
 
+	/**
+	 * Adds a subscription.  If this topic replays, the recent messages are delivered to the
+	 * subscription in one task on its executor, rather than on the calling thread; a conflating
+	 * subscription is only replayed the newest one, and only if no live message is already queued for
+	 * it.  Messages dispatched while the subscription is being added can arrive before the replay, or
+	 * be delivered twice, and on a lane with several threads live messages can run alongside it.
+	 */
 	public void addSubscription(Subscription<? super T> sub) {
+		sub.setDefaultName(name);
 		subscriptions.add(sub);
-		if (replay) {
-			replayBuffer.forEach(
-				arr -> {
-					var message = (T) arr[0];
-					var topicName = (String) arr[1];
-					var robot = (RobotDetails) arr[2];
-					sub.handle(message, topicName, robot);
-				});
+		// if the subscription is being removed at the same time, either this or the removal takes it
+		// off again
+		if (!sub.attach(this)) {
+			subscriptions.remove(sub);
+			return;
+		}
+		// if metrics are being switched on at the same time, either this or setMetricsEnabled sees
+		// the subscription
+		if (messageCount != null) sub.setMetricsEnabled(true);
+
+		var replayBuffer = this.replayBuffer;
+		if (replayBuffer != null) replay(sub, replayBuffer.snapshot());
+	}
+
+	private void replay(Subscription<? super T> sub, List<ReplayBuffer.Replayed<T>> replayed) {
+		if (replayed.isEmpty()) return;
+
+		var executor = sub.executor(replayExecutor, priority);
+		if (sub.isConflating()) {
+			// the snapshot was taken after the subscription was attached, so this is at least as new
+			// as anything it has been handed live
+			var newest = replayed.get(replayed.size() - 1);
+			var delivery = sub.replayDelivery(logInterface, newest.message, newest.topicName, newest.robot);
+			if (delivery != null) executor.execute(delivery);
+			return;
 		}
+
+		var deliveries = new ArrayList<Runnable>(replayed.size());
+		for (var message : replayed)
+			deliveries.add(sub.delivery(logInterface, message.message, message.topicName, message.robot, null));
+
+		// in one task, so that the history is delivered in order
+		executor.execute(() -> deliveries.forEach(Runnable::run));
 	}
 
 	public void addPublisher(Publisher<T> pub) {
@@ -203,13 +663,23 @@ public final class Topic<T> {
 
 	public T waitForMessage() throws InterruptedException {
 		synchronized (this) {
-			T message;
-			do {
-				this.wait();
-				message = lastValue.get(local);
-			} while (message == null);
-
-			return message;
+			waiters++;
+			try {
+				T message;
+				do {
+					this.wait();
+					message = lastValue();
+				} while (message == null);
+
+				return message;
+			} finally {
+				waiters--;
+			}
 		}
 	}
+
+	private static final class TraceChain {
+		final LatencyHistogram age = new LatencyHistogram();
+		volatile int hops;
+	}
 }
@@ -0,0 +1,173 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * A trie of topic names, split into segments on <code>/</code>.
+ *
+ * <p>Entries can either be stored under concrete topic names and looked up with a glob, or stored
+ * under globs and looked up with a concrete topic name. In a glob, a segment of <code>*</code>
+ * matches exactly one segment of a topic name, and <code>**</code> matches one or more segments.
+ * Every other segment matches only itself. Either way, a lookup walks the trie one segment at a
+ * time, so it costs time proportional to the depth of the name rather than to the number of
+ * entries.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <V> the type of the entries
+ */
+final class TopicNamespace<V> {
+	static final String ANY_SEGMENT = "*";
+	static final String ANY_SEGMENTS = "**";
+
+	private static final Pattern LITERAL_REGEX_SEGMENT = Pattern.compile("(?:[A-Za-z0-9_\\- ]|\\\\\\.)*");
+
+	private final TrieNode<V> root = new TrieNode<>();
+
+	private static final class TrieNode<V> {
+		final Map<String, TrieNode<V>> children = new HashMap<>();
+		final Set<V> values = new LinkedHashSet<>();
+
+		boolean isEmpty() {
+			return children.isEmpty() && values.isEmpty();
+		}
+	}
+
+	private static String[] segments(String name) {
+		return name.split("/", -1);
+	}
+
+	void put(String key, V value) {
+		var node = root;
+		for (var segment : segments(key))
+			node = node.children.computeIfAbsent(segment, __ -> new TrieNode<>());
+
+		node.values.add(value);
+	}
+
+	boolean remove(String key, V value) {
+		return remove(root, segments(key), 0, value);
+	}
+
+	private boolean remove(TrieNode<V> node, String[] segments, int i, V value) {
+		if (i == segments.length)
+			return node.values.remove(value);
+
+		var child = node.children.get(segments[i]);
+		if (child == null || !remove(child, segments, i + 1, value))
+			return false;
+
+		// don't leave dead branches behind
+		if (child.isEmpty())
+			node.children.remove(segments[i]);
+		return true;
+	}
+
+	/**
+	 * Finds the entries stored under globs which match a topic name
+	 *
+	 * @param topicName the concrete topic name
+	 */
+	Collection<V> globsMatching(String topicName) {
+		var result = new LinkedHashSet<V>();
+		collectGlobsMatching(root, segments(topicName), 0, result);
+		return result;
+	}
+
+	private void collectGlobsMatching(TrieNode<V> node, String[] segments, int i, Set<V> result) {
+		if (i == segments.length) {
+			result.addAll(node.values);
+			return;
+		}
+
+		var literal = node.children.get(segments[i]);
+		if (literal != null) collectGlobsMatching(literal, segments, i + 1, result);
+
+		var anySegment = node.children.get(ANY_SEGMENT);
+		if (anySegment != null) collectGlobsMatching(anySegment, segments, i + 1, result);
+
+		var anySegments = node.children.get(ANY_SEGMENTS);
+		if (anySegments != null)
+			for (int j = i + 1; j <= segments.length; j++)
+				collectGlobsMatching(anySegments, segments, j, result);
+	}
+
+	/**
+	 * Finds the entries stored under concrete topic names which are matched by a glob
+	 *
+	 * @param glob the glob to match names against
+	 */
+	Collection<V> namesMatchedBy(String glob) {
+		var result = new LinkedHashSet<V>();
+		collectNamesMatchedBy(root, segments(glob), 0, result);
+		return result;
+	}
+
+	private void collectNamesMatchedBy(TrieNode<V> node, String[] glob, int i, Set<V> result) {
+		if (i == glob.length) {
+			result.addAll(node.values);
+			return;
+		}
+
+		switch (glob[i]) {
+			case ANY_SEGMENT:
+				for (var child : node.children.values())
+					collectNamesMatchedBy(child, glob, i + 1, result);
+				break;
+			case ANY_SEGMENTS:
+				for (var child : node.children.values())
+					forEachDescendant(child, descendant -> collectNamesMatchedBy(descendant, glob, i + 1, result));
+				break;
+			default:
+				var child = node.children.get(glob[i]);
+				if (child != null) collectNamesMatchedBy(child, glob, i + 1, result);
+		}
+	}
+
+	private static <V> void forEachDescendant(TrieNode<V> node, Consumer<TrieNode<V>> action) {
+		action.accept(node);
+		for (var child : node.children.values())
+			forEachDescendant(child, action);
+	}
+
+	/**
+	 * Turns a regular expression into an equivalent glob, if there is one.  This recognises the
+	 * regexes that are used in practice to subscribe to whole namespaces, such as <code>.*</code> or
+	 * <code>log/.*</code>: literal segments, <code>[^/]*</code> for a single segment and
+	 * <code>.*</code> for any number of them.
+	 *
+	 * @return the equivalent glob, or <code>null</code> if the regex has to be matched as a regex
+	 */
+	static String globFor(Pattern pattern) {
+		if (pattern.flags() != 0) return null;
+
+		var regex = pattern.pattern();
+		if (regex.startsWith("^")) regex = regex.substring(1);
+		if (regex.endsWith("$") && !regex.endsWith("\\$")) regex = regex.substring(0, regex.length() - 1);
+
+		// [^/] contains a slash, so take it out of the way before splitting into segments
+		regex = regex.replace("[^/]*", "\0");
+
+		List<String> glob = new ArrayList<>();
+		for (var segment : segments(regex)) {
+			if (segment.equals(".*"))
+				glob.add(ANY_SEGMENTS);
+			else if (segment.equals("\0"))
+				glob.add(ANY_SEGMENT);
+			else if (LITERAL_REGEX_SEGMENT.matcher(segment).matches())
+				glob.add(segment.replace("\\.", "."));
+			else
+				return null;
+		}
+
+		return String.join("/", glob);
+	}
+}
@@ -0,0 +1,36 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+/**
+ * The class of traffic a {@link Topic} carries.  Each priority has its own callback queue and its
+ * own worker threads in the {@link Orchestrator}, so a burst of messages in one class can never
+ * delay the callbacks of another.
+ *
+ * @see Topic#setPriority(TopicPriority)
+ * @see Orchestrator#setTopicPriority(String, TopicPriority)
+ */
+public enum TopicPriority {
+	/**
+	 * Traffic that the robot needs to move correctly, such as motor powers and localisation.
+	 */
+	CONTROL,
+	/**
+	 * Everything that hasn't been given a priority.
+	 */
+	NORMAL,
+	/**
+	 * Traffic that is only there for humans to look at, such as telemetry, logs and metrics.
+	 */
+	DIAGNOSTIC;
+
+	/**
+	 * @return the priority a topic with the given name starts out with
+	 */
+	static TopicPriority defaultFor(String topicName) {
+		if (topicName.startsWith("telemetry/")
+			|| topicName.startsWith("log/")
+			|| topicName.startsWith("metrics/"))
+			return DIAGNOSTIC;
+
+		return NORMAL;
+	}
+}
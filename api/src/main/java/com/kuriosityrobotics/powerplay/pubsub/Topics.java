@@ -63,11 +63,11 @@ public class Topics {
 		}
 
 		public T lastValue() {
-			return topic.lastValues().get(details);
+			return topic.lastValue(details);
 		}
 
 		public Instant lastValueTime() {
-			return topic.lastValueTimes().get(details);
+			return topic.lastValueTime(details);
 		}
 
 		@Override
@@ -0,0 +1,110 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+/**
+ * Where a message came from: the topic and time of the message that started the chain of callbacks
+ * that led to it, and how many topics the chain has passed through since.
+ *
+ * <p>While tracing is on, each dispatched message is given a trace.  A message dispatched from a
+ * callback continues the trace of the message being handled, one hop further on; any other message
+ * starts a new trace, with itself as the origin.  Nodes that publish from a periodic task, based on
+ * the last value of a topic rather than a callback, can continue that topic's trace with {@link
+ * Node#continueTrace(String)}.
+ *
+ * @see Orchestrator#setTracingEnabled(boolean)
+ */
+public final class TraceContext {
+	private static final ThreadLocal<TraceContext> CURRENT = new ThreadLocal<>();
+	static final Scope NO_SCOPE = () -> {};
+
+	private final String originTopic;
+	private final long originNanos;
+	private final int hops;
+
+	TraceContext(String originTopic, long originNanos, int hops) {
+		this.originTopic = originTopic;
+		this.originNanos = originNanos;
+		this.hops = hops;
+	}
+
+	public String originTopic() {
+		return originTopic;
+	}
+
+	/**
+	 * @return when the origin message was dispatched, in {@link Instant} nanos
+	 */
+	public long originNanos() {
+		return originNanos;
+	}
+
+	/**
+	 * @return how many topics lie between the origin and the message this trace belongs to
+	 */
+	public int hops() {
+		return hops;
+	}
+
+	/**
+	 * @return how long ago the origin message was dispatched
+	 */
+	public long ageNanos() {
+		return Instant.nowNanos() - originNanos;
+	}
+
+	/**
+	 * @return the trace of a message dispatched while handling one with this trace
+	 */
+	TraceContext next() {
+		return new TraceContext(originTopic, originNanos, hops + 1);
+	}
+
+	/**
+	 * @return the trace of the message being handled on this thread, or <code>null</code> if there
+	 * isn't one
+	 */
+	public static TraceContext current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Makes the given trace the current one on this thread, so that messages dispatched until the
+	 * returned scope is closed continue it
+	 *
+	 * @param trace the trace to continue, or <code>null</code> to do nothing
+	 */
+	public static Scope continueFrom(TraceContext trace) {
+		if (trace == null) return NO_SCOPE;
+
+		var previous = enter(trace);
+		return () -> exit(previous);
+	}
+
+	/**
+	 * @return the trace that was current before
+	 */
+	static TraceContext enter(TraceContext trace) {
+		var previous = CURRENT.get();
+		CURRENT.set(trace);
+		return previous;
+	}
+
+	static void exit(TraceContext previous) {
+		if (previous == null) CURRENT.remove();
+		else CURRENT.set(previous);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s +%d hops, %.1fms ago", originTopic, hops, ageNanos() / 1e6);
+	}
+
+	/**
+	 * A trace made current by {@link #continueFrom(TraceContext)}
+	 */
+	public interface Scope extends AutoCloseable {
+		@Override
+		void close();
+	}
+}
@@ -0,0 +1,307 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.kuriosityrobotics.powerplay.util.Clock;
+import com.kuriosityrobotics.powerplay.util.Duration;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A discrete-event scheduler that runs on virtual time.
+ *
+ * <p>Nothing runs until a thread calls one of the <code>run</code> methods.  That thread then becomes
+ * the event thread: it takes tasks off the queue in timestamp order (tasks due at the same time run
+ * in the order they were submitted), moves the clock forward to each task's time, and runs it.  Time
+ * only passes between tasks, so a task takes no virtual time however long it really runs for, and a
+ * 30 second autonomous runs as fast as the CPU allows.  As long as everything is submitted from the
+ * event thread, a run is deterministic.
+ *
+ * <p>An orchestrator created with {@link Orchestrator#createVirtual} runs its periodic tasks, timers
+ * and callbacks here, and points {@link Instant#now()} at this scheduler's clock.
+ *
+ * <p>Once shut down, new tasks are discarded rather than rejected, the way the callback lanes
+ * discard them, since messages can still be dispatched while an orchestrator is closing.
+ */
+public final class VirtualTimeScheduler extends AbstractExecutorService implements ScheduledExecutorService, Clock {
+	private final PriorityQueue<VirtualTask<?>> queue = new PriorityQueue<>();
+	private long sequence;
+
+	private volatile long nowNanos;
+	private volatile Thread eventThread;
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates a scheduler whose clock starts at the current wall time
+	 */
+	public VirtualTimeScheduler() {
+		this(Instant.systemClock().nanos());
+	}
+
+	public VirtualTimeScheduler(long startNanos) {
+		this.nowNanos = startNanos;
+	}
+
+	@Override
+	public long nanos() {
+		return nowNanos;
+	}
+
+	public Instant now() {
+		return Instant.createInstant(nowNanos);
+	}
+
+	/**
+	 * @return whether the calling thread is the one currently running this scheduler's tasks
+	 */
+	public boolean isEventThread() {
+		return Thread.currentThread() == eventThread;
+	}
+
+	/**
+	 * Runs every task due within the given duration, then leaves the clock at the end of it
+	 */
+	public void runFor(Duration duration) {
+		runUntil(nowNanos + duration.toNanos());
+	}
+
+	/**
+	 * Runs every task due at or before the given time, then leaves the clock at that time
+	 */
+	public void runUntil(Instant deadline) {
+		runUntil(deadline.nanos);
+	}
+
+	/**
+	 * Runs tasks in order until the condition becomes true, checking it after every task, or until
+	 * <code>limit</code> has passed.
+	 *
+	 * @return whether the condition became true
+	 */
+	public boolean runUntil(BooleanSupplier condition, Duration limit) {
+		var deadline = nowNanos + limit.toNanos();
+		enterEventThread();
+		try {
+			while (!condition.getAsBoolean()) {
+				if (!runNext(deadline)) {
+					nowNanos = Math.max(nowNanos, deadline);
+					return condition.getAsBoolean();
+				}
+			}
+			return true;
+		} finally {
+			eventThread = null;
+		}
+	}
+
+	/**
+	 * Runs every task that is due now, without moving the clock
+	 */
+	public void runPending() {
+		runUntil(nowNanos);
+	}
+
+	private void runUntil(long deadlineNanos) {
+		enterEventThread();
+		try {
+			while (runNext(deadlineNanos)) {
+				// keep going until nothing else is due
+			}
+			nowNanos = Math.max(nowNanos, deadlineNanos);
+		} finally {
+			eventThread = null;
+		}
+	}
+
+	private void enterEventThread() {
+		var current = Thread.currentThread();
+		if (eventThread == current)
+			throw new IllegalStateException("a virtual time task can't run the scheduler itself");
+
+		synchronized (queue) {
+			if (eventThread != null)
+				throw new IllegalStateException("the scheduler is already being run by " + eventThread.getName());
+			eventThread = current;
+		}
+	}
+
+	/**
+	 * Runs the next task if it is due at or before the deadline
+	 *
+	 * @return whether a task was run
+	 */
+	private boolean runNext(long deadlineNanos) {
+		VirtualTask<?> task;
+		synchronized (queue) {
+			task = queue.peek();
+			if (task == null || task.timeNanos > deadlineNanos) return false;
+			queue.poll();
+		}
+
+		// tasks scheduled in the past run now, rather than moving the clock backwards
+		nowNanos = Math.max(nowNanos, task.timeNanos);
+		task.run();
+		return true;
+	}
+
+	/**
+	 * @return the number of tasks waiting to run
+	 */
+	public int queuedTasks() {
+		synchronized (queue) {
+			return queue.size();
+		}
+	}
+
+	private <V> VirtualTask<V> enqueue(VirtualTask<V> task) {
+		synchronized (queue) {
+			if (shutdown) {
+				task.cancel(false);
+				return task;
+			}
+
+			task.sequence = sequence++;
+			queue.add(task);
+		}
+		return task;
+	}
+
+	private long timeAfter(long delay, TimeUnit unit) {
+		return nowNanos + Math.max(0, unit.toNanos(delay));
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		enqueue(new VirtualTask<Void>(Executors.callable(command, null), nowNanos, 0));
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return enqueue(new VirtualTask<Void>(Executors.callable(command, null), timeAfter(delay, unit), 0));
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return enqueue(new VirtualTask<>(callable, timeAfter(delay, unit), 0));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		if (period <= 0) throw new IllegalArgumentException("period must be positive");
+		return enqueue(new VirtualTask<Void>(Executors.callable(command, null), timeAfter(initialDelay, unit), unit.toNanos(period)));
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		if (delay <= 0) throw new IllegalArgumentException("delay must be positive");
+		return enqueue(new VirtualTask<Void>(Executors.callable(command, null), timeAfter(initialDelay, unit), -unit.toNanos(delay)));
+	}
+
+	@Override
+	public void shutdown() {
+		shutdownNow();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		List<Runnable> remaining;
+		synchronized (queue) {
+			shutdown = true;
+			remaining = new ArrayList<Runnable>(queue);
+			queue.clear();
+		}
+
+		for (var task : remaining) ((VirtualTask<?>) task).cancel(false);
+		return remaining;
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return shutdown;
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) {
+		return shutdown;
+	}
+
+	private final class VirtualTask<V> extends FutureTask<V> implements RunnableScheduledFuture<V> {
+		private long timeNanos;
+		private long sequence;
+		/**
+		 * Zero for a one-shot task, positive for a fixed-rate period and negative for a fixed delay
+		 */
+		private final long periodNanos;
+
+		VirtualTask(Callable<V> callable, long timeNanos, long periodNanos) {
+			super(callable);
+			this.timeNanos = timeNanos;
+			this.periodNanos = periodNanos;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return periodNanos != 0;
+		}
+
+		@Override
+		public void run() {
+			if (!isPeriodic()) {
+				super.run();
+				return;
+			}
+
+			if (runAndReset()) {
+				// a task takes no virtual time, so fixed delay and fixed rate only differ when the
+				// task was started late
+				timeNanos = periodNanos > 0 ? timeNanos + periodNanos : nowNanos - periodNanos;
+				enqueue(this);
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			var cancelled = super.cancel(mayInterruptIfRunning);
+			if (cancelled) {
+				synchronized (queue) {
+					queue.remove(this);
+				}
+			}
+			return cancelled;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(timeNanos - nowNanos, NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			if (other == this) return 0;
+			if (other instanceof VirtualTask) {
+				var that = (VirtualTask<?>) other;
+				var result = Long.compare(timeNanos, that.timeNanos);
+				return result != 0 ? result : Long.compare(sequence, that.sequence);
+			}
+			return Long.compare(getDelay(NANOSECONDS), other.getDelay(NANOSECONDS));
+		}
+	}
+}
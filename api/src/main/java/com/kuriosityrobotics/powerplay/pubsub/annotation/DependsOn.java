@@ -0,0 +1,19 @@
+package com.kuriosityrobotics.powerplay.pubsub.annotation;
+
+import com.kuriosityrobotics.powerplay.pubsub.Node;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The nodes that have to be started before this one, when they're started together by {@link
+ * com.kuriosityrobotics.powerplay.pubsub.Orchestrator#startNodes}.  Nodes that don't depend on each
+ * other are constructed at the same time.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface DependsOn {
+	Class<? extends Node>[] value();
+}
@@ -1,5 +1,7 @@
 package com.kuriosityrobotics.powerplay.pubsub.annotation;
 
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
@@ -11,5 +13,42 @@ import java.lang.annotation.Target;
 @Repeatable(RunPeriodicallys.class)
 @SuppressWarnings("unused")
 public @interface RunPeriodically {
-	int maxFrequency() default 20;
+	/**
+	 * How often to run the method, in Hz.  This doesn't have to be a whole number, and can be above
+	 * 1000 for sub-millisecond periods.
+	 */
+	double maxFrequency() default 20;
+
+	/**
+	 * If false (the default), each run starts one period after the previous run finished, so the
+	 * real frequency drops by however long the method takes.  If true, runs are started on a fixed
+	 * grid of one period, and {@link #overrun()} decides what happens when a run takes too long.
+	 */
+	boolean fixedRate() default false;
+
+	/**
+	 * What a {@link #fixedRate()} task does when a run finishes after the next one was due
+	 */
+	Overrun overrun() default Overrun.SKIP;
+
+	/**
+	 * The group whose threads run the method.  Leaving this as {@link SchedulingGroup#GENERAL} uses
+	 * the node's {@link Scheduling} group, if it has one.
+	 */
+	SchedulingGroup group() default SchedulingGroup.GENERAL;
+
+	enum Overrun {
+		/**
+		 * Drop the runs that were missed and wait for the next tick on the grid
+		 */
+		SKIP,
+		/**
+		 * Run every missed tick, back to back, until the task is on schedule again
+		 */
+		CATCH_UP,
+		/**
+		 * Run once, straight away, in place of all the missed ticks, and restart the grid from there
+		 */
+		COALESCE
+	}
 }
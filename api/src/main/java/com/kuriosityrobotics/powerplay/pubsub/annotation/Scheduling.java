@@ -0,0 +1,19 @@
+package com.kuriosityrobotics.powerplay.pubsub.annotation;
+
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs a node's {@link RunPeriodically} methods in the given {@link SchedulingGroup}, unless a
+ * method picks a group of its own.  Nodes without this annotation run in {@link
+ * SchedulingGroup#GENERAL}.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Scheduling {
+	SchedulingGroup value();
+}
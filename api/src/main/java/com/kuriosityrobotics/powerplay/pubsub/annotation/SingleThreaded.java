@@ -0,0 +1,22 @@
+package com.kuriosityrobotics.powerplay.pubsub.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs all of a node's {@link SubscribedTo} and {@link RunPeriodically} methods one at a time, in the
+ * order their messages arrived, so the node doesn't need any locking of its own.  Messages are
+ * queued in the node's mailbox and drained on the orchestrator's shared callback threads.
+ *
+ * <p>Messages from more urgent topics, and periodic tasks in the
+ * {@link com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup#CONTROL} group, skip ahead of less
+ * urgent ones that are still queued, and the mailbox is drained on the callback threads of the most
+ * urgent work in it.
+ *
+ * <p>{@link RunnableAction}s are not serialised, since they usually block for a long time.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface SingleThreaded {}
@@ -1,5 +1,7 @@
 package com.kuriosityrobotics.powerplay.pubsub.annotation;
 
+import com.kuriosityrobotics.powerplay.pubsub.TopicPriority;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
@@ -15,4 +17,18 @@ public @interface SubscribedTo {
 	boolean onlyLocal() default false;
 
 	boolean isPattern() default false;
+
+	/**
+	 * If true, a subscriber that falls behind only sees the newest message on the topic: a message
+	 * that arrives while a delivery to this subscriber is still queued replaces the queued one. Use
+	 * this for state-like topics, where only the latest value matters.
+	 */
+	boolean conflate() default false;
+
+	/**
+	 * The priority class to move the topic into when this subscription is bound.  Leaving this as
+	 * {@link TopicPriority#NORMAL} keeps whatever priority the topic already has.  This is ignored
+	 * for pattern subscriptions.
+	 */
+	TopicPriority priority() default TopicPriority.NORMAL;
 }
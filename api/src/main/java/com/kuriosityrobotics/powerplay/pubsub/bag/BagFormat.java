@@ -0,0 +1,126 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.SerialisationConfig;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The layout of a bag file.  A bag starts with {@link #MAGIC} and {@link #VERSION}, followed by
+ * records, each of which is a type byte, the length of the rest of the record as an int, and then
+ * the record itself:
+ *
+ * <ul>
+ *   <li>{@link #TOPIC}: the topic's id (int), then its name in UTF-8.  Written before the first
+ *       message to the topic.
+ *   <li>{@link #ROBOT}: the robot's id (int), whether it's the robot that recorded the bag (byte),
+ *       then its {@link com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails} in FST.
+ *       Written before the first message from the robot.
+ *   <li>{@link #MESSAGE}: the time it was dispatched, in {@link
+ *       com.kuriosityrobotics.powerplay.util.Instant} nanoseconds (long), the robot's id (int), the
+ *       topic's id (int), how the message is encoded (byte), then the message.
+ * </ul>
+ *
+ * <p>Numbers are big-endian.  A type byte of {@link #END} (which is what the unwritten part of a
+ * bag cut short by a crash is filled with) ends the bag.  Readers skip records of types they don't
+ * know.
+ */
+final class BagFormat {
+	static final int MAGIC = 0x4b524247; // "KRBG"
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+	static final byte END = 0;
+	static final byte TOPIC = 1;
+	static final byte ROBOT = 2;
+	static final byte MESSAGE = 3;
+
+	/**
+	 * The type byte and the length
+	 */
+	static final int RECORD_HEADER_SIZE = Byte.BYTES + Integer.BYTES;
+	/**
+	 * Everything in a message record before the message itself
+	 */
+	static final int MESSAGE_HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Byte.BYTES;
+
+	static final byte FST = 0;
+	static final byte DOUBLE = 1;
+	static final byte INT = 2;
+	static final byte BOOLEAN = 3;
+	static final byte STRING = 4;
+
+	private BagFormat() {
+	}
+
+	/**
+	 * @return how the given message is encoded
+	 */
+	static byte encodingOf(Object message) {
+		if (message instanceof Double) return DOUBLE;
+		if (message instanceof Integer) return INT;
+		if (message instanceof Boolean) return BOOLEAN;
+		if (message instanceof String) return STRING;
+		return FST;
+	}
+
+	/**
+	 * @return the bytes of a message that isn't encoded inline, or <code>null</code> if it is
+	 */
+	static byte[] bytesOf(byte encoding, Object message) {
+		switch (encoding) {
+			case STRING:
+				return ((String) message).getBytes(StandardCharsets.UTF_8);
+			case FST:
+				return SerialisationConfig.conf().asByteArray(message);
+			default:
+				return null;
+		}
+	}
+
+	static int inlineSize(byte encoding) {
+		switch (encoding) {
+			case DOUBLE:
+				return Double.BYTES;
+			case INT:
+				return Integer.BYTES;
+			case BOOLEAN:
+				return Byte.BYTES;
+			default:
+				return 0;
+		}
+	}
+
+	static void putInline(ByteBuffer buffer, byte encoding, Object message) {
+		switch (encoding) {
+			case DOUBLE:
+				buffer.putDouble((Double) message);
+				break;
+			case INT:
+				buffer.putInt((Integer) message);
+				break;
+			case BOOLEAN:
+				buffer.put((byte) ((Boolean) message ? 1 : 0));
+				break;
+		}
+	}
+
+	static Object decode(byte encoding, ByteBuffer payload) {
+		switch (encoding) {
+			case DOUBLE:
+				return payload.getDouble();
+			case INT:
+				return payload.getInt();
+			case BOOLEAN:
+				return payload.get() != 0;
+			case STRING:
+				return StandardCharsets.UTF_8.decode(payload).toString();
+			case FST:
+				var bytes = new byte[payload.remaining()];
+				payload.get(bytes);
+				return SerialisationConfig.conf().asObject(bytes);
+			default:
+				throw new IllegalArgumentException("Unknown message encoding " + encoding);
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.Node;
+import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays a bag back into an orchestrator, dispatching each message at the time it was recorded
+ * relative to the first one, scaled by the playback speed.  Messages that were dispatched by the
+ * robot that recorded the bag are dispatched as this orchestrator's robot, so that last values and
+ * local-only subscriptions behave as they did on the robot; messages from other robots keep their
+ * original {@link com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails}.
+ *
+ * <p>Playback is scheduled on the orchestrator's {@link SchedulingGroup#GENERAL} executor, so on a
+ * {@link com.kuriosityrobotics.powerplay.pubsub.VirtualTimeScheduler} it follows virtual time.
+ * Start only the nodes under test alongside it, or they will publish over the recording.
+ */
+@Hidden
+public class BagPlayer extends Node {
+	public static final double AS_FAST_AS_POSSIBLE = Double.POSITIVE_INFINITY;
+	/**
+	 * How many messages are dispatched at once when playing as fast as possible, before giving the
+	 * executor back
+	 */
+	private static final int BATCH_SIZE = 256;
+
+	private final BagReader reader;
+	private final double speed;
+	private final ScheduledExecutorService executor;
+	private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+	private BagRecord next;
+	private long firstRecordNanos;
+	private long startNanos;
+	private ScheduledFuture<?> pending;
+
+	/**
+	 * Starts playing the given bag
+	 *
+	 * @param speed how many times faster than it was recorded to play the bag, or {@link
+	 *              #AS_FAST_AS_POSSIBLE}
+	 */
+	public BagPlayer(Orchestrator orchestrator, File path, double speed) throws IOException {
+		super(orchestrator);
+		if (!(speed > 0)) throw new IllegalArgumentException("Speed must be positive, not " + speed);
+
+		this.reader = new BagReader(path);
+		this.speed = speed;
+		this.executor = orchestrator.nodeExecutorService(SchedulingGroup.GENERAL);
+
+		this.next = reader.next();
+		if (next != null) firstRecordNanos = next.timeNanos();
+		this.startNanos = Instant.nowNanos();
+		synchronized (this) {
+			pending = executor.schedule(this::step, 0, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * @return a future that completes once every message has been dispatched, or playback is stopped
+	 */
+	public CompletableFuture<Void> finished() {
+		return finished;
+	}
+
+	private synchronized void step() {
+		if (finished.isDone()) return;
+
+		try {
+			var now = Instant.nowNanos();
+			for (int dispatched = 0; next != null; dispatched++) {
+				var due = dueNanos(next);
+				if (due > now) {
+					pending = executor.schedule(this::step, due - now, TimeUnit.NANOSECONDS);
+					return;
+				}
+				if (dispatched == BATCH_SIZE) {
+					pending = executor.schedule(this::step, 0, TimeUnit.NANOSECONDS);
+					return;
+				}
+
+				dispatch(next);
+				next = reader.next();
+			}
+		} catch (IOException | RuntimeException e) {
+			err(e);
+		}
+
+		stop();
+	}
+
+	private long dueNanos(BagRecord record) {
+		if (speed == AS_FAST_AS_POSSIBLE) return Long.MIN_VALUE;
+		return startNanos + (long) ((record.timeNanos() - firstRecordNanos) / speed);
+	}
+
+	private void dispatch(BagRecord record) {
+		var robot = record.isLocal() ? orchestrator.robotDetails() : record.robot();
+		orchestrator.dispatch(record.topicName(), robot, record.message());
+	}
+
+	private synchronized void stop() {
+		if (pending != null) pending.cancel(false);
+		try {
+			reader.close();
+		} catch (IOException e) {
+			err(e);
+		}
+		finished.complete(null);
+	}
+
+	@Override
+	public void close() {
+		stop();
+		super.close();
+	}
+}
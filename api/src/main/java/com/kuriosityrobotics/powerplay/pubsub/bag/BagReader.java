@@ -0,0 +1,121 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.SerialisationConfig;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the messages in a bag back, in the order they were recorded.  A bag that was cut short,
+ * because the robot died before the recorder was closed, reads as far as it was written.
+ *
+ * @see BagFormat
+ */
+public final class BagReader implements Closeable {
+	private final DataInputStream in;
+
+	private final Map<Integer, String> topics = new HashMap<>();
+	private final Map<Integer, RobotDetails> robots = new HashMap<>();
+	private final Map<Integer, Boolean> localRobots = new HashMap<>();
+	private boolean ended;
+
+	public BagReader(File path) throws IOException {
+		this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), 1 << 16));
+
+		try {
+			var magic = in.readInt();
+			var version = in.readShort();
+			if (magic != BagFormat.MAGIC) throw new IOException(path + " isn't a bag");
+			if (version > BagFormat.VERSION)
+				throw new IOException(path + " is a version " + version + " bag, which is newer than this reader");
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return every message in the bag at the given path
+	 */
+	public static List<BagRecord> readAll(File path) throws IOException {
+		try (var reader = new BagReader(path)) {
+			var records = new ArrayList<BagRecord>();
+			BagRecord record;
+			while ((record = reader.next()) != null) records.add(record);
+			return records;
+		}
+	}
+
+	/**
+	 * @return the next message, or <code>null</code> at the end of the bag
+	 */
+	public BagRecord next() throws IOException {
+		while (!ended) {
+			byte type;
+			byte[] body;
+			try {
+				type = in.readByte();
+				if (type == BagFormat.END) break;
+
+				body = new byte[in.readInt()];
+				in.readFully(body);
+			} catch (EOFException e) {
+				// a record that was only partly written
+				break;
+			}
+
+			var buffer = ByteBuffer.wrap(body);
+			switch (type) {
+				case BagFormat.TOPIC:
+					topics.put(buffer.getInt(), StandardCharsets.UTF_8.decode(buffer).toString());
+					break;
+				case BagFormat.ROBOT:
+					var id = buffer.getInt();
+					localRobots.put(id, buffer.get() != 0);
+					var details = new byte[buffer.remaining()];
+					buffer.get(details);
+					robots.put(id, (RobotDetails) SerialisationConfig.conf().asObject(details));
+					break;
+				case BagFormat.MESSAGE:
+					return message(buffer);
+				default:
+					// from a newer writer
+					break;
+			}
+		}
+
+		ended = true;
+		return null;
+	}
+
+	private BagRecord message(ByteBuffer buffer) throws IOException {
+		var time = buffer.getLong();
+		var robotId = buffer.getInt();
+		var topicId = buffer.getInt();
+		var encoding = buffer.get();
+
+		var robot = robots.get(robotId);
+		var topic = topics.get(topicId);
+		if (robot == null || topic == null)
+			throw new IOException("Message refers to robot " + robotId + " and topic " + topicId + ", which haven't been defined");
+
+		return new BagRecord(time, robot, localRobots.get(robotId), topic, BagFormat.decode(encoding, buffer));
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
@@ -0,0 +1,69 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+/**
+ * One message read back from a bag
+ */
+public final class BagRecord {
+	private final long timeNanos;
+	private final RobotDetails robot;
+	private final boolean local;
+	private final String topicName;
+	private final Object message;
+
+	BagRecord(long timeNanos, RobotDetails robot, boolean local, String topicName, Object message) {
+		this.timeNanos = timeNanos;
+		this.robot = robot;
+		this.local = local;
+		this.topicName = topicName;
+		this.message = message;
+	}
+
+	/**
+	 * @return when the message was dispatched, in {@link com.kuriosityrobotics.powerplay.util.Instant}
+	 * nanoseconds
+	 */
+	public long timeNanos() {
+		return timeNanos;
+	}
+
+	/**
+	 * @return the robot that dispatched the message
+	 */
+	public RobotDetails robot() {
+		return robot;
+	}
+
+	/**
+	 * @return whether the message was dispatched by the robot that recorded the bag
+	 */
+	public boolean isLocal() {
+		return local;
+	}
+
+	public String topicName() {
+		return topicName;
+	}
+
+	public Object message() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return "BagRecord["
+			+ "timeNanos="
+			+ timeNanos
+			+ ", "
+			+ "robot="
+			+ robot
+			+ ", "
+			+ "topicName="
+			+ topicName
+			+ ", "
+			+ "message="
+			+ message
+			+ ']';
+	}
+}
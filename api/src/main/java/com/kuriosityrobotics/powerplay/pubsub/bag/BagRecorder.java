@@ -0,0 +1,223 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.Node;
+import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.Subscription;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.BagRecorderStats;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the messages dispatched to a set of topics to a bag file, which can be played back into
+ * another orchestrator with a {@link BagPlayer} or read with a {@link BagReader}.
+ *
+ * <p>Recording is built to stay out of the way of the robot.  The recorder's subscriptions run on
+ * the thread that dispatched the message, and only copy it into a preallocated ring; a writer
+ * thread serialises what's in the ring into the bag every {@link #DRAIN_INTERVAL_MILLIS}, and
+ * forces it to disk every {@link #FLUSH_INTERVAL_MILLIS}.  If the writer falls behind and the ring
+ * fills up, new messages are dropped rather than waited for.  What was recorded and dropped is
+ * published once a second to <code>metrics/bag/recorder</code>.
+ *
+ * <p>Closing the recorder (or stopping its node) writes out what's left and closes the bag.
+ */
+@Hidden
+public class BagRecorder extends Node {
+	public static final int DEFAULT_CAPACITY = 8192;
+	static final long DRAIN_INTERVAL_MILLIS = 20;
+	static final long FLUSH_INTERVAL_MILLIS = 500;
+
+	private final BagWriter writer;
+	private final List<Subscription<Object>> subscriptions = new ArrayList<>();
+	private final Thread writerThread;
+
+	/**
+	 * Guards the ring, and is notified when it's half full or the recorder is closed
+	 */
+	private final Object lock = new Object();
+	private final long[] times;
+	private final RobotDetails[] robots;
+	private final String[] topicNames;
+	private final Object[] messages;
+	/**
+	 * The index of the oldest message in the ring
+	 */
+	private int head;
+	private int size;
+	private boolean closed;
+
+	private final LongAdder recorded = new LongAdder();
+	private final LongAdder dropped = new LongAdder();
+	private final LongAdder unencodable = new LongAdder();
+	private volatile long bytes;
+
+	/**
+	 * Starts recording every topic to the given file
+	 */
+	public BagRecorder(Orchestrator orchestrator, File path) throws IOException {
+		this(orchestrator, path, DEFAULT_CAPACITY, "**");
+	}
+
+	/**
+	 * Starts recording the topics matched by any of the given globs to the given file
+	 *
+	 * @param capacity how many messages can wait for the writer before new ones are dropped
+	 * @see Orchestrator#subscribeToGlob(String, com.kuriosityrobotics.powerplay.pubsub.MessageConsumer)
+	 */
+	public BagRecorder(Orchestrator orchestrator, File path, int capacity, String... globs) throws IOException {
+		super(orchestrator);
+
+		this.writer = new BagWriter(path, orchestrator.robotDetails());
+		this.times = new long[capacity];
+		this.robots = new RobotDetails[capacity];
+		this.topicNames = new String[capacity];
+		this.messages = new Object[capacity];
+
+		this.writerThread = new Thread(this::writeLoop, "bag-recorder");
+		writerThread.setDaemon(true);
+		writerThread.start();
+
+		for (var glob : globs)
+			subscriptions.add(orchestrator.subscribeToGlob(glob, this::record, Runnable::run));
+
+		info("Recording " + String.join(", ", globs) + " to " + path);
+	}
+
+	private void record(Object message, String topicName, RobotDetails robot) {
+		var time = Instant.nowNanos();
+		synchronized (lock) {
+			if (closed || size == messages.length) {
+				dropped.increment();
+				return;
+			}
+
+			var index = (head + size) % messages.length;
+			times[index] = time;
+			robots[index] = robot;
+			topicNames[index] = topicName;
+			messages[index] = message;
+
+			// otherwise, the writer picks it up on its next drain
+			if (++size == messages.length / 2) lock.notify();
+		}
+	}
+
+	private void writeLoop() {
+		var capacity = messages.length;
+		var times = new long[capacity];
+		var robots = new RobotDetails[capacity];
+		var topicNames = new String[capacity];
+		var messages = new Object[capacity];
+		// a topic whose messages can't be serialised is only reported once
+		Set<String> unencodableTopics = new HashSet<>();
+
+		var lastFlush = System.nanoTime();
+		try {
+			while (true) {
+				int count;
+				boolean closing;
+				synchronized (lock) {
+					if (size == 0 && !closed) lock.wait(DRAIN_INTERVAL_MILLIS);
+					count = drainTo(times, robots, topicNames, messages);
+					closing = closed && size == 0;
+				}
+
+				for (int i = 0; i < count; i++) {
+					try {
+						writer.write(times[i], robots[i], topicNames[i], messages[i]);
+						recorded.increment();
+					} catch (RuntimeException e) {
+						unencodable.increment();
+						if (unencodableTopics.add(topicNames[i]))
+							warn("Not recording " + topicNames[i] + ": " + e);
+					}
+
+					robots[i] = null;
+					topicNames[i] = null;
+					messages[i] = null;
+				}
+				bytes = writer.size();
+
+				if (closing) break;
+				if (System.nanoTime() - lastFlush > FLUSH_INTERVAL_MILLIS * 1_000_000) {
+					writer.flush();
+					lastFlush = System.nanoTime();
+				}
+			}
+		} catch (IOException e) {
+			err(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			synchronized (lock) {
+				// nothing will drain the ring any more
+				closed = true;
+			}
+
+			try {
+				writer.close();
+			} catch (IOException e) {
+				err(e);
+			}
+		}
+	}
+
+	/**
+	 * Moves everything in the ring into the given arrays
+	 *
+	 * @return how many messages were moved
+	 */
+	private int drainTo(long[] times, RobotDetails[] robots, String[] topicNames, Object[] messages) {
+		var count = size;
+		for (int i = 0; i < count; i++) {
+			var index = (head + i) % this.messages.length;
+			times[i] = this.times[index];
+			robots[i] = this.robots[index];
+			topicNames[i] = this.topicNames[index];
+			messages[i] = this.messages[index];
+
+			this.robots[index] = null;
+			this.topicNames[index] = null;
+			this.messages[index] = null;
+		}
+
+		head = (head + count) % this.messages.length;
+		size = 0;
+		return count;
+	}
+
+	@RunPeriodically(maxFrequency = 1)
+	void publishStats() {
+		orchestrator.dispatch("metrics/bag/recorder", new BagRecorderStats(
+			recorded.sumThenReset(),
+			dropped.sumThenReset(),
+			unencodable.sumThenReset(),
+			bytes));
+	}
+
+	@Override
+	public void close() {
+		orchestrator.removeSubscriptions(subscriptions);
+		super.close();
+
+		synchronized (lock) {
+			closed = true;
+			lock.notify();
+		}
+
+		try {
+			writerThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
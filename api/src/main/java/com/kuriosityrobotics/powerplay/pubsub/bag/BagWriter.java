@@ -0,0 +1,152 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.SerialisationConfig;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Appends records to a bag file through a memory-mapped window, which is moved along the file a
+ * {@link #WINDOW_SIZE} at a time.  Writing a record is a copy into the page cache; {@link #flush()}
+ * is what forces it to disk.  Not thread safe: a {@link BagRecorder} only ever writes from its
+ * writer thread.
+ *
+ * @see BagFormat
+ */
+final class BagWriter implements Closeable {
+	static final int WINDOW_SIZE = 8 << 20;
+
+	private final RandomAccessFile file;
+	private final FileChannel channel;
+	private final RobotDetails local;
+
+	private MappedByteBuffer window;
+	/**
+	 * Where in the file the window starts
+	 */
+	private long windowStart;
+
+	private final Map<String, Integer> topicIds = new HashMap<>();
+	private final Map<RobotDetails, Integer> robotIds = new HashMap<>();
+
+	BagWriter(File path, RobotDetails local) throws IOException {
+		this.file = new RandomAccessFile(path, "rw");
+		this.channel = file.getChannel();
+		this.local = local;
+
+		channel.truncate(0);
+		map(0, WINDOW_SIZE);
+		window.putInt(BagFormat.MAGIC);
+		window.putShort(BagFormat.VERSION);
+	}
+
+	/**
+	 * @return how many bytes have been written
+	 */
+	long size() {
+		return windowStart + window.position();
+	}
+
+	void write(long timeNanos, RobotDetails robot, String topicName, Object message) throws IOException {
+		var encoding = BagFormat.encodingOf(message);
+		// encoded before the topic and robot records, so that a message FST can't handle doesn't leave
+		// them behind for nothing
+		var bytes = BagFormat.bytesOf(encoding, message);
+
+		var robotId = robotId(robot);
+		var topicId = topicId(topicName);
+
+		var length = BagFormat.MESSAGE_HEADER_SIZE + (bytes == null ? BagFormat.inlineSize(encoding) : bytes.length);
+		reserve(length);
+		window.putLong(timeNanos);
+		window.putInt(robotId);
+		window.putInt(topicId);
+		window.put(encoding);
+		if (bytes == null) BagFormat.putInline(window, encoding, message);
+		else window.put(bytes);
+	}
+
+	private int topicId(String topicName) throws IOException {
+		var id = topicIds.get(topicName);
+		if (id != null) return id;
+
+		id = topicIds.size();
+		var name = topicName.getBytes(StandardCharsets.UTF_8);
+		reserve(BagFormat.TOPIC, Integer.BYTES + name.length);
+		window.putInt(id);
+		window.put(name);
+
+		topicIds.put(topicName, id);
+		return id;
+	}
+
+	private int robotId(RobotDetails robot) throws IOException {
+		var id = robotIds.get(robot);
+		if (id != null) return id;
+
+		id = robotIds.size();
+		var details = SerialisationConfig.conf().asByteArray(robot);
+		reserve(BagFormat.ROBOT, Integer.BYTES + Byte.BYTES + details.length);
+		window.putInt(id);
+		window.put((byte) (robot.equals(local) ? 1 : 0));
+		window.put(details);
+
+		robotIds.put(robot, id);
+		return id;
+	}
+
+	private void reserve(int messageLength) throws IOException {
+		reserve(BagFormat.MESSAGE, messageLength);
+	}
+
+	/**
+	 * Writes a record header, making sure the window has room for the whole record
+	 */
+	private void reserve(byte type, int length) throws IOException {
+		var size = BagFormat.RECORD_HEADER_SIZE + length;
+		// the record after this one needs at least a type byte, even if it's END
+		if (window.remaining() < size + 1)
+			map(size(), Math.max(WINDOW_SIZE, size + 1));
+
+		window.put(type);
+		window.putInt(length);
+	}
+
+	private void map(long start, int size) throws IOException {
+		if (window != null) window.force();
+		window = channel.map(FileChannel.MapMode.READ_WRITE, start, size);
+		windowStart = start;
+	}
+
+	/**
+	 * Forces everything written so far to disk
+	 */
+	void flush() {
+		window.force();
+	}
+
+	/**
+	 * Flushes, and cuts the file down to what has been written
+	 */
+	@Override
+	public void close() throws IOException {
+		var size = size();
+		flush();
+		window = null;
+		try {
+			channel.truncate(size);
+		} catch (IOException e) {
+			// some platforms won't truncate a file that's still mapped; the rest is zeros, which
+			// readers take as the end of the bag
+		}
+		file.close();
+	}
+}
@@ -5,8 +5,10 @@ import static com.kuriosityrobotics.powerplay.pubsub.bridge.SerialisationConfig.
 import com.google.common.collect.Iterators;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.NetworkMessage;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.NodeInfo;
@@ -48,6 +50,7 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 @Hidden
+@Scheduling(SchedulingGroup.IO)
 public class BidirectionalBridge extends Node {
 	private static final Random random = new Random();
 	public static int ADVERTISE_PORT = 9999;
@@ -115,7 +118,7 @@ public class BidirectionalBridge extends Node {
 
 	public void distributeMessage(Object datum, String topicName, RobotDetails... targets) {
 		var networkMessage =
-			SerialisationConfig.conf.asByteArray(
+			SerialisationConfig.conf().asByteArray(
 				NetworkMessage.datum(
 					orchestrator.robotDetails(), topicName, datum));
 
@@ -176,7 +179,7 @@ public class BidirectionalBridge extends Node {
 	}
 
 	private byte[] generateAdvertisement() {
-		return conf.asByteArray(
+		return conf().asByteArray(
 			new RobotAdvertisement(
 				orchestrator.robotDetails(),
 				new InetSocketAddress(
@@ -285,7 +288,7 @@ public class BidirectionalBridge extends Node {
 
 	class AdvertisementHandler extends AbstractDatagramHandler {
 		private synchronized void read_(byte[] data) throws IOException {
-			var _datum = conf.asObject(data);
+			var _datum = conf().asObject(data);
 			if (!orchestrator.assertThat(
 				_datum instanceof RobotAdvertisement,
 				"UDP packet is not a " + "RobotAdvertisement")) return;
@@ -65,7 +65,7 @@ public class DataSocketHandler extends AbstractWebSocketHandler implements Close
 
     @Override
     public void read(byte[] data) {
-        read(SerialisationConfig.conf.asObject(data));
+        read(SerialisationConfig.conf().asObject(data));
     }
 
     @Override
@@ -82,7 +82,7 @@ public class DataSocketHandler extends AbstractWebSocketHandler implements Close
             }
             var message =
                     (NetworkMessage)
-                            SerialisationConfig.conf
+                            SerialisationConfig.conf()
                                     .getObjectInput(payload)
                                     .readObject(NetworkMessage.class);
 
@@ -153,7 +153,7 @@ public class DataSocketHandler extends AbstractWebSocketHandler implements Close
             case SESSION_READY:
                 ready = true;
 
-                var helloMessage = SerialisationConfig.conf.asByteArray(NetworkMessage.datum(orchestrator.robotDetails(), "hello", "hello"));
+                var helloMessage = SerialisationConfig.conf().asByteArray(NetworkMessage.datum(orchestrator.robotDetails(), "hello", "hello"));
                 send("hello", helloMessage);
 
                 break;
@@ -1,5 +1,7 @@
 package com.kuriosityrobotics.powerplay.pubsub.bridge;
 
+import com.kuriosityrobotics.powerplay.images.OpenCVLoader;
+
 import org.nustaq.serialization.FSTBasicObjectSerializer;
 import org.nustaq.serialization.FSTClazzInfo;
 import org.nustaq.serialization.FSTObjectInput;
@@ -16,7 +18,7 @@ import java.nio.ByteBuffer;
 
 public class MatCodec extends FSTBasicObjectSerializer {
    ByteBuffer buffer;
-   MatOfByte mob = new MatOfByte();
+   MatOfByte mob; // created on first use, since it needs OpenCV loaded
 
 
    @Override
@@ -27,6 +29,8 @@ public class MatCodec extends FSTBasicObjectSerializer {
 		   FSTClazzInfo.FSTFieldInfo referencedBy,
 		   int streamPosition)
 		   throws IOException {
+	  OpenCVLoader.ensureLoaded();
+	  if (mob == null) mob = new MatOfByte();
 	  var mat = (Mat) toWrite;
 
 	  // Make width 150 pixels
@@ -54,6 +58,8 @@ public class MatCodec extends FSTBasicObjectSerializer {
 		   FSTClazzInfo.FSTFieldInfo referencee,
 		   int streamPosition)
 		   throws Exception {
+	  OpenCVLoader.ensureLoaded();
+	  if (mob == null) mob = new MatOfByte();
 	  var compressedSize = in.readInt();
 	  if (buffer == null || buffer.capacity() < compressedSize)
 		 buffer = ByteBuffer.allocate(compressedSize);
@@ -6,8 +6,13 @@ import org.nustaq.serialization.FSTConfiguration;
 import org.ojalgo.matrix.Primitive64Matrix;
 import org.opencv.core.Mat;
 
+/**
+ * The FST configuration that the bridge and bags serialise messages with.  It's built the first
+ * time it's used, since opening <code>java.base</code> and setting up FST take a while, and an
+ * opmode that doesn't use the network or record a bag never needs it.
+ */
 public class SerialisationConfig {
-	public static FSTConfiguration conf;
+	private static volatile FSTConfiguration conf;
 
 	private static void openPackage(Module module, String packageName) {
 		try {
@@ -20,21 +25,38 @@ public class SerialisationConfig {
 		}
 	}
 
-	static {
+	/**
+	 * @return the configuration, which is created if it doesn't exist yet
+	 */
+	public static FSTConfiguration conf() {
+		var conf = SerialisationConfig.conf;
+		if (conf != null) return conf;
+
+		synchronized (SerialisationConfig.class) {
+			if (SerialisationConfig.conf == null) SerialisationConfig.conf = createDefault();
+			return SerialisationConfig.conf;
+		}
+	}
+
+	/**
+	 * Replaces the configuration.  If it's <code>null</code>, the default configuration will be
+	 * created again the next time one is needed.
+	 */
+	public static synchronized void setConf(FSTConfiguration conf) {
+		SerialisationConfig.conf = conf;
+	}
+
+	private static FSTConfiguration createDefault() {
 		if ("Oracle Corporation".equals(System.getProperty("java.specification.vendor"))) {
 			var javaBase = Object.class.getModule();
 
 			javaBase.getPackages().forEach(p -> openPackage(javaBase, p));
 		}
 
-		SerialisationConfig.conf = FSTConfiguration.createAndroidDefaultConfiguration();
-		SerialisationConfig.conf.registerSerializer(
-				Primitive64Matrix.class, new Primitive64MatrixCodec(), true);
-
-		try {
-			SerialisationConfig.conf.registerSerializer(Mat.class, new MatCodec(), true);
-		} catch (UnsatisfiedLinkError e) {
-			e.printStackTrace();
-		}
+		var conf = FSTConfiguration.createAndroidDefaultConfiguration();
+		conf.registerSerializer(Primitive64Matrix.class, new Primitive64MatrixCodec(), true);
+		// the codec only needs OpenCV once it sees a Mat
+		conf.registerSerializer(Mat.class, new MatCodec(), true);
+		return conf;
 	}
 }
@@ -1,19 +1,15 @@
 package com.kuriosityrobotics.powerplay.pubsub.bridge.message;
 
-import com.kuriosityrobotics.powerplay.debug.StdoutTopicLogger;
-import com.kuriosityrobotics.powerplay.pubsub.Node;
-import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.pubsub.NodeBinders;
 
 import org.apache.commons.collections4.set.ListOrderedSet;
 import org.jetbrains.annotations.NotNull;
-import org.reflections.Reflections;
-import org.reflections.util.ConfigurationBuilder;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 public class RobotDetails implements Serializable, Comparable<RobotDetails> {
 	private final String robotName;
@@ -25,17 +21,8 @@ public class RobotDetails implements Serializable, Comparable<RobotDetails> {
 		this.runningNodes = Collections.synchronizedSet(new ListOrderedSet<>());
 		this.nonce = robotId;
 		this.robotName = robotName;
-		this.installedNodes =
-				new Reflections(
-								new ConfigurationBuilder()
-										.forPackage("com.kuriosityrobotics")
-										.addClassLoaders(
-												StdoutTopicLogger.class
-														.getClassLoader())) // add api classloader
-						.getSubTypesOf(Node.class).stream()
-								.filter(n -> !n.isAnnotationPresent(Hidden.class))
-								.map(Class::getName)
-								.collect(Collectors.toList());
+		// a plain list, since it's serialised with the rest of the details
+		this.installedNodes = new ArrayList<>(NodeBinders.installedNodes());
 	}
 
 	public List<String> getInstalledNodes() {
@@ -66,7 +66,7 @@ public class DynamicClassResolver extends Node {
 
 		private ByteClassLoader() {
 			super(DynamicClassResolver.class.getClassLoader());
-			SerialisationConfig.conf.setClassLoader(this);
+			SerialisationConfig.conf().setClassLoader(this);
 		}
 
 		void defineClass(String name, byte[] bytes) {
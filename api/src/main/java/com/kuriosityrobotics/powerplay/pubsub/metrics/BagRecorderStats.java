@@ -0,0 +1,56 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * What a {@link com.kuriosityrobotics.powerplay.pubsub.bag.BagRecorder} did over the period since
+ * the previous sample.
+ */
+public class BagRecorderStats implements Serializable {
+	private final long recorded;
+	private final long dropped;
+	private final long unencodable;
+	private final long bytes;
+
+	public BagRecorderStats(long recorded, long dropped, long unencodable, long bytes) {
+		this.recorded = recorded;
+		this.dropped = dropped;
+		this.unencodable = unencodable;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return the number of messages written to the bag during the period
+	 */
+	public long recorded() {
+		return recorded;
+	}
+
+	/**
+	 * @return the number of messages that were dropped because the writer had fallen behind
+	 */
+	public long dropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return the number of messages that were skipped because they couldn't be serialised
+	 */
+	public long unencodable() {
+		return unencodable;
+	}
+
+	/**
+	 * @return the size of the bag so far
+	 */
+	public long bytes() {
+		return bytes;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%d recorded, %d dropped, %d unencodable, %.1fMB",
+			recorded, dropped, unencodable, bytes / 1e6);
+	}
+}
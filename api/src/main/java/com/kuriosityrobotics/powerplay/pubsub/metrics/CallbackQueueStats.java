@@ -0,0 +1,109 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How long callbacks of one {@link com.kuriosityrobotics.powerplay.pubsub.TopicPriority} waited in
+ * their queue before a worker picked them up, and what happened to the ones that didn't fit, over
+ * the period since the previous sample.
+ */
+public class CallbackQueueStats implements Serializable {
+	private final String lane;
+	private final long tasks;
+	private final long meanWaitNanos;
+	private final long maxWaitNanos;
+	private final int queued;
+	private final int capacity;
+	private final long dropped;
+	private final long blocked;
+	private final long blockedNanos;
+	private final long callerRan;
+
+	public CallbackQueueStats(String lane, long tasks, long meanWaitNanos, long maxWaitNanos, int queued, int capacity, long dropped, long blocked, long blockedNanos, long callerRan) {
+		this.lane = lane;
+		this.tasks = tasks;
+		this.meanWaitNanos = meanWaitNanos;
+		this.maxWaitNanos = maxWaitNanos;
+		this.queued = queued;
+		this.capacity = capacity;
+		this.dropped = dropped;
+		this.blocked = blocked;
+		this.blockedNanos = blockedNanos;
+		this.callerRan = callerRan;
+	}
+
+	public String lane() {
+		return lane;
+	}
+
+	/**
+	 * @return the number of callbacks that started running during the period
+	 */
+	public long tasks() {
+		return tasks;
+	}
+
+	/**
+	 * @return how long callbacks waited on average, or 0 if waits weren't being measured, which they
+	 * only are while pubsub metrics are enabled
+	 */
+	public long meanWaitNanos() {
+		return meanWaitNanos;
+	}
+
+	/**
+	 * @return the longest a callback waited, or 0 if waits weren't being measured
+	 */
+	public long maxWaitNanos() {
+		return maxWaitNanos;
+	}
+
+	/**
+	 * @return the number of callbacks still waiting when the sample was taken
+	 */
+	public int queued() {
+		return queued;
+	}
+
+	/**
+	 * @return the number of callbacks the queue holds before its overflow policies kick in
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * @return the number of callbacks that were dropped because the queue was full
+	 */
+	public long dropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return the number of times a publisher had to wait for room in the queue
+	 */
+	public long blocked() {
+		return blocked;
+	}
+
+	/**
+	 * @return the total time publishers spent waiting for room in the queue
+	 */
+	public long blockedNanos() {
+		return blockedNanos;
+	}
+
+	/**
+	 * @return the number of callbacks that were run by their publisher because the queue was full
+	 */
+	public long callerRan() {
+		return callerRan;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%s: %d tasks, mean wait %.3fms, max wait %.3fms, %d/%d queued, %d dropped, %d blocked for %.3fms, %d run by caller",
+			lane, tasks, meanWaitNanos / 1e6, maxWaitNanos / 1e6, queued, capacity, dropped, blocked, blockedNanos / 1e6, callerRan);
+	}
+}
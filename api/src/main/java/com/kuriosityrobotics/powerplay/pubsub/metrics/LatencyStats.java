@@ -0,0 +1,56 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * A summary of a set of durations.  The percentiles come from a histogram, so they may be up to an
+ * eighth higher than the real ones; the mean and maximum are exact.
+ */
+public class LatencyStats implements Serializable {
+	private final long count;
+	private final long meanNanos;
+	private final long p50Nanos;
+	private final long p90Nanos;
+	private final long p99Nanos;
+	private final long maxNanos;
+
+	public LatencyStats(long count, long meanNanos, long p50Nanos, long p90Nanos, long p99Nanos, long maxNanos) {
+		this.count = count;
+		this.meanNanos = meanNanos;
+		this.p50Nanos = p50Nanos;
+		this.p90Nanos = p90Nanos;
+		this.p99Nanos = p99Nanos;
+		this.maxNanos = maxNanos;
+	}
+
+	public long count() {
+		return count;
+	}
+
+	public long meanNanos() {
+		return meanNanos;
+	}
+
+	public long p50Nanos() {
+		return p50Nanos;
+	}
+
+	public long p90Nanos() {
+		return p90Nanos;
+	}
+
+	public long p99Nanos() {
+		return p99Nanos;
+	}
+
+	public long maxNanos() {
+		return maxNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"mean %.3fms, p50 %.3fms, p90 %.3fms, p99 %.3fms, max %.3fms",
+			meanNanos / 1e6, p50Nanos / 1e6, p90Nanos / 1e6, p99Nanos / 1e6, maxNanos / 1e6);
+	}
+}
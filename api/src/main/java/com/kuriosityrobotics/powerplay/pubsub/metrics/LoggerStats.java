@@ -0,0 +1,57 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * What an {@link com.kuriosityrobotics.powerplay.pubsub.Orchestrator}'s logger did over the period
+ * since the previous sample.
+ */
+public class LoggerStats implements Serializable {
+	private final long logged;
+	private final long dropped;
+	private final long published;
+	private final long suppressed;
+
+	public LoggerStats(long logged, long dropped, long published, long suppressed) {
+		this.logged = logged;
+		this.dropped = dropped;
+		this.published = published;
+		this.suppressed = suppressed;
+	}
+
+	/**
+	 * @return the number of messages that got through their level threshold and were queued
+	 */
+	public long logged() {
+		return logged;
+	}
+
+	/**
+	 * @return the number of messages that were dropped because the log writer had fallen behind
+	 */
+	public long dropped() {
+		return dropped;
+	}
+
+	/**
+	 * @return the number of messages published to the <code>log/</code> topics
+	 */
+	public long published() {
+		return published;
+	}
+
+	/**
+	 * @return the number of messages that were written but not published, because their level's
+	 * topic was over its rate limit
+	 */
+	public long suppressed() {
+		return suppressed;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%d logged, %d dropped, %d published, %d suppressed",
+			logged, dropped, published, suppressed);
+	}
+}
@@ -0,0 +1,111 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How closely a {@link com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically} task kept
+ * to its schedule over the period since the previous sample.
+ *
+ * <p>Lateness is how long after it was due each run started; its percentiles are the jitter.
+ */
+public class PeriodicTaskStats implements Serializable {
+	private final String task;
+	private final long targetPeriodNanos;
+	private final long runs;
+	private final long meanPeriodNanos;
+	private final long p50LatenessNanos;
+	private final long p90LatenessNanos;
+	private final long p99LatenessNanos;
+	private final long maxLatenessNanos;
+	private final long meanExecutionNanos;
+	private final long maxExecutionNanos;
+	private final long missedDeadlines;
+
+	public PeriodicTaskStats(
+		String task,
+		long targetPeriodNanos,
+		long runs,
+		long meanPeriodNanos,
+		long p50LatenessNanos,
+		long p90LatenessNanos,
+		long p99LatenessNanos,
+		long maxLatenessNanos,
+		long meanExecutionNanos,
+		long maxExecutionNanos,
+		long missedDeadlines) {
+		this.task = task;
+		this.targetPeriodNanos = targetPeriodNanos;
+		this.runs = runs;
+		this.meanPeriodNanos = meanPeriodNanos;
+		this.p50LatenessNanos = p50LatenessNanos;
+		this.p90LatenessNanos = p90LatenessNanos;
+		this.p99LatenessNanos = p99LatenessNanos;
+		this.maxLatenessNanos = maxLatenessNanos;
+		this.meanExecutionNanos = meanExecutionNanos;
+		this.maxExecutionNanos = maxExecutionNanos;
+		this.missedDeadlines = missedDeadlines;
+	}
+
+	public String task() {
+		return task;
+	}
+
+	public long targetPeriodNanos() {
+		return targetPeriodNanos;
+	}
+
+	/**
+	 * @return the number of runs that started during the period
+	 */
+	public long runs() {
+		return runs;
+	}
+
+	/**
+	 * @return the mean time between the starts of consecutive runs
+	 */
+	public long meanPeriodNanos() {
+		return meanPeriodNanos;
+	}
+
+	public long p50LatenessNanos() {
+		return p50LatenessNanos;
+	}
+
+	public long p90LatenessNanos() {
+		return p90LatenessNanos;
+	}
+
+	public long p99LatenessNanos() {
+		return p99LatenessNanos;
+	}
+
+	public long maxLatenessNanos() {
+		return maxLatenessNanos;
+	}
+
+	public long meanExecutionNanos() {
+		return meanExecutionNanos;
+	}
+
+	public long maxExecutionNanos() {
+		return maxExecutionNanos;
+	}
+
+	/**
+	 * @return the number of ticks that were dropped, plus the number of runs that started more than
+	 * a period late
+	 */
+	public long missedDeadlines() {
+		return missedDeadlines;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%s: %d runs, period %.3fms (target %.3fms), lateness p50 %.3fms p90 %.3fms p99 %.3fms max %.3fms, execution mean %.3fms max %.3fms, %d missed",
+			task, runs, meanPeriodNanos / 1e6, targetPeriodNanos / 1e6,
+			p50LatenessNanos / 1e6, p90LatenessNanos / 1e6, p99LatenessNanos / 1e6, maxLatenessNanos / 1e6,
+			meanExecutionNanos / 1e6, maxExecutionNanos / 1e6, missedDeadlines);
+	}
+}
@@ -0,0 +1,56 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How late tasks in one {@link com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup} started
+ * after they were due, over the period since the previous sample.
+ */
+public class SchedulingGroupStats implements Serializable {
+	private final String group;
+	private final long tasks;
+	private final long meanLatencyNanos;
+	private final long maxLatencyNanos;
+	private final int active;
+
+	public SchedulingGroupStats(String group, long tasks, long meanLatencyNanos, long maxLatencyNanos, int active) {
+		this.group = group;
+		this.tasks = tasks;
+		this.meanLatencyNanos = meanLatencyNanos;
+		this.maxLatencyNanos = maxLatencyNanos;
+		this.active = active;
+	}
+
+	public String group() {
+		return group;
+	}
+
+	/**
+	 * @return the number of tasks that started during the period
+	 */
+	public long tasks() {
+		return tasks;
+	}
+
+	public long meanLatencyNanos() {
+		return meanLatencyNanos;
+	}
+
+	public long maxLatencyNanos() {
+		return maxLatencyNanos;
+	}
+
+	/**
+	 * @return the number of the group's threads that were running a task when the sample was taken
+	 */
+	public int active() {
+		return active;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%s: %d tasks, mean latency %.3fms, max latency %.3fms, %d active",
+			group, tasks, meanLatencyNanos / 1e6, maxLatencyNanos / 1e6, active);
+	}
+}
@@ -0,0 +1,61 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Where the time went while an {@link com.kuriosityrobotics.powerplay.pubsub.Orchestrator} and its
+ * nodes were starting up.
+ */
+public class StartupProfile implements Serializable {
+	private final LinkedHashMap<String, Long> phaseNanos;
+	private final LinkedHashMap<String, Long> nodeNanos;
+	private final long timeToFirstControlLoopNanos;
+
+	public StartupProfile(Map<String, Long> phaseNanos, Map<String, Long> nodeNanos, long timeToFirstControlLoopNanos) {
+		this.phaseNanos = new LinkedHashMap<>(phaseNanos);
+		this.nodeNanos = new LinkedHashMap<>(nodeNanos);
+		this.timeToFirstControlLoopNanos = timeToFirstControlLoopNanos;
+	}
+
+	/**
+	 * @return how long each phase of starting up took, in the order they first happened
+	 */
+	public Map<String, Long> phaseNanos() {
+		return Collections.unmodifiableMap(phaseNanos);
+	}
+
+	/**
+	 * @return how long each node took from the start of its constructor until it was started, in the
+	 * order they were started
+	 */
+	public Map<String, Long> nodeNanos() {
+		return Collections.unmodifiableMap(nodeNanos);
+	}
+
+	/**
+	 * @return how long after the orchestrator was created a periodic task in the
+	 * {@link com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup#CONTROL} group first finished
+	 * running, or -1 if none has yet
+	 */
+	public long timeToFirstControlLoopNanos() {
+		return timeToFirstControlLoopNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"phases: %s; nodes: %s; first control loop: %s",
+			format(phaseNanos), format(nodeNanos),
+			timeToFirstControlLoopNanos < 0 ? "not yet" : String.format("%.1fms", timeToFirstControlLoopNanos / 1e6));
+	}
+
+	private static String format(Map<String, Long> nanos) {
+		return nanos.entrySet().stream()
+			.map(entry -> String.format("%s %.1fms", entry.getKey(), entry.getValue() / 1e6))
+			.collect(Collectors.joining(", "));
+	}
+}
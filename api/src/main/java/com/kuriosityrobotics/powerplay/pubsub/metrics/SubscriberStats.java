@@ -0,0 +1,61 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How long one subscription's deliveries waited to be run, and how long its callback took, over the
+ * period since the previous sample.
+ */
+public class SubscriberStats implements Serializable {
+	private final String subscriber;
+	private final long conflated;
+	private final LatencyStats queueWait;
+	private final LatencyStats callback;
+
+	public SubscriberStats(String subscriber, long conflated, LatencyStats queueWait, LatencyStats callback) {
+		this.subscriber = subscriber;
+		this.conflated = conflated;
+		this.queueWait = queueWait;
+		this.callback = callback;
+	}
+
+	public String subscriber() {
+		return subscriber;
+	}
+
+	/**
+	 * @return the number of callbacks that ran during the period
+	 */
+	public long deliveries() {
+		return callback.count();
+	}
+
+	/**
+	 * @return the number of messages that were replaced by a newer one before they could be
+	 * delivered, if the subscription is conflating
+	 */
+	public long conflated() {
+		return conflated;
+	}
+
+	/**
+	 * @return the time from a delivery being queued to its callback starting
+	 */
+	public LatencyStats queueWait() {
+		return queueWait;
+	}
+
+	/**
+	 * @return the time the callback took to run
+	 */
+	public LatencyStats callback() {
+		return callback;
+	}
+
+	@Override
+	public String toString() {
+		return String.format(
+			"%s: %d deliveries, %d conflated; wait %s; callback %s",
+			subscriber, deliveries(), conflated, queueWait, callback);
+	}
+}
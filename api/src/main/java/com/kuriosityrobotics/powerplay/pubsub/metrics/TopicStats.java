@@ -0,0 +1,47 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How much traffic one topic carried over the period since the previous sample.
+ */
+public class TopicStats implements Serializable {
+	private final String topic;
+	private final long messages;
+	private final double messagesPerSecond;
+	private final int subscribers;
+
+	public TopicStats(String topic, long messages, double messagesPerSecond, int subscribers) {
+		this.topic = topic;
+		this.messages = messages;
+		this.messagesPerSecond = messagesPerSecond;
+		this.subscribers = subscribers;
+	}
+
+	public String topic() {
+		return topic;
+	}
+
+	/**
+	 * @return the number of messages dispatched to the topic during the period
+	 */
+	public long messages() {
+		return messages;
+	}
+
+	public double messagesPerSecond() {
+		return messagesPerSecond;
+	}
+
+	/**
+	 * @return the number of subscriptions the topic had when the sample was taken
+	 */
+	public int subscribers() {
+		return subscribers;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s: %d messages, %.1f/s, %d subscribers", topic, messages, messagesPerSecond, subscribers);
+	}
+}
@@ -0,0 +1,55 @@
+package com.kuriosityrobotics.powerplay.pubsub.metrics;
+
+import java.io.Serializable;
+
+/**
+ * How old the origins of the messages dispatched to a topic along one causal chain were, over the
+ * period since the previous sample.  For a chain from the encoder readings to
+ * <code>motorPowers</code>, this is how stale the readings behind each motor command were.
+ */
+public class TraceStats implements Serializable {
+	private final String originTopic;
+	private final String topic;
+	private final int hops;
+	private final LatencyStats age;
+
+	public TraceStats(String originTopic, String topic, int hops, LatencyStats age) {
+		this.originTopic = originTopic;
+		this.topic = topic;
+		this.hops = hops;
+		this.age = age;
+	}
+
+	/**
+	 * @return the topic the chain starts at
+	 */
+	public String originTopic() {
+		return originTopic;
+	}
+
+	/**
+	 * @return the topic the messages were dispatched to
+	 */
+	public String topic() {
+		return topic;
+	}
+
+	/**
+	 * @return how many topics lay between the origin and the last message in the period
+	 */
+	public int hops() {
+		return hops;
+	}
+
+	/**
+	 * @return the time between the origin messages and the messages they led to
+	 */
+	public LatencyStats age() {
+		return age;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s -> %s (%d hops): %s", originTopic, topic, hops, age);
+	}
+}
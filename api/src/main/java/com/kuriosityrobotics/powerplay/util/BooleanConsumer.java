@@ -0,0 +1,10 @@
+package com.kuriosityrobotics.powerplay.util;
+
+/**
+ * The <code>boolean</code> counterpart of {@link java.util.function.DoubleConsumer}, which the JDK
+ * doesn't have.
+ */
+@FunctionalInterface
+public interface BooleanConsumer {
+	void accept(boolean value);
+}
@@ -0,0 +1,12 @@
+package com.kuriosityrobotics.powerplay.util;
+
+/**
+ * A source of the current time for {@link Instant#now()}.  Times are in the same nanosecond epoch as
+ * {@link Instant#nanos}.
+ *
+ * @see Instant#setClock(Clock)
+ */
+@FunctionalInterface
+public interface Clock {
+	long nanos();
+}
@@ -8,14 +8,47 @@ import java.io.Serializable;
 public final class Instant implements Serializable, Comparable<Instant> {
     private static final long nanoTimeEpochOffset = System.nanoTime() - System.currentTimeMillis() * 1_000_000L;
 	private static final long robotStartTime = System.currentTimeMillis() * 1_000_000L;
+	private static final Clock systemClock = () -> System.nanoTime() - nanoTimeEpochOffset;
+	private static volatile Clock clock = systemClock;
 	private static final Instant start = Instant.now();
 
     public final long nanos;
 
     public static Instant now() {
-        return new Instant(System.nanoTime() - nanoTimeEpochOffset);
+        return new Instant(clock.nanos());
     }
 
+	/**
+	 * @return the {@link #nanos} of {@link #now()}, without allocating an <code>Instant</code>
+	 */
+	public static long nowNanos() {
+		return clock.nanos();
+	}
+
+	/**
+	 * @return the clock that follows wall time, which is the one used unless another is set
+	 */
+	public static Clock systemClock() {
+		return systemClock;
+	}
+
+	/**
+	 * Makes {@link #now()} follow another clock, such as a virtual one for simulation.  The clock is
+	 * shared by the whole process.
+	 *
+	 * @param clock the clock to use, or <code>null</code> to go back to the {@link #systemClock()}
+	 */
+	public static void setClock(Clock clock) {
+		Instant.clock = clock == null ? systemClock : clock;
+	}
+
+	/**
+	 * @return the clock {@link #now()} currently follows
+	 */
+	public static Clock clock() {
+		return clock;
+	}
+
 	public static Instant ofEpochMillis(long millis) {
 		return new Instant(millis * 1_000_000);
 	}
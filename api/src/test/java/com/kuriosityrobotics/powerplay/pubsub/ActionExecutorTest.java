@@ -0,0 +1,166 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+class ActionExecutorTest {
+	private static ActionExecutor pool(int parallelism) {
+		return new ActionExecutor(ActionExecutor.Backend.POOL, parallelism, (thread, e) -> e.printStackTrace());
+	}
+
+	@Test
+	void parentsCanWaitForChildrenOnASingleThread() throws Exception {
+		var executor = pool(1);
+		try {
+			var parent = new CompletableFuture<Void>();
+			executor.execute(() -> {
+				var child = new CompletableFuture<Void>();
+				executor.execute(() -> child.complete(null));
+				// the pool adds a thread while this one waits, rather than deadlocking
+				child.join();
+				parent.complete(null);
+			});
+
+			parent.get(1, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void sleepingActionsDontHoldUpOthers() throws InterruptedException {
+		var executor = pool(2);
+		try {
+			var done = new CountDownLatch(20);
+			for (int i = 0; i < 20; i++)
+				executor.execute(() -> {
+					try {
+						ActionExecutor.sleep(200);
+					} catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					done.countDown();
+				});
+
+			// twenty 200ms sleeps on two threads would take two seconds if they held their threads
+			assertTrue(done.await(1, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void interruptionsDontLeakIntoTheNextAction() throws InterruptedException {
+		var executor = pool(1);
+		try {
+			var failed = new CountDownLatch(1);
+			executor.execute(() -> {
+				Thread.currentThread().interrupt();
+				failed.countDown();
+			});
+			assertTrue(failed.await(1, TimeUnit.SECONDS));
+
+			var interrupted = new AtomicBoolean(true);
+			var next = new CountDownLatch(1);
+			executor.execute(() -> {
+				interrupted.set(Thread.currentThread().isInterrupted());
+				next.countDown();
+			});
+			assertTrue(next.await(1, TimeUnit.SECONDS));
+			assertFalse(interrupted.get());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void conditionChecksBackOffButUnparkingWakesAtOnce() throws Exception {
+		var checks = new AtomicInteger();
+		var done = new AtomicBoolean();
+		var waiter = new Thread(() -> {
+			try {
+				ActionExecutor.awaitCondition(() -> {
+					checks.incrementAndGet();
+					return done.get();
+				}, TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.SECONDS.toNanos(10));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		waiter.start();
+
+		Thread.sleep(200);
+		// checking every millisecond would have been 200 checks
+		assertTrue(checks.get() < 40, checks + " checks");
+
+		done.set(true);
+		LockSupport.unpark(waiter);
+		waiter.join(1000);
+		assertFalse(waiter.isAlive());
+	}
+
+	@Test
+	void awaitActionCompletionWakesWhenTheLastActionFinishes() throws Exception {
+		var orchestrator = Orchestrator.createTest("test", false);
+		try {
+			var started = new CountDownLatch(1);
+			var release = new CountDownLatch(1);
+			orchestrator.startActionAsync(() -> {
+				started.countDown();
+				release.await();
+			});
+			assertTrue(started.await(1, TimeUnit.SECONDS));
+
+			var waiter = CompletableFuture.runAsync(() -> {
+				try {
+					orchestrator.awaitActionCompletion();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			});
+			Thread.sleep(100);
+			assertFalse(waiter.isDone());
+
+			release.countDown();
+			waiter.get(1, TimeUnit.SECONDS);
+			assertTrue(orchestrator.actionsDone());
+		} finally {
+			orchestrator.close();
+		}
+	}
+
+	@Test
+	void virtualThreadsRunThousandsOfActions() throws InterruptedException {
+		assumeTrue(ActionExecutor.Backend.preferred() == ActionExecutor.Backend.VIRTUAL_THREADS);
+
+		var executor = new ActionExecutor(ActionExecutor.Backend.VIRTUAL_THREADS, 1, (thread, e) -> e.printStackTrace());
+		assertEquals(ActionExecutor.Backend.VIRTUAL_THREADS, executor.backend());
+		try {
+			var done = new CountDownLatch(5000);
+			for (int i = 0; i < 5000; i++)
+				executor.execute(() -> {
+					try {
+						ActionExecutor.sleep(100);
+					} catch (InterruptedException e) {
+						throw new RuntimeException(e);
+					}
+					done.countDown();
+				});
+
+			assertTrue(done.await(5, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class CallbackLaneTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private CallbackLane lane;
+	private final CountDownLatch wedged = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@BeforeEach
+	void setUp() throws InterruptedException {
+		lane = new CallbackLane(TopicPriority.NORMAL, 1, 2, Thread::new);
+
+		// wedge the only worker, so that everything after this is queued
+		lane.execute(() -> {
+			wedged.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertTrue(wedged.await(1, TimeUnit.SECONDS));
+	}
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		lane.shutdownNow();
+	}
+
+	private List<Integer> submitAll(OverflowPolicy policy, int count) {
+		var ran = new CopyOnWriteArrayList<Integer>();
+		for (int i = 0; i < count; i++) {
+			var n = i;
+			lane.executor(policy).execute(() -> ran.add(n));
+		}
+		return ran;
+	}
+
+	private void drain() throws InterruptedException {
+		release.countDown();
+		var done = new CountDownLatch(1);
+		lane.execute(done::countDown);
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void dropNewestKeepsTheFirstTasks() throws InterruptedException {
+		var ran = submitAll(OverflowPolicy.DROP_NEWEST, 10);
+		drain();
+
+		assertEquals(List.of(0, 1), ran);
+		var stats = lane.sampleStats();
+		assertEquals(8, stats.dropped());
+		assertEquals(2, stats.capacity());
+	}
+
+	@Test
+	void dropOldestKeepsTheLastTasks() throws InterruptedException {
+		var ran = submitAll(OverflowPolicy.DROP_OLDEST, 10);
+		drain();
+
+		assertEquals(List.of(8, 9), ran);
+		assertEquals(8, lane.sampleStats().dropped());
+	}
+
+	@Test
+	void dropOldestOnlyDropsTasksThatAgreed() throws InterruptedException {
+		var blocking = submitAll(OverflowPolicy.BLOCK, 2);
+		var dropping = submitAll(OverflowPolicy.DROP_OLDEST, 1);
+		drain();
+
+		assertEquals(List.of(0, 1), blocking);
+		assertEquals(List.of(), dropping);
+	}
+
+	@Test
+	void callerRunsOnThePublisher() {
+		var ran = submitAll(OverflowPolicy.CALLER_RUNS, 3);
+
+		// the first two are still queued behind the wedged worker
+		assertEquals(List.of(2), ran);
+		assertEquals(1, lane.sampleStats().callerRan());
+	}
+
+	@Test
+	void blockWaitsForRoom() throws InterruptedException {
+		submitAll(OverflowPolicy.BLOCK, 2);
+
+		var submitted = new CountDownLatch(1);
+		var publisher = new Thread(() -> {
+			lane.execute(() -> {});
+			submitted.countDown();
+		});
+		publisher.start();
+		assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+
+		release.countDown();
+		assertTrue(submitted.await(1, TimeUnit.SECONDS));
+		publisher.join();
+
+		var stats = lane.sampleStats();
+		assertEquals(1, stats.blocked());
+		assertTrue(stats.blockedNanos() > 0);
+		assertEquals(0, stats.dropped());
+	}
+
+	@Test
+	void droppedConflatingDeliveriesDontStopTheSubscription() throws InterruptedException {
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			var received = new CopyOnWriteArrayList<Integer>();
+			var subscription = new Subscription<Integer>((message, topicName, robot) -> received.add(message), null, true);
+
+			submitAll(OverflowPolicy.DROP_NEWEST, 2);
+			lane.executor(OverflowPolicy.DROP_NEWEST).execute(subscription.delivery(orchestrator, 1, "number", ROBOT_DETAILS, null));
+			assertEquals(1, lane.sampleStats().dropped());
+			drain();
+
+			// the dropped message mustn't still look queued
+			var delivery = subscription.delivery(orchestrator, 2, "number", ROBOT_DETAILS, null);
+			assertNotNull(delivery);
+			lane.execute(delivery);
+			drain();
+
+			assertEquals(List.of(2), received);
+		} finally {
+			orchestrator.close();
+		}
+	}
+
+	@Test
+	void droppedPrimitiveDeliveriesDontStopTheSubscription() throws InterruptedException {
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			var received = new CopyOnWriteArrayList<Long>();
+			var subscription = new PrimitiveSubscription<Long>((OrchestratorImpl) orchestrator, (message, topicName, robot) -> {}) {
+				@Override
+				void acceptBits(long bits) {
+					received.add(bits);
+				}
+			};
+
+			submitAll(OverflowPolicy.DROP_NEWEST, 2);
+			subscription.deliverBits(1, lane.executor(OverflowPolicy.DROP_NEWEST), TopicPriority.NORMAL, null);
+			assertEquals(1, lane.sampleStats().dropped());
+			drain();
+
+			subscription.deliverBits(2, lane.executor(OverflowPolicy.DROP_NEWEST), TopicPriority.NORMAL, null);
+			drain();
+
+			assertEquals(List.of(2L), received);
+		} finally {
+			orchestrator.close();
+		}
+	}
+
+	@Test
+	void diagnosticTopicsDropOldestByDefault() {
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			orchestrator.dispatch("telemetry/test", "hello");
+			orchestrator.dispatch("number", 1);
+
+			assertEquals(OverflowPolicy.DROP_OLDEST, orchestrator.getTopic("telemetry/test").orElseThrow().overflowPolicy());
+			assertEquals(OverflowPolicy.BLOCK, orchestrator.getTopic("number").orElseThrow().overflowPolicy());
+
+			orchestrator.setTopicOverflowPolicy("number", OverflowPolicy.DROP_NEWEST);
+			assertEquals(OverflowPolicy.DROP_NEWEST, orchestrator.getTopic("number").orElseThrow().overflowPolicy());
+		} finally {
+			orchestrator.close();
+		}
+	}
+}
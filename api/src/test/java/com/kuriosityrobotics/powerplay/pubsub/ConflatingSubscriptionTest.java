@@ -0,0 +1,95 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+class ConflatingSubscriptionTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void slowSubscriberOnlySeesNewestMessage() throws InterruptedException {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var received = new CopyOnWriteArrayList<Integer>();
+
+		orchestrator.subscribe("state", Integer.class, n -> {
+			received.add(n);
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}, true);
+
+		orchestrator.dispatch("state", 0);
+		assertTrue(started.await(1, TimeUnit.SECONDS));
+
+		// the subscriber is stuck on the first message, so these fold into the one queued delivery
+		// (another worker may pick that delivery up early, but then it gets stuck as well)
+		for (int i = 1; i <= 100; i++)
+			orchestrator.dispatch("state", i);
+		release.countDown();
+
+		waitFor(() -> received.contains(100));
+		Thread.sleep(50);
+		assertEquals(0, received.get(0));
+		assertEquals(100, received.get(received.size() - 1));
+		assertTrue(received.size() <= 3, received::toString);
+	}
+
+	private static class StateNode extends Node {
+		final List<Integer> received = new CopyOnWriteArrayList<>();
+
+		StateNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@SubscribedTo(topic = "state", conflate = true)
+		void onState(Integer state) {
+			received.add(state);
+		}
+	}
+
+	@Test
+	void annotationCreatesConflatingSubscription() throws InterruptedException {
+		var node = new StateNode(orchestrator);
+		orchestrator.startNode("state", node);
+
+		assertTrue(node.boundSubscriptions.stream().allMatch(Subscription::isConflating));
+
+		orchestrator.dispatch("state", 1);
+		waitFor(() -> node.received.contains(1));
+	}
+
+	private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 100 && !condition.getAsBoolean(); i++)
+			Thread.sleep(10);
+		assertTrue(condition.getAsBoolean());
+	}
+}
@@ -0,0 +1,117 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class DispatchBatchTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private OrchestratorImpl orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = (OrchestratorImpl) Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void callbacksSeeTheWholeBatch() {
+		var seen = new AtomicReference<Integer>();
+		orchestrator.subscribe("first", Integer.class, n -> seen.set((Integer) orchestrator.getTopic("second").orElseThrow().lastValue()));
+		orchestrator.dispatch("second", 1);
+
+		// dispatched one at a time, the callback for first would still see the old second
+		orchestrator.batch()
+			.put("first", 2)
+			.put("second", 2)
+			.dispatch();
+
+		assertEquals(2, seen.get());
+	}
+
+	@Test
+	void sharedSubscriptionGetsOneTask() {
+		var executions = new AtomicInteger();
+		var received = new CopyOnWriteArrayList<String>();
+		orchestrator.subscribeToGlob("hub/*", (message, topicName, robot) -> received.add(topicName), task -> {
+			executions.incrementAndGet();
+			task.run();
+		}, false);
+
+		orchestrator.batch()
+			.put("hub/a", 1)
+			.put("hub/b", 2)
+			.put(orchestrator.doubleTopic("hub/c"), 3.)
+			.dispatch();
+
+		assertEquals(1, executions.get());
+		assertEquals(List.of("hub/a", "hub/b", "hub/c"), received);
+	}
+
+	@Test
+	void batchTopicGetsEveryMessage() {
+		var batch = new AtomicReference<Batch>();
+		orchestrator.subscribe("bulk", Batch.class, batch::set);
+
+		var voltage = orchestrator.doubleTopic("voltage");
+		var button = orchestrator.booleanTopic("button");
+		orchestrator.batch("bulk")
+			.put(voltage, 12.5)
+			.put(button, true)
+			.put("pose", "here")
+			.dispatch();
+
+		assertEquals(12.5, batch.get().getDouble("voltage", 0));
+		assertEquals(true, batch.get().getBoolean("button", false));
+		assertEquals("here", batch.get().get("pose", String.class));
+		assertEquals(List.of("voltage", "button", "pose"), List.copyOf(batch.get().topics()));
+
+		assertEquals(12.5, voltage.lastDouble(0));
+		assertEquals(true, button.topic().lastValue());
+	}
+
+	@Test
+	void batchTopicIsOnlyPublishedWhileSubscribedTo() {
+		orchestrator.batch("bulk").put("voltage", 12.5).dispatch();
+
+		assertNull(orchestrator.getTopic("bulk").orElseThrow().lastValue());
+		assertEquals(12.5, orchestrator.getTopic("voltage").orElseThrow().lastValue());
+	}
+
+	@Test
+	void dispatchBatchTakesAMap() {
+		var received = new CopyOnWriteArrayList<Object>();
+		orchestrator.subscribe("x", Object.class, received::add);
+		orchestrator.subscribe("y", Object.class, received::add);
+
+		orchestrator.dispatchBatch(Map.of("x", 1, "y", 2));
+
+		assertEquals(2, received.size());
+		assertEquals(1, orchestrator.getTopic("x").orElseThrow().lastValue());
+	}
+
+	@Test
+	void batchCanOnlyBeDispatchedOnce() {
+		var batch = orchestrator.batch().put("x", 1);
+		batch.dispatch();
+
+		assertThrows(IllegalStateException.class, batch::dispatch);
+	}
+}
@@ -0,0 +1,73 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LastValueBindingTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	private static class FieldNode extends Node {
+		@LastMessagePublished(topic = "name")
+		private volatile String name;
+
+		@LastMessagePublished(topic = "count")
+		private int count;
+
+		FieldNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+	}
+
+	@Test
+	void fieldsAreSetUntilTheNodeIsClosed() {
+		var node = new FieldNode(orchestrator);
+		orchestrator.startNode("fields", node);
+		assertEquals(2, node.boundFields.size());
+
+		orchestrator.dispatch("name", "first");
+		orchestrator.intTopic("count").dispatchInt(1);
+		assertEquals("first", node.name);
+		assertEquals(1, node.count);
+
+		orchestrator.stopNode(node);
+		orchestrator.dispatch("name", "second");
+		orchestrator.intTopic("count").dispatchInt(2);
+		assertEquals("first", node.name);
+		assertEquals(1, node.count);
+
+		assertTrue(orchestrator.getTopic("name").orElseThrow().lastValueBindings.isEmpty());
+		assertTrue(orchestrator.intTopic("count").lastValueFields.isEmpty());
+	}
+
+	@Test
+	void closingOneNodeLeavesOthersBound() {
+		var first = new FieldNode(orchestrator);
+		var second = new FieldNode(orchestrator);
+		orchestrator.startNode("first", first);
+		orchestrator.startNode("second", second);
+
+		orchestrator.stopNode(first);
+		orchestrator.dispatch("name", "value");
+		assertEquals("value", second.name);
+		assertEquals(1, orchestrator.getTopic("name").orElseThrow().lastValueBindings.size());
+	}
+}
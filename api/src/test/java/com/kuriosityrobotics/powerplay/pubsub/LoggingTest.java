@@ -0,0 +1,127 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+class LoggingTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	private static LogEntry entry(LogLevel level, String message) {
+		return new LogEntry(0, level, "test", "main", message, null);
+	}
+
+	@Test
+	void messagesBelowTheThresholdAreNeverBuilt() {
+		orchestrator.setLogLevel(LogLevel.INFO);
+
+		var built = new AtomicBoolean();
+		orchestrator.debug(() -> {
+			built.set(true);
+			return "debug";
+		});
+		assertFalse(built.get());
+
+		orchestrator.info(() -> {
+			built.set(true);
+			return "info";
+		});
+		assertTrue(built.get());
+	}
+
+	@Test
+	void nodesHaveTheirOwnThresholds() {
+		var node = new Node(orchestrator) {};
+		orchestrator.startNode("quiet", node);
+		orchestrator.setLogLevel(LogLevel.DEBUG);
+
+		orchestrator.setLogLevel("quiet", LogLevel.WARN);
+		assertFalse(orchestrator.isLoggable(LogLevel.INFO, node));
+		assertTrue(orchestrator.isLoggable(LogLevel.WARN, node));
+		assertTrue(orchestrator.isLoggable(LogLevel.INFO, null));
+
+		orchestrator.setLogLevel("quiet", null);
+		assertTrue(orchestrator.isLoggable(LogLevel.DEBUG, node));
+	}
+
+	@Test
+	void publishesToTheTopicOfItsLevel() throws InterruptedException {
+		var node = new Node(orchestrator) {};
+		orchestrator.startNode("careful", node);
+
+		var warnings = new LinkedBlockingQueue<String>();
+		orchestrator.subscribe("log/warn", String.class, warnings::add);
+		orchestrator.warn("slipping", node);
+
+		assertEquals("[careful] slipping", warnings.poll(1, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void rateLimitsPublishing() throws InterruptedException {
+		var written = new CountDownLatch(100);
+		var published = new CopyOnWriteArrayList<String>();
+		var logger = new AsyncLogger(128, Thread::new, entry -> written.countDown(), (level, text) -> published.add(text));
+		try {
+			for (int i = 0; i < 100; i++) logger.log(entry(LogLevel.INFO, "message " + i));
+
+			// everything is written, but only the first ones are published
+			assertTrue(written.await(1, TimeUnit.SECONDS));
+			// the sink is called before the entry is counted as published or suppressed, so wait for
+			// the writer to finish with the last one
+			logger.close();
+			assertEquals(AsyncLogger.PUBLISH_RATE, published.size());
+			assertEquals("[test] message 0", published.get(0));
+
+			var stats = logger.sampleStats();
+			assertEquals(100, stats.logged());
+			assertEquals(100 - AsyncLogger.PUBLISH_RATE, stats.suppressed());
+		} finally {
+			logger.close();
+		}
+	}
+
+	@Test
+	void dropsWhenTheWriterFallsBehind() {
+		var written = new CopyOnWriteArrayList<LogEntry>();
+		// a writer that never drains the ring
+		var logger = new AsyncLogger(4, runnable -> new Thread(() -> {}), written::add, (level, text) -> {});
+
+		for (int i = 0; i < 6; i++) logger.log(entry(LogLevel.INFO, "message " + i));
+		var stats = logger.sampleStats();
+		assertEquals(4, stats.logged());
+		assertEquals(2, stats.dropped());
+
+		// closing writes out what's left, and anything logged afterwards is written straight away
+		logger.close();
+		logger.log(entry(LogLevel.ERR, "late"));
+		assertEquals(
+			List.of("message 0", "message 1", "message 2", "message 3", "late"),
+			written.stream().map(LogEntry::message).collect(Collectors.toList()));
+	}
+}
@@ -0,0 +1,111 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class MethodInvokersTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+	private Orchestrator orchestrator;
+	private TestNode node;
+
+	private static class TestNode extends Node {
+		final AtomicInteger calls = new AtomicInteger();
+		final AtomicReference<Object> lastMessage = new AtomicReference<>();
+		final AtomicReference<String> lastTopic = new AtomicReference<>();
+		final AtomicReference<RobotDetails> lastRobot = new AtomicReference<>();
+
+		TestNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		private void noArgs() {
+			calls.incrementAndGet();
+		}
+
+		private void primitive(int message) {
+			lastMessage.set(message);
+		}
+
+		void twoArgs(String message, String topicName) {
+			lastMessage.set(message);
+			lastTopic.set(topicName);
+		}
+
+		public void threeArgs(Double message, String topicName, RobotDetails robot) {
+			lastMessage.set(message);
+			lastTopic.set(topicName);
+			lastRobot.set(robot);
+		}
+
+		private void throwsChecked() throws InterruptedException {
+			throw new InterruptedException();
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		node = new TestNode(orchestrator);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	private static Method method(String name) {
+		for (var method : TestNode.class.getDeclaredMethods())
+			if (method.getName().equals(name)) return method;
+
+		throw new AssertionError(name);
+	}
+
+	@Test
+	void noArgs() throws Throwable {
+		MethodInvokers.noArgs(node, method("noArgs")).run();
+		MethodInvokers.subscriber(node, method("noArgs")).accept("ignored", "topic", ROBOT_DETAILS);
+		assertEquals(2, node.calls.get());
+	}
+
+	@Test
+	void subscriberUnboxesPrimitives() {
+		MethodInvokers.subscriber(node, method("primitive")).accept(5, "topic", ROBOT_DETAILS);
+		assertEquals(5, node.lastMessage.get());
+	}
+
+	@Test
+	void subscriberPassesTopicAndRobot() {
+		MethodInvokers.subscriber(node, method("twoArgs")).accept("hello", "topic", ROBOT_DETAILS);
+		assertEquals("hello", node.lastMessage.get());
+		assertEquals("topic", node.lastTopic.get());
+
+		MethodInvokers.subscriber(node, method("threeArgs")).accept(1.5, "topic2", ROBOT_DETAILS);
+		assertEquals(1.5, node.lastMessage.get());
+		assertEquals("topic2", node.lastTopic.get());
+		assertSame(ROBOT_DETAILS, node.lastRobot.get());
+	}
+
+	@Test
+	void exceptionsAreNotWrapped() {
+		assertThrows(InterruptedException.class, MethodInvokers.noArgs(node, method("throwsChecked"))::run);
+	}
+
+	@Test
+	void reflectiveFallbackBehavesTheSame() {
+		MethodInvokers.reflectiveSubscriber(node, method("threeArgs")).accept(2.5, "topic", ROBOT_DETAILS);
+		assertEquals(2.5, node.lastMessage.get());
+		assertEquals("topic", node.lastTopic.get());
+		assertSame(ROBOT_DETAILS, node.lastRobot.get());
+	}
+}
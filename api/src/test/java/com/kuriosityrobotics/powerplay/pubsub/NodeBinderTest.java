@@ -0,0 +1,136 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.debug.StdoutTopicLogger;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunnableAction;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class NodeBinderTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	/**
+	 * Doesn't get a binder, but should still be indexed
+	 */
+	private static class PrivateNode extends Node {
+		PrivateNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+	}
+
+	@Hidden
+	@SuppressWarnings("FieldMayBeFinal")
+	static class GeneratedNode extends Node {
+		final List<String> received = new ArrayList<>();
+		int ticks;
+		boolean acted;
+
+		@LastMessagePublished(topic = "voltage")
+		private double voltage;
+
+		GeneratedNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@SubscribedTo(topic = "greeting")
+		void greet(String greeting, String topicName) {
+			received.add(topicName + ":" + greeting);
+		}
+
+		@SubscribedTo(topic = "count")
+		@SubscribedTo(topic = "other/count", onlyLocal = true)
+		private void count(int count) {
+			received.add("count:" + count);
+		}
+
+		@RunPeriodically(maxFrequency = 10)
+		void tick() {
+			ticks++;
+		}
+
+		@RunnableAction(actionName = "act")
+		private void act() {
+			acted = true;
+		}
+	}
+
+	private VirtualTimeScheduler scheduler;
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new VirtualTimeScheduler();
+		orchestrator = Orchestrator.createVirtual(ROBOT_DETAILS, scheduler);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void nodesAreBoundByTheirGeneratedBinders() throws Exception {
+		assertNotNull(NodeBinders.forType(GeneratedNode.class));
+
+		var node = new GeneratedNode(orchestrator);
+		orchestrator.startNode("generated", node);
+
+		orchestrator.dispatch("greeting", "hello");
+		orchestrator.dispatch("count", 3);
+		orchestrator.dispatch("other/count", 4);
+		orchestrator.doubleTopic("voltage").dispatchDouble(12.5);
+		scheduler.runFor(Duration.ofMillis(250));
+
+		assertEquals(List.of("greeting:hello", "count:3", "count:4"), node.received);
+		assertEquals(12.5, node.voltage);
+		assertTrue(node.ticks >= 2);
+
+		var action = orchestrator.startActionAsync("act");
+		scheduler.runPending();
+		action.get();
+		assertTrue(node.acted);
+	}
+
+	@Test
+	void classesWithoutABinderAreBoundReflectively() {
+		var node = new Node(orchestrator) {
+			int count;
+
+			@SubscribedTo(topic = "count")
+			void count(int count) {
+				this.count = count;
+			}
+		};
+		assertNull(NodeBinders.forType(node.getClass()));
+
+		orchestrator.startNode("anonymous", node);
+		orchestrator.dispatch("count", 5);
+		scheduler.runPending();
+
+		assertEquals(5, node.count);
+	}
+
+	@Test
+	void installedNodesComeFromTheBinders() {
+		var installed = NodeBinders.installedNodes();
+		assertTrue(installed.contains(StdoutTopicLogger.class.getName()));
+		assertFalse(installed.contains(GeneratedNode.class.getName()));
+		assertTrue(installed.contains(PrivateNode.class.getName()));
+	}
+}
@@ -4,10 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
 import com.kuriosityrobotics.powerplay.util.Duration;
 import com.kuriosityrobotics.powerplay.util.Instant;
@@ -17,10 +19,12 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.RepeatedTest;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
 
 class OrchestratorTest {
 	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
@@ -212,6 +216,7 @@ class OrchestratorTest {
 		var lastMessage = new AtomicReference<>();
 		var lastRobot = new AtomicReference<>();
 		var publisher = orchestrator.publisher("testTopic", String.class);
+		assertSame(orchestrator.getTopic("testTopic").orElseThrow(), publisher.topic());
 		orchestrator.subscribe(
 			"testTopic",
 			String.class,
@@ -324,11 +329,75 @@ class OrchestratorTest {
 		assertNotNull(topics.get("testTopic"));
 	}
 
+	@Test
+	void getOrAddTopicChecksTheMessageType() {
+		orchestrator.dispatch("typed", ROBOT_DETAILS, "testMessage");
+
+		assertNotNull(orchestrator.getOrAddTopic("typed", CharSequence.class));
+		assertNotNull(orchestrator.getOrAddTopic("typed", Object.class));
+		assertThrows(IllegalArgumentException.class, () -> orchestrator.getOrAddTopic("typed", Integer.class));
+	}
+
 	@Test
 	void getPatternMatchingTopicByIndex() {
 	}
 
 	@Test
 	void removeSubscription() {
+		var received = new AtomicInteger();
+		var subscription = orchestrator.subscribe("removed", Integer.class, n -> received.incrementAndGet());
+		var pattern = orchestrator.subscribeToPattern(Pattern.compile("removed|other"), (datum, topicName) -> received.incrementAndGet());
+		orchestrator.dispatch("other", 1);
+		assertEquals(1, received.get());
+		assertEquals(1, subscription.topics().size());
+		assertEquals(2, pattern.topics().size());
+
+		orchestrator.removeSubscriptions(List.of(subscription, pattern));
+		assertTrue(pattern.topics().isEmpty());
+		assertFalse(orchestrator.getTopic("removed").orElseThrow().subscriptions().contains(subscription));
+
+		orchestrator.dispatch("removed", 1);
+		orchestrator.dispatch("other", 1);
+		assertEquals(1, received.get());
+	}
+
+	@Test
+	void stopNodes() throws InterruptedException {
+		var received = new AtomicInteger();
+		var updates = new AtomicInteger();
+		class Member extends Node {
+			Member() {
+				super(OrchestratorTest.this.orchestrator);
+			}
+
+			@SubscribedTo(topic = "group")
+			void onGroup(Integer n) {
+				received.incrementAndGet();
+			}
+
+			@RunPeriodically(maxFrequency = 100)
+			void update() {
+				updates.incrementAndGet();
+			}
+		}
+
+		var first = new Member();
+		var second = new Member();
+		orchestrator.startNode("first", first);
+		orchestrator.startNode("second", second);
+		orchestrator.dispatch("group", 1);
+		assertEquals(2, received.get());
+
+		orchestrator.stopNodes(List.of(first, second));
+		Thread.sleep(30);
+		var updatesAfterStopping = updates.get();
+		orchestrator.dispatch("group", 2);
+		Thread.sleep(30);
+
+		assertEquals(2, received.get());
+		assertEquals(updatesAfterStopping, updates.get());
+		assertTrue(orchestrator.getTopic("group").orElseThrow().subscriptions().isEmpty());
+		assertFalse(((OrchestratorImpl) orchestrator).nodeIsRunning("first"));
+		assertFalse(((OrchestratorImpl) orchestrator).nodeIsRunning("second"));
 	}
 }
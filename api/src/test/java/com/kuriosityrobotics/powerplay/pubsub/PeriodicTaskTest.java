@@ -0,0 +1,110 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically.Overrun;
+import com.kuriosityrobotics.powerplay.util.Duration;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class PeriodicTaskTest {
+	private static final long MILLI = 1_000_000L;
+
+	private VirtualTimeScheduler scheduler;
+	/**
+	 * How far the clock has been moved ahead of the scheduler by tasks pretending to take time
+	 */
+	private long elapsedInTasks;
+	private final List<Long> starts = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new VirtualTimeScheduler(0);
+		Instant.setClock(() -> scheduler.nanos() + elapsedInTasks);
+	}
+
+	@AfterEach
+	void tearDown() {
+		Instant.setClock(null);
+	}
+
+	/**
+	 * Starts a 100 Hz task whose first run takes 25ms
+	 */
+	private PeriodicTask startSlowFirstRun(boolean fixedRate, Overrun overrun) {
+		var task = new PeriodicTask("test", () -> {
+			starts.add(Instant.nowNanos() / MILLI);
+			if (starts.size() == 1) elapsedInTasks += 25 * MILLI;
+		}, scheduler, 100, fixedRate, overrun);
+		task.start();
+		return task;
+	}
+
+	@Test
+	void skipDropsMissedTicks() {
+		var task = startSlowFirstRun(true, Overrun.SKIP);
+		scheduler.runUntil(() -> starts.size() == 4, Duration.ofSeconds(1));
+
+		assertEquals(List.of(0L, 30L, 40L, 50L), starts);
+		assertEquals(2, task.sampleStats().missedDeadlines());
+	}
+
+	@Test
+	void catchUpRunsMissedTicks() {
+		startSlowFirstRun(true, Overrun.CATCH_UP);
+		scheduler.runUntil(() -> starts.size() == 5, Duration.ofSeconds(1));
+
+		assertEquals(List.of(0L, 25L, 25L, 30L, 40L), starts);
+	}
+
+	@Test
+	void coalesceRunsOnceAndRestartsTheGrid() {
+		startSlowFirstRun(true, Overrun.COALESCE);
+		scheduler.runUntil(() -> starts.size() == 4, Duration.ofSeconds(1));
+
+		assertEquals(List.of(0L, 25L, 35L, 45L), starts);
+	}
+
+	@Test
+	void fixedDelayWaitsAfterEachRun() {
+		startSlowFirstRun(false, Overrun.SKIP);
+		scheduler.runUntil(() -> starts.size() == 3, Duration.ofSeconds(1));
+
+		assertEquals(List.of(0L, 35L, 45L), starts);
+	}
+
+	@Test
+	void subMillisecondPeriodsAreKept() {
+		var task = new PeriodicTask("fast", () -> starts.add(Instant.nowNanos()), scheduler, 3000, true, Overrun.SKIP);
+		assertEquals(333_333, task.periodNanos());
+		task.start();
+
+		scheduler.runFor(Duration.ofMillis(1));
+		assertEquals(List.of(0L, 333_333L, 666_666L, 999_999L), starts);
+
+		var stats = task.sampleStats();
+		assertEquals(4, stats.runs());
+		assertEquals(333_333, stats.meanPeriodNanos());
+		assertEquals(0, stats.maxLatenessNanos());
+		assertEquals(0, stats.missedDeadlines());
+	}
+
+	@Test
+	void cancelledTasksStop() {
+		var task = startSlowFirstRun(true, Overrun.SKIP);
+		scheduler.runUntil(() -> starts.size() == 2, Duration.ofSeconds(1));
+		task.cancel(false);
+		scheduler.runFor(Duration.ofMillis(100));
+
+		assertEquals(List.of(0L, 30L), starts);
+		assertTrue(task.isCancelled());
+		assertEquals(0, scheduler.queuedTasks());
+	}
+}
@@ -0,0 +1,107 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PrimitiveTopicTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void primitiveAndBoxedSubscribersBothReceiveMessages() throws InterruptedException {
+		var topic = orchestrator.doubleTopic("voltage");
+		assertSame(topic, orchestrator.doubleTopic("voltage"));
+
+		var primitive = new CountDownLatch(1);
+		var boxed = new AtomicReference<Object>();
+		var boxedReceived = new CountDownLatch(1);
+		topic.subscribe(value -> {
+			if (value == 12.5) primitive.countDown();
+		});
+		orchestrator.subscribe("voltage", Double.class, value -> {
+			boxed.set(value);
+			boxedReceived.countDown();
+		});
+
+		topic.dispatchDouble(12.5);
+
+		assertTrue(primitive.await(1, TimeUnit.SECONDS));
+		assertTrue(boxedReceived.await(1, TimeUnit.SECONDS));
+		assertEquals(12.5, boxed.get());
+	}
+
+	@Test
+	void lastValueIsKeptUnboxed() {
+		var topic = orchestrator.intTopic("count");
+		assertEquals(-1, topic.lastInt(-1));
+
+		topic.dispatchInt(3);
+		assertEquals(3, topic.lastInt(-1));
+		assertEquals(3, topic.topic().lastValue());
+		assertEquals(3, orchestrator.getTopic("count").orElseThrow().lastValues().get(ROBOT_DETAILS));
+
+		// boxed messages end up in the same slot
+		orchestrator.dispatch("count", 4);
+		assertEquals(4, topic.lastInt(-1));
+	}
+
+	private static class FieldNode extends Node {
+		@LastMessagePublished(topic = "pressed")
+		private boolean pressed;
+
+		@LastMessagePublished(topic = "voltage")
+		private double voltage;
+
+		FieldNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+	}
+
+	@Test
+	void primitiveFieldsAreSetFromBothPaths() {
+		var node = new FieldNode(orchestrator);
+		orchestrator.startNode("fields", node);
+
+		orchestrator.booleanTopic("pressed").dispatchBoolean(true);
+		assertTrue(node.pressed);
+
+		orchestrator.dispatch("voltage", 11.0);
+		assertEquals(11.0, node.voltage);
+
+		orchestrator.stopNode(node);
+		orchestrator.booleanTopic("pressed").dispatchBoolean(false);
+		assertTrue(node.pressed);
+	}
+
+	@Test
+	void topicCanOnlyHaveOneKindOfView() {
+		orchestrator.booleanTopic("flag");
+		assertThrows(IllegalArgumentException.class, () -> orchestrator.doubleTopic("flag"));
+		assertFalse(orchestrator.booleanTopic("flag").lastBoolean(false));
+	}
+}
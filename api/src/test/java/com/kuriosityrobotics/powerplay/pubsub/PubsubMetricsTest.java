@@ -0,0 +1,119 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.TopicStats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+class PubsubMetricsTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void bucketsCoverEveryValue() {
+		for (long value = 0; value < 1_000_000; value++) {
+			var bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(LatencyHistogram.highestValueIn(bucket) >= value);
+			if (bucket > 0) assertTrue(LatencyHistogram.highestValueIn(bucket - 1) < value);
+		}
+
+		assertTrue(LatencyHistogram.highestValueIn(LatencyHistogram.bucketOf(Long.MAX_VALUE)) >= Long.MAX_VALUE - 1);
+	}
+
+	@Test
+	void percentilesAreWithinAnEighth() {
+		var histogram = new LatencyHistogram();
+		for (long micros = 1; micros <= 10_000; micros++)
+			histogram.record(micros * 1000);
+
+		var stats = histogram.sampleStats();
+		assertEquals(10_000, stats.count());
+		assertEquals(10_000_000, stats.maxNanos());
+		assertEquals(5_000_500, stats.meanNanos());
+		assertTrue(stats.p50Nanos() >= 5_000_000 && stats.p50Nanos() <= 5_000_000 * 9 / 8, "p50 " + stats.p50Nanos());
+		assertTrue(stats.p99Nanos() >= 9_900_000 && stats.p99Nanos() <= 10_000_000, "p99 " + stats.p99Nanos());
+
+		// sampling starts a new period
+		assertEquals(0, histogram.sampleStats().count());
+	}
+
+	@Test
+	void recordsTopicAndSubscriberMetricsWhenEnabled() {
+		// only this topic, so that the once-a-second publisher doesn't sample it in the middle of
+		// the test
+		orchestrator.getOrAddTopic("test", Integer.class).setMetricsEnabled(true);
+
+		var subscription = orchestrator.subscribe("test", Integer.class, n -> {
+			try {
+				Thread.sleep(2);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		for (int i = 0; i < 5; i++) orchestrator.dispatch("test", i);
+
+		var topicStats = orchestrator.getTopic("test").orElseThrow().sampleStats();
+		assertEquals(5, topicStats.messages());
+		assertEquals(1, topicStats.subscribers());
+
+		var subscriberStats = subscription.sampleStats();
+		assertEquals(5, subscriberStats.deliveries());
+		assertTrue(subscriberStats.subscriber().startsWith("test@"), subscriberStats.subscriber());
+		assertTrue(subscriberStats.callback().p50Nanos() >= TimeUnit.MILLISECONDS.toNanos(2));
+		assertEquals(5, subscriberStats.queueWait().count());
+	}
+
+	@Test
+	void recordsNothingWhenDisabled() {
+		var subscription = orchestrator.subscribe("test", Integer.class, n -> {});
+		orchestrator.dispatch("test", 1);
+
+		assertNull(orchestrator.getTopic("test").orElseThrow().sampleStats());
+		assertNull(subscription.sampleStats());
+
+		orchestrator.setPubsubMetricsEnabled(true);
+		orchestrator.setPubsubMetricsEnabled(false);
+		orchestrator.dispatch("test", 2);
+		assertNull(subscription.sampleStats());
+	}
+
+	@Test
+	void publishesStats() throws InterruptedException {
+		orchestrator.setPubsubMetricsEnabled(true);
+
+		var published = new AtomicReference<TopicStats>();
+		var latch = new CountDownLatch(1);
+		orchestrator.subscribe("metrics/pubsub/topic/test", TopicStats.class, stats -> {
+			published.set(stats);
+			latch.countDown();
+		});
+
+		orchestrator.subscribe("test", Integer.class, n -> {});
+		orchestrator.dispatch("test", 1);
+
+		assertTrue(latch.await(3, TimeUnit.SECONDS));
+		assertEquals("test", published.get().topic());
+		assertEquals(1, published.get().messages());
+	}
+}
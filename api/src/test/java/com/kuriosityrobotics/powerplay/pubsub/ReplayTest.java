@@ -0,0 +1,121 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+class ReplayTest {
+	private VirtualTimeScheduler scheduler;
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new VirtualTimeScheduler(1_000_000_000L);
+		orchestrator = Orchestrator.createVirtual(new RobotDetails("test", 0), scheduler);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void replaysOnlyTheLastMessages() {
+		orchestrator.getOrAddTopic("count", Integer.class).setReplay(ReplayPolicy.lastMessages(40));
+		for (int i = 0; i < 100; i++) orchestrator.dispatch("count", i);
+
+		var received = new ArrayList<Integer>();
+		orchestrator.subscribe("count", Integer.class, received::add);
+		// the replay is queued on the callback executor, not run by the subscriber
+		assertEquals(List.of(), received);
+
+		scheduler.runFor(Duration.ofMillis(1));
+		assertEquals(IntStream.range(60, 100).boxed().collect(Collectors.toList()), received);
+	}
+
+	@Test
+	void replaysOnlyRecentMessages() {
+		orchestrator.getOrAddTopic("count", Integer.class).setReplay(ReplayPolicy.within(Duration.ofSeconds(1)));
+		orchestrator.dispatch("count", 0);
+		scheduler.runFor(Duration.ofSeconds(2));
+		orchestrator.dispatch("count", 1);
+
+		var received = new ArrayList<Integer>();
+		orchestrator.subscribe("count", Integer.class, received::add);
+		scheduler.runFor(Duration.ofMillis(1));
+
+		assertEquals(List.of(1), received);
+	}
+
+	@Test
+	void replaysPrimitiveMessages() {
+		var topic = orchestrator.doubleTopic("voltage");
+		topic.topic().setReplay(ReplayPolicy.lastMessages(2));
+		topic.dispatchDouble(12);
+		topic.dispatchDouble(12.5);
+		topic.dispatchDouble(13);
+
+		var received = new ArrayList<Double>();
+		orchestrator.subscribe("voltage", Double.class, received::add);
+		scheduler.runFor(Duration.ofMillis(1));
+
+		assertEquals(List.of(12.5, 13.), received);
+	}
+
+	@Test
+	void conflatingSubscribersAreOnlyReplayedTheNewestMessage() {
+		orchestrator.getOrAddTopic("count", Integer.class).setReplay(ReplayPolicy.lastMessages(40));
+		for (int i = 0; i < 100; i++) orchestrator.dispatch("count", i);
+
+		var received = new ArrayList<Integer>();
+		orchestrator.subscribe("count", Integer.class, received::add, true);
+		scheduler.runFor(Duration.ofMillis(1));
+
+		assertEquals(List.of(99), received);
+	}
+
+	@Test
+	void replayDoesNotOverwriteANewerQueuedMessage() {
+		orchestrator.getOrAddTopic("count", Integer.class).setReplay(ReplayPolicy.lastMessages(40));
+		orchestrator.dispatch("count", 0);
+
+		var received = new ArrayList<Integer>();
+		var subscription = orchestrator.subscribe("count", Integer.class, received::add, true);
+		// a live message that arrives before the replay has run replaces it
+		orchestrator.dispatch("count", 1);
+		scheduler.runFor(Duration.ofMillis(1));
+		assertEquals(List.of(1), received);
+
+		// and a replay doesn't replace a live message that's already queued
+		received.clear();
+		var live = subscription.delivery(orchestrator, 2, "count", orchestrator.robotDetails(), null);
+		assertNull(subscription.replayDelivery(orchestrator, 1, "count", orchestrator.robotDetails()));
+		live.run();
+		assertEquals(List.of(2), received);
+	}
+
+	@Test
+	void replayDefaultsToTheDefaultPolicy() {
+		var topic = orchestrator.getOrAddTopic("count", Integer.class);
+		assertNull(topic.replayPolicy());
+
+		topic.setReplay(true);
+		assertSame(ReplayPolicy.DEFAULT, topic.replayPolicy());
+
+		topic.setReplay(false);
+		assertFalse(topic.isReplay());
+	}
+}
@@ -0,0 +1,90 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.SchedulingGroupStats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class SchedulingGroupTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Scheduling(SchedulingGroup.PLANNING)
+	private static class SlowNode extends Node {
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicReference<String> planningThread = new AtomicReference<>();
+		final AtomicReference<String> controlThread = new AtomicReference<>();
+		final AtomicInteger controlRuns = new AtomicInteger();
+
+		SlowNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@RunPeriodically(maxFrequency = 10)
+		void solve() throws InterruptedException {
+			planningThread.set(Thread.currentThread().getName());
+			// stands in for a long native solve
+			release.await();
+		}
+
+		@RunPeriodically(maxFrequency = 200, group = SchedulingGroup.CONTROL)
+		void control() {
+			controlThread.set(Thread.currentThread().getName());
+			controlRuns.incrementAndGet();
+		}
+	}
+
+	@Test
+	void blockedGroupDoesNotDelayOthers() throws InterruptedException {
+		var node = new SlowNode(orchestrator);
+		orchestrator.startNode("slow", node);
+		try {
+			Thread.sleep(200);
+			assertTrue(node.controlRuns.get() > 10, "control ran " + node.controlRuns.get() + " times");
+			assertTrue(node.planningThread.get().startsWith("scheduler-planning-"));
+			assertTrue(node.controlThread.get().startsWith("scheduler-control-"));
+		} finally {
+			node.release.countDown();
+		}
+	}
+
+	@Test
+	void groupsHaveTheirOwnThreadsAndStats() throws InterruptedException {
+		assertEquals(
+			SchedulingGroup.CONTROL.threads(),
+			((SchedulingGroupExecutor) orchestrator.nodeExecutorService(SchedulingGroup.CONTROL)).getCorePoolSize());
+
+		var stats = new AtomicReference<SchedulingGroupStats>();
+		var received = new CountDownLatch(1);
+		orchestrator.subscribe("metrics/schedulingGroup/diagnostics", SchedulingGroupStats.class, s -> {
+			stats.set(s);
+			received.countDown();
+		});
+
+		assertTrue(received.await(3, TimeUnit.SECONDS));
+		assertEquals("diagnostics", stats.get().group());
+	}
+}
@@ -0,0 +1,137 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SingleThreaded;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class SingleThreadedNodeTest {
+	private static final int MESSAGES = 2000;
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private Orchestrator orchestrator;
+
+	@SingleThreaded
+	private static class CountingNode extends Node {
+		final AtomicInteger running = new AtomicInteger();
+		final AtomicInteger maxRunning = new AtomicInteger();
+		// deliberately not thread-safe: the mailbox is what keeps this correct
+		final List<Integer> received = new ArrayList<>();
+		final CountDownLatch done = new CountDownLatch(MESSAGES);
+
+		CountingNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		private void enter() {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+		}
+
+		@SubscribedTo(topic = "number")
+		void onNumber(Integer number) {
+			enter();
+			try {
+				received.add(number);
+				done.countDown();
+			} finally {
+				running.decrementAndGet();
+			}
+		}
+
+		@SubscribedTo(topic = "number")
+		void alsoOnNumber(Integer number) {
+			enter();
+			running.decrementAndGet();
+		}
+
+		@RunPeriodically(maxFrequency = 200)
+		void update() {
+			enter();
+			running.decrementAndGet();
+		}
+	}
+
+	@SingleThreaded
+	private static class BusyNode extends Node {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<String> received = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch done = new CountDownLatch(4);
+
+		BusyNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@SubscribedTo(topic = "telemetry")
+		void onTelemetry(Integer number) throws InterruptedException {
+			if (number == 0) {
+				started.countDown();
+				release.await();
+			}
+			received.add("telemetry");
+			done.countDown();
+		}
+
+		@SubscribedTo(topic = "motorPower", priority = TopicPriority.CONTROL)
+		void onMotorPower(Double power) {
+			received.add("motorPower");
+			done.countDown();
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		orchestrator.setBlockingDispatch(false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void callbacksRunOneAtATimeInOrder() throws InterruptedException {
+		var node = new CountingNode(orchestrator);
+		orchestrator.startNode("counting", node);
+
+		for (int i = 0; i < MESSAGES; i++)
+			orchestrator.dispatch("number", i);
+
+		assertTrue(node.done.await(5, TimeUnit.SECONDS));
+		assertEquals(MESSAGES, node.received.size());
+		for (int i = 0; i < MESSAGES; i++)
+			assertEquals(i, node.received.get(i));
+		assertEquals(1, node.maxRunning.get());
+	}
+
+	@Test
+	void urgentCallbacksOvertakeQueuedOnes() throws InterruptedException {
+		var node = new BusyNode(orchestrator);
+		orchestrator.startNode("busy", node);
+
+		orchestrator.dispatch("telemetry", 0);
+		assertTrue(node.started.await(1, TimeUnit.SECONDS));
+		orchestrator.dispatch("telemetry", 1);
+		orchestrator.dispatch("telemetry", 2);
+		orchestrator.dispatch("motorPower", 0.5);
+		node.release.countDown();
+
+		assertTrue(node.done.await(1, TimeUnit.SECONDS));
+		assertEquals(List.of("telemetry", "motorPower", "telemetry", "telemetry"), node.received);
+	}
+}
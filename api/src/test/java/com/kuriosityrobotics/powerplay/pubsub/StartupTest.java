@@ -0,0 +1,170 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.DependsOn;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.StartupProfile;
+import com.kuriosityrobotics.powerplay.util.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+class StartupTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+	private static final List<String> constructed = new CopyOnWriteArrayList<>();
+
+	@Hidden
+	static class Hubs extends Node {
+		Hubs(Orchestrator orchestrator) throws InterruptedException {
+			super(orchestrator);
+			Thread.sleep(50);
+			constructed.add("hubs");
+		}
+	}
+
+	@Hidden
+	@DependsOn(Hubs.class)
+	static class Odometry extends Node {
+		Odometry(Orchestrator orchestrator) {
+			super(orchestrator);
+			constructed.add("odometry");
+		}
+	}
+
+	@Hidden
+	@DependsOn(Odometry.class)
+	static class Localiser extends Node {
+		Localiser(Orchestrator orchestrator) {
+			super(orchestrator);
+			constructed.add("localiser");
+		}
+	}
+
+	@Hidden
+	static class Telemetry extends Node {
+		Telemetry(Orchestrator orchestrator) {
+			super(orchestrator);
+			constructed.add("telemetry");
+		}
+	}
+
+	@Hidden
+	@DependsOn(Hubs.class)
+	static class Broken extends Node {
+		Broken(Orchestrator orchestrator) {
+			super(orchestrator);
+			throw new IllegalStateException("no hub");
+		}
+	}
+
+	@Hidden
+	@DependsOn(Broken.class)
+	static class NeedsBroken extends Node {
+		NeedsBroken(Orchestrator orchestrator) {
+			super(orchestrator);
+			constructed.add("needsBroken");
+		}
+	}
+
+	@Hidden
+	@DependsOn(Second.class)
+	static class First extends Node {
+		First(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+	}
+
+	@Hidden
+	@DependsOn(First.class)
+	static class Second extends Node {
+		Second(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+	}
+
+	@Hidden
+	static class ControlLoop extends Node {
+		ControlLoop(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@RunPeriodically(maxFrequency = 100, group = SchedulingGroup.CONTROL)
+		void loop() {}
+	}
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		constructed.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (orchestrator != null) orchestrator.close();
+	}
+
+	@Test
+	void nodesStartAfterTheirDependencies() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		orchestrator.startNodes(List.of(Localiser.class, Odometry.class, Telemetry.class, Hubs.class));
+
+		assertEquals(4, constructed.size());
+		// telemetry doesn't wait for the hubs
+		assertTrue(constructed.indexOf("telemetry") < constructed.indexOf("hubs"));
+		assertTrue(constructed.indexOf("hubs") < constructed.indexOf("odometry"));
+		assertTrue(constructed.indexOf("odometry") < constructed.indexOf("localiser"));
+		assertTrue(((OrchestratorImpl) orchestrator).getNodes().stream().anyMatch(Localiser.class::isInstance));
+	}
+
+	@Test
+	void nodesThatDependOnAFailedNodeAreNotStarted() {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+
+		var e = assertThrows(RuntimeException.class, () ->
+			orchestrator.startNodes(List.of(Hubs.class, Broken.class, NeedsBroken.class, Telemetry.class)));
+
+		assertEquals("Error constructing Broken: java.lang.IllegalStateException: no hub", e.getMessage());
+		assertEquals(0, e.getSuppressed().length);
+		assertTrue(constructed.contains("telemetry"));
+		assertFalse(constructed.contains("needsBroken"));
+	}
+
+	@Test
+	void cyclesAreRejected() {
+		assertThrows(IllegalArgumentException.class, () ->
+			NodeStarter.dependencyOrder(List.of(First.class, Second.class)));
+	}
+
+	@Test
+	void startupIsProfiled() {
+		var scheduler = new VirtualTimeScheduler();
+		orchestrator = Orchestrator.createVirtual(ROBOT_DETAILS, scheduler);
+		var published = new AtomicReference<StartupProfile>();
+		orchestrator.subscribe("metrics/startup", StartupProfile.class, published::set);
+
+		assertEquals(-1, orchestrator.startupProfile().timeToFirstControlLoopNanos());
+		scheduler.runFor(Duration.ofMillis(100));
+		orchestrator.startNodes(List.of(ControlLoop.class));
+		scheduler.runFor(Duration.ofMillis(1500));
+
+		var profile = orchestrator.startupProfile();
+		assertTrue(profile.phaseNanos().containsKey("executors"));
+		assertTrue(profile.nodeNanos().containsKey("helper"));
+		assertTrue(profile.nodeNanos().containsKey("ControlLoop"));
+		// the loop runs as soon as its node starts, 100ms in
+		assertEquals(100_000_000L, profile.timeToFirstControlLoopNanos());
+		assertEquals(100_000_000L, published.get().timeToFirstControlLoopNanos());
+	}
+}
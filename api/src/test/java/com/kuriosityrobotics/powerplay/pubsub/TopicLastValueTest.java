@@ -0,0 +1,97 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class TopicLastValueTest {
+	private static final RobotDetails LOCAL = new RobotDetails("local", 0);
+	private static final RobotDetails REMOTE = new RobotDetails("remote", 1);
+
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = Orchestrator.createTest(LOCAL, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void lastValuesAreKeptPerRobot() {
+		orchestrator.dispatchSynchronous("value", LOCAL, "a");
+		orchestrator.dispatchSynchronous("value", REMOTE, "b");
+		orchestrator.dispatchSynchronous("value", LOCAL, "c");
+
+		var topic = orchestrator.getTopic("value").orElseThrow();
+		assertEquals("c", topic.lastValue());
+		assertEquals("c", topic.lastValue(LOCAL));
+		assertEquals("b", topic.lastValue(REMOTE));
+		assertEquals(List.of(LOCAL, REMOTE), List.copyOf(topic.lastValues().keySet()));
+		assertEquals(List.of(LOCAL, REMOTE), List.copyOf(topic.activeRobotDetailsPublishingToThisTopic()));
+		assertFalse(topic.lastValueTime(REMOTE).isAfter(topic.lastValueTime(LOCAL)));
+		assertNull(topic.lastValue(new RobotDetails("other", 2)));
+	}
+
+	@Test
+	void anyRobotLastValueIsTheNewestValue() {
+		var lastValue = orchestrator.lastValue("value", String.class);
+		lastValue.setDefaultValue("default");
+		assertEquals("default", lastValue.getValue());
+
+		orchestrator.dispatchSynchronous("value", LOCAL, "a");
+		assertEquals("a", lastValue.getValue());
+		orchestrator.dispatchSynchronous("value", REMOTE, "b");
+		assertEquals("b", lastValue.getValue());
+		orchestrator.dispatchSynchronous("value", LOCAL, "c");
+		assertEquals("c", lastValue.getValue());
+	}
+
+	@Test
+	void newestValueIncludesPrimitiveSlot() {
+		var count = orchestrator.intTopic("count");
+		orchestrator.dispatchSynchronous("count", REMOTE, 1);
+		count.dispatchInt(2);
+
+		assertEquals(2, count.topic().newestValue());
+		orchestrator.dispatchSynchronous("count", REMOTE, 3);
+		assertEquals(3, count.topic().newestValue());
+		assertEquals(2, count.topic().lastValues().get(LOCAL));
+	}
+
+	@Test
+	void readersNeverSeeTornValues() throws InterruptedException {
+		var topic = orchestrator.getOrAddTopic("value", long[].class);
+		var stop = new AtomicBoolean();
+		var torn = new AtomicBoolean();
+
+		var reader = new Thread(() -> {
+			while (!stop.get()) {
+				var value = topic.lastValue(REMOTE);
+				if (value != null && value[0] != value[1]) torn.set(true);
+			}
+		});
+		reader.start();
+
+		for (long i = 0; i < 100_000; i++)
+			topic.setLastValue(REMOTE, new long[]{i, i});
+
+		stop.set(true);
+		reader.join();
+		assertFalse(torn.get());
+		assertTrue(topic.activeRobotDetailsPublishingToThisTopic().contains(REMOTE));
+	}
+}
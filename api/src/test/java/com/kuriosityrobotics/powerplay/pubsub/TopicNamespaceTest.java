@@ -0,0 +1,81 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+class TopicNamespaceTest {
+	@Test
+	void globsMatchTopicNames() {
+		var namespace = new TopicNamespace<String>();
+		namespace.put("gamepad1/*", "one segment");
+		namespace.put("gamepad1/**", "any segments");
+		namespace.put("gamepad1/a/rising", "literal");
+		namespace.put("**", "everything");
+
+		assertEquals(Set.of("one segment", "any segments", "everything"), Set.copyOf(namespace.globsMatching("gamepad1/x")));
+		assertEquals(Set.of("any segments", "literal", "everything"), Set.copyOf(namespace.globsMatching("gamepad1/a/rising")));
+		assertEquals(Set.of("everything"), Set.copyOf(namespace.globsMatching("gamepad1")));
+
+		assertTrue(namespace.remove("**", "everything"));
+		assertEquals(Set.of(), Set.copyOf(namespace.globsMatching("gamepad1")));
+	}
+
+	@Test
+	void topicNamesAreMatchedByGlobs() {
+		var namespace = new TopicNamespace<String>();
+		for (var name : List.of("log/err", "log/info", "log", "telemetry/a/b", "angle"))
+			namespace.put(name, name);
+
+		assertEquals(Set.of("log/err", "log/info"), Set.copyOf(namespace.namesMatchedBy("log/*")));
+		assertEquals(Set.of("telemetry/a/b"), Set.copyOf(namespace.namesMatchedBy("telemetry/**")));
+		assertEquals(Set.of("telemetry/a/b"), Set.copyOf(namespace.namesMatchedBy("*/*/b")));
+		assertEquals(5, namespace.namesMatchedBy("**").size());
+	}
+
+	@Test
+	void namespaceRegexesBecomeGlobs() {
+		assertEquals("**", TopicNamespace.globFor(Pattern.compile(".*")));
+		assertEquals("log/**", TopicNamespace.globFor(Pattern.compile("log/.*")));
+		assertEquals("a.b/*", TopicNamespace.globFor(Pattern.compile("^a\\.b/[^/]*$")));
+		assertNull(TopicNamespace.globFor(Pattern.compile("^(?!log/).*")));
+		assertNull(TopicNamespace.globFor(Pattern.compile("log.*")));
+		assertNull(TopicNamespace.globFor(Pattern.compile("log/.*", Pattern.CASE_INSENSITIVE)));
+	}
+
+	@Test
+	void orchestratorIndexesPatternSubscriptions() throws InterruptedException {
+		var orchestrator = Orchestrator.createTest(new RobotDetails("test", 0), false);
+		orchestrator.setBlockingDispatch(true);
+		try {
+			var globbed = new CopyOnWriteArrayList<String>();
+			var regexed = new CopyOnWriteArrayList<String>();
+			orchestrator.dispatch("event/before", "x");
+
+			var subscription = orchestrator.subscribeToPattern(Pattern.compile("event/.*"), (datum, topicName) -> globbed.add(topicName));
+			orchestrator.subscribeToPattern(Pattern.compile("event/(before|after)"), (datum, topicName) -> regexed.add(topicName));
+
+			orchestrator.dispatch("event/before", "x");
+			orchestrator.dispatch("event/after", "x");
+			orchestrator.dispatch("other", "x");
+
+			assertEquals(List.of("event/before", "event/after"), globbed);
+			assertEquals(List.of("event/before", "event/after"), regexed);
+
+			orchestrator.removeSubscription(subscription);
+			orchestrator.dispatch("event/later", "x");
+			assertEquals(List.of("event/before", "event/after"), globbed);
+		} finally {
+			orchestrator.close();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.pubsub.metrics.CallbackQueueStats;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+class TopicPriorityTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private OrchestratorImpl orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		orchestrator = (OrchestratorImpl) Orchestrator.createTest(ROBOT_DETAILS, false);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	@Test
+	void diagnosticTopicsDefaultToDiagnosticPriority() {
+		orchestrator.dispatch("telemetry/test", "hello");
+		orchestrator.dispatch("number", 1);
+
+		assertEquals(TopicPriority.DIAGNOSTIC, orchestrator.getTopic("telemetry/test").orElseThrow().priority());
+		assertEquals(TopicPriority.NORMAL, orchestrator.getTopic("number").orElseThrow().priority());
+	}
+
+	private static class ControlNode extends Node {
+		final CountDownLatch received = new CountDownLatch(1);
+
+		ControlNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@SubscribedTo(topic = "motorPowers", priority = TopicPriority.CONTROL)
+		void onMotorPowers(Double power) {
+			received.countDown();
+		}
+	}
+
+	@Test
+	void controlTrafficDoesNotWaitBehindDiagnostics() throws InterruptedException {
+		// otherwise every dispatch to the wedged lane would wait for its callbacks to time out
+		orchestrator.setBlockingDispatch(false);
+		var node = new ControlNode(orchestrator);
+		orchestrator.startNode("control", node);
+		assertEquals(TopicPriority.CONTROL, orchestrator.getTopic("motorPowers").orElseThrow().priority());
+
+		// wedge every diagnostic worker, then pile up more work behind them
+		var release = new CountDownLatch(1);
+		orchestrator.subscribe("telemetry/slow", String.class, __ -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		for (int i = 0; i < 100; i++)
+			orchestrator.dispatch("telemetry/slow", "frame " + i);
+
+		try {
+			orchestrator.dispatch("motorPowers", 1.0);
+			assertTrue(node.received.await(1, TimeUnit.SECONDS));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void queueWaitIsMeasuredPerLane() throws InterruptedException {
+		var lane = orchestrator.callbackLane(TopicPriority.CONTROL);
+		orchestrator.setPubsubMetricsEnabled(true);
+		lane.sampleStats();
+
+		var done = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++)
+			lane.execute(done::countDown);
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+
+		CallbackQueueStats stats = lane.sampleStats();
+		assertEquals("control", stats.lane());
+		assertEquals(10, stats.tasks());
+		assertTrue(stats.maxWaitNanos() > 0);
+		assertTrue(stats.maxWaitNanos() >= stats.meanWaitNanos());
+
+		assertEquals(0, lane.sampleStats().tasks());
+	}
+
+	@Test
+	void tasksAreCountedWithoutTimingThem() throws InterruptedException {
+		var lane = orchestrator.callbackLane(TopicPriority.CONTROL);
+		lane.sampleStats();
+
+		var done = new CountDownLatch(10);
+		for (int i = 0; i < 10; i++)
+			lane.execute(done::countDown);
+		assertTrue(done.await(1, TimeUnit.SECONDS));
+
+		CallbackQueueStats stats = lane.sampleStats();
+		assertEquals(10, stats.tasks());
+		assertEquals(0, stats.maxWaitNanos());
+	}
+}
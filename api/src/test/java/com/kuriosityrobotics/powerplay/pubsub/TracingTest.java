@@ -0,0 +1,111 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+class TracingTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+
+	private VirtualTimeScheduler scheduler;
+	private Orchestrator orchestrator;
+
+	@BeforeEach
+	void setUp() {
+		scheduler = new VirtualTimeScheduler(1_000_000_000L);
+		orchestrator = Orchestrator.createVirtual(ROBOT_DETAILS, scheduler);
+		orchestrator.setTracingEnabled(true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		orchestrator.close();
+	}
+
+	private TraceContext lastTrace(String topicName) {
+		return orchestrator.getTopic(topicName).orElseThrow().lastTrace();
+	}
+
+	@Test
+	void callbacksContinueTheTraceTheyHandle() {
+		orchestrator.subscribe("encoders", Integer.class, ticks -> orchestrator.dispatch("velocity", ticks * 2));
+		orchestrator.subscribe("velocity", Integer.class, velocity -> orchestrator.dispatch("pose", velocity + 1));
+
+		orchestrator.dispatch("encoders", 1);
+		scheduler.runPending();
+
+		var trace = lastTrace("pose");
+		assertEquals("encoders", trace.originTopic());
+		assertEquals(2, trace.hops());
+		assertEquals(lastTrace("encoders").originNanos(), trace.originNanos());
+		// the trace is only current while the callback runs
+		assertNull(TraceContext.current());
+	}
+
+	@Test
+	void periodicTasksContinueTheLastTraceOfATopic() {
+		var node = new Node(orchestrator) {
+			void plan() {
+				try (var trace = continueTrace("pose")) {
+					orchestrator.dispatch("motorPowers", 0.5);
+				}
+			}
+		};
+		orchestrator.subscribe("encoders", Integer.class, ticks -> orchestrator.dispatch("pose", ticks));
+
+		orchestrator.dispatch("encoders", 1);
+		scheduler.runPending();
+		scheduler.runFor(Duration.ofMillis(20));
+		node.plan();
+
+		var trace = lastTrace("motorPowers");
+		assertEquals("encoders", trace.originTopic());
+		assertEquals(2, trace.hops());
+
+		var stats = orchestrator.getTopic("motorPowers").orElseThrow().sampleTraceStats();
+		assertEquals(1, stats.size());
+		assertEquals("encoders", stats.get(0).originTopic());
+		assertEquals(1, stats.get(0).age().count());
+		// histogram buckets are within an eighth of the real value
+		assertTrue(stats.get(0).age().maxNanos() >= 20_000_000L);
+		assertTrue(stats.get(0).age().maxNanos() <= 23_000_000L);
+	}
+
+	@Test
+	void primitiveSubscriptionsContinueTheTrace() {
+		var voltage = orchestrator.doubleTopic("voltage");
+		var seen = new AtomicReference<TraceContext>();
+		orchestrator.subscribe("bulkData", Integer.class, data -> voltage.dispatchDouble(12));
+		voltage.subscribe(value -> seen.set(TraceContext.current()));
+
+		orchestrator.dispatch("bulkData", 1);
+		scheduler.runPending();
+
+		assertEquals("bulkData", seen.get().originTopic());
+		assertEquals(1, seen.get().hops());
+	}
+
+	@Test
+	void nothingIsTracedWhileTracingIsOff() {
+		orchestrator.dispatch("encoders", 1);
+		orchestrator.setTracingEnabled(false);
+		assertNull(lastTrace("encoders"));
+
+		var seen = new AtomicReference<TraceContext>(new TraceContext("sentinel", 0, 0));
+		orchestrator.subscribe("encoders", Integer.class, ticks -> seen.set(TraceContext.current()));
+		orchestrator.dispatch("encoders", 2);
+		scheduler.runPending();
+
+		assertNull(seen.get());
+		assertNull(lastTrace("encoders"));
+	}
+}
@@ -0,0 +1,120 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Duration;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+class VirtualTimeSchedulerTest {
+	private static final long START = 1_000_000_000L;
+
+	@Test
+	void tasksRunInTimestampOrder() {
+		var scheduler = new VirtualTimeScheduler(START);
+		var order = new ArrayList<String>();
+
+		scheduler.schedule(() -> order.add("b"), 20, TimeUnit.MILLISECONDS);
+		scheduler.schedule(() -> order.add("a"), 10, TimeUnit.MILLISECONDS);
+		scheduler.execute(() -> order.add("now"));
+		scheduler.schedule(() -> order.add("c"), 20, TimeUnit.MILLISECONDS);
+
+		scheduler.runFor(Duration.ofMillis(15));
+		assertEquals(List.of("now", "a"), order);
+		assertEquals(START + 15_000_000L, scheduler.nanos());
+
+		scheduler.runFor(Duration.ofMillis(15));
+		assertEquals(List.of("now", "a", "b", "c"), order);
+	}
+
+	@Test
+	void periodicTasksRunOnVirtualTime() {
+		var scheduler = new VirtualTimeScheduler(START);
+		var times = new ArrayList<Long>();
+		var task = scheduler.scheduleAtFixedRate(() -> times.add(scheduler.nanos()), 0, 100, TimeUnit.MILLISECONDS);
+
+		var realStart = System.nanoTime();
+		scheduler.runFor(Duration.ofSeconds(30));
+		assertTrue(System.nanoTime() - realStart < TimeUnit.SECONDS.toNanos(5));
+
+		assertEquals(301, times.size());
+		for (int i = 0; i < times.size(); i++)
+			assertEquals(START + i * 100_000_000L, times.get(i));
+
+		task.cancel(false);
+		scheduler.runFor(Duration.ofSeconds(1));
+		assertEquals(301, times.size());
+		assertEquals(0, scheduler.queuedTasks());
+	}
+
+	@Test
+	void runUntilStopsAtCondition() {
+		var scheduler = new VirtualTimeScheduler(START);
+		var count = new int[1];
+		scheduler.scheduleWithFixedDelay(() -> count[0]++, 0, 10, TimeUnit.MILLISECONDS);
+
+		assertTrue(scheduler.runUntil(() -> count[0] == 5, Duration.ofSeconds(1)));
+		assertEquals(START + 40_000_000L, scheduler.nanos());
+		assertFalse(scheduler.runUntil(() -> false, Duration.ofMillis(100)));
+		assertEquals(START + 140_000_000L, scheduler.nanos());
+	}
+
+	private static class PeriodicNode extends Node {
+		final List<Long> ticks = new ArrayList<>();
+		final List<Long> received = new ArrayList<>();
+		Thread callbackThread;
+
+		PeriodicNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		@RunPeriodically(maxFrequency = 10)
+		void tick() {
+			ticks.add(Instant.now().nanos);
+			orchestrator.dispatch("tick", ticks.size());
+		}
+
+		@SubscribedTo(topic = "tick")
+		void onTick(Integer tick) {
+			received.add(Instant.now().nanos);
+			callbackThread = Thread.currentThread();
+		}
+	}
+
+	@Test
+	void orchestratorRunsOnVirtualTime() {
+		var scheduler = new VirtualTimeScheduler(START);
+		var orchestrator = Orchestrator.createVirtual(new RobotDetails("virtual", 0), scheduler);
+		try {
+			assertEquals(START, Instant.now().nanos);
+			var node = new PeriodicNode(orchestrator);
+			orchestrator.startNode("periodic", node);
+
+			var fired = new boolean[1];
+			orchestrator.setTimer(2500, () -> fired[0] = Instant.now().nanos == START + 2_500_000_000L);
+
+			scheduler.runFor(Duration.ofSeconds(5));
+
+			assertEquals(51, node.ticks.size());
+			assertEquals(node.ticks, node.received);
+			assertSame(Thread.currentThread(), node.callbackThread);
+			assertTrue(fired[0]);
+			assertEquals(START + 5_000_000_000L, Instant.now().nanos);
+		} finally {
+			orchestrator.close();
+		}
+
+		assertSame(Instant.systemClock(), Instant.clock());
+	}
+}
@@ -0,0 +1,144 @@
+package com.kuriosityrobotics.powerplay.pubsub.bag;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.kuriosityrobotics.powerplay.math.Pose;
+import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.VirtualTimeScheduler;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Duration;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+class BagTest {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("test", 0);
+	private static final RobotDetails OTHER_ROBOT = new RobotDetails("other", 1);
+
+	@TempDir
+	File directory;
+
+	private static List<BagRecord> recordsUnder(File bag, String prefix) throws IOException {
+		return BagReader.readAll(bag).stream()
+			.filter(record -> record.topicName().startsWith(prefix))
+			.collect(Collectors.toList());
+	}
+
+	@Test
+	void recordsEveryKindOfMessage() throws IOException {
+		var bag = new File(directory, "test.bag");
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			var recorder = new BagRecorder(orchestrator, bag, 16, "test/**");
+			orchestrator.doubleTopic("test/voltage").dispatchDouble(12.5);
+			orchestrator.dispatch("test/count", 3);
+			orchestrator.dispatch("test/pressed", true);
+			orchestrator.dispatch("test/name", "hello");
+			orchestrator.dispatch("test/pose", new Pose(1, 2, 3));
+			orchestrator.dispatch("test/count", OTHER_ROBOT, 4);
+			orchestrator.dispatch("ignored", 5);
+			recorder.close();
+		} finally {
+			orchestrator.close();
+		}
+
+		var records = recordsUnder(bag, "");
+		assertEquals(
+			List.of("test/voltage", "test/count", "test/pressed", "test/name", "test/pose", "test/count"),
+			records.stream().map(BagRecord::topicName).collect(Collectors.toList()));
+		assertEquals(12.5, records.get(0).message());
+		assertEquals(3, records.get(1).message());
+		assertEquals(true, records.get(2).message());
+		assertEquals("hello", records.get(3).message());
+		assertEquals(2., ((Pose) records.get(4).message()).y());
+
+		assertTrue(records.get(1).isLocal());
+		assertFalse(records.get(5).isLocal());
+		assertEquals(OTHER_ROBOT, records.get(5).robot());
+		assertEquals(4, records.get(5).message());
+	}
+
+	@Test
+	void growsPastOneWindow() throws IOException {
+		var bag = new File(directory, "large.bag");
+		var payload = "x".repeat(100_000);
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			var recorder = new BagRecorder(orchestrator, bag, 256, "large");
+			for (int i = 0; i < 200; i++) orchestrator.dispatch("large", payload);
+			recorder.close();
+		} finally {
+			orchestrator.close();
+		}
+
+		assertTrue(bag.length() > BagWriter.WINDOW_SIZE);
+		var records = recordsUnder(bag, "large");
+		assertEquals(200, records.size());
+		assertEquals(payload, records.get(199).message());
+	}
+
+	@Test
+	void playsBackOnRecordedTimes() throws IOException {
+		var bag = new File(directory, "timed.bag");
+
+		var scheduler = new VirtualTimeScheduler(1_000_000_000L);
+		var recording = Orchestrator.createVirtual(ROBOT_DETAILS, scheduler);
+		try {
+			var recorder = new BagRecorder(recording, bag, 16, "tick");
+			for (int i = 0; i < 3; i++) {
+				recording.dispatch("tick", i);
+				scheduler.runFor(Duration.ofSeconds(1));
+			}
+			recorder.close();
+		} finally {
+			recording.close();
+		}
+
+		scheduler = new VirtualTimeScheduler(5_000_000_000L);
+		var playback = Orchestrator.createVirtual(new RobotDetails("playback", 2), scheduler);
+		try {
+			var received = new ArrayList<Long>();
+			playback.subscribe("tick", Integer.class, tick -> received.add(Instant.nowNanos()));
+			var player = new BagPlayer(playback, bag, 2);
+			scheduler.runFor(Duration.ofSeconds(2));
+
+			assertTrue(player.finished().isDone());
+			assertEquals(List.of(5_000_000_000L, 5_500_000_000L, 6_000_000_000L), received);
+			// recorded by the local robot, so it's local here too
+			assertEquals(2, playback.getTopic("tick").orElseThrow().lastValue());
+		} finally {
+			playback.close();
+		}
+	}
+
+	@Test
+	void playsAsFastAsPossible() throws Exception {
+		var bag = new File(directory, "fast.bag");
+		var orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		try {
+			var recorder = new BagRecorder(orchestrator, bag, 4096, "count");
+			for (int i = 0; i < 1000; i++) orchestrator.dispatch("count", i);
+			recorder.close();
+
+			var received = new CountDownLatch(1000);
+			orchestrator.subscribe("count", Integer.class, n -> received.countDown());
+			var player = new BagPlayer(orchestrator, bag, BagPlayer.AS_FAST_AS_POSSIBLE);
+
+			player.finished().get(5, TimeUnit.SECONDS);
+			assertTrue(received.await(5, TimeUnit.SECONDS));
+		} finally {
+			orchestrator.close();
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.kuriosityrobotics.powerplay.benchmarks;
+
+import com.kuriosityrobotics.powerplay.drive.MotorPowers;
+import com.kuriosityrobotics.powerplay.math.Point;
+import com.kuriosityrobotics.powerplay.math.Pose;
+import com.kuriosityrobotics.powerplay.math.Twist;
+
+import org.apache.commons.csv.CSVFormat;
+
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The rows of a drive log recorded by the MPC (<code>data/mpc_log_1.csv</code> by default), so the
+ * benchmarks run on the poses, velocities and motor powers the robot actually saw rather than on
+ * made-up ones.  Distances are in metres.
+ */
+public final class MpcLog {
+	private static final String DEFAULT_PATH = "../data/mpc_log_1.csv";
+
+	private static List<Record> records;
+
+	private MpcLog() {
+	}
+
+	/**
+	 * @return every row of the log, read from the file named by the <code>benchmarks.mpcLog</code>
+	 * system property
+	 */
+	public static synchronized List<Record> records() {
+		if (records == null) records = read(System.getProperty("benchmarks.mpcLog", DEFAULT_PATH));
+		return records;
+	}
+
+	/**
+	 * @return the positions the robot drove through, in order
+	 */
+	public static List<Point> points() {
+		return records().stream().map(record -> new Point(record.pose.x(), record.pose.y())).collect(Collectors.toList());
+	}
+
+	private static List<Record> read(String path) {
+		try (var reader = new FileReader(path)) {
+			return CSVFormat.DEFAULT.withFirstRecordAsHeader().parse(reader).getRecords().stream()
+				.map(row -> new Record(
+					Double.parseDouble(row.get("time")),
+					Double.parseDouble(row.get("battery_voltage")),
+					MotorPowers.ofPowers(
+						Double.parseDouble(row.get("fl")),
+						Double.parseDouble(row.get("fr")),
+						Double.parseDouble(row.get("bl")),
+						Double.parseDouble(row.get("br"))),
+					new Pose(
+						Double.parseDouble(row.get("x_position")),
+						Double.parseDouble(row.get("y_position")),
+						Double.parseDouble(row.get("angle"))),
+					new Twist(
+						Double.parseDouble(row.get("x_velocity")),
+						Double.parseDouble(row.get("y_velocity")),
+						Double.parseDouble(row.get("angular_velocity")))))
+				.collect(Collectors.toUnmodifiableList());
+		} catch (IOException e) {
+			throw new UncheckedIOException("Couldn't read the MPC log " + path, e);
+		}
+	}
+
+	public static final class Record {
+		public final double time;
+		public final double batteryVoltage;
+		public final MotorPowers powers;
+		public final Pose pose;
+		public final Twist velocity;
+
+		Record(double time, double batteryVoltage, MotorPowers powers, Pose pose, Twist velocity) {
+			this.time = time;
+			this.batteryVoltage = batteryVoltage;
+			this.powers = powers;
+			this.pose = pose;
+			this.velocity = velocity;
+		}
+	}
+}
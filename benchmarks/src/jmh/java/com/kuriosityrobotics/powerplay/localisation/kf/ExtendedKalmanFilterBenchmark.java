@@ -0,0 +1,76 @@
+package com.kuriosityrobotics.powerplay.localisation.kf;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+
+import org.ojalgo.matrix.Primitive64Matrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One prediction and one velocity correction of the six-state filter, set up the way {@link
+ * MotionModelLocaliser} sets them up, with the logged velocities as the measurements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ExtendedKalmanFilterBenchmark {
+	/**
+	 * MotionModelLocaliser's rate
+	 */
+	private static final double DT = 1 / 300.;
+
+	private static final Primitive64Matrix STATE_TO_VELOCITY = Primitive64Matrix.FACTORY.rows(new double[][]{
+		{0, 0, 0, 1, 0, 0},
+		{0, 0, 0, 0, 1, 0},
+		{0, 0, 0, 0, 0, 1}
+	});
+	private static final Primitive64Matrix VELOCITY_COVARIANCE = Primitive64Matrix.FACTORY.makeIdentity(3).multiply(1e-4);
+	private static final Primitive64Matrix NO_COVARIANCE = Primitive64Matrix.FACTORY.makeIdentity(6).multiply(0);
+	private static final Primitive64Matrix OUTPUT_TO_STATE = Primitive64Matrix.FACTORY.makeIdentity(6).multiply(DT);
+
+	private ExtendedKalmanFilter filter;
+	private List<MpcLog.Record> records;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		records = MpcLog.records();
+		filter = new ExtendedKalmanFilter(new double[6], 1e-3, 1e-3, 1e-3, 1e-3, 1e-3, 1e-3);
+	}
+
+	private MpcLog.Record nextRecord() {
+		var record = records.get(next);
+		next = (next + 1) % records.size();
+		return record;
+	}
+
+	@Benchmark
+	public double[] predict() {
+		var velocity = nextRecord().velocity;
+		filter.builder()
+			.mean(velocity.x(), velocity.y(), velocity.angular(), 0, 0, 0)
+			.covariance(NO_COVARIANCE)
+			.outputToState(OUTPUT_TO_STATE)
+			.predict();
+		return filter.outputVector();
+	}
+
+	@Benchmark
+	public double[] correct() {
+		var velocity = nextRecord().velocity;
+		filter.builder()
+			.covariance(VELOCITY_COVARIANCE)
+			.mean(velocity.x(), velocity.y(), velocity.angular())
+			.stateToOutput(STATE_TO_VELOCITY)
+			.correct();
+		return filter.outputVector();
+	}
+}
@@ -0,0 +1,65 @@
+package com.kuriosityrobotics.powerplay.mpc;
+
+import static com.kuriosityrobotics.powerplay.mpc.SolverOutput.NUM_STAGES;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+import com.kuriosityrobotics.powerplay.math.Point;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Flattening a solver input into the array that is handed to the native solver, for a horizon of
+ * logged states aiming at the logged positions.  The solve itself needs the native library, so it
+ * isn't measured here.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SolverInputBenchmark {
+	private SolverInput[] inputs;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		var records = MpcLog.records();
+		var states = records.stream()
+			.map(record -> SystemState.from(
+				record.powers.powerFrontLeft(), record.powers.powerFrontRight(),
+				record.powers.powerBackLeft(), record.powers.powerBackRight(),
+				record.pose.x(), record.pose.y(), record.pose.orientation(),
+				record.velocity.x(), record.velocity.y(), record.velocity.angular()))
+			.toArray(SystemState[]::new);
+
+		inputs = new SolverInput[records.size() - NUM_STAGES];
+		for (int i = 0; i < inputs.length; i++) {
+			var guesses = new SystemState[NUM_STAGES];
+			var parameters = new OptimisationParameters[NUM_STAGES];
+			for (int stage = 0; stage < NUM_STAGES; stage++) {
+				var target = records.get(i + stage + 1);
+				guesses[stage] = states[i + stage];
+				parameters[stage] = new OptimisationParameters(
+					DriveParameters.ofDefaulDriveParameters(records.get(i).batteryVoltage),
+					TargetParameters.ofPointAndAngle(new Point(target.pose.x(), target.pose.y()), target.pose.orientation()),
+					WeightParameters.ofUniformWeights(1, 1, 1, 0.1, 0.1));
+			}
+
+			var start = records.get(i);
+			inputs[i] = new SolverInput(guesses, start.pose, start.velocity, parameters);
+		}
+	}
+
+	@Benchmark
+	public double[] toDoubleArray() {
+		var input = inputs[next];
+		next = (next + 1) % inputs.length;
+		return input.toDoubleArray();
+	}
+}
@@ -0,0 +1,69 @@
+package com.kuriosityrobotics.powerplay.navigation;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+import com.kuriosityrobotics.powerplay.math.Point;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The path queries {@link com.kuriosityrobotics.powerplay.mpc.MPCNode} makes every time it plans,
+ * on the path the robot drove in the MPC log.  Each call steps a little further along the path, the
+ * way the robot does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PathBenchmark {
+	private static final double STEP = 0.01;
+	/**
+	 * The window MPCNode searches for the robot's position in
+	 */
+	private static final double SEARCH_RANGE = 0.1;
+
+	private Path path;
+	private Point[] positions;
+	private double length;
+	private double distance;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		var points = MpcLog.points();
+		path = new Path(points);
+		positions = points.toArray(new Point[0]);
+		length = path.pathLength();
+	}
+
+	private double nextDistance() {
+		distance += STEP;
+		if (distance > length) distance = 0;
+		return distance;
+	}
+
+	@Benchmark
+	public Point distanceAlong() {
+		return path.distanceAlong(nextDistance());
+	}
+
+	@Benchmark
+	public double closestPointLengthInRange() {
+		var position = positions[next];
+		next = (next + 1) % positions.length;
+
+		var estimate = path.closestWaypointLength(position);
+		return path.closestPointLengthInRange(position, estimate - SEARCH_RANGE, estimate + SEARCH_RANGE);
+	}
+
+	@Benchmark
+	public double curvature() {
+		return path.curvature(nextDistance());
+	}
+}
@@ -0,0 +1,52 @@
+package com.kuriosityrobotics.powerplay.physics;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MecanumDrive#getAcceleration}, through {@link RobotDynamicsModel#getDerivatives}, on the
+ * logged poses, velocities and motor powers.  This includes the wheel torque telemetry it
+ * dispatches, since the robot pays for that too.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MecanumDriveBenchmark {
+	private Orchestrator orchestrator;
+	private MecanumDrive drive;
+	private List<MpcLog.Record> records;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		orchestrator = Orchestrator.createTest(new RobotDetails("benchmark", 0), false);
+		orchestrator.setBlockingDispatch(false);
+		drive = new MecanumDrive(orchestrator);
+		records = MpcLog.records();
+	}
+
+	@TearDown
+	public void tearDown() {
+		orchestrator.close();
+	}
+
+	@Benchmark
+	public double[] getDerivatives() {
+		var record = records.get(next);
+		next = (next + 1) % records.size();
+		return drive.getDerivatives(record.pose, record.velocity, record.powers);
+	}
+}
@@ -0,0 +1,77 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+import com.kuriosityrobotics.powerplay.localisation.messages.LocalisationDatum;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cost of fanning a message out to a topic's subscribers.  <code>synchronous</code> runs every
+ * callback on the dispatching thread; <code>asynchronous</code> queues them on the callback lanes and
+ * measures until the last one has run.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DispatchBenchmark {
+	private static final String TOPIC = "benchmark/localisation";
+
+	@Param({"1", "10", "100"})
+	int subscribers;
+
+	private Orchestrator orchestrator;
+	private final AtomicLong delivered = new AtomicLong();
+	private LocalisationDatum[] messages;
+	private int next;
+
+	@Setup
+	public void setUp() {
+		orchestrator = Orchestrator.createTest(new RobotDetails("benchmark", 0), false);
+		// the test orchestrator waits for every callback; dispatch the way the robot does
+		orchestrator.setBlockingDispatch(false);
+
+		for (int i = 0; i < subscribers; i++)
+			orchestrator.subscribe(TOPIC, LocalisationDatum.class, datum -> delivered.incrementAndGet());
+
+		messages = MpcLog.records().stream()
+			.map(record -> new LocalisationDatum(Instant.now(), record.pose, record.velocity))
+			.toArray(LocalisationDatum[]::new);
+	}
+
+	@TearDown
+	public void tearDown() {
+		orchestrator.close();
+	}
+
+	private LocalisationDatum nextMessage() {
+		var message = messages[next];
+		next = (next + 1) % messages.length;
+		return message;
+	}
+
+	@Benchmark
+	public void synchronous() {
+		orchestrator.dispatchSynchronous(TOPIC, nextMessage());
+	}
+
+	@Benchmark
+	public void asynchronous() {
+		var target = delivered.get() + subscribers;
+		orchestrator.dispatch(TOPIC, nextMessage());
+		while (delivered.get() < target)
+			Thread.onSpinWait();
+	}
+}
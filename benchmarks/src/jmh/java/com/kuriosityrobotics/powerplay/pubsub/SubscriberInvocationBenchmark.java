@@ -0,0 +1,78 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost of calling a {@link com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo}
+ * method the way {@link PubsubAnnotationBinder} does: through the generated {@link MethodInvokers},
+ * through the reflective ones they replace, and directly, as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SubscriberInvocationBenchmark {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("benchmark", 0);
+	private static final String TOPIC = "benchmark";
+
+	private static class BenchmarkNode extends Node {
+		private long sum;
+
+		BenchmarkNode(Orchestrator orchestrator) {
+			super(orchestrator);
+		}
+
+		private void onMessage(double message, String topicName, RobotDetails robot) {
+			sum += (long) message;
+		}
+	}
+
+	private Orchestrator orchestrator;
+	private BenchmarkNode node;
+	private MessageConsumer<Object, String, RobotDetails> generated;
+	private MessageConsumer<Object, String, RobotDetails> reflective;
+	private final Double message = 1.;
+
+	@Setup
+	public void setUp() throws NoSuchMethodException {
+		orchestrator = Orchestrator.createTest(ROBOT_DETAILS, false);
+		node = new BenchmarkNode(orchestrator);
+		var method = BenchmarkNode.class.getDeclaredMethod("onMessage", double.class, String.class, RobotDetails.class);
+
+		generated = MethodInvokers.subscriber(node, method);
+		reflective = MethodInvokers.reflectiveSubscriber(node, method);
+	}
+
+	@TearDown
+	public void tearDown() {
+		orchestrator.close();
+	}
+
+	@Benchmark
+	public long direct() {
+		node.onMessage(message, TOPIC, ROBOT_DETAILS);
+		return node.sum;
+	}
+
+	@Benchmark
+	public long generated() {
+		generated.accept(message, TOPIC, ROBOT_DETAILS);
+		return node.sum;
+	}
+
+	@Benchmark
+	public long reflective() {
+		reflective.accept(message, TOPIC, ROBOT_DETAILS);
+		return node.sum;
+	}
+}
@@ -0,0 +1,74 @@
+package com.kuriosityrobotics.powerplay.pubsub.bridge;
+
+import com.kuriosityrobotics.powerplay.benchmarks.MpcLog;
+import com.kuriosityrobotics.powerplay.localisation.messages.LocalisationDatum;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.NetworkMessage;
+import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Instant;
+
+import org.opencv.core.Core;
+import org.opencv.core.CvType;
+import org.opencv.core.Mat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+import nu.pattern.OpenCV;
+
+/**
+ * Round trips through {@link SerialisationConfig#conf()}, the way the bridge encodes and decodes
+ * everything it sends.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SerialisationBenchmark {
+	private static final RobotDetails ROBOT_DETAILS = new RobotDetails("benchmark", 0);
+
+	private LocalisationDatum datum;
+	private NetworkMessage message;
+	private Mat mat;
+
+	@Setup
+	public void setUp() {
+		OpenCV.loadShared();
+
+		var record = MpcLog.records().get(MpcLog.records().size() / 2);
+		datum = new LocalisationDatum(Instant.now(), record.pose, record.velocity);
+		message = NetworkMessage.datum(ROBOT_DETAILS, "localisation", datum);
+
+		// a camera frame's worth of pixels
+		mat = new Mat(480, 640, CvType.CV_8UC3);
+		Core.randu(mat, 0, 255);
+	}
+
+	@TearDown
+	public void tearDown() {
+		mat.release();
+	}
+
+	@Benchmark
+	public Object localisationDatum() {
+		return SerialisationConfig.conf().asObject(SerialisationConfig.conf().asByteArray(datum));
+	}
+
+	@Benchmark
+	public Object networkMessage() {
+		return SerialisationConfig.conf().asObject(SerialisationConfig.conf().asByteArray(message));
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public Object mat() {
+		var result = (Mat) SerialisationConfig.conf().asObject(SerialisationConfig.conf().asByteArray(mat));
+		result.release();
+		return result;
+	}
+}
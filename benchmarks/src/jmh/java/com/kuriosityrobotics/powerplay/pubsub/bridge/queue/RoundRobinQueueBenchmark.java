@@ -0,0 +1,53 @@
+package com.kuriosityrobotics.powerplay.pubsub.bridge.queue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filling the bridge's {@link RoundRobinQueue} with a burst of messages spread over several topics,
+ * then draining it, as the bridge does every time it writes to a connection.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RoundRobinQueueBenchmark {
+	private static final int MESSAGES = 256;
+
+	@Param({"1", "16", "64"})
+	int topics;
+
+	private String[] topicNames;
+	private final byte[][] messages = new byte[MESSAGES][];
+	private RoundRobinQueue queue;
+
+	@Setup
+	public void setUp() {
+		topicNames = new String[topics];
+		for (int i = 0; i < topics; i++) topicNames[i] = "benchmark/topic" + i;
+
+		// roughly the size of an encoded localisation datum, with some variation
+		for (int i = 0; i < MESSAGES; i++) messages[i] = new byte[100 + (i * 37) % 200];
+
+		// a long-lived queue, like the bridge's, so the per-topic counters already exist
+		queue = new RoundRobinQueue();
+	}
+
+	@Benchmark
+	public long fillAndDrain() {
+		for (int i = 0; i < MESSAGES; i++)
+			queue.add(topicNames[i % topics], messages[i]);
+
+		long bytes = 0;
+		while (queue.hasNext())
+			bytes += queue.next().length;
+		return bytes;
+	}
+}
@@ -33,10 +33,11 @@ public class DynamicReloadListener implements DynamicPluginListener {
 			javaBase.getPackages().forEach(p -> openPackage(javaBase, p));
 		}
 
-		SerialisationConfig.conf = FSTConfiguration.createDefaultConfiguration();
-		SerialisationConfig.conf.registerSerializer(
+		var conf = FSTConfiguration.createDefaultConfiguration();
+		conf.registerSerializer(
 				Primitive64Matrix.class, new Primitive64MatrixCodec(), true);
-		SerialisationConfig.conf.registerSerializer(Mat.class, new MatCodec(), true);
+		conf.registerSerializer(Mat.class, new MatCodec(), true);
+		SerialisationConfig.setConf(conf);
 	}
 
 	@Override
@@ -44,8 +45,8 @@ public class DynamicReloadListener implements DynamicPluginListener {
 			@NotNull IdeaPluginDescriptor pluginDescriptor, boolean isUpdate) {
 		DynamicPluginListener.super.pluginUnloaded(pluginDescriptor, isUpdate);
 
-		SerialisationConfig.conf.clearCaches();
-		SerialisationConfig.conf = null;
+		SerialisationConfig.conf().clearCaches();
+		SerialisationConfig.setConf(null);
 
 		try {
 			var field = FSTConfiguration.class.getDeclaredField("singleton");
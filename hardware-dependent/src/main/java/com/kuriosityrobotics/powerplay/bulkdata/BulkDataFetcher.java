@@ -2,22 +2,25 @@ package com.kuriosityrobotics.powerplay.bulkdata;
 
 import static com.kuriosityrobotics.powerplay.hardware.RobotConstants.LynxHub.CONTROL_HUB;
 import static com.kuriosityrobotics.powerplay.hardware.RobotConstants.LynxHub.EXPANSION_HUB;
-import static java.lang.Math.PI;
 
 import com.kuriosityrobotics.powerplay.hardware.MotorFaults;
 import com.kuriosityrobotics.powerplay.hardware.RobotConstants;
+import com.kuriosityrobotics.powerplay.pubsub.BooleanTopic;
+import com.kuriosityrobotics.powerplay.pubsub.DoubleTopic;
 import com.kuriosityrobotics.powerplay.pubsub.Hub;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
+import com.kuriosityrobotics.powerplay.pubsub.Topic;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.qualcomm.hardware.lynx.LynxModule;
 
 import org.firstinspires.ftc.robotcore.external.navigation.VoltageUnit;
 
+@Scheduling(SchedulingGroup.CONTROL)
 public class BulkDataFetcher extends Node {
-	private static final double COUNTS_PER_REVOLUTION = 8192.;
-
 	@Hub(CONTROL_HUB)
 	private LynxModule controlHub;
 	@Hub(EXPANSION_HUB)
@@ -26,17 +29,70 @@ public class BulkDataFetcher extends Node {
 	@LastMessagePublished(topic = "motorFaults")
 	private MotorFaults motorFaults = new MotorFaults();
 
+	private final DoubleTopic batteryVoltage;
+	private final HubPublishers controlHubPublishers;
+	private final HubPublishers expansionHubPublishers;
+
 	public BulkDataFetcher(Orchestrator orchestrator) {
 		super(orchestrator);
+
+		this.batteryVoltage = orchestrator.doubleTopic("batteryVoltage");
+		this.controlHubPublishers = new HubPublishers(orchestrator, "controlHub");
+		this.expansionHubPublishers = new HubPublishers(orchestrator, "expansionHub");
 	}
 
-	@RunPeriodically(maxFrequency = 50)
-	public void updateData() {
-		orchestrator.dispatch("batteryVoltage", controlHub.getInputVoltage(VoltageUnit.VOLTS));
-		dispatchBulkData("controlHub", RobotConstants.LynxHub.CONTROL_HUB, controlHub.getBulkData());
-		dispatchBulkData("expansionHub", EXPANSION_HUB, expansionHub.getBulkData());
+	/**
+	 * The topics a single hub's bulk data is split into.  These are resolved once so {@link
+	 * #updateData()} doesn't have to build topic names and look them up every cycle, and the
+	 * per-channel ones are unboxed so that publishing them allocates nothing.
+	 */
+	private static final class HubPublishers {
+		private final Topic<RevHubBulkData> hub;
+		private final DoubleTopic[] positions;
+		private final DoubleTopic[] velocities;
+		private final DoubleTopic[] analogInputs;
+		private final BooleanTopic[] digitalInputs;
+		private final BooleanTopic[] currentWarnings;
+
+		HubPublishers(Orchestrator orchestrator, String hubName) {
+			var template = new RevHubBulkData(null);
+
+			hub = orchestrator.getOrAddTopic(hubName, RevHubBulkData.class);
+
+			positions = new DoubleTopic[template.encoders.length];
+			for (int i = 0; i < positions.length; i++)
+				positions[i] = orchestrator.doubleTopic(hubName + "/encoder/" + i + "/position");
+
+			velocities = new DoubleTopic[template.velocities.length];
+			for (int i = 0; i < velocities.length; i++)
+				velocities[i] = orchestrator.doubleTopic(hubName + "/encoder/" + i + "/velocity");
+
+			analogInputs = new DoubleTopic[template.analogInputs.length];
+			for (int i = 0; i < analogInputs.length; i++)
+				analogInputs[i] = orchestrator.doubleTopic(hubName + "/analog/" + i);
+
+			digitalInputs = new BooleanTopic[template.digitalInputs.length];
+			for (int i = 0; i < digitalInputs.length; i++)
+				digitalInputs[i] = orchestrator.booleanTopic(hubName + "/digital/" + i);
+
+			currentWarnings = new BooleanTopic[template.motorOverCurrentWarnings.length];
+			for (int i = 0; i < currentWarnings.length; i++)
+				currentWarnings[i] = orchestrator.booleanTopic(hubName + "/currentWarnings/" + i);
+		}
+	}
 
-		orchestrator.dispatch("bulkData", "");
+	/**
+	 * Reads both hubs.  Each channel is dispatched on its own, unboxed, and each hub's
+	 * {@link RevHubBulkData} is dispatched after its channels; a node that needs several channels
+	 * from one read, like {@link com.kuriosityrobotics.powerplay.localisation.odometry.Odometry},
+	 * should subscribe to that rather than to the channels, so that it never sees a mix of this read
+	 * and the last one.
+	 */
+	@RunPeriodically(maxFrequency = 50, fixedRate = true)
+	public void updateData() {
+		batteryVoltage.dispatchDouble(controlHub.getInputVoltage(VoltageUnit.VOLTS));
+		dispatchBulkData(controlHubPublishers, RobotConstants.LynxHub.CONTROL_HUB, controlHub.getBulkData());
+		dispatchBulkData(expansionHubPublishers, EXPANSION_HUB, expansionHub.getBulkData());
 	}
 
 	private int correctOverflow(int input){
@@ -53,45 +109,44 @@ public class BulkDataFetcher extends Node {
 	}
 
 	/**
-	 * Converts the BulkData to a {@link RevHubBulkData}.
+	 * Converts the BulkData to a {@link RevHubBulkData}, and dispatches it and its channels.
 	 *
 	 * @param data The bulk data to convert.
-	 * @return The converted bulk data.
 	 */
-	private void dispatchBulkData(String hubName, RobotConstants.LynxHub hub, LynxModule.BulkData data) {
+	private void dispatchBulkData(HubPublishers publishers, RobotConstants.LynxHub hub, LynxModule.BulkData data) {
 		var result = new RevHubBulkData(hub);
 
 		for (int i = 0; i < result.encoders.length; i++) {
 			var position = data.getMotorCurrentPosition(i);
 			result.encoders[i] = position;
-			orchestrator.dispatch(hubName + "/encoder/" + i + "/position", 2 * PI * position / COUNTS_PER_REVOLUTION);
+			publishers.positions[i].dispatchDouble(RevHubBulkData.countsToRadians(position));
 		}
 
 
 		for (int i = 0; i < result.velocities.length; i++) {
 			var correctedVelocity = correctOverflow(data.getMotorVelocity(i));
 			result.velocities[i] = correctedVelocity;
-			orchestrator.dispatch(hubName + "/encoder/" + i + "/velocity", 2 * PI * correctedVelocity / COUNTS_PER_REVOLUTION);
+			publishers.velocities[i].dispatchDouble(RevHubBulkData.countsToRadians(correctedVelocity));
 		}
 
 		for (int i = 0; i < result.analogInputs.length; i++) {
 			var voltage = data.getAnalogInputVoltage(i);
 			result.analogInputs[i] = voltage;
-			orchestrator.dispatch(hubName + "/analog/" + i, voltage);
+			publishers.analogInputs[i].dispatchDouble(voltage);
 		}
 
 		for (int i = 0; i < result.digitalInputs.length; i++) {
 			var state = data.getDigitalChannelState(i);
 			result.digitalInputs[i] = state;
-			orchestrator.dispatch(hubName + "/digital/" + i, state);
+			publishers.digitalInputs[i].dispatchBoolean(state);
 		}
 
 		for (int i = 0; i < result.motorOverCurrentWarnings.length; i++) {
 			var warning = motorFaults.forHub(hub)[i];
 			result.motorOverCurrentWarnings[i] = warning;
-			orchestrator.dispatch(hubName + "/currentWarnings/" + i, warning);
+			publishers.currentWarnings[i].dispatchBoolean(warning);
 		}
 
-		orchestrator.dispatch(hubName, result);
+		orchestrator.dispatchTo(publishers.hub, result);
 	}
 }
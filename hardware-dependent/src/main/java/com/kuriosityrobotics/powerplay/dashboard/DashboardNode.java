@@ -8,12 +8,15 @@ import com.kuriosityrobotics.powerplay.math.Point;
 import com.kuriosityrobotics.powerplay.math.Pose;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 
 import java.util.ArrayList;
 import java.util.List;
 
+@Scheduling(SchedulingGroup.DIAGNOSTICS)
 public class DashboardNode extends Node {
 	private final FtcDashboard dashboard;
 	private TelemetryPacket currentpacket;
@@ -49,7 +52,7 @@ public class DashboardNode extends Node {
 		pathDrawn = false;
 	}
 
-	@SubscribedTo(topic = "localisation")
+	@SubscribedTo(topic = "localisation", conflate = true)
 	public void updatePosition(LocalisationDatum localisationDatum) {
 		Pose tmp = localisationDatum.pose().toFTCSystem();
 		poseHistory.add(tmp);
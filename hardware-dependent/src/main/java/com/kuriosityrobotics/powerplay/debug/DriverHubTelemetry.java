@@ -2,8 +2,10 @@ package com.kuriosityrobotics.powerplay.debug;
 
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.Hidden;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManager;
 import com.qualcomm.robotcore.eventloop.opmode.OpModeManagerImpl;
@@ -14,13 +16,14 @@ import org.firstinspires.ftc.robotcore.internal.network.NetworkConnectionHandler
 import org.firstinspires.ftc.robotcore.internal.network.RobotCoreCommandList;
 import org.firstinspires.ftc.robotcore.internal.system.AppUtil;
 
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.regex.Pattern;
 
 @Hidden
+@Scheduling(SchedulingGroup.DIAGNOSTICS)
 public final class DriverHubTelemetry extends Node {
 	private static final int MAX_LOG_ENTRIES = 40;
 
@@ -37,17 +40,6 @@ public final class DriverHubTelemetry extends Node {
 		this.topicDataList = new PriorityBlockingQueue<>(1000, Comparator.comparingInt(DriverHubTelemetry::topicDataImportanceScore));
 		this.topicData = new ConcurrentHashMap<>();
 		this.opModeManager = OpModeManagerImpl.getOpModeManagerOfActivity(AppUtil.getInstance().getActivity());
-		orchestrator.subscribeToPattern(
-			Pattern.compile("^(?!log/).*"),
-			(datum, topicName) -> {
-				topicData.computeIfAbsent(topicName, tn -> {
-					var result = new TopicData(tn, datum);
-					topicDataList.add(result);
-					return result;
-				}).data = datum;
-			}
-		);
-
 		addLogSubscription("err", "red");
 		addLogSubscription("warn", "yellow");
 		addLogSubscription("info", "green");
@@ -85,6 +77,8 @@ public final class DriverHubTelemetry extends Node {
 		if (opModeManager.getActiveOpModeName().equals(OpModeManager.DEFAULT_OP_MODE_NAME))
 			return;
 
+		updateTopicData();
+
 		var message = new TelemetryMessage();
 		for (var line : TelemetryTree.format(topicDataList).split("\n")) {
 			message.addData(line, "");
@@ -98,6 +92,29 @@ public final class DriverHubTelemetry extends Node {
 		opModeManager.refreshUserTelemetry(message, 0);
 	}
 
+	/**
+	 * Reads the last value of every topic.  This used to be done with a subscription to every topic,
+	 * but that made every message on the robot (including the unboxed sensor topics) get boxed and
+	 * queued just so it could be shown ten times a second.
+	 */
+	private void updateTopicData() {
+		var topics = new ArrayList<>(orchestrator.getTopics().values());
+
+		for (var topic : topics) {
+			// logs are shown separately, below the topic tree
+			if (topic.name().startsWith("log/")) continue;
+
+			var datum = topic.lastValue();
+			if (datum == null) continue;
+
+			topicData.computeIfAbsent(topic.name(), tn -> {
+				var result = new TopicData(tn, datum);
+				topicDataList.add(result);
+				return result;
+			}).data = datum;
+		}
+	}
+
 	@SubscribedTo(topic = "telemetry/clear")
 	public void clear() {
 		topicDataList.clear();
@@ -3,13 +3,16 @@ package com.kuriosityrobotics.powerplay.drive;
 import com.kuriosityrobotics.powerplay.localisation.messages.LocalisationDatum;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.util.Instant;
 
 import java.io.FileNotFoundException;
 import java.io.PrintWriter;
 
+@Scheduling(SchedulingGroup.DIAGNOSTICS)
 public class DriveLogger extends Node {
 	private PrintWriter out;
 
@@ -8,6 +8,7 @@ import static com.qualcomm.robotcore.hardware.DcMotorSimple.Direction.REVERSE;
 import com.kuriosityrobotics.powerplay.pubsub.MotorOrEncoder;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.TopicPriority;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.qualcomm.robotcore.hardware.DcMotor;
 import com.qualcomm.robotcore.hardware.DcMotorEx;
@@ -29,7 +30,7 @@ public class DrivetrainController extends Node {
 		super(orchestrator);
 	}
 
-	@SubscribedTo(topic = "motorPowers")
+	@SubscribedTo(topic = "motorPowers", priority = TopicPriority.CONTROL)
 	public void setMotorVoltages(MotorPowers voltages) {
 		if (backLeft.isOverCurrent() || frontRight.isOverCurrent() || frontLeft.isOverCurrent() || backRight.isOverCurrent()) {
 			voltages = MotorPowers.ofPowers(0, 0, 0, 0);
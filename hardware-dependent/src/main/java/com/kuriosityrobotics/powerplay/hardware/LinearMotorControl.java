@@ -2,6 +2,7 @@ package com.kuriosityrobotics.powerplay.hardware;
 
 import static com.kuriosityrobotics.powerplay.auto.AutoUtils.sneakyThrow;
 
+import com.kuriosityrobotics.powerplay.pubsub.ActionExecutor;
 import com.kuriosityrobotics.powerplay.util.Duration;
 import com.kuriosityrobotics.powerplay.util.Instant;
 import com.kuriosityrobotics.powerplay.util.PreemptibleLock;
@@ -32,7 +33,7 @@ public abstract class LinearMotorControl {
 			while (!Thread.interrupted() && Instant.now().since(startTime).isLessThan(timeout)) {
 				throwIfOverCurrent();
 				if (isBusy()) {
-					Thread.sleep(30);
+					ActionExecutor.sleep(30);
 				} else {
 					break;
 				}
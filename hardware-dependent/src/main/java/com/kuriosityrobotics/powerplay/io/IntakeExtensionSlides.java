@@ -5,6 +5,7 @@ import static java.lang.Math.abs;
 import com.kuriosityrobotics.powerplay.hardware.HardwareException;
 import com.kuriosityrobotics.powerplay.hardware.LinearMotorControl;
 import com.kuriosityrobotics.powerplay.hardware.OverCurrentFault;
+import com.kuriosityrobotics.powerplay.pubsub.ActionExecutor;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
 import com.kuriosityrobotics.powerplay.util.Duration;
 import com.qualcomm.robotcore.hardware.ColorRangeSensor;
@@ -110,7 +111,7 @@ class IntakeExtensionSlides extends LinearMotorControl {
 
 			leftExtension.setPower(rightExtension.getPower());
 			while (isBusy() && !Thread.interrupted()) {
-				Thread.sleep(30);
+				ActionExecutor.sleep(30);
 			}
 
 			if (Thread.interrupted())
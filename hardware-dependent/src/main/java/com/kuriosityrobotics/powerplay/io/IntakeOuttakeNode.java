@@ -209,7 +209,7 @@ public class IntakeOuttakeNode extends Node {
 				ringTransferMovement.get();
 
 				// wait for cone to finish boucning around
-				Thread.sleep(400);
+				ActionExecutor.sleep(400);
 
 				intakeClaw.goToClawPosition(OPEN);
 				orchestrator.dispatch("intake/transferComplete", "");
@@ -269,7 +269,7 @@ public class IntakeOuttakeNode extends Node {
 		transferRing.goToRingPosition(Ring.RingPosition.DEPOSIT);
 
 		// wait for pole to finish wobbling
-		Thread.sleep(200);
+		ActionExecutor.sleep(200);
 
 		// retract
 		var ringMovement = orchestrator.startActionAsync(() -> transferRing.goToRingPosition(Ring.RingPosition.TRANSFER));
@@ -5,10 +5,12 @@ import static java.lang.Math.signum;
 import static java.lang.Math.toRadians;
 
 import com.kuriosityrobotics.powerplay.math.Pose;
+import com.kuriosityrobotics.powerplay.pubsub.DoubleTopic;
 import com.kuriosityrobotics.powerplay.pubsub.NamedHardware;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.SingleThreaded;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 
 import com.kuriosityrobotics.powerplay.util.Instant;
@@ -21,8 +23,7 @@ import static java.lang.Math.PI;
 import static java.lang.Math.toDegrees;
 import static java.lang.Math.toRadians;
 
-import java.util.concurrent.locks.ReentrantLock;
-
+@SingleThreaded
 public class IMUNode extends Node {
 	public double startAngle;
 	private double prevAngle;
@@ -30,8 +31,13 @@ public class IMUNode extends Node {
 	@NamedHardware("imu")
 	private IMU imu;
 
+	private final DoubleTopic angle;
+	private final DoubleTopic angularVelocity;
+
 	public IMUNode(Orchestrator orchestrator) {
 		super(orchestrator);
+		this.angle = orchestrator.doubleTopic("angle");
+		this.angularVelocity = orchestrator.doubleTopic("angular_vel");
 
 		var logoDirection = RevHubOrientationOnRobot.LogoFacingDirection.RIGHT;
 		var usbDirection = RevHubOrientationOnRobot.UsbFacingDirection.FORWARD;
@@ -44,26 +50,20 @@ public class IMUNode extends Node {
 	private double lastRawAngle = 0;
 	private Instant lastAngleTime = Instant.now();
 	private int fullRevolutionCount = 0;
-	private final ReentrantLock angleLock = new ReentrantLock();
 
-	public double getYaw() throws InterruptedException {
+	private double getYaw() {
 		double rawAngle = imu.getRobotYawPitchRollAngles().getYaw(AngleUnit.RADIANS);
 
-		angleLock.lockInterruptibly();
-		try {
-			if (Instant.now().since(lastAngleTime).toSeconds() <= .5) { // if our last reading was more than half a second ago, it's plausible that we've actually rotated
-				if (rawAngle - lastRawAngle > PI)
-					fullRevolutionCount--;
-				else if (rawAngle - lastRawAngle < -PI)
-					fullRevolutionCount++;
-			}
-
-			lastRawAngle = rawAngle;
-			lastAngleTime = Instant.now();
-			return startAngle + rawAngle + fullRevolutionCount * 2 * PI;
-		} finally {
-			angleLock.unlock();
+		if (Instant.now().since(lastAngleTime).toSeconds() <= .5) { // if our last reading was more than half a second ago, it's plausible that we've actually rotated
+			if (rawAngle - lastRawAngle > PI)
+				fullRevolutionCount--;
+			else if (rawAngle - lastRawAngle < -PI)
+				fullRevolutionCount++;
 		}
+
+		lastRawAngle = rawAngle;
+		lastAngleTime = Instant.now();
+		return startAngle + rawAngle + fullRevolutionCount * 2 * PI;
 	}
 
 	public double getYawVelocity() {
@@ -75,22 +75,17 @@ public class IMUNode extends Node {
 	 * Find the robot's angle using the imu and publish it to the angle topic
 	 */
 	@RunPeriodically(maxFrequency = 20)
-	private void publishAngle() throws InterruptedException {
-		orchestrator.dispatch("angle", getYaw());
-		orchestrator.dispatch("angular_vel", getYawVelocity());
+	private void publishAngle() {
+		angle.dispatchDouble(getYaw());
+		angularVelocity.dispatchDouble(getYawVelocity());
 	}
 
 	@SubscribedTo(topic = "localisation/reset-position")
-	private void resetAngle(Pose newPos) throws InterruptedException {
-		angleLock.lockInterruptibly();
-		try {
-			this.startAngle = newPos.orientation();
-			this.lastRawAngle = 0;
-			this.lastAngleTime = Instant.now();
-			this.fullRevolutionCount = 0;
-			imu.resetYaw();
-		} finally {
-			angleLock.unlock();
-		}
+	private void resetAngle(Pose newPos) {
+		this.startAngle = newPos.orientation();
+		this.lastRawAngle = 0;
+		this.lastAngleTime = Instant.now();
+		this.fullRevolutionCount = 0;
+		imu.resetYaw();
 	}
 }
@@ -10,6 +10,7 @@ public class R2TeleOp extends OrchestratedOpMode {
 	@Override
 	protected void initOpMode(HardwareOrchestrator orchestrator) {
 		//orchestrator.startDefaultNodes();
+		orchestrator.startRecording();
 		orchestrator.startNode("TeleopController", new R2TeleopController(orchestrator));
 		orchestrator.startNode("liftingodo", new LiftingOdoNode(orchestrator));
 	}
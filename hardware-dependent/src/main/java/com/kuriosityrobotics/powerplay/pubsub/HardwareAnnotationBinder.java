@@ -1,11 +1,24 @@
 package com.kuriosityrobotics.powerplay.pubsub;
 
+import com.kuriosityrobotics.powerplay.hardware.RobotConstants.LynxHub;
 import com.qualcomm.robotcore.hardware.*;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Binds a {@link Node}'s hardware fields.  Nodes with a generated {@link HardwareBinder} are bound
+ * through it, which calls the <code>bind</code> methods below with the values of the annotations;
+ * the others are scanned reflectively.
+ */
 public class HardwareAnnotationBinder {
+   private static final class Holder {
+	  @SuppressWarnings("rawtypes")
+	  static final Map<Class<?>, HardwareBinder> BINDERS = NodeBinders.load(HardwareBinder.class, HardwareBinder::nodeType);
+   }
+
    private final LogInterface logInterface;
    private final HardwareProvider hardwareProvider;
 
@@ -17,7 +30,18 @@ public class HardwareAnnotationBinder {
 	  this.hardwareProvider = hardwareProvider;
    }
 
+   @SuppressWarnings({"unchecked", "rawtypes"})
    void bind(Node node) throws IllegalAccessException {
+	  HardwareBinder binder = Holder.BINDERS.get(node.getClass());
+	  if (binder != null) {
+		 try {
+			binder.bind(node, this);
+		 } catch (ReflectiveOperationException e) {
+			logInterface.err(e);
+		 }
+		 return;
+	  }
+
 	  for (Field field : node.getClass().getDeclaredFields()) {
 		 bindNamedHardware(node, field);
 		 bindMotorOrEncoder(node, field);
@@ -27,74 +51,69 @@ public class HardwareAnnotationBinder {
 	  }
    }
 
+   public void bindNamedHardware(Node node, String fieldName, String name) throws ReflectiveOperationException {
+	  set(node, node.getClass().getDeclaredField(fieldName), "NamedHardware", () -> hardwareProvider.byName(name));
+   }
+
+   public void bindMotorOrEncoder(Node node, String fieldName, LynxHub hub, int port, DcMotorSimple.Direction direction) throws ReflectiveOperationException {
+	  set(node, node.getClass().getDeclaredField(fieldName), "MotorOrEncoder", () -> hardwareProvider.motor(hub, port, direction));
+   }
+
+   public void bindAnalogInput(Node node, String fieldName, LynxHub hub, int channel) throws ReflectiveOperationException {
+	  set(node, node.getClass().getDeclaredField(fieldName), "AnalogInput", () -> hardwareProvider.analogInput(hub, channel));
+   }
+
+   public void bindServo(Node node, String fieldName, LynxHub hub, int port) throws ReflectiveOperationException {
+	  set(node, node.getClass().getDeclaredField(fieldName), "Servo", () -> hardwareProvider.servo(hub, port));
+   }
+
+   public void bindHub(Node node, String fieldName, LynxHub hub) throws ReflectiveOperationException {
+	  set(node, node.getClass().getDeclaredField(fieldName), "Hub", () -> hardwareProvider.moduleFor(hub));
+   }
 
    private void bindNamedHardware(Node node, Field field) throws IllegalAccessException {
 	  var namedHardware = field.getAnnotation(NamedHardware.class);
 	  if (namedHardware == null) return;
 
-	  field.setAccessible(true);
-
-	  if ((field.getModifiers() & Modifier.FINAL) != 0) {
-		 logInterface.err(
-				 "NamedHardware fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
-		 return;
-	  }
-	  field.set(node, hardwareProvider.byName(namedHardware.value()));
+	  set(node, field, "NamedHardware", () -> hardwareProvider.byName(namedHardware.value()));
    }
 
    private void bindMotorOrEncoder(Node node, Field field) throws IllegalAccessException {
 	  var motorOrEncoder = field.getAnnotation(MotorOrEncoder.class);
 	  if (motorOrEncoder == null) return;
 
-	  field.setAccessible(true);
-
-	  if ((field.getModifiers() & Modifier.FINAL) != 0) {
-		 logInterface.err(
-				 "MotorOrEncoder fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
-		 return;
-	  }
-	  field.set(node, hardwareProvider.motor(motorOrEncoder.hub(), motorOrEncoder.port(), motorOrEncoder.direction()));
+	  set(node, field, "MotorOrEncoder", () -> hardwareProvider.motor(motorOrEncoder.hub(), motorOrEncoder.port(), motorOrEncoder.direction()));
    }
 
    private void bindAnalogInput(Node node, Field field) throws IllegalAccessException {
-	  var motorOrEncoder = field.getAnnotation(AnalogInput.class);
-	  if (motorOrEncoder == null) return;
-
-	  field.setAccessible(true);
+	  var analogInput = field.getAnnotation(AnalogInput.class);
+	  if (analogInput == null) return;
 
-	  if ((field.getModifiers() & Modifier.FINAL) != 0) {
-		 logInterface.err(
-				 "AnalogInput fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
-		 return;
-	  }
-	  field.set(node, hardwareProvider.analogInput(motorOrEncoder.hub(), motorOrEncoder.channel()));
+	  set(node, field, "AnalogInput", () -> hardwareProvider.analogInput(analogInput.hub(), analogInput.channel()));
    }
 
    private void bindServo(Node node, Field field) throws IllegalAccessException {
 	  var servo = field.getAnnotation(Servomotor.class);
 	  if (servo == null) return;
 
-	  field.setAccessible(true);
-
-	  if ((field.getModifiers() & Modifier.FINAL) != 0) {
-		 logInterface.err(
-				 "Servo fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
-		 return;
-	  }
-	  field.set(node, hardwareProvider.servo(servo.hub(), servo.port()));
+	  set(node, field, "Servo", () -> hardwareProvider.servo(servo.hub(), servo.port()));
    }
 
    private void bindHub(Node node, Field field) throws IllegalAccessException {
 	  var hub = field.getAnnotation(Hub.class);
 	  if (hub == null) return;
 
+	  set(node, field, "Hub", () -> hardwareProvider.moduleFor(hub.value()));
+   }
+
+   private void set(Node node, Field field, String kind, Supplier<Object> hardware) throws IllegalAccessException {
 	  field.setAccessible(true);
 
 	  if ((field.getModifiers() & Modifier.FINAL) != 0) {
 		 logInterface.err(
-				 "Hub fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
+				 kind + " fields must not be final:  " + field.getName() + " in " + node.getClass().getSimpleName() + ".  If the IDE is whinging, just slape a @SuppressWarnings(\"FieldMayBeFinal\") before the class declaration.");
 		 return;
 	  }
-	  field.set(node, hardwareProvider.moduleFor(hub.value()));
+	  field.set(node, hardware.get());
    }
 }
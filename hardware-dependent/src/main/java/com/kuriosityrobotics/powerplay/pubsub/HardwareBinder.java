@@ -0,0 +1,17 @@
+package com.kuriosityrobotics.powerplay.pubsub;
+
+/**
+ * Binds the hardware fields of one type of {@link Node} without scanning it reflectively.  Like
+ * {@link NodeBinder}s, these are generated at build time by the <code>processor</code> module, and
+ * nodes without one are bound reflectively.
+ *
+ * @param <N> the type of node
+ */
+public interface HardwareBinder<N extends Node> {
+   /**
+	* @return the exact class of the nodes this binds
+	*/
+   Class<N> nodeType();
+
+   void bind(N node, HardwareAnnotationBinder binder) throws ReflectiveOperationException;
+}
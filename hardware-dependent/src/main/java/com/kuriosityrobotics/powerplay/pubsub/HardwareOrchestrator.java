@@ -10,23 +10,28 @@ import com.kuriosityrobotics.powerplay.localisation.LiftingOdoNode;
 import com.kuriosityrobotics.powerplay.localisation.odometry.Odometry;
 import com.kuriosityrobotics.powerplay.localisation.odometry.OdometryIntegrator;
 import com.kuriosityrobotics.powerplay.mpc.MPCNode;
+import com.kuriosityrobotics.powerplay.pubsub.bag.BagRecorder;
 import com.kuriosityrobotics.powerplay.pubsub.bridge.message.RobotDetails;
+import com.kuriosityrobotics.powerplay.util.Instant;
 import com.qualcomm.robotcore.eventloop.opmode.OpMode;
 import com.qualcomm.robotcore.hardware.HardwareMap;
 
-import java.io.PrintStream;
-import java.util.function.Consumer;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
 
 public class HardwareOrchestrator extends OrchestratorImpl {
-	private static final Class[] DEFAULT_NODES = {
+	private static final List<Class<? extends Node>> DEFAULT_NODES = List.of(
 		BulkDataFetcher.class,
 		LiftingOdoNode.class,
 		Odometry.class,
 		OdometryIntegrator.class,
 		IMUNode.class,
 		DrivetrainController.class,
-		IntakeOuttakeNode.class,
-	};
+		IntakeOuttakeNode.class
+	);
+
+	private static final String BAG_DIRECTORY = "/sdcard/FIRST/bags";
 
 	final HardwareProviderImpl hardwareProvider;
 	private final HardwareAnnotationBinder hardwareAnnotationBinder;
@@ -36,9 +41,15 @@ public class HardwareOrchestrator extends OrchestratorImpl {
 	public HardwareOrchestrator(RobotDetails robotDetails, boolean debugMode, boolean startNetwork, HardwareMap hardwareMap) {
 		super(robotDetails, debugMode, startNetwork, hardwareMap);
 		info("HardwareOrchestrator constructed");
+		var phaseStart = Instant.nowNanos();
 		this.hardwareProvider = new HardwareProviderImpl(this, hardwareMap);
 		this.hardwareAnnotationBinder = new HardwareAnnotationBinder(this, hardwareProvider);
+		startupProfiler.phase("hardware", phaseStart);
 		this.exitLock = new Object();
+
+		// nothing subscribes to localisation through an annotation that could raise its priority,
+		// but the MPC and teleop controllers read it through @LastMessagePublished
+		setTopicPriority("localisation", TopicPriority.CONTROL);
 	}
 
 	private Throwable pendingException = null;
@@ -82,13 +93,26 @@ public class HardwareOrchestrator extends OrchestratorImpl {
 
 	public void startDefaultNodes() {
 		info("Starting default nodes");
-		for (Class defaultNode : DEFAULT_NODES) {
-			try {
-				var constructor = defaultNode.getConstructor(Orchestrator.class);
-				startNode(defaultNode.getSimpleName(), (Node) constructor.newInstance(this));
-			} catch (Throwable e) {
-				throw new RuntimeException("Error constructing " + defaultNode.getSimpleName() + ": " + (e.getCause() == null ? e : e.getCause()));
-			}
+		var phaseStart = Instant.nowNanos();
+		startNodes(DEFAULT_NODES);
+		startupProfiler.phase("defaultNodes", phaseStart);
+	}
+
+	/**
+	 * Starts recording every topic to a new bag in <code>/sdcard/FIRST/bags</code>, named after the
+	 * time it was started.  The recording stops when the orchestrator is closed.
+	 */
+	public void startRecording() {
+		var directory = new File(BAG_DIRECTORY);
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			warn("Couldn't create " + directory + ", so this run won't be recorded");
+			return;
+		}
+
+		try {
+			startNode("bagRecorder", new BagRecorder(this, new File(directory, System.currentTimeMillis() + ".bag")));
+		} catch (IOException e) {
+			warn("Couldn't start recording: " + e);
 		}
 	}
 
@@ -110,43 +134,23 @@ public class HardwareOrchestrator extends OrchestratorImpl {
 	}
 
 	@Override
-	protected Consumer<String> getErrorStream() {
-		return s -> Log.e("Orchestrator", s);
-	}
-
-	@Override
-	protected Consumer<String> getErrorStream(Node originatingNode) {
-		return s -> Log.e(getNodeName(originatingNode), s);
-	}
-
-	@Override
-	protected Consumer<String> getWarnStream() {
-		return s -> Log.w("Orchestrator", s);
-	}
-
-	@Override
-	protected Consumer<String> getWarnStream(Node originatingNode) {
-		return s -> Log.w(getNodeName(originatingNode), s);
-	}
-
-	@Override
-	protected Consumer<String> getInfoStream() {
-		return s -> Log.i("Orchestrator", s);
-	}
-
-	@Override
-	protected Consumer<String> getInfoStream(Node originatingNode) {
-		return s -> Log.i(getNodeName(originatingNode), s);
-	}
-
-	@Override
-	protected Consumer<String> getDebugStream() {
-		return s -> Log.d("Orchestrator", s);
-	}
-
-	@Override
-	protected Consumer<String> getDebugStream(Node originatingNode) {
-		return s -> Log.d(getNodeName(originatingNode), s);
+	protected void writeLog(LogEntry entry) {
+		var tag = entry.source() == null ? "Orchestrator" : entry.source();
+		var message = entry.message() == null ? "uncaught exception" : entry.message();
+		switch (entry.level()) {
+			case DEBUG:
+				Log.d(tag, message, entry.throwable());
+				break;
+			case INFO:
+				Log.i(tag, message, entry.throwable());
+				break;
+			case WARN:
+				Log.w(tag, message, entry.throwable());
+				break;
+			case ERR:
+				Log.e(tag, message, entry.throwable());
+				break;
+		}
 	}
 
 	@Override
@@ -158,34 +162,4 @@ public class HardwareOrchestrator extends OrchestratorImpl {
 			exitLock.notifyAll();
 		}
 	}
-
-	@Override
-	public void info(String msg, Node originatingNode) {
-		Log.i(originatingNode.getClass().getSimpleName(), msg);
-	}
-
-	@Override
-	public void err(String msg, Node originatingNode) {
-		Log.e(originatingNode.getClass().getSimpleName(), msg);
-	}
-
-	@Override
-	public void err(Throwable e, Node originatingNode) {
-		Log.e(originatingNode.getClass().getSimpleName(), "uncaught exception", e);
-	}
-
-	@Override
-	public void warn(String msg, Node originatingNode) {
-		Log.w(originatingNode.getClass().getSimpleName(), msg);
-	}
-
-	@Override
-	public void warn(Throwable e, Node originatingNode) {
-		Log.w(originatingNode.getClass().getSimpleName(), "uncaught exception", e);
-	}
-
-	@Override
-	public void debug(String msg, Node originatingNode) {
-		Log.d(originatingNode.getClass().getSimpleName(), msg);
-	}
 }
@@ -2,6 +2,7 @@ package com.kuriosityrobotics.powerplay.pubsub;
 
 import android.content.Context;
 
+import com.kuriosityrobotics.powerplay.util.Instant;
 import com.qualcomm.ftccommon.FtcEventLoop;
 import com.qualcomm.robotcore.eventloop.opmode.LinearOpMode;
 
@@ -22,7 +23,7 @@ public abstract class OrchestratedOpMode extends LinearOpMode {
 					if (eventLoop != null) {
 						eventLoop.onOpModePreInit(this);
 					}
-					initOpMode(orchestrator);
+					initOpModeProfiled(orchestrator);
 					orchestrator.dispatch("hardware/arm", "");
 
 					telemetry.setMsTransmissionInterval(1 << 32 - 1);
@@ -59,7 +60,7 @@ public abstract class OrchestratedOpMode extends LinearOpMode {
 						if (eventLoop != null) {
 							eventLoop.onOpModePreInit(this);
 						}
-						initOpMode(orchestrator);
+						initOpModeProfiled(orchestrator);
 						orchestrator.dispatch("hardware/arm", "");
 
 						waitForStart();
@@ -89,6 +90,12 @@ public abstract class OrchestratedOpMode extends LinearOpMode {
 		}
 	}
 
+	private void initOpModeProfiled(HardwareOrchestrator orchestrator) {
+		var phaseStart = Instant.nowNanos();
+		initOpMode(orchestrator);
+		orchestrator.startupProfiler.phase("initOpMode", phaseStart);
+	}
+
 	protected void initOpMode(HardwareOrchestrator orchestrator) {
 	}
 
@@ -1,5 +1,7 @@
 package com.kuriosityrobotics.powerplay.bulkdata;
 
+import static java.lang.Math.PI;
+
 import com.kuriosityrobotics.powerplay.hardware.RobotConstants;
 
 import java.io.Serializable;
@@ -9,6 +11,7 @@ import java.io.Serializable;
  * confused with the LynxModule.BulkData class, from which this class can be constructed.
  */
 public class RevHubBulkData implements Serializable {
+	private static final double COUNTS_PER_REVOLUTION = 8192.;
 
 	public final RobotConstants.LynxHub origin;
 	public int[] encoders = new int[4]; // 4 motors on CH/EH
@@ -23,6 +26,21 @@ public class RevHubBulkData implements Serializable {
 		this.origin = origin;
 	}
 
+	/**
+	 * @return the given number of encoder counts (or counts per second) in radians (or radians per
+	 * second)
+	 */
+	public static double countsToRadians(double counts) {
+		return 2 * PI * counts / COUNTS_PER_REVOLUTION;
+	}
+
+	/**
+	 * @return the velocity of the encoder on the given port, in radians per second
+	 */
+	public double velocity(int port) {
+		return countsToRadians(velocities[port]);
+	}
+
 	@Override
 	public String toString() {
 		return getClass().getSimpleName() + "@" + Integer.toHexString(hashCode());
@@ -1,5 +1,6 @@
 package com.kuriosityrobotics.powerplay.cameras;
 
+import com.kuriosityrobotics.powerplay.images.OpenCVLoader;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
 import com.kuriosityrobotics.powerplay.pubsub.Publisher;
@@ -15,6 +16,7 @@ public class LocalCamera extends Node {
 
 	public LocalCamera(Orchestrator orchestrator) {
 		super(orchestrator);
+		OpenCVLoader.ensureLoaded();
 		this.buffer = new Mat();
 		this.imageFrame = orchestrator.publisher("cameraFrame", Mat.class);
 
@@ -28,6 +28,7 @@ public class ImageDumper extends Node {
 	 */
 	public ImageDumper(Orchestrator orchestrator) {
 		super(orchestrator);
+		OpenCVLoader.ensureLoaded();
 
 		this.imageSubscription =
 				orchestrator.subscribe(
@@ -10,6 +10,7 @@ import org.opencv.imgproc.Imgproc;
 public class ImageInverter extends Node {
    public ImageInverter(Orchestrator orchestrator) {
 	  super(orchestrator);
+	  OpenCVLoader.ensureLoaded();
    }
 
    @SubscribedTo(topic = "cameraFrame")
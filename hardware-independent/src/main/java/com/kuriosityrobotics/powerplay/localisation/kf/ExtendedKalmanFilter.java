@@ -1,6 +1,7 @@
 package com.kuriosityrobotics.powerplay.localisation.kf;
 
 import com.kuriosityrobotics.powerplay.math.MathUtil;
+import com.kuriosityrobotics.powerplay.util.Instant;
 
 import org.ojalgo.matrix.Primitive64Matrix;
 
@@ -77,7 +78,7 @@ class ExtendedKalmanFilter {
 
 	@SuppressWarnings("unused")
 	public class KalmanDatumBuilder {
-		private Long time = System.currentTimeMillis();
+		private Long time = Instant.now().toEpochMilli();
 		private Primitive64Matrix mean, covariance, stateToOutput;
 
 		public KalmanDatumBuilder mean(double... mean) {
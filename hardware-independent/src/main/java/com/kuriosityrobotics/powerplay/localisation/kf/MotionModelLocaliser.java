@@ -11,8 +11,11 @@ import com.kuriosityrobotics.powerplay.physics.MecanumDrive;
 import com.kuriosityrobotics.powerplay.physics.RobotDynamicsModel;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
+import com.kuriosityrobotics.powerplay.pubsub.TopicPriority;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.util.Instant;
 
@@ -20,6 +23,7 @@ import org.apache.commons.math3.geometry.euclidean.twod.Vector2D;
 import org.ojalgo.matrix.Primitive64Matrix;
 
 // TODO:  documentation for this class
+@Scheduling(SchedulingGroup.ESTIMATION)
 public class MotionModelLocaliser extends Node {
 	private static final Primitive64Matrix stateToVelocity =
 		Primitive64Matrix.FACTORY.rows(
@@ -56,7 +60,7 @@ public class MotionModelLocaliser extends Node {
 	 *
 	 * @param twc the TwistWithCovariance measurement
 	 */
-	@SubscribedTo(topic = "velocity")
+	@SubscribedTo(topic = "velocity", priority = TopicPriority.CONTROL)
 	private void correctVelocity(TimedTwistWithCovariance twc) {
 		extendedKalmanFilter
 			.builder()
@@ -71,7 +75,7 @@ public class MotionModelLocaliser extends Node {
 	 * Uses the com.kuriosityrobotics.powerplay.physics model to predict the robot's current
 	 * position pose += velocity * dt velocity += physicsModel.getAcceleration() * dt
 	 */
-	@RunPeriodically(maxFrequency = 300)
+	@RunPeriodically(maxFrequency = 300, fixedRate = true)
 	private void forwardPrediction() {
 		var currentTime = Instant.now();
 
@@ -87,10 +91,12 @@ public class MotionModelLocaliser extends Node {
 			.predict();
 		lastUpdateTime = currentTime;
 
-		orchestrator.dispatch("localisation",
-			new LocalisationDatum(
-				Instant.now(), getPoseWithCovariance(), getTwistWithCovariance())
-		);
+		try (var trace = continueTrace("velocity")) {
+			orchestrator.dispatch("localisation",
+				new LocalisationDatum(
+					Instant.now(), getPoseWithCovariance(), getTwistWithCovariance())
+			);
+		}
 	}
 
 	/**
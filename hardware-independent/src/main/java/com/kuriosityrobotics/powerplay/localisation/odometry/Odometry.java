@@ -39,27 +39,13 @@ public class Odometry extends Node {
 	@LastMessagePublished(topic = "angular_vel")
 	private double angularVel;
 
-
-	private volatile double frontLeftVel;
-
-	@SubscribedTo(topic = "expansionHub/encoder/" + FORWARDS_ODO_PORT + "/velocity")
-	private void updateFl(double value) {
-		frontLeftVel = value;
-	}
-
-	private volatile double backVel;
-
-	@SubscribedTo(topic = "expansionHub/encoder/" + SIDEWAYS_ODO_PORT + "/velocity")
-	private void updateBack(double value) {
-		backVel = -value;
-	}
-
-	@SubscribedTo(topic = "controlHub")
-	private void calculateOdometry() {
+	// both odometry encoders are on the expansion hub, so both velocities come from the same read
+	@SubscribedTo(topic = "expansionHub")
+	private void calculateOdometry(RevHubBulkData expansionHub) {
 		var time = Instant.now();
 		Primitive64Matrix covariance = covarianceFromStandardDeviation(.137, .137, .05);
 
-		var velocity = calculateOdometryRel(frontLeftVel, backVel);
+		var velocity = calculateOdometryRel(expansionHub.velocity(FORWARDS_ODO_PORT), -expansionHub.velocity(SIDEWAYS_ODO_PORT));
 		orchestrator.dispatch("velocity",
 			TimedTwistWithCovariance.of(
 				velocity,
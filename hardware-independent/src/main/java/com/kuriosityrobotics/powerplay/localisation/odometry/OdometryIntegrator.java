@@ -8,6 +8,7 @@ import com.kuriosityrobotics.powerplay.math.Pose;
 import com.kuriosityrobotics.powerplay.math.Twist;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.TopicPriority;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
@@ -41,12 +42,12 @@ public class OdometryIntegrator extends Node {
 		return new Twist(velocityX, velocityY, velocityAngle);
 	}
 
-	@SubscribedTo(topic = "angle")
+	@SubscribedTo(topic = "angle", priority = TopicPriority.CONTROL)
 	private void updateAngle(double angle) {
 		state.getAndUpdate(state -> new Pose(state.x(), state.y(), angle));
 	}
 
-	@SubscribedTo(topic = "velocity")
+	@SubscribedTo(topic = "velocity", priority = TopicPriority.CONTROL)
 	private void updateOdometry(TimedTwistWithCovariance ttwc) {
 		double dt = ttwc.time().since(lastUpdateTime).toSeconds();
 
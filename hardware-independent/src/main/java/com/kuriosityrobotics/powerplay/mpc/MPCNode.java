@@ -14,9 +14,11 @@ import com.kuriosityrobotics.powerplay.math.Twist;
 import com.kuriosityrobotics.powerplay.navigation.Path;
 import com.kuriosityrobotics.powerplay.pubsub.Node;
 import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;
+import com.kuriosityrobotics.powerplay.pubsub.SchedulingGroup;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.LastMessagePublished;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunPeriodically;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.RunnableAction;
+import com.kuriosityrobotics.powerplay.pubsub.annotation.Scheduling;
 import com.kuriosityrobotics.powerplay.pubsub.annotation.SubscribedTo;
 import com.kuriosityrobotics.powerplay.util.Instant;
 
@@ -24,6 +26,7 @@ import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
+@Scheduling(SchedulingGroup.PLANNING)
 public class MPCNode extends Node {
 	public static final int USE_STAGES = 1;
 	private static final double DERIVATIVE_THRESHOLD = .005;
@@ -147,7 +150,7 @@ public class MPCNode extends Node {
 		var result = solver.solve();
 		var end = Instant.now();
 
-		info("Solved in " + (end.since(start).toMillis()) + "ms");
+		debug(() -> "Solved in " + (end.since(start).toMillis()) + "ms");
 
 		if (lock.tryLock()) {
 			try {
@@ -155,8 +158,8 @@ public class MPCNode extends Node {
 					SolverInput.stageObjective(solver.getOptimisationParameters()[NUM_STAGES - 2], result.getStates()[NUM_STAGES - 2])
 						- SolverInput.stageObjective(solver.getOptimisationParameters()[0], result.getStates()[0])
 				);
-				info("lastStateDerivative:  " + lastStateDerivative);
-				info("remaining:  " + follower.getDistanceRemaining(follower.distanceAlongPath) / follower.path.pathLength());
+				debug(() -> "lastStateDerivative:  " + lastStateDerivative);
+				debug(() -> "remaining:  " + follower.getDistanceRemaining(follower.distanceAlongPath) / follower.path.pathLength());
 
 				if (-lastStateDerivative < DERIVATIVE_THRESHOLD && follower.getDistanceRemaining(follower.distanceAlongPath) / follower.path.pathLength() < .1)
 					setState(FollowState.ARRIVED);
@@ -203,9 +206,12 @@ public class MPCNode extends Node {
 			new Twist(nextState.getXVel(), nextState.getYVel(), nextState.getThetaVel()).rotate(-nextState.getTheta())
 		);
 
-		info(String.format("%nactual %s%nexpected %s%n%n", l, expected));
+		debug(() -> String.format("%nactual %s%nexpected %s%n%n", l, expected));
 
-		orchestrator.dispatch("motorPowers", nextState.getMotorPowers());
+		// the powers are planned from the last localisation, so they continue its trace
+		try (var trace = continueTrace("localisation")) {
+			orchestrator.dispatch("motorPowers", nextState.getMotorPowers());
+		}
 
 		if (powers.isEmpty()) {
 			runSolver();
@@ -217,10 +223,10 @@ public class MPCNode extends Node {
 		lock.lockInterruptibly();
 		try {
 			while (follower == null || state != FollowState.ARRIVED) {
-				info("[a] State " + state);
-				info("[a] MPCNode " + this);
-				info("[a] Follower " + follower);
-				info("[a] Path " + follower.path);
+				debug(() -> "[a] State " + state);
+				debug(() -> "[a] MPCNode " + this);
+				debug(() -> "[a] Follower " + follower);
+				debug(() -> "[a] Path " + follower.path);
 				stateUpdateCondition.await();
 			}
 		} finally {
@@ -106,9 +106,9 @@ public class R1TeleopController extends Node {
 		err("cope fr");
 	}
 
-	@SubscribedTo(topic = "gamepad1/left_stick_x")
-	@SubscribedTo(topic = "gamepad1/left_stick_y")
-	@SubscribedTo(topic = "gamepad1/right_stick_x")
+	@SubscribedTo(topic = "gamepad1/left_stick_x", conflate = true)
+	@SubscribedTo(topic = "gamepad1/left_stick_y", conflate = true)
+	@SubscribedTo(topic = "gamepad1/right_stick_x", conflate = true)
 	public void updateMotorVoltages() {
 		orchestrator.dispatch(
 			"motorPowers",
@@ -67,9 +67,9 @@ public class R2TeleopController extends Node {
 
 	private static final double DEADZONE = .01;
 
-	@SubscribedTo(topic = "gamepad1/left_stick_x")
-	@SubscribedTo(topic = "gamepad1/left_stick_y")
-	@SubscribedTo(topic = "gamepad1/right_stick_x")
+	@SubscribedTo(topic = "gamepad1/left_stick_x", conflate = true)
+	@SubscribedTo(topic = "gamepad1/left_stick_y", conflate = true)
+	@SubscribedTo(topic = "gamepad1/right_stick_x", conflate = true)
 	public void updateMotorVoltages() {
 		orchestrator.dispatch(
 			"motorPowers",
@@ -79,7 +79,7 @@ public class R2TeleopController extends Node {
 		);
 	}
 
-	@SubscribedTo(topic = "gamepad2/right_stick_y")
+	@SubscribedTo(topic = "gamepad2/right_stick_y", conflate = true)
 	public void updateHeight() {
 		boolean curr = abs(change_height) > 1e-6;
 
@@ -111,7 +111,9 @@ public class SolverInput {
 
 
 	static {
-		System.loadLibrary("drivempc");
+		// only the benchmarks set this, since they never call solve() and run where it isn't built
+		if (!Boolean.getBoolean("mpc.skipNativeSolver"))
+			System.loadLibrary("drivempc");
 	}
 	public native SolverOutput solve();
 }
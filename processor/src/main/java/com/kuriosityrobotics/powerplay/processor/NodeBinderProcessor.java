@@ -0,0 +1,400 @@
+package com.kuriosityrobotics.powerplay.processor;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a <code>NodeBinder</code> for every node class being compiled, and a
+ * <code>HardwareBinder</code> for those with hardware fields, and lists them in
+ * <code>META-INF/services</code> so that they can be found with {@link java.util.ServiceLoader}.
+ *
+ * <p>A binder hands the values of a node's annotations straight to the runtime binder, and calls the
+ * annotated methods directly, so nothing has to be scanned or parsed when the node starts.  Private
+ * members can't be reached from generated code, so they're looked up by name instead.  Anonymous,
+ * local and private classes don't get a binder, and are bound reflectively; the names of private
+ * nested node classes are listed in {@link #PRIVATE_NODES} instead, so that they can still be
+ * indexed.
+ *
+ * <p>The annotations are referred to by name, so that this doesn't depend on the modules it
+ * processes.
+ */
+@SupportedAnnotationTypes("*")
+public class NodeBinderProcessor extends AbstractProcessor {
+	private static final String PUBSUB = "com.kuriosityrobotics.powerplay.pubsub";
+	private static final String ANNOTATIONS = PUBSUB + ".annotation";
+
+	static final String NODE = PUBSUB + ".Node";
+	static final String NODE_BINDER = PUBSUB + ".NodeBinder";
+	static final String HARDWARE_BINDER = PUBSUB + ".HardwareBinder";
+	/**
+	 * The resource listing the binary names of the node classes that don't get a binder because
+	 * they're private
+	 */
+	static final String PRIVATE_NODES = "META-INF/" + PUBSUB + ".PrivateNodes";
+
+	private static final String SUBSCRIBED_TO = ANNOTATIONS + ".SubscribedTo";
+	private static final String SUBSCRIBED_TOS = ANNOTATIONS + ".SubscribedTos";
+	private static final String RUN_PERIODICALLY = ANNOTATIONS + ".RunPeriodically";
+	private static final String RUN_PERIODICALLYS = ANNOTATIONS + ".RunPeriodicallys";
+	private static final String RUNNABLE_ACTION = ANNOTATIONS + ".RunnableAction";
+	private static final String LAST_MESSAGE_PUBLISHED = ANNOTATIONS + ".LastMessagePublished";
+
+	private static final String NAMED_HARDWARE = PUBSUB + ".NamedHardware";
+	private static final String MOTOR_OR_ENCODER = PUBSUB + ".MotorOrEncoder";
+	private static final String ANALOG_INPUT = PUBSUB + ".AnalogInput";
+	private static final String SERVOMOTOR = PUBSUB + ".Servomotor";
+	private static final String HUB = PUBSUB + ".Hub";
+
+	private final Set<String> nodeBinders = new TreeSet<>();
+	private final Set<String> hardwareBinders = new TreeSet<>();
+	private final Set<String> privateNodes = new TreeSet<>();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		var node = processingEnv.getElementUtils().getTypeElement(NODE);
+		// not compiling against the api
+		if (node == null || processingEnv.getElementUtils().getTypeElement(NODE_BINDER) == null)
+			return false;
+
+		if (roundEnv.processingOver()) {
+			writeResource("META-INF/services/" + NODE_BINDER, nodeBinders);
+			writeResource("META-INF/services/" + HARDWARE_BINDER, hardwareBinders);
+			writeResource(PRIVATE_NODES, privateNodes);
+			return false;
+		}
+
+		for (var element : roundEnv.getRootElements())
+			processTypes(element, node, true);
+
+		// other processors may want the same classes
+		return false;
+	}
+
+	/**
+	 * @param accessible whether the classes enclosing this one can be reached from its package
+	 */
+	private void processTypes(Element element, TypeElement node, boolean accessible) {
+		if (!(element instanceof TypeElement)) return;
+
+		var type = (TypeElement) element;
+		accessible &= !type.getModifiers().contains(Modifier.PRIVATE);
+		if (type.getKind() == ElementKind.CLASS && !type.equals(node)
+			&& processingEnv.getTypeUtils().isSubtype(type.asType(), processingEnv.getTypeUtils().erasure(node.asType()))) {
+			if (!accessible) {
+				privateNodes.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+			} else {
+				try {
+					generate(type);
+				} catch (IOException e) {
+					processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't write binder:  " + e, type);
+				}
+			}
+		}
+
+		for (var enclosed : type.getEnclosedElements())
+			processTypes(enclosed, node, accessible);
+	}
+
+	private void generate(TypeElement type) throws IOException {
+		var packageName = packageOf(type);
+		var nodeName = type.getQualifiedName().toString();
+		var flatName = flatName(type, packageName);
+
+		var fields = new ArrayList<String>();
+		var methods = new ArrayList<String>();
+		var hardware = new ArrayList<String>();
+		for (var member : type.getEnclosedElements()) {
+			if (member.getKind() == ElementKind.FIELD)
+				bindField((VariableElement) member, fields, hardware);
+			else if (member.getKind() == ElementKind.METHOD)
+				bindMethod(nodeName, (ExecutableElement) member, methods);
+		}
+
+		var binderName = flatName + "_NodeBinder";
+		writeBinder(type, packageName, binderName, out -> {
+			out.println("public final class " + binderName + " implements " + NODE_BINDER + "<" + nodeName + "> {");
+			out.println("\t@Override");
+			out.println("\tpublic Class<" + nodeName + "> nodeType() {");
+			out.println("\t\treturn " + nodeName + ".class;");
+			out.println("\t}");
+			out.println();
+			writeMethod(out, "bindFields", nodeName, PUBSUB + ".PubsubAnnotationBinder", fields);
+			out.println();
+			writeMethod(out, "bindMethods", nodeName, PUBSUB + ".PubsubAnnotationBinder", methods);
+			out.println("}");
+		});
+		nodeBinders.add(qualify(packageName, binderName));
+
+		if (hardware.isEmpty()) return;
+		if (processingEnv.getElementUtils().getTypeElement(HARDWARE_BINDER) == null) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Hardware fields in a module without HardwareBinder; they'll be bound reflectively", type);
+			return;
+		}
+
+		var hardwareBinderName = flatName + "_HardwareBinder";
+		writeBinder(type, packageName, hardwareBinderName, out -> {
+			out.println("public final class " + hardwareBinderName + " implements " + HARDWARE_BINDER + "<" + nodeName + "> {");
+			out.println("\t@Override");
+			out.println("\tpublic Class<" + nodeName + "> nodeType() {");
+			out.println("\t\treturn " + nodeName + ".class;");
+			out.println("\t}");
+			out.println();
+			writeMethod(out, "bind", nodeName, PUBSUB + ".HardwareAnnotationBinder", hardware);
+			out.println("}");
+		});
+		hardwareBinders.add(qualify(packageName, hardwareBinderName));
+	}
+
+	private void bindField(VariableElement field, List<String> fields, List<String> hardware) {
+		var name = literal(field.getSimpleName().toString());
+		for (var annotation : field.getAnnotationMirrors()) {
+			var values = valuesOf(annotation);
+			switch (annotationName(annotation)) {
+				case LAST_MESSAGE_PUBLISHED:
+					fields.add("binder.bindLastMessagePublished(node, " + name + ", " + values.get("topic") + ");");
+					break;
+				case NAMED_HARDWARE:
+					hardware.add("binder.bindNamedHardware(node, " + name + ", " + values.get("value") + ");");
+					break;
+				case MOTOR_OR_ENCODER:
+					hardware.add("binder.bindMotorOrEncoder(node, " + name + ", " + values.get("hub") + ", " + values.get("port") + ", " + values.get("direction") + ");");
+					break;
+				case ANALOG_INPUT:
+					hardware.add("binder.bindAnalogInput(node, " + name + ", " + values.get("hub") + ", " + values.get("channel") + ");");
+					break;
+				case SERVOMOTOR:
+					hardware.add("binder.bindServo(node, " + name + ", " + values.get("hub") + ", " + values.get("port") + ");");
+					break;
+				case HUB:
+					hardware.add("binder.bindHub(node, " + name + ", " + values.get("value") + ");");
+					break;
+				default:
+					break;
+			}
+		}
+	}
+
+	private void bindMethod(String nodeName, ExecutableElement method, List<String> methods) {
+		var name = method.getSimpleName().toString();
+		for (var annotation : repeated(method, SUBSCRIBED_TO, SUBSCRIBED_TOS)) {
+			var values = valuesOf(annotation);
+			var parameters = method.getParameters();
+			if (parameters.size() > 3) {
+				processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Subscriptions must have 0-3 parameters", method);
+				continue;
+			}
+
+			var messageType = parameters.isEmpty() ? "Object" : erasure(parameters.get(0).asType());
+			methods.add("binder.bindSubscribedTo(node, " + literal(name) + ", " + messageType + ".class, "
+				+ subscriber(nodeName, method) + ", "
+				+ values.get("topic") + ", " + values.get("onlyLocal") + ", " + values.get("isPattern") + ", "
+				+ values.get("conflate") + ", " + values.get("priority") + ");");
+		}
+
+		for (var annotation : repeated(method, RUN_PERIODICALLY, RUN_PERIODICALLYS)) {
+			var values = valuesOf(annotation);
+			methods.add("binder.bindRunPeriodically(node, " + literal(name) + ", " + noArgs(nodeName, method) + ", "
+				+ values.get("maxFrequency") + ", " + values.get("fixedRate") + ", "
+				+ values.get("overrun") + ", " + values.get("group") + ");");
+		}
+
+		for (var annotation : repeated(method, RUNNABLE_ACTION, null)) {
+			var values = valuesOf(annotation);
+			methods.add("binder.bindRunnableAction(node, " + values.get("actionName") + ", " + noArgs(nodeName, method) + ");");
+		}
+	}
+
+	/**
+	 * @return an expression for a <code>NodeBinder.Subscriber</code> that calls the method
+	 */
+	private String subscriber(String nodeName, ExecutableElement method) {
+		var parameters = method.getParameters();
+		if (method.getModifiers().contains(Modifier.PRIVATE)) {
+			var parameterTypes = parameters.stream()
+				.map(parameter -> ", " + erasure(parameter.asType()) + ".class")
+				.collect(Collectors.joining());
+			return "binder.subscriber(node, " + literal(method.getSimpleName().toString()) + parameterTypes + ")";
+		}
+
+		var arguments = new ArrayList<String>();
+		if (parameters.size() > 0) arguments.add(cast(parameters.get(0).asType()) + "message");
+		if (parameters.size() > 1) arguments.add("topicName");
+		if (parameters.size() > 2) arguments.add("robot");
+		return "(message, topicName, robot) -> " + target(nodeName, method) + "(" + String.join(", ", arguments) + ")";
+	}
+
+	/**
+	 * @return an expression for an <code>ExceptionRunnable</code> that calls the method
+	 */
+	private String noArgs(String nodeName, ExecutableElement method) {
+		if (!method.getParameters().isEmpty()) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Method must have no parameters", method);
+			return "null";
+		}
+
+		if (method.getModifiers().contains(Modifier.PRIVATE))
+			return "binder.invoker(node, " + literal(method.getSimpleName().toString()) + ")";
+		return "() -> " + target(nodeName, method) + "()";
+	}
+
+	private static String target(String nodeName, ExecutableElement method) {
+		var receiver = method.getModifiers().contains(Modifier.STATIC) ? nodeName : "node";
+		return receiver + "." + method.getSimpleName();
+	}
+
+	/**
+	 * @return the annotation with the given name on an element, including the ones in its container
+	 * if it's repeated
+	 */
+	private List<AnnotationMirror> repeated(Element element, String annotationName, String containerName) {
+		var result = new ArrayList<AnnotationMirror>();
+		for (var annotation : element.getAnnotationMirrors()) {
+			var name = annotationName(annotation);
+			if (name.equals(annotationName)) {
+				result.add(annotation);
+			} else if (name.equals(containerName)) {
+				for (var value : annotation.getElementValues().entrySet()) {
+					if (!value.getKey().getSimpleName().contentEquals("value")) continue;
+					for (var contained : (List<?>) value.getValue().getValue())
+						result.add((AnnotationMirror) ((AnnotationValue) contained).getValue());
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * @return the source for each of an annotation's values, including the defaults, by name
+	 */
+	private Map<String, String> valuesOf(AnnotationMirror annotation) {
+		return processingEnv.getElementUtils().getElementValuesWithDefaults(annotation).entrySet().stream()
+			.collect(Collectors.toMap(
+				entry -> entry.getKey().getSimpleName().toString(),
+				entry -> source(entry.getValue())));
+	}
+
+	private String source(AnnotationValue value) {
+		var constant = value.getValue();
+		if (constant instanceof VariableElement) {
+			// an enum constant
+			var enumConstant = (VariableElement) constant;
+			return ((TypeElement) enumConstant.getEnclosingElement()).getQualifiedName() + "." + enumConstant.getSimpleName();
+		}
+		return processingEnv.getElementUtils().getConstantExpression(constant);
+	}
+
+	private String erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	/**
+	 * @return a cast from <code>Object</code> to the boxed erasure of the type, or nothing if it's
+	 * <code>Object</code> already
+	 */
+	private String cast(TypeMirror type) {
+		var target = type.getKind().isPrimitive()
+			? processingEnv.getTypeUtils().boxedClass(processingEnv.getTypeUtils().getPrimitiveType(type.getKind())).getQualifiedName().toString()
+			: erasure(type);
+		return target.equals("java.lang.Object") ? "" : "(" + target + ") ";
+	}
+
+	private static String annotationName(AnnotationMirror annotation) {
+		return ((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().toString();
+	}
+
+	private String literal(String string) {
+		return processingEnv.getElementUtils().getConstantExpression(string);
+	}
+
+	private void writeBinder(TypeElement type, String packageName, String binderName, SourceWriter body) throws IOException {
+		var file = processingEnv.getFiler().createSourceFile(qualify(packageName, binderName), type);
+		try (var out = new PrintWriter(file.openWriter())) {
+			if (!packageName.isEmpty()) {
+				out.println("package " + packageName + ";");
+				out.println();
+			}
+			out.println("/**");
+			out.println(" * Generated by " + getClass().getSimpleName() + " from {@link " + type.getQualifiedName() + "}");
+			out.println(" */");
+			out.println("@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+			body.write(out);
+		}
+	}
+
+	private static void writeMethod(PrintWriter out, String name, String nodeName, String binderType, Collection<String> statements) {
+		out.println("\t@Override");
+		out.println("\tpublic void " + name + "(" + nodeName + " node, " + binderType + " binder) throws ReflectiveOperationException {");
+		for (var statement : statements)
+			out.println("\t\t" + statement);
+		out.println("\t}");
+	}
+
+	/**
+	 * Writes a resource with one name per line, unless there are none
+	 */
+	private void writeResource(String path, Set<String> lines) {
+		if (lines.isEmpty()) return;
+
+		try (Writer out = processingEnv.getFiler()
+			.createResource(StandardLocation.CLASS_OUTPUT, "", path)
+			.openWriter()) {
+			for (var line : lines) out.write(line + "\n");
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Couldn't write " + path + ":  " + e);
+		}
+	}
+
+	private static String packageOf(Element type) {
+		while (!(type instanceof PackageElement)) type = type.getEnclosingElement();
+		return ((PackageElement) type).getQualifiedName().toString();
+	}
+
+	/**
+	 * @return the class's name within its package, with the names of nested classes joined by
+	 * underscores
+	 */
+	private static String flatName(TypeElement type, String packageName) {
+		var name = type.getQualifiedName().toString();
+		if (!packageName.isEmpty()) name = name.substring(packageName.length() + 1);
+		return name.replace('.', '_');
+	}
+
+	private static String qualify(String packageName, String name) {
+		return packageName.isEmpty() ? name : packageName + "." + name;
+	}
+
+	@FunctionalInterface
+	private interface SourceWriter {
+		void write(PrintWriter out);
+	}
+}
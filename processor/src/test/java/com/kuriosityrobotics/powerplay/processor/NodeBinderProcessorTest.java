@@ -0,0 +1,129 @@
+package com.kuriosityrobotics.powerplay.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.ToolProvider;
+
+class NodeBinderProcessorTest {
+	private static final String SOURCE = String.join("\n",
+		"package sample;",
+		"",
+		"import com.kuriosityrobotics.powerplay.pubsub.Node;",
+		"import com.kuriosityrobotics.powerplay.pubsub.Orchestrator;",
+		"import com.kuriosityrobotics.powerplay.pubsub.annotation.*;",
+		"",
+		"public class SampleNode extends Node {",
+		"	@LastMessagePublished(topic = \"voltage\")",
+		"	private double voltage;",
+		"",
+		"	public SampleNode(Orchestrator orchestrator) { super(orchestrator); }",
+		"",
+		"	@SubscribedTo(topic = \"pose\", conflate = true)",
+		"	void pose(Double pose, String topicName) {}",
+		"",
+		"	@SubscribedTo(topic = \"counts/.*\", isPattern = true)",
+		"	private void count(int count) {}",
+		"",
+		"	@SubscribedTo(topic = \"any\")",
+		"	void any(Object message) {}",
+		"",
+		"	@RunPeriodically(maxFrequency = 20, fixedRate = true)",
+		"	public void update() {}",
+		"",
+		"	@RunnableAction(actionName = \"reset\")",
+		"	void reset() {}",
+		"",
+		"	static class Inner extends Node {",
+		"		Inner(Orchestrator orchestrator) { super(orchestrator); }",
+		"		@SubscribedTo(topic = \"inner\") void inner() {}",
+		"	}",
+		"",
+		"	private static class Hidden extends Node {",
+		"		Hidden(Orchestrator orchestrator) { super(orchestrator); }",
+		"	}",
+		"",
+		"	Node anonymous(Orchestrator orchestrator) {",
+		"		return new Node(orchestrator) { @SubscribedTo(topic = \"anon\") void anon() {} };",
+		"	}",
+		"}",
+		"");
+
+	@TempDir
+	Path directory;
+
+	private String compile() throws IOException {
+		var source = directory.resolve("sample/SampleNode.java");
+		Files.createDirectories(source.getParent());
+		Files.writeString(source, SOURCE);
+		var output = Files.createDirectories(directory.resolve("out"));
+
+		var compiler = ToolProvider.getSystemJavaCompiler();
+		var diagnostics = new DiagnosticCollector<JavaFileObject>();
+		try (var files = compiler.getStandardFileManager(diagnostics, null, null)) {
+			var task = compiler.getTask(null, files, diagnostics,
+				List.of("-proc:only", "-classpath", System.getProperty("java.class.path"), "-s", output.toString(), "-d", output.toString()),
+				null, files.getJavaFileObjects(source));
+			task.setProcessors(List.of(new NodeBinderProcessor()));
+			var succeeded = task.call();
+			for (var diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) System.err.println(diagnostic);
+			}
+			assertTrue(succeeded);
+		}
+		return Files.readString(output.resolve("sample/SampleNode_NodeBinder.java"));
+	}
+
+	@Test
+	void generatesBindersWithAnnotationValues() throws IOException {
+		var binder = compile();
+
+		assertTrue(binder.contains("binder.bindLastMessagePublished(node, \"voltage\", \"voltage\");"));
+		assertTrue(binder.contains("binder.bindSubscribedTo(node, \"pose\", java.lang.Double.class, (message, topicName, robot) -> node.pose((java.lang.Double) message, topicName), \"pose\", false, false, true, com.kuriosityrobotics.powerplay.pubsub.TopicPriority.NORMAL);"));
+		assertTrue(binder.contains("binder.bindRunPeriodically(node, \"update\", () -> node.update(), 20.0, true, "));
+		assertTrue(binder.contains("binder.bindRunnableAction(node, \"reset\", () -> node.reset());"));
+	}
+
+	@Test
+	void objectMessagesAreNotCast() throws IOException {
+		var binder = compile();
+
+		assertTrue(binder.contains("(message, topicName, robot) -> node.any(message)"));
+	}
+
+	@Test
+	void privateMethodsAreLookedUpByName() throws IOException {
+		var binder = compile();
+
+		assertTrue(binder.contains("binder.bindSubscribedTo(node, \"count\", int.class, binder.subscriber(node, \"count\", int.class), \"counts/.*\", false, true, false, "));
+	}
+
+	@Test
+	void onlyNamedAccessibleClassesAreIndexed() throws IOException {
+		compile();
+
+		var services = Files.readAllLines(directory.resolve("out/META-INF/services/com.kuriosityrobotics.powerplay.pubsub.NodeBinder"));
+		assertEquals(List.of("sample.SampleNode_Inner_NodeBinder", "sample.SampleNode_NodeBinder"), services);
+		assertFalse(Files.exists(directory.resolve("out/sample/SampleNode_Hidden_NodeBinder.java")));
+	}
+
+	@Test
+	void privateClassesAreListedByName() throws IOException {
+		compile();
+
+		var privateNodes = Files.readAllLines(directory.resolve("out/" + NodeBinderProcessor.PRIVATE_NODES));
+		assertEquals(List.of("sample.SampleNode$Hidden"), privateNodes);
+	}
+}